@@ -0,0 +1,414 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxPhysics Library
+ *
+ * You should have received a copy of the MIT License along with the FxPhysics
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxphysics
+ */
+package com.mhschmieder.fxphysicscontrols.acoustics;
+
+import com.mhschmieder.fxphysicscontrols.model.NaturalEnvironment;
+import com.mhschmieder.fxphysicscontrols.model.NaturalEnvironmentKey;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This is a streaming audio processing stage that applies the air absorption
+ * of a propagation path to blocks of samples, in place.
+ * <p>
+ * Air absorption in dB grows roughly with the square of frequency over most of
+ * the audio band, which is also how a one-pole lowpass filter rolls off below
+ * its cutoff. The filter is therefore a cascade of identical one-pole lowpass
+ * sections, designed by the bilinear transform, whose order and cutoff are
+ * fitted to the ISO 9613-1 attenuation of the path across the third-octave
+ * bands below Nyquist, in the minimax sense. Its DC gain is unity; spreading
+ * loss is left to other stages.
+ * <p>
+ * Designs are immutable and are cached per quantized environment, distance and
+ * sample rate, so that many sources sharing an environment share designs. The
+ * environment and distance may be changed from a control thread while another
+ * thread is processing, as the design is swapped atomically; processing itself
+ * never allocates. If Air Attenuation is not applied in the environment, the
+ * stage passes samples through untouched.
+ */
+public final class AirAbsorptionFilter {
+
+    /**
+     * This is an immutable filter design: the coefficients of one section,
+     * and the number of identical sections in the cascade.
+     */
+    public static final class Design {
+
+        // The bypass design, for paths without audible absorption.
+        public static final Design BYPASS = new Design( 0, 1d, 0d, 0d );
+
+        private final int          _order;
+        private final double       _b0;
+        private final double       _b1;
+        private final double       _a1;
+
+        Design( final int order, final double b0, final double b1, final double a1 ) {
+            _order = order;
+            _b0 = b0;
+            _b1 = b1;
+            _a1 = a1;
+        }
+
+        public int getOrder() {
+            return _order;
+        }
+
+        /**
+         * Returns the attenuation of this design at a frequency.
+         *
+         * @param frequencyHz
+         *            The frequency, in hertz
+         * @param sampleRate
+         *            The sample rate, in hertz
+         * @return The attenuation, in decibels
+         */
+        public double getAttenuationDb( final double frequencyHz, final double sampleRate ) {
+            if ( _order == 0 ) {
+                return 0d;
+            }
+
+            final double k = ( 1d + _a1 ) / ( 1d - _a1 );
+            final double warpedRatio = Math.tan( ( Math.PI * frequencyHz ) / sampleRate ) / k;
+            return _order * 10d * Math.log10( 1d + ( warpedRatio * warpedRatio ) );
+        }
+    }
+
+    // Declare the maximum number of one-pole sections in a design.
+    public static final int     MAXIMUM_ORDER            = 4;
+
+    // Declare the attenuation below which a path is treated as lossless.
+    public static final double  BYPASS_THRESHOLD_DB      = 0.05d;
+
+    // Declare the attenuation beyond which bands are considered inaudible.
+    public static final double  MAXIMUM_ATTENUATION_DB   = 80d;
+
+    // Step ratio for the golden section search of the cutoff.
+    private static final double INVERSE_GOLDEN_RATIO     = 0.5d * ( Math.sqrt( 5d ) - 1d );
+
+    // Distance quantization for the design cache, as a fraction of distance.
+    private static final double DISTANCE_STEP_RELATIVE   = 0.01d;
+
+    // Declare the maximum number of cached designs.
+    private static final int    MAXIMUM_CACHED_DESIGNS   = 256;
+
+    // Shared cache of designs, in access order.
+    private static final Map< DesignKey, Design > DESIGN_CACHE =
+            new LinkedHashMap< DesignKey, Design >( 64, 0.75f, true ) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry( final Map.Entry< DesignKey, Design > eldest ) {
+                    return size() > MAXIMUM_CACHED_DESIGNS;
+                }
+            };
+
+    // The sample rate, in hertz.
+    private final double        _sampleRate;
+
+    // The current design, which is swapped atomically.
+    private volatile Design     _design;
+
+    // The state of each section, as transposed direct form II.
+    private final double[]      _state;
+
+    public AirAbsorptionFilter( final double sampleRate ) {
+        _sampleRate = sampleRate;
+        _design = Design.BYPASS;
+        _state = new double[ MAXIMUM_ORDER ];
+    }
+
+    /**
+     * Updates the filter for a new environment or propagation distance.
+     *
+     * @param naturalEnvironment
+     *            The environment along the propagation path
+     * @param distanceMeters
+     *            The propagation distance, in meters
+     */
+    public void update( final NaturalEnvironment naturalEnvironment, final double distanceMeters ) {
+        _design = getDesign( naturalEnvironment, distanceMeters, _sampleRate );
+    }
+
+    public Design getDesign() {
+        return _design;
+    }
+
+    public double getSampleRate() {
+        return _sampleRate;
+    }
+
+    /**
+     * Clears the filter state, such as when a source restarts playback.
+     */
+    public void reset() {
+        for ( int section = 0; section < MAXIMUM_ORDER; section++ ) {
+            _state[ section ] = 0d;
+        }
+    }
+
+    /**
+     * Filters a block of samples in place.
+     *
+     * @param samples
+     *            The sample buffer
+     * @param offset
+     *            The index of the first sample to filter
+     * @param length
+     *            The number of samples to filter
+     */
+    public void process( final float[] samples, final int offset, final int length ) {
+        final Design design = _design;
+        final int order = design._order;
+        if ( order == 0 ) {
+            return;
+        }
+
+        final double b0 = design._b0;
+        final double b1 = design._b1;
+        final double a1 = design._a1;
+        final int end = offset + length;
+
+        // Run each section over the whole block in turn, which keeps the
+        // inner loop short and its state in a register.
+        for ( int section = 0; section < order; section++ ) {
+            double state = _state[ section ];
+            for ( int i = offset; i < end; i++ ) {
+                final double input = samples[ i ];
+                final double output = ( b0 * input ) + state;
+                state = ( b1 * input ) - ( a1 * output );
+                samples[ i ] = ( float ) output;
+            }
+            _state[ section ] = state;
+        }
+    }
+
+    /**
+     * Returns the cached design for a path, designing it first if necessary.
+     *
+     * @param naturalEnvironment
+     *            The environment along the propagation path
+     * @param distanceMeters
+     *            The propagation distance, in meters
+     * @param sampleRate
+     *            The sample rate, in hertz
+     * @return The filter design
+     */
+    public static Design getDesign( final NaturalEnvironment naturalEnvironment,
+                                    final double distanceMeters,
+                                    final double sampleRate ) {
+        if ( !naturalEnvironment.isAirAttenuationApplied() || ( distanceMeters <= 0d ) ) {
+            return Design.BYPASS;
+        }
+
+        // Quantize the distance on a logarithmic scale, so the cache works
+        // equally well for near and far sources.
+        final long distanceSteps = Math
+                .round( Math.log( distanceMeters ) / Math.log1p( DISTANCE_STEP_RELATIVE ) );
+        final DesignKey designKey = new DesignKey( NaturalEnvironmentKey.of( naturalEnvironment ),
+                                                   distanceSteps,
+                                                   sampleRate );
+
+        synchronized ( DESIGN_CACHE ) {
+            final Design cachedDesign = DESIGN_CACHE.get( designKey );
+            if ( cachedDesign != null ) {
+                return cachedDesign;
+            }
+        }
+
+        final double quantizedDistanceMeters = Math
+                .exp( distanceSteps * Math.log1p( DISTANCE_STEP_RELATIVE ) );
+        final Design design = makeDesign( naturalEnvironment.getTemperatureK(),
+                                          naturalEnvironment.getHumidityRelative(),
+                                          naturalEnvironment.getPressurePa(),
+                                          quantizedDistanceMeters,
+                                          sampleRate );
+
+        synchronized ( DESIGN_CACHE ) {
+            DESIGN_CACHE.put( designKey, design );
+        }
+
+        return design;
+    }
+
+    /**
+     * Designs a filter for a path, by fitting the cutoff of each order in turn
+     * to minimize the worst-case error across the bands, and keeping the order
+     * with the smallest error.
+     *
+     * @param temperatureK
+     *            The temperature, in degrees Kelvin
+     * @param humidityRelative
+     *            The relative humidity, in percent
+     * @param pressurePa
+     *            The pressure, in pascals
+     * @param distanceMeters
+     *            The propagation distance, in meters
+     * @param sampleRate
+     *            The sample rate, in hertz
+     * @return The filter design
+     */
+    public static Design makeDesign( final double temperatureK,
+                                     final double humidityRelative,
+                                     final double pressurePa,
+                                     final double distanceMeters,
+                                     final double sampleRate ) {
+        final double[] allBandCentersHz = AirAttenuation.getThirdOctaveBandCentersHz();
+        int numberOfBands = 0;
+        while ( ( numberOfBands < allBandCentersHz.length )
+                && ( allBandCentersHz[ numberOfBands ] < ( 0.45d * sampleRate ) ) ) {
+            numberOfBands++;
+        }
+        if ( numberOfBands == 0 ) {
+            return Design.BYPASS;
+        }
+
+        final double[] bandCentersHz = new double[ numberOfBands ];
+        System.arraycopy( allBandCentersHz, 0, bandCentersHz, 0, numberOfBands );
+        final double[] targetDb = new double[ numberOfBands ];
+        AirAttenuation.getAttenuationDbPerMeter( bandCentersHz,
+                                                 temperatureK,
+                                                 humidityRelative,
+                                                 pressurePa,
+                                                 targetDb,
+                                                 0 );
+
+        // Attenuation beyond the audible dynamic range needn't be matched, so
+        // we cap it to keep the fit focused on the bands that can be heard.
+        double maximumTargetDb = 0d;
+        for ( int band = 0; band < numberOfBands; band++ ) {
+            targetDb[ band ] = Math.min( targetDb[ band ] * distanceMeters,
+                                         MAXIMUM_ATTENUATION_DB );
+            maximumTargetDb = Math.max( maximumTargetDb, targetDb[ band ] );
+        }
+        if ( maximumTargetDb < BYPASS_THRESHOLD_DB ) {
+            return Design.BYPASS;
+        }
+
+        // Pre-warp the band frequencies once, as all candidates share them.
+        final double[] warpedFrequencies = new double[ numberOfBands ];
+        for ( int band = 0; band < numberOfBands; band++ ) {
+            warpedFrequencies[ band ] = Math.tan( ( Math.PI * bandCentersHz[ band ] ) / sampleRate );
+        }
+
+        Design bestDesign = Design.BYPASS;
+        double bestError = maximumTargetDb;
+        for ( int order = 1; order <= MAXIMUM_ORDER; order++ ) {
+            // Golden section search on the logarithm of the warped cutoff, as
+            // the worst-case error is unimodal in the cutoff.
+            double lowerLogK = -5d;
+            double upperLogK = 3d;
+            for ( int iteration = 0; iteration < 60; iteration++ ) {
+                final double third = ( upperLogK - lowerLogK ) * ( 1d - INVERSE_GOLDEN_RATIO );
+                final double logK1 = lowerLogK + third;
+                final double logK2 = upperLogK - third;
+                if ( getFitError( order, logK1, warpedFrequencies, targetDb ) < getFitError( order,
+                                                                                             logK2,
+                                                                                             warpedFrequencies,
+                                                                                             targetDb ) ) {
+                    upperLogK = logK2;
+                }
+                else {
+                    lowerLogK = logK1;
+                }
+            }
+
+            final double logK = 0.5d * ( lowerLogK + upperLogK );
+            final double fitError = getFitError( order, logK, warpedFrequencies, targetDb );
+            if ( fitError < bestError ) {
+                final double k = Math.pow( 10d, logK );
+                bestError = fitError;
+                bestDesign = new Design( order, k / ( 1d + k ), k / ( 1d + k ), ( k - 1d ) / ( k + 1d ) );
+            }
+        }
+
+        return bestDesign;
+    }
+
+    // Returns the worst-case error across the bands, in dB, of a cascade of
+    // one-pole sections with the given warped cutoff.
+    private static double getFitError( final int order,
+                                       final double logK,
+                                       final double[] warpedFrequencies,
+                                       final double[] targetDb ) {
+        final double k = Math.pow( 10d, logK );
+        double maximumError = 0d;
+        for ( int band = 0; band < warpedFrequencies.length; band++ ) {
+            final double warpedRatio = warpedFrequencies[ band ] / k;
+            final double attenuationDb = Math.min( order * 10d
+                    * Math.log10( 1d + ( warpedRatio * warpedRatio ) ), MAXIMUM_ATTENUATION_DB );
+            maximumError = Math.max( maximumError, Math.abs( attenuationDb - targetDb[ band ] ) );
+        }
+
+        return maximumError;
+    }
+
+    /**
+     * This is the cache key for a design.
+     */
+    private static final class DesignKey {
+
+        private final NaturalEnvironmentKey _environmentKey;
+        private final long                  _distanceSteps;
+        private final double                _sampleRate;
+
+        DesignKey( final NaturalEnvironmentKey environmentKey,
+                   final long distanceSteps,
+                   final double sampleRate ) {
+            _environmentKey = environmentKey;
+            _distanceSteps = distanceSteps;
+            _sampleRate = sampleRate;
+        }
+
+        @Override
+        public boolean equals( final Object other ) {
+            if ( this == other ) {
+                return true;
+            }
+            if ( !( other instanceof DesignKey ) ) {
+                return false;
+            }
+            final DesignKey otherKey = ( DesignKey ) other;
+            return ( _distanceSteps == otherKey._distanceSteps )
+                    && ( Double.compare( _sampleRate, otherKey._sampleRate ) == 0 )
+                    && _environmentKey.equals( otherKey._environmentKey );
+        }
+
+        @Override
+        public int hashCode() {
+            final int prime = 31;
+            int result = _environmentKey.hashCode();
+            result = ( prime * result ) + Long.hashCode( _distanceSteps );
+            result = ( prime * result ) + Double.hashCode( _sampleRate );
+            return result;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxPhysics Library
+ *
+ * You should have received a copy of the MIT License along with the FxPhysics
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxphysics
+ */
+package com.mhschmieder.fxphysicscontrols.acoustics;
+
+import com.mhschmieder.jphysics.PhysicsConstants;
+
+/**
+ * This is a utility class for the atmospheric absorption of sound, per ISO
+ * 9613-1, and for the speed of sound in humid air. All inputs are in the
+ * canonical units of the Natural Environment: degrees Kelvin, relative
+ * humidity in percent, and pascals.
+ * <p>
+ * The bulk methods compute the environment-dependent terms once and then
+ * apply them to all of the requested frequencies, which is much cheaper than
+ * evaluating each band independently.
+ */
+public final class AirAttenuation {
+
+    // Reference values from ISO 9613-1.
+    public static final double  REFERENCE_TEMPERATURE_K  = 293.15d;
+    public static final double  TRIPLE_POINT_K           = 273.16d;
+
+    // Number of third-octave bands from 20 Hz to 20 kHz.
+    public static final int     NUMBER_OF_BANDS          = 31;
+
+    // Index of the 1 kHz band, from which the base-ten band centers step.
+    private static final int    REFERENCE_BAND_INDEX     = 17;
+
+    // Molar masses of dry air and water vapor, in kilograms per mole.
+    // NOTE: The dry air value and the gas constant are package-visible, so
+    //  that the atmosphere profile uses the same values.
+    static final double         MOLAR_MASS_DRY_AIR       = 0.0289645d;
+    private static final double MOLAR_MASS_WATER_VAPOR   = 0.0180153d;
+
+    // Universal gas constant, in joules per mole per degree Kelvin.
+    static final double         GAS_CONSTANT             = 8.314462618d;
+
+    // Ratio of specific heats for air.
+    // NOTE: Humidity lowers this only very slightly over the range of natural
+    //  environments, so we treat it as constant.
+    private static final double SPECIFIC_HEAT_RATIO      = 1.4d;
+
+    // Scale factor from nepers to decibels, as used in ISO 9613-1.
+    private static final double DECIBELS_PER_NEPER       = 8.686d;
+
+    /**
+     * The default constructor is disabled, as this is a static utility class.
+     */
+    private AirAttenuation() {}
+
+    /**
+     * Returns the exact base-ten third-octave band center frequencies, from
+     * 20 Hz to 20 kHz.
+     *
+     * @return A new array of the band center frequencies, in hertz
+     */
+    public static double[] getThirdOctaveBandCentersHz() {
+        final double[] bandCentersHz = new double[ NUMBER_OF_BANDS ];
+        for ( int band = 0; band < NUMBER_OF_BANDS; band++ ) {
+            bandCentersHz[ band ] = 1000d
+                    * Math.pow( 10d, ( band - REFERENCE_BAND_INDEX ) / 10d );
+        }
+
+        return bandCentersHz;
+    }
+
+    /**
+     * Returns the molar concentration of water vapor, in percent, which is the
+     * humidity measure that ISO 9613-1 is formulated in.
+     *
+     * @param temperatureK
+     *            The temperature, in degrees Kelvin
+     * @param humidityRelative
+     *            The relative humidity, in percent
+     * @param pressurePa
+     *            The pressure, in pascals
+     * @return The molar concentration of water vapor, in percent
+     */
+    public static double getMolarConcentrationOfWaterVapor( final double temperatureK,
+                                                            final double humidityRelative,
+                                                            final double pressurePa ) {
+        final double saturationPressureRatio = Math.pow( 10d,
+                                                         ( -6.8346d * Math.pow( TRIPLE_POINT_K
+                                                                 / temperatureK, 1.261d ) )
+                                                                 + 4.6151d );
+        final double pressureRatio = pressurePa / PhysicsConstants.PRESSURE_REFERENCE_PA;
+        return ( humidityRelative * saturationPressureRatio ) / pressureRatio;
+    }
+
+    /**
+     * Returns the air attenuation for a single frequency.
+     *
+     * @param frequencyHz
+     *            The frequency, in hertz
+     * @param temperatureK
+     *            The temperature, in degrees Kelvin
+     * @param humidityRelative
+     *            The relative humidity, in percent
+     * @param pressurePa
+     *            The pressure, in pascals
+     * @return The air attenuation, in decibels per meter
+     */
+    public static double getAttenuationDbPerMeter( final double frequencyHz,
+                                                   final double temperatureK,
+                                                   final double humidityRelative,
+                                                   final double pressurePa ) {
+        final double[] attenuationDbPerMeter = new double[ 1 ];
+        getAttenuationDbPerMeter( new double[] { frequencyHz },
+                                  temperatureK,
+                                  humidityRelative,
+                                  pressurePa,
+                                  attenuationDbPerMeter,
+                                  0 );
+        return attenuationDbPerMeter[ 0 ];
+    }
+
+    /**
+     * Computes the air attenuation for a set of frequencies, writing the
+     * results into a caller-supplied array so that bulk callers can fill a
+     * larger primitive array without allocating.
+     *
+     * @param frequenciesHz
+     *            The frequencies, in hertz
+     * @param temperatureK
+     *            The temperature, in degrees Kelvin
+     * @param humidityRelative
+     *            The relative humidity, in percent
+     * @param pressurePa
+     *            The pressure, in pascals
+     * @param attenuationDbPerMeter
+     *            The array to write the attenuation into, in decibels per
+     *            meter
+     * @param offset
+     *            The index in the output array of the first frequency's result
+     */
+    public static void getAttenuationDbPerMeter( final double[] frequenciesHz,
+                                                 final double temperatureK,
+                                                 final double humidityRelative,
+                                                 final double pressurePa,
+                                                 final double[] attenuationDbPerMeter,
+                                                 final int offset ) {
+        final double pressureRatio = pressurePa / PhysicsConstants.PRESSURE_REFERENCE_PA;
+        final double temperatureRatio = temperatureK / REFERENCE_TEMPERATURE_K;
+        final double h = getMolarConcentrationOfWaterVapor( temperatureK,
+                                                            humidityRelative,
+                                                            pressurePa );
+
+        // Relaxation frequencies of oxygen and nitrogen.
+        final double relaxationFrequencyOxygen = pressureRatio
+                * ( 24d + ( ( 4.04e4d * h * ( 0.02d + h ) ) / ( 0.391d + h ) ) );
+        final double relaxationFrequencyNitrogen = ( pressureRatio / Math.sqrt( temperatureRatio ) )
+                * ( 9d + ( 280d * h
+                        * Math.exp( -4.170d * ( Math.pow( temperatureRatio, -1d / 3d ) - 1d ) ) ) );
+
+        // Frequency-independent factors of the classical and relaxation terms.
+        final double classicalFactor = 1.84e-11d * ( 1d / pressureRatio )
+                * Math.sqrt( temperatureRatio );
+        final double relaxationFactor = Math.pow( temperatureRatio, -2.5d );
+        final double oxygenFactor = 0.01275d * Math.exp( -2239.1d / temperatureK );
+        final double nitrogenFactor = 0.1068d * Math.exp( -3352.0d / temperatureK );
+
+        for ( int i = 0; i < frequenciesHz.length; i++ ) {
+            final double frequencySquared = frequenciesHz[ i ] * frequenciesHz[ i ];
+            final double relaxationTerm = relaxationFactor
+                    * ( ( oxygenFactor / ( relaxationFrequencyOxygen
+                            + ( frequencySquared / relaxationFrequencyOxygen ) ) )
+                            + ( nitrogenFactor / ( relaxationFrequencyNitrogen
+                                    + ( frequencySquared / relaxationFrequencyNitrogen ) ) ) );
+            attenuationDbPerMeter[ offset + i ] = DECIBELS_PER_NEPER * frequencySquared
+                    * ( classicalFactor + relaxationTerm );
+        }
+    }
+
+    /**
+     * Returns the speed of sound in humid air, treating it as an ideal gas
+     * whose molar mass is lowered by the water vapor content.
+     *
+     * @param temperatureK
+     *            The temperature, in degrees Kelvin
+     * @param humidityRelative
+     *            The relative humidity, in percent
+     * @param pressurePa
+     *            The pressure, in pascals
+     * @return The speed of sound, in meters per second
+     */
+    public static double getSpeedOfSound( final double temperatureK,
+                                          final double humidityRelative,
+                                          final double pressurePa ) {
+        final double waterVaporFraction = 0.01d
+                * getMolarConcentrationOfWaterVapor( temperatureK, humidityRelative, pressurePa );
+        final double molarMass = ( ( 1d - waterVaporFraction ) * MOLAR_MASS_DRY_AIR )
+                + ( waterVaporFraction * MOLAR_MASS_WATER_VAPOR );
+        return Math.sqrt( ( SPECIFIC_HEAT_RATIO * GAS_CONSTANT * temperatureK ) / molarMass );
+    }
+}
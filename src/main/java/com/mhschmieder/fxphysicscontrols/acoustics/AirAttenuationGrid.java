@@ -0,0 +1,772 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxPhysics Library
+ *
+ * You should have received a copy of the MIT License along with the FxPhysics
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxphysics
+ */
+package com.mhschmieder.fxphysicscontrols.acoustics;
+
+import com.mhschmieder.jphysics.PhysicsConstants;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.IntStream;
+
+/**
+ * This is a precomputed lookup grid of per-band air attenuation coefficients
+ * over the full range of natural environments: temperature from
+ * {@link PhysicsConstants#TEMPERATURE_MINIMUM_K} to
+ * {@link PhysicsConstants#TEMPERATURE_MAXIMUM_K}, relative humidity from 0% to
+ * 100%, and pressure from {@link PhysicsConstants#PRESSURE_MINIMUM_PA} to
+ * {@link PhysicsConstants#PRESSURE_MAXIMUM_PA}.
+ * <p>
+ * The humidity axis is spaced on a cubic scale, as attenuation varies much
+ * faster with humidity in very dry air than in moist air, and a uniform axis
+ * would need several times as many points for the same accuracy.
+ * <p>
+ * Lookups use trilinear interpolation, and are far cheaper than evaluating
+ * ISO 9613-1 directly when many receivers or environments are involved. The
+ * interpolation error of each grid is bounded when the grid is built, and the
+ * bound is stored with it. Within a cell of unit size in grid coordinates, the
+ * error of trilinear interpolation is at most one eighth of the sum of the
+ * largest second derivatives along the three axes. Those curvature maxima are
+ * taken from second differences along every edge of the cell, at a quarter of
+ * the cell size, plus the largest change between neighboring differences to
+ * allow for curvature varying between them. As the stored coefficients are
+ * single precision, the bound also includes their rounding.
+ * <p>
+ * Grids are built in parallel, and may be saved to a binary file that is later
+ * memory-mapped back in, so that the coefficients are never copied onto the
+ * heap. Grids are immutable once built, and are safe to share across threads.
+ */
+public final class AirAttenuationGrid {
+
+    // Declare the default grid resolution, which keeps the relative error
+    // bound of all bands below two percent.
+    public static final int     TEMPERATURE_POINTS_DEFAULT = 71;
+    public static final int     HUMIDITY_POINTS_DEFAULT    = 101;
+    public static final int     PRESSURE_POINTS_DEFAULT    = 7;
+
+    // Exponent of the power law that spaces the humidity axis.
+    public static final double  HUMIDITY_AXIS_EXPONENT     = 3d;
+
+    // Identifies the binary file format, and its revision.
+    private static final int    FILE_MAGIC                 = 0x41414731; // "AAG1"
+    private static final int    FILE_VERSION               = 1;
+
+    // Declare the axes, and the number of points sampled along each cell edge
+    // to find its curvature.
+    private static final int    TEMPERATURE_AXIS           = 0;
+    private static final int    HUMIDITY_AXIS              = 1;
+    private static final int    PRESSURE_AXIS              = 2;
+    private static final int    EDGE_POINTS                = 5;
+
+    // The relative rounding error of the single precision coefficients, plus
+    // a margin for the double precision arithmetic of the interpolation.
+    private static final double ROUNDING_ERROR_RELATIVE    = 0x1.0p-24d + 0x1.0p-50d;
+
+    // Size of the fixed part of the file header, in bytes.
+    private static final int    HEADER_FIXED_SIZE          = ( 6 * Integer.BYTES )
+            + ( 9 * Double.BYTES );
+
+    // The grid axes, in canonical units.
+    private final double        _temperatureMinimumK;
+    private final double        _temperatureMaximumK;
+    private final int           _temperaturePoints;
+    private final double        _humidityMinimumRelative;
+    private final double        _humidityMaximumRelative;
+    private final int           _humidityPoints;
+    private final double        _humidityAxisExponent;
+    private final double        _pressureMinimumPa;
+    private final double        _pressureMaximumPa;
+    private final int           _pressurePoints;
+
+    // The band center frequencies, in hertz.
+    private final double[]      _bandCentersHz;
+
+    // The attenuation coefficients in decibels per meter, with the band as the
+    // fastest varying index, then pressure, then humidity, then temperature.
+    private final FloatBuffer   _coefficients;
+
+    // The bounds on the absolute and relative interpolation errors.
+    private double              _absoluteErrorBoundDbPerMeter;
+    private double              _relativeErrorBound;
+
+    private AirAttenuationGrid( final double temperatureMinimumK,
+                                final double temperatureMaximumK,
+                                final int temperaturePoints,
+                                final double humidityMinimumRelative,
+                                final double humidityMaximumRelative,
+                                final int humidityPoints,
+                                final double humidityAxisExponent,
+                                final double pressureMinimumPa,
+                                final double pressureMaximumPa,
+                                final int pressurePoints,
+                                final double[] bandCentersHz,
+                                final FloatBuffer coefficients ) {
+        if ( ( temperaturePoints < 2 ) || ( humidityPoints < 2 ) || ( pressurePoints < 2 ) ) {
+            throw new IllegalArgumentException( "Grid needs at least two points per axis" ); //$NON-NLS-1$
+        }
+
+        _temperatureMinimumK = temperatureMinimumK;
+        _temperatureMaximumK = temperatureMaximumK;
+        _temperaturePoints = temperaturePoints;
+        _humidityMinimumRelative = humidityMinimumRelative;
+        _humidityMaximumRelative = humidityMaximumRelative;
+        _humidityPoints = humidityPoints;
+        _humidityAxisExponent = humidityAxisExponent;
+        _pressureMinimumPa = pressureMinimumPa;
+        _pressureMaximumPa = pressureMaximumPa;
+        _pressurePoints = pressurePoints;
+        _bandCentersHz = bandCentersHz;
+        _coefficients = coefficients;
+        _absoluteErrorBoundDbPerMeter = 0d;
+        _relativeErrorBound = 0d;
+    }
+
+    /**
+     * Builds a grid for the third-octave bands at the default resolution.
+     *
+     * @return The newly built grid
+     */
+    public static AirAttenuationGrid build() {
+        return build( AirAttenuation.getThirdOctaveBandCentersHz(),
+                      TEMPERATURE_POINTS_DEFAULT,
+                      HUMIDITY_POINTS_DEFAULT,
+                      PRESSURE_POINTS_DEFAULT );
+    }
+
+    /**
+     * Builds a grid over the full natural environment range, filling the
+     * temperature slices in parallel on the common fork/join pool.
+     *
+     * @param bandCentersHz
+     *            The band center frequencies, in hertz
+     * @param temperaturePoints
+     *            The number of grid points along the temperature axis
+     * @param humidityPoints
+     *            The number of grid points along the humidity axis
+     * @param pressurePoints
+     *            The number of grid points along the pressure axis
+     * @return The newly built grid
+     */
+    public static AirAttenuationGrid build( final double[] bandCentersHz,
+                                            final int temperaturePoints,
+                                            final int humidityPoints,
+                                            final int pressurePoints ) {
+        final int numberOfBands = bandCentersHz.length;
+        final float[] coefficients = new float[ temperaturePoints * humidityPoints
+                * pressurePoints * numberOfBands ];
+
+        final AirAttenuationGrid grid = new AirAttenuationGrid( PhysicsConstants.TEMPERATURE_MINIMUM_K,
+                                                                PhysicsConstants.TEMPERATURE_MAXIMUM_K,
+                                                                temperaturePoints,
+                                                                0d,
+                                                                100d,
+                                                                humidityPoints,
+                                                                HUMIDITY_AXIS_EXPONENT,
+                                                                PhysicsConstants.PRESSURE_MINIMUM_PA,
+                                                                PhysicsConstants.PRESSURE_MAXIMUM_PA,
+                                                                pressurePoints,
+                                                                bandCentersHz.clone(),
+                                                                FloatBuffer.wrap( coefficients ) );
+
+        // Each temperature slice is an independent, contiguous block, so the
+        // workers never share cache lines except at the slice boundaries.
+        IntStream.range( 0, temperaturePoints ).parallel().forEach( temperatureIndex -> {
+            final double[] bandAttenuation = new double[ numberOfBands ];
+            final double temperatureK = grid.getTemperatureK( temperatureIndex );
+            for ( int humidityIndex = 0; humidityIndex < humidityPoints; humidityIndex++ ) {
+                final double humidityRelative = grid.getHumidityRelative( humidityIndex );
+                for ( int pressureIndex = 0; pressureIndex < pressurePoints; pressureIndex++ ) {
+                    AirAttenuation.getAttenuationDbPerMeter( grid._bandCentersHz,
+                                                             temperatureK,
+                                                             humidityRelative,
+                                                             grid.getPressurePa( pressureIndex ),
+                                                             bandAttenuation,
+                                                             0 );
+                    final int baseIndex = grid.getBaseIndex( temperatureIndex,
+                                                             humidityIndex,
+                                                             pressureIndex );
+                    for ( int band = 0; band < numberOfBands; band++ ) {
+                        coefficients[ baseIndex + band ] = ( float ) bandAttenuation[ band ];
+                    }
+                }
+            }
+        } );
+
+        grid.computeErrorBounds();
+
+        return grid;
+    }
+
+    /**
+     * Builds grids of increasing resolution until the relative error bound of
+     * every band is within the requested tolerance, or until the maximum
+     * resolution is reached.
+     *
+     * @param bandCentersHz
+     *            The band center frequencies, in hertz
+     * @param relativeTolerance
+     *            The maximum acceptable relative interpolation error
+     * @param maximumPointsPerAxis
+     *            The maximum number of grid points along any axis
+     * @return The first grid that meets the tolerance, or the finest grid
+     *         tried if none do
+     */
+    public static AirAttenuationGrid buildToTolerance( final double[] bandCentersHz,
+                                                       final double relativeTolerance,
+                                                       final int maximumPointsPerAxis ) {
+        int temperaturePoints = 9;
+        int humidityPoints = 11;
+        int pressurePoints = 3;
+        AirAttenuationGrid grid = build( bandCentersHz,
+                                         temperaturePoints,
+                                         humidityPoints,
+                                         pressurePoints );
+        while ( ( grid.getRelativeErrorBound() > relativeTolerance )
+                && ( humidityPoints < maximumPointsPerAxis ) ) {
+            // Halve the cell size along each axis, keeping existing points.
+            temperaturePoints = Math.min( ( 2 * temperaturePoints ) - 1, maximumPointsPerAxis );
+            humidityPoints = Math.min( ( 2 * humidityPoints ) - 1, maximumPointsPerAxis );
+            pressurePoints = Math.min( ( 2 * pressurePoints ) - 1, maximumPointsPerAxis );
+            grid = build( bandCentersHz, temperaturePoints, humidityPoints, pressurePoints );
+        }
+
+        return grid;
+    }
+
+    /**
+     * Loads a grid that was previously saved, by memory-mapping the file so
+     * that the coefficients are read straight from the page cache.
+     *
+     * @param path
+     *            The path of the grid file
+     * @return The loaded grid
+     * @throws IOException
+     *             If the file can't be read or isn't a valid grid file
+     */
+    public static AirAttenuationGrid load( final Path path ) throws IOException {
+        try ( final FileChannel fileChannel = FileChannel.open( path, StandardOpenOption.READ ) ) {
+            // NOTE: The mapping remains valid after the channel is closed.
+            final MappedByteBuffer mappedBuffer = fileChannel
+                    .map( FileChannel.MapMode.READ_ONLY, 0L, fileChannel.size() );
+
+            if ( ( mappedBuffer.remaining() < HEADER_FIXED_SIZE )
+                    || ( mappedBuffer.getInt() != FILE_MAGIC ) ) {
+                throw new IOException( "Not an air attenuation grid file: " + path ); //$NON-NLS-1$
+            }
+            final int version = mappedBuffer.getInt();
+            if ( version != FILE_VERSION ) {
+                throw new IOException( "Unsupported air attenuation grid version " + version ); //$NON-NLS-1$
+            }
+
+            final int temperaturePoints = mappedBuffer.getInt();
+            final int humidityPoints = mappedBuffer.getInt();
+            final int pressurePoints = mappedBuffer.getInt();
+            final int numberOfBands = mappedBuffer.getInt();
+            final double temperatureMinimumK = mappedBuffer.getDouble();
+            final double temperatureMaximumK = mappedBuffer.getDouble();
+            final double humidityMinimumRelative = mappedBuffer.getDouble();
+            final double humidityMaximumRelative = mappedBuffer.getDouble();
+            final double humidityAxisExponent = mappedBuffer.getDouble();
+            final double pressureMinimumPa = mappedBuffer.getDouble();
+            final double pressureMaximumPa = mappedBuffer.getDouble();
+            final double absoluteErrorBoundDbPerMeter = mappedBuffer.getDouble();
+            final double relativeErrorBound = mappedBuffer.getDouble();
+
+            final long numberOfCoefficients = ( long ) temperaturePoints * humidityPoints
+                    * pressurePoints * numberOfBands;
+            final long expectedSize = HEADER_FIXED_SIZE + ( ( long ) numberOfBands * Double.BYTES )
+                    + ( numberOfCoefficients * Float.BYTES );
+            if ( ( numberOfBands <= 0 ) || ( expectedSize != fileChannel.size() ) ) {
+                throw new IOException( "Corrupt air attenuation grid file: " + path ); //$NON-NLS-1$
+            }
+
+            final double[] bandCentersHz = new double[ numberOfBands ];
+            for ( int band = 0; band < numberOfBands; band++ ) {
+                bandCentersHz[ band ] = mappedBuffer.getDouble();
+            }
+
+            final FloatBuffer coefficients = mappedBuffer.slice().asFloatBuffer();
+
+            final AirAttenuationGrid grid = new AirAttenuationGrid( temperatureMinimumK,
+                                                                    temperatureMaximumK,
+                                                                    temperaturePoints,
+                                                                    humidityMinimumRelative,
+                                                                    humidityMaximumRelative,
+                                                                    humidityPoints,
+                                                                    humidityAxisExponent,
+                                                                    pressureMinimumPa,
+                                                                    pressureMaximumPa,
+                                                                    pressurePoints,
+                                                                    bandCentersHz,
+                                                                    coefficients );
+            grid._absoluteErrorBoundDbPerMeter = absoluteErrorBoundDbPerMeter;
+            grid._relativeErrorBound = relativeErrorBound;
+
+            return grid;
+        }
+    }
+
+    /**
+     * Saves this grid to a binary file, for later loading via memory-mapping.
+     *
+     * @param path
+     *            The path of the grid file to write
+     * @throws IOException
+     *             If the file can't be written
+     */
+    public void save( final Path path ) throws IOException {
+        final int numberOfBands = _bandCentersHz.length;
+        final long fileSize = HEADER_FIXED_SIZE + ( ( long ) numberOfBands * Double.BYTES )
+                + ( ( long ) _coefficients.capacity() * Float.BYTES );
+
+        try ( final FileChannel fileChannel = FileChannel.open( path,
+                                                                StandardOpenOption.CREATE,
+                                                                StandardOpenOption.TRUNCATE_EXISTING,
+                                                                StandardOpenOption.READ,
+                                                                StandardOpenOption.WRITE ) ) {
+            final MappedByteBuffer mappedBuffer = fileChannel
+                    .map( FileChannel.MapMode.READ_WRITE, 0L, fileSize );
+
+            mappedBuffer.putInt( FILE_MAGIC );
+            mappedBuffer.putInt( FILE_VERSION );
+            mappedBuffer.putInt( _temperaturePoints );
+            mappedBuffer.putInt( _humidityPoints );
+            mappedBuffer.putInt( _pressurePoints );
+            mappedBuffer.putInt( numberOfBands );
+            mappedBuffer.putDouble( _temperatureMinimumK );
+            mappedBuffer.putDouble( _temperatureMaximumK );
+            mappedBuffer.putDouble( _humidityMinimumRelative );
+            mappedBuffer.putDouble( _humidityMaximumRelative );
+            mappedBuffer.putDouble( _humidityAxisExponent );
+            mappedBuffer.putDouble( _pressureMinimumPa );
+            mappedBuffer.putDouble( _pressureMaximumPa );
+            mappedBuffer.putDouble( _absoluteErrorBoundDbPerMeter );
+            mappedBuffer.putDouble( _relativeErrorBound );
+            for ( final double bandCenterHz : _bandCentersHz ) {
+                mappedBuffer.putDouble( bandCenterHz );
+            }
+
+            // NOTE: We copy from a duplicate, so that concurrent lookups are
+            //  unaffected by the bulk transfer's position changes.
+            final FloatBuffer sourceCoefficients = _coefficients.duplicate();
+            sourceCoefficients.rewind();
+            final ByteBuffer payloadBuffer = mappedBuffer.slice();
+            payloadBuffer.asFloatBuffer().put( sourceCoefficients );
+
+            mappedBuffer.force();
+        }
+    }
+
+    /**
+     * Interpolates the attenuation of every band for one environment.
+     *
+     * @param temperatureK
+     *            The temperature, in degrees Kelvin
+     * @param humidityRelative
+     *            The relative humidity, in percent
+     * @param pressurePa
+     *            The pressure, in pascals
+     * @param attenuationDbPerMeter
+     *            The array to write the attenuation into, in decibels per
+     *            meter
+     * @param offset
+     *            The index in the output array of the first band's result
+     */
+    public void getAttenuationDbPerMeter( final double temperatureK,
+                                          final double humidityRelative,
+                                          final double pressurePa,
+                                          final double[] attenuationDbPerMeter,
+                                          final int offset ) {
+        interpolate( temperatureK,
+                     humidityRelative,
+                     pressurePa,
+                     0,
+                     _bandCentersHz.length,
+                     attenuationDbPerMeter,
+                     offset );
+    }
+
+    /**
+     * Interpolates the attenuation of a single band for one environment.
+     *
+     * @param band
+     *            The index of the band
+     * @param temperatureK
+     *            The temperature, in degrees Kelvin
+     * @param humidityRelative
+     *            The relative humidity, in percent
+     * @param pressurePa
+     *            The pressure, in pascals
+     * @return The attenuation, in decibels per meter
+     */
+    public double getAttenuationDbPerMeter( final int band,
+                                            final double temperatureK,
+                                            final double humidityRelative,
+                                            final double pressurePa ) {
+        final double[] attenuationDbPerMeter = new double[ 1 ];
+        interpolate( temperatureK,
+                     humidityRelative,
+                     pressurePa,
+                     band,
+                     1,
+                     attenuationDbPerMeter,
+                     0 );
+        return attenuationDbPerMeter[ 0 ];
+    }
+
+    /**
+     * Returns whether an environment lies within the grid, as lookups outside
+     * of it are clamped to the nearest face and aren't covered by the error
+     * bounds.
+     *
+     * @param temperatureK
+     *            The temperature, in degrees Kelvin
+     * @param humidityRelative
+     *            The relative humidity, in percent
+     * @param pressurePa
+     *            The pressure, in pascals
+     * @return {@code true} if the environment is covered by the grid
+     */
+    public boolean contains( final double temperatureK,
+                             final double humidityRelative,
+                             final double pressurePa ) {
+        return ( temperatureK >= _temperatureMinimumK )
+                && ( temperatureK <= _temperatureMaximumK )
+                && ( humidityRelative >= _humidityMinimumRelative )
+                && ( humidityRelative <= _humidityMaximumRelative )
+                && ( pressurePa >= _pressureMinimumPa ) && ( pressurePa <= _pressureMaximumPa );
+    }
+
+    public int getNumberOfBands() {
+        return _bandCentersHz.length;
+    }
+
+    public double[] getBandCentersHz() {
+        return _bandCentersHz.clone();
+    }
+
+    /**
+     * Returns the bound on the absolute interpolation error of any band,
+     * anywhere within the grid.
+     *
+     * @return The absolute error bound, in decibels per meter
+     */
+    public double getAbsoluteErrorBoundDbPerMeter() {
+        return _absoluteErrorBoundDbPerMeter;
+    }
+
+    /**
+     * Returns the bound on the relative interpolation error of any band,
+     * anywhere within the grid.
+     *
+     * @return The relative error bound
+     */
+    public double getRelativeErrorBound() {
+        return _relativeErrorBound;
+    }
+
+    private double getTemperatureK( final double temperaturePosition ) {
+        return _temperatureMinimumK + ( ( temperaturePosition
+                * ( _temperatureMaximumK - _temperatureMinimumK ) ) / ( _temperaturePoints - 1 ) );
+    }
+
+    private double getHumidityRelative( final double humidityPosition ) {
+        final double normalizedPosition = humidityPosition / ( _humidityPoints - 1 );
+        return _humidityMinimumRelative + ( ( _humidityMaximumRelative - _humidityMinimumRelative )
+                * Math.pow( normalizedPosition, _humidityAxisExponent ) );
+    }
+
+    private double getPressurePa( final double pressurePosition ) {
+        return _pressureMinimumPa + ( ( pressurePosition
+                * ( _pressureMaximumPa - _pressureMinimumPa ) ) / ( _pressurePoints - 1 ) );
+    }
+
+    private int getBaseIndex( final int temperatureIndex,
+                              final int humidityIndex,
+                              final int pressureIndex ) {
+        return ( ( ( ( temperatureIndex * _humidityPoints ) + humidityIndex ) * _pressurePoints )
+                + pressureIndex ) * _bandCentersHz.length;
+    }
+
+    // Returns the clamped fractional grid position of a value along one axis.
+    private static double getGridPosition( final double value,
+                                           final double minimum,
+                                           final double maximum,
+                                           final int points ) {
+        final double position = ( ( value - minimum ) / ( maximum - minimum ) ) * ( points - 1 );
+        return Math.max( 0d, Math.min( points - 1, position ) );
+    }
+
+    private void interpolate( final double temperatureK,
+                              final double humidityRelative,
+                              final double pressurePa,
+                              final int firstBand,
+                              final int numberOfBands,
+                              final double[] attenuationDbPerMeter,
+                              final int offset ) {
+        final double temperaturePosition = getGridPosition( temperatureK,
+                                                            _temperatureMinimumK,
+                                                            _temperatureMaximumK,
+                                                            _temperaturePoints );
+        final double normalizedHumidity = Math.max( 0d,
+                                                    ( humidityRelative - _humidityMinimumRelative )
+                                                            / ( _humidityMaximumRelative
+                                                                    - _humidityMinimumRelative ) );
+        final double humidityPosition = getGridPosition( Math.pow( normalizedHumidity,
+                                                                   1d / _humidityAxisExponent ),
+                                                         0d,
+                                                         1d,
+                                                         _humidityPoints );
+        final double pressurePosition = getGridPosition( pressurePa,
+                                                         _pressureMinimumPa,
+                                                         _pressureMaximumPa,
+                                                         _pressurePoints );
+
+        // Use the lower cell on the upper faces, so the corners are in range.
+        final int t0 = Math.min( ( int ) temperaturePosition, _temperaturePoints - 2 );
+        final int h0 = Math.min( ( int ) humidityPosition, _humidityPoints - 2 );
+        final int p0 = Math.min( ( int ) pressurePosition, _pressurePoints - 2 );
+        final double ft = temperaturePosition - t0;
+        final double fh = humidityPosition - h0;
+        final double fp = pressurePosition - p0;
+
+        final int i000 = getBaseIndex( t0, h0, p0 ) + firstBand;
+        final int i001 = getBaseIndex( t0, h0, p0 + 1 ) + firstBand;
+        final int i010 = getBaseIndex( t0, h0 + 1, p0 ) + firstBand;
+        final int i011 = getBaseIndex( t0, h0 + 1, p0 + 1 ) + firstBand;
+        final int i100 = getBaseIndex( t0 + 1, h0, p0 ) + firstBand;
+        final int i101 = getBaseIndex( t0 + 1, h0, p0 + 1 ) + firstBand;
+        final int i110 = getBaseIndex( t0 + 1, h0 + 1, p0 ) + firstBand;
+        final int i111 = getBaseIndex( t0 + 1, h0 + 1, p0 + 1 ) + firstBand;
+
+        for ( int band = 0; band < numberOfBands; band++ ) {
+            final double c00 = lerp( _coefficients.get( i000 + band ),
+                                     _coefficients.get( i001 + band ),
+                                     fp );
+            final double c01 = lerp( _coefficients.get( i010 + band ),
+                                     _coefficients.get( i011 + band ),
+                                     fp );
+            final double c10 = lerp( _coefficients.get( i100 + band ),
+                                     _coefficients.get( i101 + band ),
+                                     fp );
+            final double c11 = lerp( _coefficients.get( i110 + band ),
+                                     _coefficients.get( i111 + band ),
+                                     fp );
+            attenuationDbPerMeter[ offset + band ] = lerp( lerp( c00, c01, fh ),
+                                                           lerp( c10, c11, fh ),
+                                                           ft );
+        }
+    }
+
+    private static double lerp( final double value0,
+                                final double value1,
+                                final double fraction ) {
+        return value0 + ( fraction * ( value1 - value0 ) );
+    }
+
+    // Bounds the interpolation error of every cell from the curvature along
+    // its edges, in parallel over the temperature slices.
+    private void computeErrorBounds() {
+        final int numberOfBands = _bandCentersHz.length;
+        final double[][] sliceBounds = new double[ _temperaturePoints - 1 ][ 2 ];
+
+        IntStream.range( 0, _temperaturePoints - 1 ).parallel().forEach( temperatureIndex -> {
+            // Find the curvature maxima of the edges of this slice's cells:
+            // along temperature between the slice's two faces, and along
+            // humidity and pressure on each face.
+            final double[][][] temperatureCurvature =
+                    new double[ _humidityPoints ][ _pressurePoints ][];
+            final double[][][][] humidityCurvature =
+                    new double[ 2 ][ _humidityPoints - 1 ][ _pressurePoints ][];
+            final double[][][][] pressureCurvature =
+                    new double[ 2 ][ _humidityPoints ][ _pressurePoints - 1 ][];
+            final double[][] edgeValues = new double[ EDGE_POINTS ][ numberOfBands ];
+            for ( int humidityIndex = 0; humidityIndex < _humidityPoints; humidityIndex++ ) {
+                for ( int pressureIndex = 0; pressureIndex < _pressurePoints; pressureIndex++ ) {
+                    temperatureCurvature[ humidityIndex ][ pressureIndex ] =
+                            getEdgeCurvature( TEMPERATURE_AXIS,
+                                              temperatureIndex,
+                                              humidityIndex,
+                                              pressureIndex,
+                                              edgeValues );
+                    for ( int face = 0; face < 2; face++ ) {
+                        if ( humidityIndex < ( _humidityPoints - 1 ) ) {
+                            humidityCurvature[ face ][ humidityIndex ][ pressureIndex ] =
+                                    getEdgeCurvature( HUMIDITY_AXIS,
+                                                      temperatureIndex + face,
+                                                      humidityIndex,
+                                                      pressureIndex,
+                                                      edgeValues );
+                        }
+                        if ( pressureIndex < ( _pressurePoints - 1 ) ) {
+                            pressureCurvature[ face ][ humidityIndex ][ pressureIndex ] =
+                                    getEdgeCurvature( PRESSURE_AXIS,
+                                                      temperatureIndex + face,
+                                                      humidityIndex,
+                                                      pressureIndex,
+                                                      edgeValues );
+                        }
+                    }
+                }
+            }
+
+            double absoluteErrorBound = 0d;
+            double relativeErrorBound = 0d;
+            for ( int humidityIndex = 0; humidityIndex < ( _humidityPoints - 1 ); humidityIndex++ ) {
+                for ( int pressureIndex = 0; pressureIndex < ( _pressurePoints
+                        - 1 ); pressureIndex++ ) {
+                    for ( int band = 0; band < numberOfBands; band++ ) {
+                        // Each cell has four edges along each axis.
+                        final int h0 = humidityIndex;
+                        final int h1 = humidityIndex + 1;
+                        final int p0 = pressureIndex;
+                        final int p1 = pressureIndex + 1;
+                        final double curvatureSum = getMaximum( band,
+                                                                temperatureCurvature[ h0 ][ p0 ],
+                                                                temperatureCurvature[ h1 ][ p0 ],
+                                                                temperatureCurvature[ h0 ][ p1 ],
+                                                                temperatureCurvature[ h1 ][ p1 ] )
+                                + getMaximum( band,
+                                              humidityCurvature[ 0 ][ h0 ][ p0 ],
+                                              humidityCurvature[ 1 ][ h0 ][ p0 ],
+                                              humidityCurvature[ 0 ][ h0 ][ p1 ],
+                                              humidityCurvature[ 1 ][ h0 ][ p1 ] )
+                                + getMaximum( band,
+                                              pressureCurvature[ 0 ][ h0 ][ p0 ],
+                                              pressureCurvature[ 1 ][ h0 ][ p0 ],
+                                              pressureCurvature[ 0 ][ h1 ][ p0 ],
+                                              pressureCurvature[ 1 ][ h1 ][ p0 ] );
+
+                        double cornerMinimum = Double.POSITIVE_INFINITY;
+                        double cornerMaximum = 0d;
+                        for ( int corner = 0; corner < 8; corner++ ) {
+                            final double cornerValue = _coefficients
+                                    .get( getBaseIndex( temperatureIndex + ( corner & 1 ),
+                                                        humidityIndex + ( ( corner >> 1 ) & 1 ),
+                                                        pressureIndex + ( corner >> 2 ) )
+                                            + band );
+                            cornerMinimum = Math.min( cornerMinimum, cornerValue );
+                            cornerMaximum = Math.max( cornerMaximum, Math.abs( cornerValue ) );
+                        }
+
+                        // The interpolation error of a unit cell is at most an
+                        // eighth of the sum of the curvature maxima, and the
+                        // rounding of the corners carries through the weighted
+                        // average of the interpolation.
+                        final double cellErrorBound = ( 0.125d * curvatureSum )
+                                + ( cornerMaximum * ROUNDING_ERROR_RELATIVE );
+                        absoluteErrorBound = Math.max( absoluteErrorBound, cellErrorBound );
+
+                        // The exact value anywhere in the cell is at least the
+                        // smallest corner, less the error bound.
+                        final double exactMinimum = cornerMinimum - cellErrorBound;
+                        relativeErrorBound = ( exactMinimum > 0d )
+                            ? Math.max( relativeErrorBound, cellErrorBound / exactMinimum )
+                            : Double.POSITIVE_INFINITY;
+                    }
+                }
+            }
+            sliceBounds[ temperatureIndex ][ 0 ] = absoluteErrorBound;
+            sliceBounds[ temperatureIndex ][ 1 ] = relativeErrorBound;
+        } );
+
+        for ( final double[] sliceBound : sliceBounds ) {
+            _absoluteErrorBoundDbPerMeter = Math.max( _absoluteErrorBoundDbPerMeter,
+                                                      sliceBound[ 0 ] );
+            _relativeErrorBound = Math.max( _relativeErrorBound, sliceBound[ 1 ] );
+        }
+    }
+
+    // Returns the curvature maximum of each band along the cell edge that
+    // starts at a grid point and runs along one axis, in grid units. The
+    // exact attenuation is evaluated at the quarter points of the edge, as
+    // each second difference of those, times sixteen, is the second
+    // derivative at some point within its stencil. The largest change
+    // between neighboring differences is added to the largest difference, to
+    // allow for curvature varying between them.
+    private double[] getEdgeCurvature( final int axis,
+                                       final int temperatureIndex,
+                                       final int humidityIndex,
+                                       final int pressureIndex,
+                                       final double[][] edgeValues ) {
+        for ( int point = 0; point < EDGE_POINTS; point++ ) {
+            final double step = point / ( EDGE_POINTS - 1d );
+            final double temperatureK = getTemperatureK( ( axis == TEMPERATURE_AXIS )
+                ? temperatureIndex + step
+                : temperatureIndex );
+            final double humidityRelative = getHumidityRelative( ( axis == HUMIDITY_AXIS )
+                ? humidityIndex + step
+                : humidityIndex );
+            final double pressurePa = getPressurePa( ( axis == PRESSURE_AXIS )
+                ? pressureIndex + step
+                : pressureIndex );
+            AirAttenuation.getAttenuationDbPerMeter( _bandCentersHz,
+                                                     temperatureK,
+                                                     humidityRelative,
+                                                     pressurePa,
+                                                     edgeValues[ point ],
+                                                     0 );
+        }
+
+        final double scale = ( EDGE_POINTS - 1d ) * ( EDGE_POINTS - 1d );
+        final double[] curvature = new double[ _bandCentersHz.length ];
+        for ( int band = 0; band < curvature.length; band++ ) {
+            double maximum = 0d;
+            double change = 0d;
+            double previous = Double.NaN;
+            for ( int point = 1; point < ( EDGE_POINTS - 1 ); point++ ) {
+                final double secondDerivative = scale * ( edgeValues[ point - 1 ][ band ]
+                        - ( 2d * edgeValues[ point ][ band ] ) + edgeValues[ point + 1 ][ band ] );
+                maximum = Math.max( maximum, Math.abs( secondDerivative ) );
+                if ( point > 1 ) {
+                    change = Math.max( change, Math.abs( secondDerivative - previous ) );
+                }
+                previous = secondDerivative;
+            }
+            curvature[ band ] = maximum + change;
+        }
+
+        return curvature;
+    }
+
+    private static double getMaximum( final int band,
+                                      final double[] curvature0,
+                                      final double[] curvature1,
+                                      final double[] curvature2,
+                                      final double[] curvature3 ) {
+        return Math.max( Math.max( curvature0[ band ], curvature1[ band ] ),
+                         Math.max( curvature2[ band ], curvature3[ band ] ) );
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxPhysics Library
+ *
+ * You should have received a copy of the MIT License along with the FxPhysics
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxphysics
+ */
+package com.mhschmieder.fxphysicscontrols.acoustics;
+
+import com.mhschmieder.fxphysicscontrols.model.NaturalEnvironment;
+
+import java.util.stream.IntStream;
+
+/**
+ * This is a vertical profile of the atmosphere above a ground-level
+ * {@link NaturalEnvironment}, following the International Standard Atmosphere
+ * (ISA) model: a constant temperature lapse rate up to the tropopause, and an
+ * isothermal layer above it, with pressure following hydrostatic equilibrium.
+ * <p>
+ * The ISA sea level conditions are replaced by the ground environment, and
+ * altitudes are measured from the ground. Relative humidity is held at its
+ * ground value throughout, which is a simplification, but only matters for
+ * the small humidity term in the speed of sound.
+ * <p>
+ * Profiles are written into primitive arrays, with dense vertical grids split
+ * into chunks that are computed in parallel. The profile is cached until the
+ * ground environment or the altitude grid changes. The altitude grid is
+ * referenced rather than copied, so callers must call {@link #invalidate()}
+ * after editing the altitudes in place.
+ */
+public final class AtmosphereProfile {
+
+    // Declare the ISA constants.
+    public static final double LAPSE_RATE_K_PER_METER   = 0.0065d;
+    public static final double TROPOPAUSE_ALTITUDE_M    = 11000d;
+
+    // Standard gravity, in meters per second squared.
+    private static final double GRAVITY                 = 9.80665d;
+
+    // Exponent of the pressure law below the tropopause.
+    private static final double PRESSURE_EXPONENT       = ( GRAVITY
+            * AirAttenuation.MOLAR_MASS_DRY_AIR )
+            / ( AirAttenuation.GAS_CONSTANT * LAPSE_RATE_K_PER_METER );
+
+    // Declare the number of altitudes per parallel chunk.
+    public static final int     CHUNK_SIZE_DEFAULT      = 4096;
+
+    // The computed profile.
+    private double[]            _temperatureK;
+    private double[]            _pressurePa;
+    private double[]            _speedOfSound;
+
+    // The ground environment and altitudes the profile was computed for.
+    private double[]            _altitudesMeters;
+    private double              _groundTemperatureK;
+    private double              _groundHumidityRelative;
+    private double              _groundPressurePa;
+
+    // Flag for whether the cached profile is valid.
+    private boolean             _valid;
+
+    public AtmosphereProfile() {
+        _temperatureK = new double[ 0 ];
+        _pressurePa = new double[ 0 ];
+        _speedOfSound = new double[ 0 ];
+        _altitudesMeters = null;
+        _valid = false;
+    }
+
+    /**
+     * Computes the profile for a set of altitudes, unless it is already
+     * cached for the same ground environment and altitudes.
+     *
+     * @param groundEnvironment
+     *            The environment at ground level
+     * @param altitudesMeters
+     *            The altitudes above ground, in meters
+     * @return {@code true} if the profile was recomputed
+     */
+    public synchronized boolean update( final NaturalEnvironment groundEnvironment,
+                                        final double[] altitudesMeters ) {
+        final double groundTemperatureK = groundEnvironment.getTemperatureK();
+        final double groundHumidityRelative = groundEnvironment.getHumidityRelative();
+        final double groundPressurePa = groundEnvironment.getPressurePa();
+
+        if ( _valid && ( altitudesMeters == _altitudesMeters )
+                && ( groundTemperatureK == _groundTemperatureK )
+                && ( groundHumidityRelative == _groundHumidityRelative )
+                && ( groundPressurePa == _groundPressurePa ) ) {
+            return false;
+        }
+
+        final int numberOfAltitudes = altitudesMeters.length;
+        if ( _temperatureK.length != numberOfAltitudes ) {
+            _temperatureK = new double[ numberOfAltitudes ];
+            _pressurePa = new double[ numberOfAltitudes ];
+            _speedOfSound = new double[ numberOfAltitudes ];
+        }
+
+        final int numberOfChunks = ( ( numberOfAltitudes + CHUNK_SIZE_DEFAULT ) - 1 )
+                / CHUNK_SIZE_DEFAULT;
+        IntStream.range( 0, numberOfChunks ).parallel().forEach( chunk -> {
+            final int start = chunk * CHUNK_SIZE_DEFAULT;
+            computeChunk( altitudesMeters,
+                          groundTemperatureK,
+                          groundHumidityRelative,
+                          groundPressurePa,
+                          start,
+                          Math.min( start + CHUNK_SIZE_DEFAULT, numberOfAltitudes ) );
+        } );
+
+        _altitudesMeters = altitudesMeters;
+        _groundTemperatureK = groundTemperatureK;
+        _groundHumidityRelative = groundHumidityRelative;
+        _groundPressurePa = groundPressurePa;
+        _valid = true;
+
+        return true;
+    }
+
+    /**
+     * Discards the cached profile, such as after the altitudes were edited.
+     */
+    public synchronized void invalidate() {
+        _valid = false;
+    }
+
+    public synchronized double[] getTemperatureK() {
+        return _temperatureK;
+    }
+
+    public synchronized double[] getPressurePa() {
+        return _pressurePa;
+    }
+
+    public synchronized double[] getSpeedOfSound() {
+        return _speedOfSound;
+    }
+
+    /**
+     * Returns the temperature at an altitude above the ground.
+     *
+     * @param groundTemperatureK
+     *            The ground temperature, in degrees Kelvin
+     * @param altitudeMeters
+     *            The altitude above ground, in meters
+     * @return The temperature, in degrees Kelvin
+     */
+    public static double getTemperatureK( final double groundTemperatureK,
+                                          final double altitudeMeters ) {
+        return groundTemperatureK - ( LAPSE_RATE_K_PER_METER
+                * Math.min( Math.max( altitudeMeters, 0d ), TROPOPAUSE_ALTITUDE_M ) );
+    }
+
+    /**
+     * Returns the pressure at an altitude above the ground.
+     *
+     * @param groundTemperatureK
+     *            The ground temperature, in degrees Kelvin
+     * @param groundPressurePa
+     *            The ground pressure, in pascals
+     * @param altitudeMeters
+     *            The altitude above ground, in meters
+     * @return The pressure, in pascals
+     */
+    public static double getPressurePa( final double groundTemperatureK,
+                                        final double groundPressurePa,
+                                        final double altitudeMeters ) {
+        final double clampedAltitudeMeters = Math.max( altitudeMeters, 0d );
+        if ( clampedAltitudeMeters <= TROPOPAUSE_ALTITUDE_M ) {
+            return groundPressurePa * Math.pow( getTemperatureK( groundTemperatureK,
+                                                                 clampedAltitudeMeters )
+                    / groundTemperatureK, PRESSURE_EXPONENT );
+        }
+
+        // Above the tropopause, the temperature is constant and the pressure
+        // decays exponentially.
+        final double tropopauseTemperatureK = getTemperatureK( groundTemperatureK,
+                                                               TROPOPAUSE_ALTITUDE_M );
+        final double tropopausePressurePa = groundPressurePa
+                * Math.pow( tropopauseTemperatureK / groundTemperatureK, PRESSURE_EXPONENT );
+        return tropopausePressurePa
+                * Math.exp( ( -GRAVITY * AirAttenuation.MOLAR_MASS_DRY_AIR
+                        * ( clampedAltitudeMeters - TROPOPAUSE_ALTITUDE_M ) )
+                        / ( AirAttenuation.GAS_CONSTANT * tropopauseTemperatureK ) );
+    }
+
+    private void computeChunk( final double[] altitudesMeters,
+                               final double groundTemperatureK,
+                               final double groundHumidityRelative,
+                               final double groundPressurePa,
+                               final int start,
+                               final int end ) {
+        for ( int i = start; i < end; i++ ) {
+            final double temperatureK = getTemperatureK( groundTemperatureK, altitudesMeters[ i ] );
+            final double pressurePa = getPressurePa( groundTemperatureK,
+                                                     groundPressurePa,
+                                                     altitudesMeters[ i ] );
+            _temperatureK[ i ] = temperatureK;
+            _pressurePa[ i ] = pressurePa;
+            _speedOfSound[ i ] = AirAttenuation
+                    .getSpeedOfSound( temperatureK, groundHumidityRelative, pressurePa );
+        }
+    }
+}
@@ -0,0 +1,436 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxPhysics Library
+ *
+ * You should have received a copy of the MIT License along with the FxPhysics
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxphysics
+ */
+package com.mhschmieder.fxphysicscontrols.acoustics;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This is a parameter sweep of air attenuation and speed of sound over ranges
+ * of the Natural Environment fields, such as for site planning across the
+ * seasons.
+ * <p>
+ * Results are stored in flat primitive arrays, indexed by sweep point, where
+ * the pressure index varies fastest, then humidity, then temperature. The
+ * attenuation array additionally has the band as its fastest varying index.
+ * Points that haven't been computed yet hold NaN, so that partial results can
+ * be told apart from real values.
+ * <p>
+ * The sweep is split into chunks of contiguous points that are computed in
+ * parallel on a fork/join pool. A chunk listener is told about each chunk as
+ * soon as it is complete, so that a UI can render partial results while the
+ * rest of the sweep is still running. Chunks complete in no particular order.
+ * <p>
+ * If an {@link AirAttenuationGrid} is supplied, attenuation is interpolated
+ * from it rather than evaluated exactly, which is much faster for large
+ * sweeps at the cost of the grid's interpolation error, which the grid
+ * bounds when it is built.
+ */
+public final class EnvironmentSweep {
+
+    /**
+     * This is a listener for completed chunks of sweep points. It is invoked
+     * on the worker thread that computed the chunk.
+     */
+    @FunctionalInterface
+    public interface ChunkListener {
+
+        /**
+         * Reports that a chunk of sweep points is complete.
+         *
+         * @param firstPoint
+         *            The index of the first point in the chunk
+         * @param numberOfPoints
+         *            The number of points in the chunk
+         */
+        void chunkCompleted( int firstPoint, int numberOfPoints );
+    }
+
+    /**
+     * This is an evenly spaced sweep axis, in canonical units.
+     */
+    public static final class Axis {
+
+        private final double _minimum;
+        private final double _maximum;
+        private final int    _numberOfPoints;
+
+        public Axis( final double minimum, final double maximum, final int numberOfPoints ) {
+            if ( numberOfPoints < 1 ) {
+                throw new IllegalArgumentException( "Unexpected number of axis points " //$NON-NLS-1$
+                        + numberOfPoints );
+            }
+
+            _minimum = minimum;
+            _maximum = maximum;
+            _numberOfPoints = numberOfPoints;
+        }
+
+        /**
+         * Makes an axis with a single point, for fields that are held fixed.
+         *
+         * @param value
+         *            The fixed value
+         * @return The single point axis
+         */
+        public static Axis of( final double value ) {
+            return new Axis( value, value, 1 );
+        }
+
+        public double getMinimum() {
+            return _minimum;
+        }
+
+        public double getMaximum() {
+            return _maximum;
+        }
+
+        public int getNumberOfPoints() {
+            return _numberOfPoints;
+        }
+
+        public double getValue( final int index ) {
+            return ( _numberOfPoints == 1 )
+                ? _minimum
+                : _minimum + ( ( index * ( _maximum - _minimum ) ) / ( _numberOfPoints - 1 ) );
+        }
+    }
+
+    // Declare the default number of points per chunk.
+    public static final int          CHUNK_SIZE_DEFAULT = 1024;
+
+    // The sweep axes, in degrees Kelvin, percent, and pascals.
+    private final Axis               _temperatureAxis;
+    private final Axis               _humidityAxis;
+    private final Axis               _pressureAxis;
+
+    // The band center frequencies, in hertz.
+    private final double[]           _bandCentersHz;
+
+    // Optional lookup grid to interpolate attenuation from.
+    private final AirAttenuationGrid _airAttenuationGrid;
+
+    // The results, in decibels per meter and meters per second.
+    private final double[]           _attenuationDbPerMeter;
+    private final double[]           _speedOfSound;
+
+    // The number of points per chunk.
+    private int                      _chunkSize;
+
+    // Count of completed points, for progress reporting.
+    private final AtomicInteger      _completedPoints;
+
+    // The number of the latest run, and the latest run number that was
+    // cancelled, so that a cancel only ever stops the run it was meant for.
+    private final AtomicLong         _runNumber;
+    private final AtomicLong         _cancelledRunNumber;
+
+    public EnvironmentSweep( final Axis temperatureAxis,
+                             final Axis humidityAxis,
+                             final Axis pressureAxis ) {
+        this( temperatureAxis,
+              humidityAxis,
+              pressureAxis,
+              AirAttenuation.getThirdOctaveBandCentersHz(),
+              null );
+    }
+
+    /**
+     * Makes a sweep, allocating its result arrays up front.
+     *
+     * @param temperatureAxis
+     *            The temperature axis, in degrees Kelvin
+     * @param humidityAxis
+     *            The relative humidity axis, in percent
+     * @param pressureAxis
+     *            The pressure axis, in pascals
+     * @param bandCentersHz
+     *            The band center frequencies, in hertz; ignored if a grid is
+     *            supplied, as the grid's own bands are used instead
+     * @param airAttenuationGrid
+     *            The grid to interpolate attenuation from, or {@code null} to
+     *            evaluate it exactly
+     */
+    public EnvironmentSweep( final Axis temperatureAxis,
+                             final Axis humidityAxis,
+                             final Axis pressureAxis,
+                             final double[] bandCentersHz,
+                             final AirAttenuationGrid airAttenuationGrid ) {
+        _temperatureAxis = temperatureAxis;
+        _humidityAxis = humidityAxis;
+        _pressureAxis = pressureAxis;
+        _airAttenuationGrid = airAttenuationGrid;
+        _bandCentersHz = ( airAttenuationGrid != null )
+            ? airAttenuationGrid.getBandCentersHz()
+            : bandCentersHz.clone();
+
+        final long numberOfPoints = ( long ) temperatureAxis.getNumberOfPoints()
+                * humidityAxis.getNumberOfPoints() * pressureAxis.getNumberOfPoints();
+        if ( ( numberOfPoints * _bandCentersHz.length ) > Integer.MAX_VALUE ) {
+            throw new IllegalArgumentException( "Sweep is too large for a single array" ); //$NON-NLS-1$
+        }
+
+        _attenuationDbPerMeter = new double[ ( int ) numberOfPoints * _bandCentersHz.length ];
+        _speedOfSound = new double[ ( int ) numberOfPoints ];
+        Arrays.fill( _attenuationDbPerMeter, Double.NaN );
+        Arrays.fill( _speedOfSound, Double.NaN );
+        _chunkSize = CHUNK_SIZE_DEFAULT;
+        _completedPoints = new AtomicInteger();
+        _runNumber = new AtomicLong( 0L );
+        _cancelledRunNumber = new AtomicLong( -1L );
+    }
+
+    /**
+     * Runs the sweep on the common fork/join pool, blocking until it is done
+     * or cancelled.
+     *
+     * @param chunkListener
+     *            The listener for completed chunks, or {@code null} if partial
+     *            results aren't needed
+     * @return {@code true} if every point was computed, or {@code false} if
+     *         the sweep was cancelled
+     */
+    public boolean run( final ChunkListener chunkListener ) {
+        return run( ForkJoinPool.commonPool(), chunkListener );
+    }
+
+    /**
+     * Runs the sweep on the given fork/join pool, blocking until it is done or
+     * cancelled.
+     *
+     * @param forkJoinPool
+     *            The pool to run the sweep on
+     * @param chunkListener
+     *            The listener for completed chunks, or {@code null} if partial
+     *            results aren't needed
+     * @return {@code true} if every point was computed, or {@code false} if
+     *         the sweep was cancelled
+     */
+    public boolean run( final ForkJoinPool forkJoinPool, final ChunkListener chunkListener ) {
+        _completedPoints.set( 0 );
+        Arrays.fill( _attenuationDbPerMeter, Double.NaN );
+        Arrays.fill( _speedOfSound, Double.NaN );
+
+        final long runNumber = _runNumber.incrementAndGet();
+        forkJoinPool.invoke( new SweepAction( 0, getNumberOfPoints(), chunkListener, runNumber ) );
+        return !isRunCancelled( runNumber );
+    }
+
+    /**
+     * Returns the number that the next run will have, so that it can be
+     * cancelled before it starts. Runs are numbered in the order they start.
+     *
+     * @return The number of the next run
+     */
+    public long getNextRunNumber() {
+        return _runNumber.get() + 1L;
+    }
+
+    /**
+     * Stops the running sweep at the next chunk boundary. Chunks that were
+     * already reported complete remain valid. If no sweep is running, this
+     * has no effect, so a cancel that arrives late never stops a later run.
+     */
+    public void cancel() {
+        cancel( _runNumber.get() );
+    }
+
+    /**
+     * Stops the given run, and any earlier one, whether it is running or
+     * hasn't started yet. A run that is cancelled before it starts returns
+     * right away, without computing anything.
+     *
+     * @param runNumber
+     *            The number of the run to cancel, as returned by
+     *            {@link #getNextRunNumber()} before it started
+     */
+    public void cancel( final long runNumber ) {
+        _cancelledRunNumber.accumulateAndGet( runNumber, Math::max );
+    }
+
+    /**
+     * Returns whether the latest run was cancelled.
+     *
+     * @return {@code true} if the latest run was cancelled
+     */
+    public boolean isCancelled() {
+        return isRunCancelled( _runNumber.get() );
+    }
+
+    private boolean isRunCancelled( final long runNumber ) {
+        return _cancelledRunNumber.get() >= runNumber;
+    }
+
+    public int getChunkSize() {
+        return _chunkSize;
+    }
+
+    public void setChunkSize( final int chunkSize ) {
+        _chunkSize = Math.max( 1, chunkSize );
+    }
+
+    public int getNumberOfPoints() {
+        return _speedOfSound.length;
+    }
+
+    public int getCompletedPoints() {
+        return _completedPoints.get();
+    }
+
+    public Axis getTemperatureAxis() {
+        return _temperatureAxis;
+    }
+
+    public Axis getHumidityAxis() {
+        return _humidityAxis;
+    }
+
+    public Axis getPressureAxis() {
+        return _pressureAxis;
+    }
+
+    public int getNumberOfBands() {
+        return _bandCentersHz.length;
+    }
+
+    public double[] getBandCentersHz() {
+        return _bandCentersHz.clone();
+    }
+
+    /**
+     * Returns the live attenuation array, which is only fully valid once the
+     * sweep is complete; before then, only the reported chunks are valid.
+     *
+     * @return The attenuation array, in decibels per meter
+     */
+    public double[] getAttenuationDbPerMeter() {
+        return _attenuationDbPerMeter;
+    }
+
+    /**
+     * Returns the live speed of sound array, which is only fully valid once
+     * the sweep is complete; before then, only the reported chunks are valid.
+     *
+     * @return The speed of sound array, in meters per second
+     */
+    public double[] getSpeedOfSound() {
+        return _speedOfSound;
+    }
+
+    public int getPointIndex( final int temperatureIndex,
+                              final int humidityIndex,
+                              final int pressureIndex ) {
+        return ( ( ( temperatureIndex * _humidityAxis.getNumberOfPoints() ) + humidityIndex )
+                * _pressureAxis.getNumberOfPoints() ) + pressureIndex;
+    }
+
+    private void computeChunk( final int firstPoint, final int lastPoint ) {
+        final int numberOfBands = _bandCentersHz.length;
+        final int pressurePoints = _pressureAxis.getNumberOfPoints();
+        final int humidityPoints = _humidityAxis.getNumberOfPoints();
+
+        for ( int point = firstPoint; point < lastPoint; point++ ) {
+            final int pressureIndex = point % pressurePoints;
+            final int humidityIndex = ( point / pressurePoints ) % humidityPoints;
+            final int temperatureIndex = point / ( pressurePoints * humidityPoints );
+
+            final double temperatureK = _temperatureAxis.getValue( temperatureIndex );
+            final double humidityRelative = _humidityAxis.getValue( humidityIndex );
+            final double pressurePa = _pressureAxis.getValue( pressureIndex );
+
+            if ( _airAttenuationGrid != null ) {
+                _airAttenuationGrid.getAttenuationDbPerMeter( temperatureK,
+                                                              humidityRelative,
+                                                              pressurePa,
+                                                              _attenuationDbPerMeter,
+                                                              point * numberOfBands );
+            }
+            else {
+                AirAttenuation.getAttenuationDbPerMeter( _bandCentersHz,
+                                                         temperatureK,
+                                                         humidityRelative,
+                                                         pressurePa,
+                                                         _attenuationDbPerMeter,
+                                                         point * numberOfBands );
+            }
+            _speedOfSound[ point ] = AirAttenuation
+                    .getSpeedOfSound( temperatureK, humidityRelative, pressurePa );
+        }
+    }
+
+    /**
+     * This action recursively halves its range of points until it is no
+     * larger than a chunk, and then computes that chunk directly.
+     */
+    private final class SweepAction extends RecursiveAction {
+        private static final long   serialVersionUID = 1L;
+
+        private final int           _firstPoint;
+        private final int           _lastPoint;
+        private final ChunkListener _chunkListener;
+        private final long          _runNumber;
+
+        SweepAction( final int firstPoint,
+                     final int lastPoint,
+                     final ChunkListener chunkListener,
+                     final long runNumber ) {
+            _firstPoint = firstPoint;
+            _lastPoint = lastPoint;
+            _chunkListener = chunkListener;
+            _runNumber = runNumber;
+        }
+
+        @Override
+        protected void compute() {
+            if ( isRunCancelled( _runNumber ) ) {
+                return;
+            }
+
+            final int numberOfPoints = _lastPoint - _firstPoint;
+            if ( numberOfPoints > _chunkSize ) {
+                final int middlePoint = _firstPoint + ( numberOfPoints / 2 );
+                invokeAll( new SweepAction( _firstPoint, middlePoint, _chunkListener, _runNumber ),
+                           new SweepAction( middlePoint, _lastPoint, _chunkListener, _runNumber ) );
+                return;
+            }
+
+            computeChunk( _firstPoint, _lastPoint );
+            _completedPoints.addAndGet( numberOfPoints );
+
+            if ( _chunkListener != null ) {
+                _chunkListener.chunkCompleted( _firstPoint, numberOfPoints );
+            }
+        }
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxPhysics Library
+ *
+ * You should have received a copy of the MIT License along with the FxPhysics
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxphysics
+ */
+package com.mhschmieder.fxphysicscontrols.acoustics;
+
+import com.mhschmieder.fxphysicscontrols.model.NaturalEnvironment;
+import com.mhschmieder.fxphysicscontrols.model.NaturalEnvironmentKey;
+import com.mhschmieder.jphysics.DistanceUnit;
+import com.mhschmieder.jphysics.UnitConversion;
+
+import java.util.stream.IntStream;
+
+/**
+ * This is a table of propagation delays for a set of source/receiver paths,
+ * computed in bulk from their distances and the speed of sound.
+ * <p>
+ * Distances may be in any Distance Unit; they are scaled by a single factor
+ * rather than converted one at a time. Large tables are split into chunks
+ * that are computed in parallel, with branch-free inner loops over primitive
+ * arrays that the JIT compiler can vectorize.
+ * <p>
+ * The table is cached until the temperature or humidity moves beyond the
+ * default quantization of {@link NaturalEnvironmentKey}, or the geometry is
+ * invalidated. Pressure only affects the speed of sound through the water
+ * vapor fraction, which is negligible, so pressure changes alone keep the
+ * cached table. The geometry is referenced rather than copied, so callers
+ * must call {@link #invalidate()} after editing the distances in place.
+ */
+public final class PropagationDelayTable {
+
+    // Declare the number of paths per parallel chunk.
+    public static final int CHUNK_SIZE_DEFAULT = 16384;
+
+    // The cached delays, in seconds.
+    private double[]        _delaysSeconds;
+
+    // The geometry and environment that the cached delays were computed for.
+    private double[]        _distances;
+    private DistanceUnit    _distanceUnit;
+    private long            _temperatureSteps;
+    private long            _humiditySteps;
+    private double          _speedOfSound;
+
+    // Flag for whether the cached delays are valid.
+    private boolean         _valid;
+
+    public PropagationDelayTable() {
+        _delaysSeconds = new double[ 0 ];
+        _distances = null;
+        _distanceUnit = null;
+        _speedOfSound = 0d;
+        _valid = false;
+    }
+
+    /**
+     * Returns the delays for a set of paths, recomputing them only if the
+     * geometry or the temperature or humidity changed since the last call.
+     * <p>
+     * The returned array is owned by this table, and is reused when the
+     * number of paths stays the same.
+     *
+     * @param distances
+     *            The path distances
+     * @param distanceUnit
+     *            The unit of the path distances
+     * @param naturalEnvironment
+     *            A snapshot of the environment
+     * @return The propagation delays, in seconds
+     */
+    public synchronized double[] getDelaysSeconds( final double[] distances,
+                                                   final DistanceUnit distanceUnit,
+                                                   final NaturalEnvironment naturalEnvironment ) {
+        final long temperatureSteps = Math.round( naturalEnvironment.getTemperatureK()
+                / NaturalEnvironmentKey.TEMPERATURE_STEP_K_DEFAULT );
+        final long humiditySteps = Math.round( naturalEnvironment.getHumidityRelative()
+                / NaturalEnvironmentKey.HUMIDITY_STEP_RELATIVE_DEFAULT );
+
+        if ( _valid && ( distances == _distances ) && ( distanceUnit == _distanceUnit )
+                && ( temperatureSteps == _temperatureSteps )
+                && ( humiditySteps == _humiditySteps ) ) {
+            return _delaysSeconds;
+        }
+
+        _speedOfSound = AirAttenuation.getSpeedOfSound( naturalEnvironment.getTemperatureK(),
+                                                        naturalEnvironment.getHumidityRelative(),
+                                                        naturalEnvironment.getPressurePa() );
+        if ( _delaysSeconds.length != distances.length ) {
+            _delaysSeconds = new double[ distances.length ];
+        }
+        computeDelaysSeconds( distances,
+                              UnitConversion.convertDistance( 1d, distanceUnit, DistanceUnit.METERS ),
+                              _speedOfSound,
+                              _delaysSeconds,
+                              CHUNK_SIZE_DEFAULT );
+
+        _distances = distances;
+        _distanceUnit = distanceUnit;
+        _temperatureSteps = temperatureSteps;
+        _humiditySteps = humiditySteps;
+        _valid = true;
+
+        return _delaysSeconds;
+    }
+
+    /**
+     * Discards the cached delays, such as after the geometry was edited.
+     */
+    public synchronized void invalidate() {
+        _valid = false;
+    }
+
+    /**
+     * Returns the speed of sound used for the cached delays.
+     *
+     * @return The speed of sound, in meters per second, or zero if no delays
+     *         have been computed yet
+     */
+    public synchronized double getSpeedOfSound() {
+        return _speedOfSound;
+    }
+
+    /**
+     * Computes delays from distances in bulk, splitting large arrays into
+     * chunks that are computed in parallel on the common fork/join pool.
+     *
+     * @param distances
+     *            The path distances
+     * @param metersPerDistanceUnit
+     *            The scale factor from the distance unit to meters
+     * @param speedOfSound
+     *            The speed of sound, in meters per second
+     * @param delaysSeconds
+     *            The array to write the delays into, in seconds
+     * @param chunkSize
+     *            The number of paths per chunk
+     */
+    public static void computeDelaysSeconds( final double[] distances,
+                                             final double metersPerDistanceUnit,
+                                             final double speedOfSound,
+                                             final double[] delaysSeconds,
+                                             final int chunkSize ) {
+        // Fold the unit conversion and division into a single multiplier.
+        final double secondsPerDistanceUnit = metersPerDistanceUnit / speedOfSound;
+        final int numberOfChunks = ( ( distances.length + chunkSize ) - 1 ) / chunkSize;
+
+        if ( numberOfChunks <= 1 ) {
+            scale( distances, secondsPerDistanceUnit, delaysSeconds, 0, distances.length );
+            return;
+        }
+
+        IntStream.range( 0, numberOfChunks ).parallel().forEach( chunk -> {
+            final int start = chunk * chunkSize;
+            scale( distances,
+                   secondsPerDistanceUnit,
+                   delaysSeconds,
+                   start,
+                   Math.min( start + chunkSize, distances.length ) );
+        } );
+    }
+
+    /**
+     * Converts delays to whole and fractional sample counts in bulk, such as
+     * for fractional delay lines.
+     *
+     * @param delaysSeconds
+     *            The delays, in seconds
+     * @param sampleRate
+     *            The sample rate, in hertz
+     * @param delaysSamples
+     *            The array to write the delays into, in samples
+     */
+    public static void toSamples( final double[] delaysSeconds,
+                                  final double sampleRate,
+                                  final double[] delaysSamples ) {
+        scale( delaysSeconds, sampleRate, delaysSamples, 0, delaysSeconds.length );
+    }
+
+    // NOTE: This loop is kept trivial so that the JIT compiler vectorizes it.
+    private static void scale( final double[] source,
+                               final double factor,
+                               final double[] destination,
+                               final int start,
+                               final int end ) {
+        for ( int i = start; i < end; i++ ) {
+            destination[ i ] = source[ i ] * factor;
+        }
+    }
+}
@@ -53,6 +53,7 @@ public final class NaturalEnvironmentActions {
     public SimulationActions simulationActions;
 
     public XAction useAirAttenuationAction;
+    public XAction autoPredictAction;
     public XAction resetAction;
     
     protected final boolean vectorGraphicsSupported;
@@ -67,6 +68,8 @@ public final class NaturalEnvironmentActions {
 
         useAirAttenuationAction = PhysicsLabeledActionFactory
                 .getUseAirAttenuationAction( pClientProperties );
+        autoPredictAction = PhysicsLabeledActionFactory
+                .getAutoPredictAction( pClientProperties );
 
         resetAction = LabeledActionFactory.getResetAction( pClientProperties );
 
@@ -140,6 +143,10 @@ public final class NaturalEnvironmentActions {
         return settingsActions.getWindowSizeActionCollection( true );
     }
 
+    public boolean isAutoPredict() {
+        return autoPredictAction.isSelected();
+    }
+
     public boolean isUseAirAttenuation() {
         return useAirAttenuationAction.isSelected();
     }
@@ -149,6 +156,10 @@ public final class NaturalEnvironmentActions {
         return settingsActions.selectBackgroundColor( backgroundColorName );
     }
 
+    public void setAutoPredict( final boolean autoPredict ) {
+        autoPredictAction.setSelected( autoPredict );
+    }
+
     public void setUseAirAttenuation( final boolean useAirAttenuation ) {
         useAirAttenuationAction.setSelected( useAirAttenuation );
     }
@@ -62,4 +62,12 @@ public class PhysicsLabeledActionFactory {
                                         "useAirAttenuation", 
                                         null );
     }
+
+    public static XAction getAutoPredictAction( final ClientProperties clientProperties ) {
+        return ActionFactory.makeCheck( clientProperties,
+                                        BUNDLE_NAME,
+                                        "settings",
+                                        "autoPredict",
+                                        null );
+    }
 }
@@ -0,0 +1,345 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxPhysics Library
+ *
+ * You should have received a copy of the MIT License along with the FxPhysics
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxphysics
+ */
+package com.mhschmieder.fxphysicscontrols.concurrent;
+
+import com.mhschmieder.fxphysicscontrols.model.NaturalEnvironment;
+import com.mhschmieder.fxphysicscontrols.model.NaturalEnvironmentChangeFilter;
+import javafx.animation.PauseTransition;
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.util.Duration;
+import org.controlsfx.control.action.Action;
+
+import java.util.function.Function;
+
+/**
+ * This controller implements an auto-predict mode, which re-runs a
+ * {@link PredictionService} as the Natural Environment changes, such as while
+ * the user is dragging the environment sliders.
+ * <p>
+ * Changes are debounced so that a prediction only starts once the environment
+ * has settled, but a maximum staleness bound guarantees that a prediction is
+ * started anyway if changes keep arriving for longer than that. While
+ * auto-predict mode is enabled, the service no longer cancels runs on its own
+ * as the environment changes: a run forced by the staleness bound is allowed
+ * to finish even as the drag goes on, and only a run that is still going when
+ * the environment settles is cancelled and restarted. Once the mode is turned
+ * off, manual runs are cancelled by environment changes as usual.
+ * <p>
+ * If a change filter is supplied, only significant environment changes are
+ * counted, so that nudges below the filter's tolerances never start a run.
+ * <p>
+ * All timing is done on the JavaFX Application Thread, so no extra threads
+ * are involved until the prediction itself starts.
+ */
+public final class AutoPredictController {
+
+    /**
+     * This is the timer that fires once the environment has been quiet long
+     * enough. It is only replaced by unit tests, which have no JavaFX toolkit
+     * to run a {@link PauseTransition} on.
+     */
+    interface DebounceTimer {
+
+        void restart( double delayMilliseconds );
+
+        void stop();
+    }
+
+    // Declare the default debounce delay and maximum staleness.
+    public static final double DEBOUNCE_MILLISECONDS_DEFAULT          = 250d;
+    public static final double MAXIMUM_STALENESS_MILLISECONDS_DEFAULT = 2000d;
+
+    // The Natural Environment whose changes trigger predictions.
+    private final NaturalEnvironment     _naturalEnvironment;
+
+    // The prediction service to restart.
+    private final PredictionService< ? > _predictionService;
+
+    // Flag for whether auto-predict mode is enabled.
+    private final BooleanProperty        _autoPredictEnabled;
+
+    // Timer that fires once the environment has been quiet long enough.
+    private final DebounceTimer          _debounceTimer;
+
+    // Debounce delay and maximum staleness, in milliseconds.
+    private double                       _debounceMilliseconds;
+    private double                       _maximumStalenessMilliseconds;
+
+    // Time of the oldest change not yet predicted, or -1 if none is pending.
+    private long                         _pendingSinceNanos;
+
+    // Flag for whether the debounce timer was cut short by the staleness bound.
+    private boolean                      _debounceTimerForStaleness;
+
+    // Cache the Air Attenuation flag, to tell toggles apart from drags.
+    private boolean                      _airAttenuationApplied;
+
+    // Optional filter that screens out insignificant environment changes.
+    private final NaturalEnvironmentChangeFilter _changeFilter;
+
+    // The listener that restarts the quiet period on each environment change.
+    private final InvalidationListener   _environmentChangedListener;
+
+    public AutoPredictController( final NaturalEnvironment naturalEnvironment,
+                                  final PredictionService< ? > predictionService ) {
+        this( naturalEnvironment,
+              predictionService,
+              null,
+              DEBOUNCE_MILLISECONDS_DEFAULT,
+              MAXIMUM_STALENESS_MILLISECONDS_DEFAULT );
+    }
+
+    public AutoPredictController( final NaturalEnvironmentChangeFilter changeFilter,
+                                  final PredictionService< ? > predictionService ) {
+        this( changeFilter.getNaturalEnvironment(),
+              predictionService,
+              changeFilter,
+              DEBOUNCE_MILLISECONDS_DEFAULT,
+              MAXIMUM_STALENESS_MILLISECONDS_DEFAULT );
+    }
+
+    public AutoPredictController( final NaturalEnvironment naturalEnvironment,
+                                  final PredictionService< ? > predictionService,
+                                  final NaturalEnvironmentChangeFilter changeFilter,
+                                  final double debounceMilliseconds,
+                                  final double maximumStalenessMilliseconds ) {
+        this( naturalEnvironment,
+              predictionService,
+              changeFilter,
+              debounceMilliseconds,
+              maximumStalenessMilliseconds,
+              PauseDebounceTimer::new );
+    }
+
+    // NOTE: This is for unit tests, which have no JavaFX Application Thread.
+    AutoPredictController( final NaturalEnvironment naturalEnvironment,
+                           final PredictionService< ? > predictionService,
+                           final NaturalEnvironmentChangeFilter changeFilter,
+                           final double debounceMilliseconds,
+                           final double maximumStalenessMilliseconds,
+                           final Function< Runnable, DebounceTimer > debounceTimerFactory ) {
+        _naturalEnvironment = naturalEnvironment;
+        _changeFilter = changeFilter;
+        _predictionService = predictionService;
+        _debounceMilliseconds = debounceMilliseconds;
+        _maximumStalenessMilliseconds = maximumStalenessMilliseconds;
+        _pendingSinceNanos = -1L;
+        _debounceTimerForStaleness = false;
+        _airAttenuationApplied = naturalEnvironment.isAirAttenuationApplied();
+
+        _autoPredictEnabled = new SimpleBooleanProperty( false );
+        _debounceTimer = debounceTimerFactory.apply( this::debounceTimerFinished );
+
+        // NOTE: The significant change count has to be queried to re-arm it,
+        //  just like the dirty flag.
+        _environmentChangedListener = observable -> {
+            if ( _changeFilter != null ) {
+                _changeFilter.getSignificantChangeCount();
+            }
+            else {
+                _naturalEnvironment.isNaturalEnvironmentChanged();
+            }
+            environmentChanged();
+        };
+        getEnvironmentChangedObservable().addListener( _environmentChangedListener );
+
+        // Turning the mode on catches up with the current environment, and
+        // turning it off abandons anything still pending.
+        // NOTE: While the mode is on, we decide for ourselves when a run is
+        //  stale, as otherwise the service would cancel a forced run on the
+        //  very next change. Manual runs need the service's own cancellation.
+        _autoPredictEnabled.addListener( ( observable, wasEnabled, isEnabled ) -> {
+            _predictionService.setCancelOnEnvironmentChange( !isEnabled );
+            if ( isEnabled ) {
+                predictNow();
+            }
+            else {
+                _debounceTimer.stop();
+                _pendingSinceNanos = -1L;
+            }
+        } );
+    }
+
+    /**
+     * Detaches this controller from the environment and stops any pending
+     * prediction from starting.
+     */
+    public void dispose() {
+        getEnvironmentChangedObservable().removeListener( _environmentChangedListener );
+
+        _debounceTimer.stop();
+
+        _predictionService.setCancelOnEnvironmentChange( true );
+    }
+
+    /**
+     * Binds the auto-predict mode to a check action, such as the one behind
+     * the Auto-Predict check box in the Natural Environment Tool Bar.
+     *
+     * @param autoPredictAction
+     *            The check action that toggles auto-predict mode
+     */
+    public void bindAction( final Action autoPredictAction ) {
+        _autoPredictEnabled.bindBidirectional( autoPredictAction.selectedProperty() );
+    }
+
+    public BooleanProperty autoPredictEnabledProperty() {
+        return _autoPredictEnabled;
+    }
+
+    public boolean isAutoPredictEnabled() {
+        return _autoPredictEnabled.get();
+    }
+
+    public void setAutoPredictEnabled( final boolean autoPredictEnabled ) {
+        _autoPredictEnabled.set( autoPredictEnabled );
+    }
+
+    public double getDebounceMilliseconds() {
+        return _debounceMilliseconds;
+    }
+
+    public void setDebounceMilliseconds( final double debounceMilliseconds ) {
+        _debounceMilliseconds = debounceMilliseconds;
+    }
+
+    public double getMaximumStalenessMilliseconds() {
+        return _maximumStalenessMilliseconds;
+    }
+
+    public void setMaximumStalenessMilliseconds( final double maximumStalenessMilliseconds ) {
+        _maximumStalenessMilliseconds = maximumStalenessMilliseconds;
+    }
+
+    private Observable getEnvironmentChangedObservable() {
+        return ( _changeFilter != null )
+            ? _changeFilter.significantChangeCountProperty()
+            : _naturalEnvironment.naturalEnvironmentChangedProperty();
+    }
+
+    private void environmentChanged() {
+        // Toggling Air Attenuation is a deliberate user choice rather than a
+        // slider drag, so we predict immediately instead of debouncing.
+        final boolean airAttenuationApplied = _naturalEnvironment.isAirAttenuationApplied();
+        final boolean airAttenuationToggled = airAttenuationApplied != _airAttenuationApplied;
+        _airAttenuationApplied = airAttenuationApplied;
+
+        if ( !isAutoPredictEnabled() ) {
+            return;
+        }
+
+        if ( airAttenuationToggled ) {
+            predictNow();
+            return;
+        }
+
+        final long nowNanos = System.nanoTime();
+        if ( _pendingSinceNanos < 0L ) {
+            _pendingSinceNanos = nowNanos;
+        }
+
+        // If the results have been stale for too long, predict right away
+        // rather than waiting for the user to stop moving the sliders.
+        final double staleMilliseconds = 1.0e-6d * ( nowNanos - _pendingSinceNanos );
+        final double remainingMilliseconds = _maximumStalenessMilliseconds - staleMilliseconds;
+        if ( remainingMilliseconds <= 0d ) {
+            if ( !_predictionService.isRunning() ) {
+                predictNow();
+                return;
+            }
+
+            // A run that is already in progress was forced by this bound, so
+            // it is left to finish, and the bound starts over from now.
+            _pendingSinceNanos = nowNanos;
+            restartDebounceTimer( _maximumStalenessMilliseconds );
+            return;
+        }
+
+        // Otherwise restart the debounce timer, without letting it run past
+        // the staleness bound.
+        restartDebounceTimer( remainingMilliseconds );
+    }
+
+    private void restartDebounceTimer( final double remainingMilliseconds ) {
+        _debounceTimerForStaleness = remainingMilliseconds < _debounceMilliseconds;
+        _debounceTimer.restart( Math.min( _debounceMilliseconds, remainingMilliseconds ) );
+    }
+
+    private void debounceTimerFinished() {
+        // If the timer was cut short by the staleness bound while a forced
+        // run is still going, we let that run finish, and wait for the
+        // environment to settle before predicting again.
+        if ( _debounceTimerForStaleness && _predictionService.isRunning() ) {
+            _pendingSinceNanos = System.nanoTime();
+            restartDebounceTimer( _maximumStalenessMilliseconds );
+            return;
+        }
+
+        predictNow();
+    }
+
+    private void predictNow() {
+        _debounceTimer.stop();
+        _pendingSinceNanos = -1L;
+
+        // NOTE: This cancels any run that is still in progress.
+        _predictionService.predict();
+    }
+
+    /**
+     * This is the debounce timer used in the application, which runs on the
+     * JavaFX Application Thread.
+     */
+    private static final class PauseDebounceTimer implements DebounceTimer {
+
+        private final PauseTransition _pauseTransition;
+
+        PauseDebounceTimer( final Runnable onFinished ) {
+            _pauseTransition = new PauseTransition();
+            _pauseTransition.setOnFinished( actionEvent -> onFinished.run() );
+        }
+
+        @Override
+        public void restart( final double delayMilliseconds ) {
+            _pauseTransition.stop();
+            _pauseTransition.setDuration( Duration.millis( delayMilliseconds ) );
+            _pauseTransition.playFromStart();
+        }
+
+        @Override
+        public void stop() {
+            _pauseTransition.stop();
+        }
+    }
+}
@@ -0,0 +1,326 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxPhysics Library
+ *
+ * You should have received a copy of the MIT License along with the FxPhysics
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxphysics
+ */
+package com.mhschmieder.fxphysicscontrols.concurrent;
+
+import com.mhschmieder.fxphysicscontrols.model.EnvironmentTimeSeries;
+import com.mhschmieder.fxphysicscontrols.model.NaturalEnvironment;
+import javafx.animation.AnimationTimer;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.beans.property.ReadOnlyLongProperty;
+import javafx.beans.property.ReadOnlyLongWrapper;
+import javafx.beans.property.SimpleDoubleProperty;
+
+/**
+ * This controller plays back a recorded {@link EnvironmentTimeSeries} into a
+ * {@link NaturalEnvironment}, such as to review a day of weather logs with
+ * the environment controls and downstream predictions animating along.
+ * <p>
+ * Playback is driven by an animation timer on the JavaFX Application Thread,
+ * so no updates are ever queued behind one another: each frame simply applies
+ * the reading that is current at the playback time, and any readings that
+ * were passed over since the previous frame are coalesced away. Frames are
+ * further capped to a maximum frame rate, so that at high speed multipliers
+ * the bound controls and listeners aren't updated on every pulse.
+ * <p>
+ * All methods must be called on the JavaFX Application Thread. The log may
+ * keep growing during playback, such as while a file is being imported.
+ */
+public final class EnvironmentPlaybackController {
+
+    // Declare the supported range of speed multipliers.
+    public static final double SPEED_MINIMUM              = 1d;
+    public static final double SPEED_MAXIMUM              = 1000d;
+
+    // Declare the default maximum frame rate, in frames per second.
+    public static final double FRAME_RATE_MAXIMUM_DEFAULT = 30d;
+
+    // The recorded readings to play back.
+    private final EnvironmentTimeSeries     _timeSeries;
+
+    // The Natural Environment that is driven by the playback.
+    private final NaturalEnvironment        _naturalEnvironment;
+
+    // The timer that advances the playback once per pulse, which is made on
+    // first play, as making one needs the JavaFX toolkit.
+    private AnimationTimer                  _playbackTimer;
+
+    // The speed multiplier, relative to real time.
+    private final DoubleProperty            _speed;
+
+    // The last speed that was accepted, which the playback time is running at.
+    private double                          _acceptedSpeed;
+
+    // Flag for whether playback is running.
+    private final ReadOnlyBooleanWrapper    _playing;
+
+    // The log time of the playback position, in milliseconds since the epoch.
+    private final ReadOnlyLongWrapper       _positionMillis;
+
+    // The maximum frame rate, in frames per second.
+    private double                          _maximumFrameRate;
+
+    // The wall clock and log times that the playback time is measured from.
+    private long                            _anchorNanos;
+    private long                            _anchorPositionMillis;
+
+    // The time of the last frame that was applied.
+    private long                            _lastFrameNanos;
+
+    // The index of the last reading applied, or -1 if none has been.
+    private int                             _lastAppliedIndex;
+
+    // The number of readings that were passed over without being applied.
+    private long                            _coalescedReadingCount;
+
+    public EnvironmentPlaybackController( final EnvironmentTimeSeries timeSeries,
+                                          final NaturalEnvironment naturalEnvironment ) {
+        _timeSeries = timeSeries;
+        _naturalEnvironment = naturalEnvironment;
+        _maximumFrameRate = FRAME_RATE_MAXIMUM_DEFAULT;
+        _lastAppliedIndex = -1;
+        _coalescedReadingCount = 0L;
+
+        _speed = new SimpleDoubleProperty( SPEED_MINIMUM );
+        _acceptedSpeed = SPEED_MINIMUM;
+        _playing = new ReadOnlyBooleanWrapper( false );
+        _positionMillis = new ReadOnlyLongWrapper( timeSeries.isEmpty()
+            ? 0L
+            : timeSeries.getTimestampMillis( 0 ) );
+
+        _playbackTimer = null;
+
+        // Clamp the speed, and re-anchor the playback time so that changing
+        // speed doesn't make the position jump.
+        // NOTE: Clamping sets the speed again from within this listener, so
+        //  the old value of the nested change is the rejected speed; we
+        //  therefore re-anchor using the last speed that was accepted.
+        _speed.addListener( ( observable, oldSpeed, newSpeed ) -> {
+            final double speed = newSpeed.doubleValue();
+            if ( ( speed < SPEED_MINIMUM ) || ( speed > SPEED_MAXIMUM ) ) {
+                _speed.set( Math.min( Math.max( speed, SPEED_MINIMUM ), SPEED_MAXIMUM ) );
+                return;
+            }
+            if ( isPlaying() ) {
+                final long nowNanos = System.nanoTime();
+                _anchorPositionMillis = getPlaybackTimeMillis( nowNanos, _acceptedSpeed );
+                _anchorNanos = nowNanos;
+            }
+            _acceptedSpeed = speed;
+        } );
+    }
+
+    /**
+     * Starts or resumes playback from the current position, rewinding first
+     * if the end of the log was reached.
+     */
+    public void play() {
+        if ( isPlaying() || _timeSeries.isEmpty() ) {
+            return;
+        }
+
+        if ( _positionMillis.get() >= _timeSeries.getTimestampMillis( _timeSeries.getSize() - 1 ) ) {
+            seek( _timeSeries.getTimestampMillis( 0 ) );
+        }
+
+        _anchorNanos = System.nanoTime();
+        _anchorPositionMillis = _positionMillis.get();
+        _lastFrameNanos = Long.MIN_VALUE;
+        _playing.set( true );
+
+        if ( _playbackTimer == null ) {
+            _playbackTimer = new AnimationTimer() {
+                @Override
+                public void handle( final long nowNanos ) {
+                    advance( nowNanos );
+                }
+            };
+        }
+        _playbackTimer.start();
+    }
+
+    /**
+     * Pauses playback at the current position.
+     */
+    public void pause() {
+        if ( _playbackTimer != null ) {
+            _playbackTimer.stop();
+        }
+        _playing.set( false );
+    }
+
+    /**
+     * Stops playback and rewinds to the start of the log.
+     */
+    public void stop() {
+        pause();
+
+        if ( !_timeSeries.isEmpty() ) {
+            seek( _timeSeries.getTimestampMillis( 0 ) );
+        }
+    }
+
+    /**
+     * Moves the playback position, applying the reading that is current at
+     * the new position right away.
+     *
+     * @param positionMillis
+     *            The new log time, in milliseconds since the epoch
+     */
+    public void seek( final long positionMillis ) {
+        _positionMillis.set( positionMillis );
+        _anchorNanos = System.nanoTime();
+        _anchorPositionMillis = positionMillis;
+        applyReading( _timeSeries.getLastIndexAtOrBefore( positionMillis ), false );
+    }
+
+    /**
+     * Stops playback and detaches this controller from the animation pulse.
+     */
+    public void dispose() {
+        pause();
+    }
+
+    public DoubleProperty speedProperty() {
+        return _speed;
+    }
+
+    public double getSpeed() {
+        return _speed.get();
+    }
+
+    public void setSpeed( final double speed ) {
+        _speed.set( speed );
+    }
+
+    public ReadOnlyBooleanProperty playingProperty() {
+        return _playing.getReadOnlyProperty();
+    }
+
+    public boolean isPlaying() {
+        return _playing.get();
+    }
+
+    public ReadOnlyLongProperty positionMillisProperty() {
+        return _positionMillis.getReadOnlyProperty();
+    }
+
+    public long getPositionMillis() {
+        return _positionMillis.get();
+    }
+
+    public double getMaximumFrameRate() {
+        return _maximumFrameRate;
+    }
+
+    /**
+     * Sets the maximum frame rate, which caps how often the Natural
+     * Environment is updated during playback.
+     *
+     * @param maximumFrameRate
+     *            The maximum frame rate, in frames per second
+     * @throws IllegalArgumentException
+     *             If the frame rate isn't positive
+     */
+    public void setMaximumFrameRate( final double maximumFrameRate ) {
+        if ( !( maximumFrameRate > 0d ) ) {
+            throw new IllegalArgumentException( "Maximum frame rate must be positive: " //$NON-NLS-1$
+                    + maximumFrameRate );
+        }
+
+        _maximumFrameRate = maximumFrameRate;
+    }
+
+    /**
+     * Returns the number of readings that were passed over during playback
+     * without being applied, because several of them fell within one frame.
+     *
+     * @return The number of coalesced readings
+     */
+    public long getCoalescedReadingCount() {
+        return _coalescedReadingCount;
+    }
+
+    // NOTE: This is package-private for unit tests, which have no animation
+    //  pulse.
+    void advance( final long nowNanos ) {
+        // Skip any pulse that comes sooner than the frame rate cap allows.
+        final long frameIntervalNanos = ( long ) ( 1.0e9d / _maximumFrameRate );
+        if ( ( _lastFrameNanos != Long.MIN_VALUE )
+                && ( ( nowNanos - _lastFrameNanos ) < frameIntervalNanos ) ) {
+            return;
+        }
+        _lastFrameNanos = nowNanos;
+
+        // Stop if the log was cleared during playback, as there is nothing
+        // left to play.
+        final int size = _timeSeries.getSize();
+        if ( size == 0 ) {
+            pause();
+            return;
+        }
+
+        final long endMillis = _timeSeries.getTimestampMillis( size - 1 );
+        final long positionMillis = Math.min( getPlaybackTimeMillis( nowNanos, _acceptedSpeed ),
+                                              endMillis );
+        _positionMillis.set( positionMillis );
+        applyReading( _timeSeries.getLastIndexAtOrBefore( positionMillis ), true );
+
+        if ( positionMillis >= endMillis ) {
+            pause();
+        }
+    }
+
+    private long getPlaybackTimeMillis( final long nowNanos, final double speed ) {
+        return _anchorPositionMillis
+                + ( long ) ( ( ( nowNanos - _anchorNanos ) * speed ) / 1.0e6d );
+    }
+
+    private void applyReading( final int index, final boolean countCoalesced ) {
+        if ( ( index < 0 ) || ( index == _lastAppliedIndex ) ) {
+            return;
+        }
+
+        if ( countCoalesced && ( index > ( _lastAppliedIndex + 1 ) ) ) {
+            _coalescedReadingCount += index - _lastAppliedIndex - 1;
+        }
+        _lastAppliedIndex = index;
+
+        final double temperatureK = _timeSeries.getTemperatureK( index );
+        final double humidityRelative = _timeSeries.getHumidityRelative( index );
+        final double pressurePa = _timeSeries.getPressurePa( index );
+        _naturalEnvironment.setNaturalEnvironment( temperatureK,
+                                                   humidityRelative,
+                                                   pressurePa,
+                                                   _naturalEnvironment.isAirAttenuationApplied() );
+    }
+}
@@ -0,0 +1,265 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxPhysics Library
+ *
+ * You should have received a copy of the MIT License along with the FxPhysics
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxphysics
+ */
+package com.mhschmieder.fxphysicscontrols.concurrent;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This slot holds the latest pending Natural Environment reading for a
+ * {@link NaturalEnvironmentDispatcher}, which any number of threads store
+ * into and one consumer thread takes from.
+ * <p>
+ * The slot is guarded by a sequence lock: the sequence is odd while a reading
+ * is being stored and is advanced by two for every stored reading, so that
+ * the consumer always takes whole readings without ever waiting. Storing
+ * threads only wait for each other, for the few stores of a reading. Each
+ * field remembers the sequence of the reading that stored it, so that a
+ * reading of a single field leaves the other fields as they were.
+ */
+final class EnvironmentReadingSlot {
+
+    // Declare the field indices.
+    static final int  TEMPERATURE      = 0;
+    static final int  HUMIDITY         = 1;
+    static final int  PRESSURE         = 2;
+    static final int  NUMBER_OF_FIELDS = 3;
+
+    // Declare the field masks for single-field and whole readings.
+    static final int  TEMPERATURE_MASK = 1 << TEMPERATURE;
+    static final int  HUMIDITY_MASK    = 1 << HUMIDITY;
+    static final int  PRESSURE_MASK    = 1 << PRESSURE;
+    static final int  ALL_FIELDS_MASK  = TEMPERATURE_MASK | HUMIDITY_MASK | PRESSURE_MASK;
+
+    // The sequence of the last stored reading, which is odd while a reading
+    // is being stored.
+    private final AtomicLong      _sequence;
+
+    // The sequence of the last taken reading, which is always even.
+    private volatile long         _takenSequence;
+
+    // The latest value of each field, as raw bits, and the sequence of the
+    // reading that stored it.
+    private final AtomicLongArray _values;
+    private final AtomicLongArray _valueSequences;
+
+    // The sample time of the newest timed reading, and its sequence.
+    private final AtomicLong      _sampleNanos;
+    private final AtomicLong      _sampleSequence;
+
+    // The sample time of the last taken reading, or -1 if it wasn't given.
+    // This is only accessed by the consumer thread.
+    private long                  _takenSampleNanos;
+
+    // The number of values stored and dropped for each field.
+    private final LongAdder[]     _storedCounts;
+    private final LongAdder[]     _droppedCounts;
+
+    EnvironmentReadingSlot() {
+        _sequence = new AtomicLong( 0L );
+        _takenSequence = 0L;
+        _values = new AtomicLongArray( NUMBER_OF_FIELDS );
+        _valueSequences = new AtomicLongArray( NUMBER_OF_FIELDS );
+        _sampleNanos = new AtomicLong( -1L );
+        _sampleSequence = new AtomicLong( 0L );
+        _takenSampleNanos = -1L;
+        _storedCounts = new LongAdder[ NUMBER_OF_FIELDS ];
+        _droppedCounts = new LongAdder[ NUMBER_OF_FIELDS ];
+        for ( int field = 0; field < NUMBER_OF_FIELDS; field++ ) {
+            _storedCounts[ field ] = new LongAdder();
+            _droppedCounts[ field ] = new LongAdder();
+        }
+    }
+
+    /**
+     * Stores a reading of some or all of the fields. This may be called from
+     * any thread, and never allocates.
+     *
+     * @param fieldMask
+     *            The mask of the fields in the reading
+     * @param temperatureK
+     *            The temperature, in degrees Kelvin
+     * @param humidityRelative
+     *            The relative humidity, in percent
+     * @param pressurePa
+     *            The pressure, in pascals
+     * @param sampleNanos
+     *            The {@link System#nanoTime()} at which the reading was
+     *            sampled, or -1 if it isn't known
+     */
+    void store( final int fieldMask,
+                final double temperatureK,
+                final double humidityRelative,
+                final double pressurePa,
+                final long sampleNanos ) {
+        // Mark the reading as being stored, waiting for any other reading
+        // that is being stored at the same time.
+        long sequence = _sequence.get();
+        while ( ( ( sequence & 1L ) != 0L )
+                || !_sequence.compareAndSet( sequence, sequence + 1L ) ) {
+            Thread.yield();
+            sequence = _sequence.get();
+        }
+        final long readingSequence = sequence + 2L;
+        final long takenSequence = _takenSequence;
+
+        storeValue( fieldMask, TEMPERATURE, temperatureK, readingSequence, takenSequence );
+        storeValue( fieldMask, HUMIDITY, humidityRelative, readingSequence, takenSequence );
+        storeValue( fieldMask, PRESSURE, pressurePa, readingSequence, takenSequence );
+        if ( sampleNanos >= 0L ) {
+            _sampleNanos.set( sampleNanos );
+            _sampleSequence.set( readingSequence );
+        }
+
+        // Publish the reading by completing the sequence.
+        _sequence.set( readingSequence );
+    }
+
+    /**
+     * Takes everything that was stored since the last take. This must only
+     * be called from the consumer thread.
+     *
+     * @param values
+     *            The array to write the temperature, relative humidity and
+     *            pressure into; fields that weren't stored are left as is
+     * @return The mask of the fields that were taken, which is zero if
+     *         nothing new was stored, or if a reading is being stored right
+     *         now and so has to be taken later
+     */
+    int take( final double[] values ) {
+        final long takenSequence = _takenSequence;
+        long sequence;
+        long temperatureSequence;
+        long humiditySequence;
+        long pressureSequence;
+        long temperatureBits;
+        long humidityBits;
+        long pressureBits;
+        long sampleSequence;
+        long sampleNanos;
+        do {
+            sequence = _sequence.get();
+            if ( ( ( sequence & 1L ) != 0L ) || ( sequence == takenSequence ) ) {
+                return 0;
+            }
+            temperatureSequence = _valueSequences.get( TEMPERATURE );
+            humiditySequence = _valueSequences.get( HUMIDITY );
+            pressureSequence = _valueSequences.get( PRESSURE );
+            temperatureBits = _values.get( TEMPERATURE );
+            humidityBits = _values.get( HUMIDITY );
+            pressureBits = _values.get( PRESSURE );
+            sampleSequence = _sampleSequence.get();
+            sampleNanos = _sampleNanos.get();
+        }
+        while ( _sequence.get() != sequence );
+        _takenSequence = sequence;
+
+        int fieldMask = 0;
+        if ( temperatureSequence > takenSequence ) {
+            values[ TEMPERATURE ] = Double.longBitsToDouble( temperatureBits );
+            fieldMask |= TEMPERATURE_MASK;
+        }
+        if ( humiditySequence > takenSequence ) {
+            values[ HUMIDITY ] = Double.longBitsToDouble( humidityBits );
+            fieldMask |= HUMIDITY_MASK;
+        }
+        if ( pressureSequence > takenSequence ) {
+            values[ PRESSURE ] = Double.longBitsToDouble( pressureBits );
+            fieldMask |= PRESSURE_MASK;
+        }
+        _takenSampleNanos = ( sampleSequence > takenSequence ) ? sampleNanos : -1L;
+
+        return fieldMask;
+    }
+
+    /**
+     * Returns the sample time of the newest timed reading in the last take.
+     * This must only be called from the consumer thread.
+     *
+     * @return The {@link System#nanoTime()} at which the reading was sampled,
+     *         or -1 if no timed reading was taken
+     */
+    long getTakenSampleNanos() {
+        return _takenSampleNanos;
+    }
+
+    /**
+     * Returns whether anything was stored since the last take, including a
+     * reading that is being stored right now.
+     *
+     * @return {@code true} if there is something left to take
+     */
+    boolean hasPending() {
+        return _sequence.get() != _takenSequence;
+    }
+
+    /**
+     * Discards everything that was stored so far. This must only be called
+     * from the consumer thread.
+     */
+    void discard() {
+        _takenSequence = _sequence.get() & ~1L;
+    }
+
+    long getStoredCount( final int field ) {
+        return _storedCounts[ field ].sum();
+    }
+
+    long getDroppedCount( final int field ) {
+        return _droppedCounts[ field ].sum();
+    }
+
+    void resetCounts() {
+        for ( int field = 0; field < NUMBER_OF_FIELDS; field++ ) {
+            _storedCounts[ field ].reset();
+            _droppedCounts[ field ].reset();
+        }
+    }
+
+    private void storeValue( final int fieldMask,
+                             final int field,
+                             final double value,
+                             final long readingSequence,
+                             final long takenSequence ) {
+        if ( ( fieldMask & ( 1 << field ) ) == 0 ) {
+            return;
+        }
+
+        // A value that was stored after the last take was never applied.
+        _storedCounts[ field ].increment();
+        if ( _valueSequences.get( field ) > takenSequence ) {
+            _droppedCounts[ field ].increment();
+        }
+        _values.set( field, Double.doubleToLongBits( value ) );
+        _valueSequences.set( field, readingSequence );
+    }
+}
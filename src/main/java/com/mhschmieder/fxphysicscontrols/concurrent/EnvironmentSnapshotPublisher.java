@@ -0,0 +1,451 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxPhysics Library
+ *
+ * You should have received a copy of the MIT License along with the FxPhysics
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxphysics
+ */
+package com.mhschmieder.fxphysicscontrols.concurrent;
+
+import com.mhschmieder.fxphysicscontrols.model.EnvironmentSnapshot;
+import com.mhschmieder.fxphysicscontrols.model.MeasurementUnits;
+import com.mhschmieder.fxphysicscontrols.model.NaturalEnvironment;
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.beans.binding.BooleanBinding;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This publisher emits an immutable {@link EnvironmentSnapshot} whenever the
+ * Natural Environment or Measurement Units change, to any number of
+ * subscribers that consume them at very different speeds, such as downstream
+ * simulation engines.
+ * <p>
+ * The subscription contract follows the reactive streams protocol of
+ * {@code java.util.concurrent.Flow}, which is not available on this library's
+ * Java baseline: subscribers request snapshots, and are never sent more than
+ * they requested. Rather than queueing the snapshots that a subscriber hasn't
+ * requested yet, each subscription holds only the latest one, so that a slow
+ * subscriber gets the current state as soon as it asks for more, instead of
+ * working through an unbounded backlog of stale states. Each new subscriber
+ * is offered the current state right away.
+ * <p>
+ * Snapshots are taken on the JavaFX Application Thread once a batch of changes
+ * has been applied, so that a whole environment set one field at a time
+ * yields a single snapshot rather than several half-applied ones, and are
+ * delivered to each subscriber on an executor, one signal at a time. A
+ * subscriber never gets a snapshot older than one it already got.
+ */
+public final class EnvironmentSnapshotPublisher {
+
+    /**
+     * This is the link between the publisher and one subscriber, with the same
+     * contract as {@code java.util.concurrent.Flow.Subscription}.
+     */
+    public interface Subscription {
+
+        /**
+         * Requests more snapshots. Requests add up, and a request of
+         * {@code Long.MAX_VALUE} means that demand is unbounded.
+         *
+         * @param numberOfSnapshots
+         *            The number of additional snapshots requested, which must
+         *            be positive
+         */
+        void request( long numberOfSnapshots );
+
+        /**
+         * Stops delivery of snapshots to the subscriber, which may still
+         * receive signals that were already under way.
+         */
+        void cancel();
+    }
+
+    /**
+     * This is a receiver of snapshots, with the same contract as
+     * {@code java.util.concurrent.Flow.Subscriber}. Signals are never
+     * concurrent for one subscriber.
+     */
+    public interface Subscriber {
+
+        /**
+         * Receives the subscription, before any other signal.
+         *
+         * @param subscription
+         *            The new subscription
+         */
+        void onSubscribe( Subscription subscription );
+
+        /**
+         * Receives the latest snapshot, within the requested demand.
+         *
+         * @param environmentSnapshot
+         *            The latest snapshot
+         */
+        void onNext( EnvironmentSnapshot environmentSnapshot );
+
+        /**
+         * Receives a failure, after which no other signals are sent.
+         *
+         * @param throwable
+         *            The cause of the failure
+         */
+        void onError( Throwable throwable );
+
+        /**
+         * Receives notice that the publisher was closed, after which no other
+         * signals are sent.
+         */
+        void onComplete();
+    }
+
+    // The state that snapshots are taken of.
+    private final NaturalEnvironment                         _naturalEnvironment;
+    private final MeasurementUnits                           _measurementUnits;
+
+    // The executor that signals are delivered on.
+    private final Executor                                   _executor;
+
+    // The executor that snapshots are taken on, which is normally the JavaFX
+    // Application Thread.
+    private final Executor                                   _publishExecutor;
+
+    // The active subscriptions.
+    private final CopyOnWriteArrayList< SnapshotSubscription > _subscriptions;
+
+    // The latest snapshot, and the version number of the state.
+    private volatile EnvironmentSnapshot                     _currentSnapshot;
+    private long                                             _version;
+
+    // Flag for whether this publisher has been closed.
+    private volatile boolean                                 _closed;
+
+    // Flag for whether a snapshot is already due to be taken.
+    private boolean                                          _publishPending;
+
+    // The number of snapshots that were replaced before being delivered.
+    private final LongAdder                                  _conflatedSnapshotCount;
+
+    // The listener that schedules a snapshot on any environment or unit
+    // change.
+    private final InvalidationListener                       _stateChangedListener;
+
+    /**
+     * Makes a publisher that delivers on the common fork/join pool.
+     *
+     * @param naturalEnvironment
+     *            The Natural Environment to publish snapshots of
+     * @param measurementUnits
+     *            The Measurement Units to publish snapshots of
+     */
+    public EnvironmentSnapshotPublisher( final NaturalEnvironment naturalEnvironment,
+                                         final MeasurementUnits measurementUnits ) {
+        this( naturalEnvironment, measurementUnits, ForkJoinPool.commonPool() );
+    }
+
+    public EnvironmentSnapshotPublisher( final NaturalEnvironment naturalEnvironment,
+                                         final MeasurementUnits measurementUnits,
+                                         final Executor executor ) {
+        this( naturalEnvironment, measurementUnits, executor, Platform::runLater );
+    }
+
+    // NOTE: This is for unit tests, which have no JavaFX Application Thread.
+    EnvironmentSnapshotPublisher( final NaturalEnvironment naturalEnvironment,
+                                  final MeasurementUnits measurementUnits,
+                                  final Executor executor,
+                                  final Executor publishExecutor ) {
+        _naturalEnvironment = naturalEnvironment;
+        _measurementUnits = measurementUnits;
+        _executor = executor;
+        _publishExecutor = publishExecutor;
+        _subscriptions = new CopyOnWriteArrayList<>();
+        _version = 0L;
+        _closed = false;
+        _publishPending = false;
+        _conflatedSnapshotCount = new LongAdder();
+        _currentSnapshot = EnvironmentSnapshot.of( naturalEnvironment, measurementUnits, _version );
+
+        _stateChangedListener = observable -> {
+            ( ( BooleanBinding ) observable ).get();
+            schedulePublish();
+        };
+        _naturalEnvironment.naturalEnvironmentChangedProperty()
+                .addListener( _stateChangedListener );
+        _measurementUnits.measurementUnitsChangedProperty().addListener( _stateChangedListener );
+    }
+
+    /**
+     * Adds a subscriber, which is offered the current snapshot right away.
+     * This may be called from any thread.
+     *
+     * @param subscriber
+     *            The subscriber to add
+     */
+    public void subscribe( final Subscriber subscriber ) {
+        final SnapshotSubscription subscription = new SnapshotSubscription( subscriber );
+        if ( _closed ) {
+            subscription.complete();
+            return;
+        }
+
+        _subscriptions.add( subscription );
+        subscription.offer( _currentSnapshot );
+
+        // NOTE: The publisher may have been closed after the check above but
+        //  before the subscription was added, in which case it was missed.
+        //  Completing twice is harmless.
+        if ( _closed ) {
+            subscription.complete();
+        }
+    }
+
+    /**
+     * Detaches this publisher from the state it publishes, and completes
+     * every subscription once it has been offered the final snapshot. This
+     * must be called on the JavaFX Application Thread.
+     */
+    public void close() {
+        if ( _closed ) {
+            return;
+        }
+
+        // Take any snapshot that is still due, so that it isn't lost.
+        if ( _publishPending ) {
+            publish();
+        }
+        _closed = true;
+
+        _naturalEnvironment.naturalEnvironmentChangedProperty()
+                .removeListener( _stateChangedListener );
+        _measurementUnits.measurementUnitsChangedProperty().removeListener( _stateChangedListener );
+
+        for ( final SnapshotSubscription subscription : _subscriptions ) {
+            subscription.complete();
+        }
+        _subscriptions.clear();
+    }
+
+    public EnvironmentSnapshot getCurrentSnapshot() {
+        return _currentSnapshot;
+    }
+
+    public int getNumberOfSubscribers() {
+        return _subscriptions.size();
+    }
+
+    /**
+     * Returns the number of snapshots that were replaced by newer ones before
+     * a slow subscriber requested them, summed over all subscribers.
+     *
+     * @return The number of conflated snapshots
+     */
+    public long getConflatedSnapshotCount() {
+        return _conflatedSnapshotCount.sum();
+    }
+
+    // Defer the snapshot until the current batch of changes has been applied,
+    // as the environment fields are set one at a time.
+    private void schedulePublish() {
+        if ( _publishPending ) {
+            return;
+        }
+        _publishPending = true;
+        _publishExecutor.execute( this::publish );
+    }
+
+    private void publish() {
+        _publishPending = false;
+        if ( _closed ) {
+            return;
+        }
+
+        _version++;
+        _currentSnapshot = EnvironmentSnapshot.of( _naturalEnvironment,
+                                                   _measurementUnits,
+                                                   _version );
+        for ( final SnapshotSubscription subscription : _subscriptions ) {
+            subscription.offer( _currentSnapshot );
+        }
+    }
+
+    /**
+     * This is a subscription that holds at most one undelivered snapshot, and
+     * serializes its signals with a work-in-progress counter, so that only
+     * one delivery task per subscriber is ever queued on the executor.
+     */
+    private final class SnapshotSubscription implements Subscription {
+
+        private final Subscriber                            _subscriber;
+        private final AtomicReference< EnvironmentSnapshot > _pendingSnapshot;
+        private final AtomicLong                            _demand;
+        private final AtomicInteger                         _workInProgress;
+        private volatile boolean                            _subscribed;
+        private volatile boolean                            _completed;
+        private volatile boolean                            _cancelled;
+        private volatile Throwable                          _requestError;
+        private long                                        _deliveredVersion;
+
+        SnapshotSubscription( final Subscriber subscriber ) {
+            _subscriber = subscriber;
+            _pendingSnapshot = new AtomicReference<>( null );
+            _demand = new AtomicLong( 0L );
+            _workInProgress = new AtomicInteger( 0 );
+            _subscribed = false;
+            _completed = false;
+            _cancelled = false;
+            _requestError = null;
+            _deliveredVersion = -1L;
+
+            signal();
+        }
+
+        @Override
+        public void request( final long numberOfSnapshots ) {
+            if ( numberOfSnapshots <= 0L ) {
+                _requestError = new IllegalArgumentException( "Non-positive request " //$NON-NLS-1$
+                        + numberOfSnapshots );
+            }
+            else {
+                // Add to the demand, capping it at unbounded.
+                long demand;
+                long newDemand;
+                do {
+                    demand = _demand.get();
+                    newDemand = demand + numberOfSnapshots;
+                    if ( newDemand < 0L ) {
+                        newDemand = Long.MAX_VALUE;
+                    }
+                }
+                while ( !_demand.compareAndSet( demand, newDemand ) );
+            }
+
+            signal();
+        }
+
+        @Override
+        public void cancel() {
+            _cancelled = true;
+            _subscriptions.remove( this );
+            _pendingSnapshot.set( null );
+        }
+
+        // Keep whichever snapshot is newer, as a new subscriber may offer the
+        // snapshot it started with after a newer one was already published.
+        void offer( final EnvironmentSnapshot environmentSnapshot ) {
+            EnvironmentSnapshot pendingSnapshot;
+            do {
+                pendingSnapshot = _pendingSnapshot.get();
+                if ( ( pendingSnapshot != null )
+                        && ( pendingSnapshot.getVersion() >= environmentSnapshot.getVersion() ) ) {
+                    return;
+                }
+            }
+            while ( !_pendingSnapshot.compareAndSet( pendingSnapshot, environmentSnapshot ) );
+
+            if ( pendingSnapshot != null ) {
+                _conflatedSnapshotCount.increment();
+            }
+            signal();
+        }
+
+        void complete() {
+            _completed = true;
+            signal();
+        }
+
+        private void signal() {
+            if ( _workInProgress.getAndIncrement() == 0 ) {
+                _executor.execute( this::drain );
+            }
+        }
+
+        private void drain() {
+            int missed = 1;
+            do {
+                if ( !_cancelled ) {
+                    try {
+                        deliver();
+                    }
+                    catch ( final RuntimeException re ) {
+                        // A subscriber that throws breaks the protocol, so it
+                        // is cut off, but is still told why.
+                        cancel();
+                        _subscriber.onError( re );
+                    }
+                }
+                missed = _workInProgress.addAndGet( -missed );
+            }
+            while ( missed != 0 );
+        }
+
+        private void deliver() {
+            if ( !_subscribed ) {
+                _subscribed = true;
+                _subscriber.onSubscribe( this );
+                if ( _cancelled ) {
+                    return;
+                }
+            }
+
+            final Throwable requestError = _requestError;
+            if ( requestError != null ) {
+                cancel();
+                _subscriber.onError( requestError );
+                return;
+            }
+
+            if ( _demand.get() > 0L ) {
+                // NOTE: A stale snapshot can still arrive after a newer one was
+                //  delivered, so it is dropped here rather than delivered.
+                final EnvironmentSnapshot environmentSnapshot = _pendingSnapshot.getAndSet( null );
+                if ( ( environmentSnapshot != null )
+                        && ( environmentSnapshot.getVersion() > _deliveredVersion ) ) {
+                    _deliveredVersion = environmentSnapshot.getVersion();
+                    if ( _demand.get() != Long.MAX_VALUE ) {
+                        _demand.decrementAndGet();
+                    }
+                    _subscriber.onNext( environmentSnapshot );
+                }
+            }
+
+            // The final snapshot is only held back for as long as there is no
+            // demand for it, so that completion isn't delayed indefinitely.
+            if ( _completed && !_cancelled ) {
+                if ( ( _pendingSnapshot.get() == null ) || ( _demand.get() == 0L ) ) {
+                    cancel();
+                    _subscriber.onComplete();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,342 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxPhysics Library
+ *
+ * You should have received a copy of the MIT License along with the FxPhysics
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxphysics
+ */
+package com.mhschmieder.fxphysicscontrols.concurrent;
+
+import com.mhschmieder.fxphysicscontrols.model.NaturalEnvironment;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This dispatcher hands Natural Environment readings from live sensors, which
+ * may arrive at hundreds of readings per second on any thread, over to the
+ * JavaFX Application Thread without flooding its event queue.
+ * <p>
+ * Only the latest pending value is kept for each field; a value that is
+ * overwritten before it could be applied is counted as dropped. Pending
+ * values are applied by an animation timer, so the environment is updated at
+ * most once per pulse, and the timer only runs while readings keep arriving.
+ * <p>
+ * Pending values are kept in an {@link EnvironmentReadingSlot}, so that a
+ * reading of several fields is always applied whole, in a single pulse.
+ * Offering a reading never allocates, and only waits for another reading that
+ * is being offered at the same time. Each update is applied with a single
+ * call to
+ * {@link NaturalEnvironment#setNaturalEnvironment(double, double, double, boolean)},
+ * which still sets the environment's properties one at a time, so listeners
+ * on a single property may see the other fields before they are updated; the
+ * dispatch listener is only invoked once the whole update was applied.
+ * <p>
+ * Readings may carry the time they were sampled, in which case a dispatch
+ * listener is told the sample time of the newest reading in each update, such
+ * as for measuring end-to-end latency.
+ */
+public final class NaturalEnvironmentDispatcher {
+
+    /**
+     * This is a listener for applied updates. It is invoked on the JavaFX
+     * Application Thread, right after an update was applied.
+     */
+    @FunctionalInterface
+    public interface DispatchListener {
+
+        /**
+         * Reports that an update was applied to the Natural Environment.
+         *
+         * @param sampleNanos
+         *            The {@link System#nanoTime()} at which the newest reading
+         *            in the update was sampled, or -1 if it wasn't given
+         * @param pulseNanos
+         *            The time of the pulse that applied the update, as passed
+         *            to animation timers
+         */
+        void updateApplied( long sampleNanos, long pulseNanos );
+    }
+
+    // The Natural Environment that readings are applied to.
+    private final NaturalEnvironment _naturalEnvironment;
+
+    // The latest pending reading.
+    private final EnvironmentReadingSlot _pendingReading;
+
+    // The values of the update being applied, which are only accessed on the
+    // JavaFX Application Thread.
+    private final double[]           _updateValues;
+
+    // Flag for whether the timer is running, or about to be started.
+    private final AtomicBoolean      _active;
+
+    // The timer that applies pending values once per pulse, which is made on
+    // first start, as making one needs the JavaFX toolkit.
+    private AnimationTimer           _dispatchTimer;
+
+    // The number of updates applied to the Natural Environment.
+    private final LongAdder          _appliedUpdateCount;
+
+    // The optional listener for applied updates.
+    private volatile DispatchListener _dispatchListener;
+
+    // Flag for whether this dispatcher was disposed, after which nothing more
+    // is applied, even by a timer start that was already queued.
+    private volatile boolean          _disposed;
+
+    public NaturalEnvironmentDispatcher( final NaturalEnvironment naturalEnvironment ) {
+        _naturalEnvironment = naturalEnvironment;
+        _pendingReading = new EnvironmentReadingSlot();
+        _updateValues = new double[ EnvironmentReadingSlot.NUMBER_OF_FIELDS ];
+        _active = new AtomicBoolean( false );
+        _appliedUpdateCount = new LongAdder();
+        _dispatchListener = null;
+        _disposed = false;
+        _dispatchTimer = null;
+    }
+
+    /**
+     * Offers a temperature reading. This may be called from any thread.
+     *
+     * @param temperatureK
+     *            The temperature, in degrees Kelvin
+     */
+    public void offerTemperatureK( final double temperatureK ) {
+        _pendingReading.store( EnvironmentReadingSlot.TEMPERATURE_MASK,
+                               temperatureK,
+                               0d,
+                               0d,
+                               -1L );
+        schedule();
+    }
+
+    /**
+     * Offers a relative humidity reading. This may be called from any thread.
+     *
+     * @param humidityRelative
+     *            The relative humidity, in percent
+     */
+    public void offerHumidityRelative( final double humidityRelative ) {
+        _pendingReading.store( EnvironmentReadingSlot.HUMIDITY_MASK,
+                               0d,
+                               humidityRelative,
+                               0d,
+                               -1L );
+        schedule();
+    }
+
+    /**
+     * Offers a pressure reading. This may be called from any thread.
+     *
+     * @param pressurePa
+     *            The pressure, in pascals
+     */
+    public void offerPressurePa( final double pressurePa ) {
+        _pendingReading.store( EnvironmentReadingSlot.PRESSURE_MASK,
+                               0d,
+                               0d,
+                               pressurePa,
+                               -1L );
+        schedule();
+    }
+
+    /**
+     * Offers a reading of all three fields at once. This may be called from
+     * any thread.
+     *
+     * @param temperatureK
+     *            The temperature, in degrees Kelvin
+     * @param humidityRelative
+     *            The relative humidity, in percent
+     * @param pressurePa
+     *            The pressure, in pascals
+     */
+    public void offer( final double temperatureK,
+                       final double humidityRelative,
+                       final double pressurePa ) {
+        offer( temperatureK, humidityRelative, pressurePa, -1L );
+    }
+
+    /**
+     * Offers a reading of all three fields at once, along with the time that
+     * it was sampled. This may be called from any thread.
+     *
+     * @param temperatureK
+     *            The temperature, in degrees Kelvin
+     * @param humidityRelative
+     *            The relative humidity, in percent
+     * @param pressurePa
+     *            The pressure, in pascals
+     * @param sampleNanos
+     *            The {@link System#nanoTime()} at which the reading was
+     *            sampled, or -1 if it isn't known
+     */
+    public void offer( final double temperatureK,
+                       final double humidityRelative,
+                       final double pressurePa,
+                       final long sampleNanos ) {
+        _pendingReading.store( EnvironmentReadingSlot.ALL_FIELDS_MASK,
+                               temperatureK,
+                               humidityRelative,
+                               pressurePa,
+                               sampleNanos );
+        schedule();
+    }
+
+    public void setDispatchListener( final DispatchListener dispatchListener ) {
+        _dispatchListener = dispatchListener;
+    }
+
+    public DispatchListener getDispatchListener() {
+        return _dispatchListener;
+    }
+
+    /**
+     * Stops dispatching for good; any pending values are discarded, and later
+     * readings are ignored. This must be called on the JavaFX Application
+     * Thread.
+     */
+    public void dispose() {
+        _disposed = true;
+        if ( _dispatchTimer != null ) {
+            _dispatchTimer.stop();
+        }
+        _pendingReading.discard();
+        _active.set( false );
+    }
+
+    public long getOfferedTemperatureCount() {
+        return _pendingReading.getStoredCount( EnvironmentReadingSlot.TEMPERATURE );
+    }
+
+    public long getOfferedHumidityCount() {
+        return _pendingReading.getStoredCount( EnvironmentReadingSlot.HUMIDITY );
+    }
+
+    public long getOfferedPressureCount() {
+        return _pendingReading.getStoredCount( EnvironmentReadingSlot.PRESSURE );
+    }
+
+    public long getDroppedTemperatureCount() {
+        return _pendingReading.getDroppedCount( EnvironmentReadingSlot.TEMPERATURE );
+    }
+
+    public long getDroppedHumidityCount() {
+        return _pendingReading.getDroppedCount( EnvironmentReadingSlot.HUMIDITY );
+    }
+
+    public long getDroppedPressureCount() {
+        return _pendingReading.getDroppedCount( EnvironmentReadingSlot.PRESSURE );
+    }
+
+    /**
+     * Returns the number of updates applied to the Natural Environment, each
+     * of which may cover several fields.
+     *
+     * @return The number of applied updates
+     */
+    public long getAppliedUpdateCount() {
+        return _appliedUpdateCount.sum();
+    }
+
+    /**
+     * Resets all of the counters, such as between test runs.
+     */
+    public void resetCounts() {
+        _pendingReading.resetCounts();
+        _appliedUpdateCount.reset();
+    }
+
+    // Starts the timer on the transition from idle, which is the only time
+    // that anything is posted to the event queue.
+    private void schedule() {
+        if ( !_disposed && _active.compareAndSet( false, true ) ) {
+            Platform.runLater( this::startTimer );
+        }
+    }
+
+    private void startTimer() {
+        if ( _disposed ) {
+            return;
+        }
+
+        if ( _dispatchTimer == null ) {
+            _dispatchTimer = new AnimationTimer() {
+                @Override
+                public void handle( final long nowNanos ) {
+                    dispatch( nowNanos );
+                }
+            };
+        }
+        _dispatchTimer.start();
+    }
+
+    private void dispatch( final long pulseNanos ) {
+        if ( _disposed ) {
+            _dispatchTimer.stop();
+            return;
+        }
+
+        // Start from the current values, so that any field that has nothing
+        // pending keeps its value.
+        _updateValues[ EnvironmentReadingSlot.TEMPERATURE ] = _naturalEnvironment
+                .getTemperatureK();
+        _updateValues[ EnvironmentReadingSlot.HUMIDITY ] = _naturalEnvironment
+                .getHumidityRelative();
+        _updateValues[ EnvironmentReadingSlot.PRESSURE ] = _naturalEnvironment.getPressurePa();
+        if ( _pendingReading.take( _updateValues ) == 0 ) {
+            // NOTE: A reading that is being offered right now is left for the
+            //  next pulse. Otherwise a reading may have arrived after the take
+            //  but before the flag was cleared, in which case its offer saw
+            //  the timer as active, so we have to check again before going
+            //  idle.
+            if ( !_pendingReading.hasPending() ) {
+                _dispatchTimer.stop();
+                _active.set( false );
+                if ( _pendingReading.hasPending() && _active.compareAndSet( false, true ) ) {
+                    _dispatchTimer.start();
+                }
+            }
+            return;
+        }
+
+        // Apply all fields in one batch.
+        _naturalEnvironment
+                .setNaturalEnvironment( _updateValues[ EnvironmentReadingSlot.TEMPERATURE ],
+                                        _updateValues[ EnvironmentReadingSlot.HUMIDITY ],
+                                        _updateValues[ EnvironmentReadingSlot.PRESSURE ],
+                                        _naturalEnvironment.isAirAttenuationApplied() );
+        _appliedUpdateCount.increment();
+
+        final DispatchListener dispatchListener = _dispatchListener;
+        if ( dispatchListener != null ) {
+            dispatchListener.updateApplied( _pendingReading.getTakenSampleNanos(), pulseNanos );
+        }
+    }
+}
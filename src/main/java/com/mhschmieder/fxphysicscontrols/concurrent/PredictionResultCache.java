@@ -0,0 +1,203 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxPhysics Library
+ *
+ * You should have received a copy of the MIT License along with the FxPhysics
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxphysics
+ */
+package com.mhschmieder.fxphysicscontrols.concurrent;
+
+import com.mhschmieder.fxphysicscontrols.model.NaturalEnvironmentKey;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.ToLongFunction;
+
+/**
+ * This is a bounded LRU cache of prediction results, keyed on a quantized
+ * {@link NaturalEnvironmentKey}. Entries are evicted in least recently used
+ * order once either the maximum entry count or the maximum estimated memory
+ * footprint is exceeded. The memory bound is only as good as the size
+ * estimator it is given, so caches made without one are bounded by the
+ * number of entries alone.
+ * <p>
+ * All methods are synchronized, as results may be stored and looked up from
+ * different threads.
+ *
+ * @param <R>
+ *            The type of the prediction result
+ */
+public final class PredictionResultCache< R > {
+
+    // Declare the default bounds, which suit a handful of site presets.
+    public static final int  MAXIMUM_ENTRIES_DEFAULT = 32;
+    public static final long MAXIMUM_BYTES_DEFAULT   = 64L * 1024L * 1024L;
+
+    // The cached results, in access order.
+    private final LinkedHashMap< NaturalEnvironmentKey, R > _results;
+
+    // Cache the estimated size of each entry, so eviction needn't recompute.
+    private final Map< NaturalEnvironmentKey, Long >        _resultSizes;
+
+    // Function for estimating the memory footprint of a result, in bytes.
+    private final ToLongFunction< R >                       _sizeEstimator;
+
+    // The bounds on the number of entries and their estimated total size.
+    private final int                                       _maximumEntries;
+    private final long                                      _maximumBytes;
+
+    // Running total of the estimated size of all entries.
+    private long                                            _totalBytes;
+
+    // Statistics, for tuning the bounds.
+    private long                                            _hitCount;
+    private long                                            _missCount;
+
+    /**
+     * Makes a cache that is only bounded by the number of entries, as it has
+     * no way to estimate the size of a result. Use the full constructor with
+     * a size estimator when results are large or vary in size.
+     */
+    public PredictionResultCache() {
+        this( MAXIMUM_ENTRIES_DEFAULT, Long.MAX_VALUE, result -> 0L );
+    }
+
+    /**
+     * Makes a cache bounded by both the number of entries and their estimated
+     * memory footprint.
+     *
+     * @param maximumEntries
+     *            The maximum number of entries to keep
+     * @param maximumBytes
+     *            The maximum estimated total size of all entries, in bytes
+     * @param sizeEstimator
+     *            Function for estimating the size of a result, in bytes,
+     *            which is required
+     * @throws NullPointerException
+     *             If the size estimator is {@code null}
+     */
+    public PredictionResultCache( final int maximumEntries,
+                                  final long maximumBytes,
+                                  final ToLongFunction< R > sizeEstimator ) {
+        _maximumEntries = Math.max( 1, maximumEntries );
+        _maximumBytes = maximumBytes;
+        _sizeEstimator = Objects.requireNonNull( sizeEstimator, "sizeEstimator" ); //$NON-NLS-1$
+
+        _results = new LinkedHashMap<>( 16, 0.75f, true );
+        _resultSizes = new LinkedHashMap<>();
+        _totalBytes = 0L;
+        _hitCount = 0L;
+        _missCount = 0L;
+    }
+
+    /**
+     * Looks up a cached result, marking it as most recently used.
+     *
+     * @param key
+     *            The quantized environment key
+     * @return The cached result, or {@code null} if there is none
+     */
+    public synchronized R get( final NaturalEnvironmentKey key ) {
+        final R result = _results.get( key );
+        if ( result != null ) {
+            _hitCount++;
+        }
+        else {
+            _missCount++;
+        }
+
+        return result;
+    }
+
+    /**
+     * Stores a result, evicting least recently used entries as needed. A
+     * result that alone exceeds the memory bound is not cached at all.
+     *
+     * @param key
+     *            The quantized environment key
+     * @param result
+     *            The result to cache
+     */
+    public synchronized void put( final NaturalEnvironmentKey key, final R result ) {
+        if ( result == null ) {
+            return;
+        }
+
+        final long resultBytes = Math.max( 0L, _sizeEstimator.applyAsLong( result ) );
+        if ( resultBytes > _maximumBytes ) {
+            remove( key );
+            return;
+        }
+
+        remove( key );
+        _results.put( key, result );
+        _resultSizes.put( key, resultBytes );
+        _totalBytes += resultBytes;
+
+        // Evict from the least recently used end until both bounds are met.
+        final Iterator< Map.Entry< NaturalEnvironmentKey, R > > iterator = _results.entrySet()
+                .iterator();
+        while ( ( ( _results.size() > _maximumEntries ) || ( _totalBytes > _maximumBytes ) )
+                && iterator.hasNext() ) {
+            final NaturalEnvironmentKey eldestKey = iterator.next().getKey();
+            if ( eldestKey.equals( key ) ) {
+                continue;
+            }
+            iterator.remove();
+            _totalBytes -= _resultSizes.remove( eldestKey );
+        }
+    }
+
+    public synchronized void remove( final NaturalEnvironmentKey key ) {
+        if ( _results.remove( key ) != null ) {
+            _totalBytes -= _resultSizes.remove( key );
+        }
+    }
+
+    public synchronized void clear() {
+        _results.clear();
+        _resultSizes.clear();
+        _totalBytes = 0L;
+    }
+
+    public synchronized int size() {
+        return _results.size();
+    }
+
+    public synchronized long getTotalBytes() {
+        return _totalBytes;
+    }
+
+    public synchronized long getHitCount() {
+        return _hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return _missCount;
+    }
+}
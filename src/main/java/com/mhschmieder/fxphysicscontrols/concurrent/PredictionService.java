@@ -0,0 +1,436 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxPhysics Library
+ *
+ * You should have received a copy of the MIT License along with the FxPhysics
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxphysics
+ */
+package com.mhschmieder.fxphysicscontrols.concurrent;
+
+import com.mhschmieder.fxcontrols.action.XAction;
+import com.mhschmieder.fxphysicscontrols.model.NaturalEnvironment;
+import com.mhschmieder.fxphysicscontrols.model.NaturalEnvironmentChangeFilter;
+import com.mhschmieder.fxphysicscontrols.model.NaturalEnvironmentKey;
+import javafx.beans.InvalidationListener;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.concurrent.Service;
+import javafx.concurrent.Task;
+import javafx.concurrent.Worker;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This service runs predictions that depend on a {@link NaturalEnvironment}
+ * off of the JavaFX Application Thread, on a shared worker pool.
+ * <p>
+ * Each run works on a snapshot of the environment taken when it starts. If
+ * the live environment changes while a run is in progress, the run is stale
+ * and is cancelled, unless cancelling on change was turned off by a
+ * controller that decides for itself when to restart runs.
+ * <p>
+ * The service can be bound to the Predict and Clear actions of the Simulation
+ * Actions (such as those used by the Natural Environment Tool Bar), in which
+ * case it takes over their event handlers and manages their enablement:
+ * Predict is disabled while a run is in progress, and Clear is enabled
+ * whenever there is a run to cancel or a result to discard.
+ * <p>
+ * Progress is reported through the standard service progress properties.
+ * The latest result is published through {@link #resultProperty()}, which
+ * unlike the service value is not reset while a new run is in progress.
+ * <p>
+ * If a change filter is set, only significant environment changes make a run
+ * stale, so that slider nudges below the filter's tolerances don't throw away
+ * work that would give the same answer.
+ * <p>
+ * If a result cache is set, each prediction request first looks up the
+ * quantized environment in the cache, and on a hit publishes the cached
+ * result directly, without starting a run at all, so that the bound actions
+ * don't flicker through a scheduled state. The results of successful runs
+ * are added to the cache.
+ *
+ * @param <R>
+ *            The type of the prediction result
+ */
+public class PredictionService< R > extends Service< R > {
+
+    /**
+     * This is the context handed to a running prediction, for reporting
+     * progress and for checking whether it should stop early.
+     */
+    public interface PredictionContext {
+
+        boolean isCancelled();
+
+        void updateProgress( double workDone, double max );
+    }
+
+    /**
+     * This is the prediction itself, which is invoked on a worker thread.
+     *
+     * @param <R>
+     *            The type of the prediction result
+     */
+    @FunctionalInterface
+    public interface Predictor< R > {
+
+        /**
+         * Computes a prediction for a snapshot of the environment.
+         *
+         * @param naturalEnvironment
+         *            A private snapshot of the environment, safe to read on
+         *            the worker thread
+         * @param predictionContext
+         *            The context for reporting progress and cancellation
+         * @return The prediction result, or {@code null} if cancelled
+         * @throws Exception
+         *             If the prediction fails
+         */
+        R predict( NaturalEnvironment naturalEnvironment,
+                   PredictionContext predictionContext ) throws Exception;
+    }
+
+    // Shared worker pool for all prediction services.
+    private static ExecutorService workerPool;
+
+    // The live environment, which is only read on the JavaFX thread.
+    protected final NaturalEnvironment _naturalEnvironment;
+
+    // The prediction to run.
+    private final Predictor< R >       _predictor;
+
+    // Optional cache of results from earlier runs.
+    private PredictionResultCache< R > _resultCache;
+
+    // The cache key for the most recently started run.
+    private NaturalEnvironmentKey      _runKey;
+
+    // The latest result, whether computed or taken from the cache.
+    private final ReadOnlyObjectWrapper< R > _result;
+
+    // The bound actions, if any.
+    private XAction                    _predictAction;
+    private XAction                    _clearAction;
+
+    // Optional filter that screens out insignificant environment changes.
+    private NaturalEnvironmentChangeFilter _changeFilter;
+
+    // Flag for whether environment changes cancel a run in progress.
+    private boolean                    _cancelOnEnvironmentChange;
+
+    // The listeners that react to environment changes, whether to every
+    // change or only to significant ones.
+    private final InvalidationListener _environmentChangedListener;
+    private final InvalidationListener _significantChangeListener;
+
+    public PredictionService( final NaturalEnvironment naturalEnvironment,
+                              final Predictor< R > predictor ) {
+        // Always call the superclass constructor first!
+        super();
+
+        _naturalEnvironment = naturalEnvironment;
+        _predictor = predictor;
+        _resultCache = null;
+        _runKey = null;
+        _result = new ReadOnlyObjectWrapper<>( this, "result" ); //$NON-NLS-1$
+        _predictAction = null;
+        _clearAction = null;
+        _cancelOnEnvironmentChange = true;
+
+        setExecutor( getWorkerPool() );
+
+        // Any change to the environment makes a run in progress stale.
+        _environmentChangedListener = observable -> {
+            _naturalEnvironment.isNaturalEnvironmentChanged();
+            environmentChanged();
+        };
+        _naturalEnvironment.naturalEnvironmentChangedProperty()
+                .addListener( _environmentChangedListener );
+
+        _changeFilter = null;
+        _significantChangeListener = observable -> {
+            _changeFilter.getSignificantChangeCount();
+            environmentChanged();
+        };
+
+        stateProperty().addListener( ( observable, oldState, newState ) -> updateActions() );
+        _result.addListener( ( observable, oldResult, newResult ) -> updateActions() );
+    }
+
+    /**
+     * Returns the shared worker pool, which uses virtual threads when the
+     * runtime supports them, and otherwise a fixed pool of daemon threads.
+     *
+     * @return The shared worker pool
+     */
+    public static synchronized ExecutorService getWorkerPool() {
+        if ( workerPool == null ) {
+            workerPool = makeWorkerPool();
+        }
+
+        return workerPool;
+    }
+
+    private static ExecutorService makeWorkerPool() {
+        // NOTE: We look up virtual threads reflectively, as we still target
+        //  Java 8 and so cannot reference them directly.
+        try {
+            return ( ExecutorService ) Executors.class
+                    .getMethod( "newVirtualThreadPerTaskExecutor" ) //$NON-NLS-1$
+                    .invoke( null );
+        }
+        catch ( final ReflectiveOperationException | RuntimeException ex ) {
+            final AtomicInteger threadCount = new AtomicInteger();
+            final ThreadFactory threadFactory = runnable -> {
+                final Thread thread = new Thread( runnable,
+                                                  "Prediction Worker " //$NON-NLS-1$
+                                                          + threadCount.incrementAndGet() );
+                thread.setDaemon( true );
+                return thread;
+            };
+            final int threadPoolSize = Math.max( 1, Runtime.getRuntime().availableProcessors() - 1 );
+            return Executors.newFixedThreadPool( threadPoolSize, threadFactory );
+        }
+    }
+
+    /**
+     * Binds this service to the Predict and Clear actions, replacing their
+     * event handlers and taking over their enablement.
+     *
+     * @param predictAction
+     *            The action that starts a prediction
+     * @param clearAction
+     *            The action that cancels a prediction or clears the result
+     */
+    public void bindActions( final XAction predictAction, final XAction clearAction ) {
+        _predictAction = predictAction;
+        _clearAction = clearAction;
+
+        _predictAction.setEventHandler( actionEvent -> predict() );
+        _clearAction.setEventHandler( actionEvent -> clear() );
+
+        updateActions();
+    }
+
+    /**
+     * Sets the cache that is consulted before each run, and that successful
+     * runs are added to.
+     *
+     * @param resultCache
+     *            The result cache, or {@code null} to disable caching
+     */
+    public void setResultCache( final PredictionResultCache< R > resultCache ) {
+        _resultCache = resultCache;
+    }
+
+    public PredictionResultCache< R > getResultCache() {
+        return _resultCache;
+    }
+
+    /**
+     * Sets the filter that decides which environment changes are significant
+     * enough to make a run in progress stale.
+     *
+     * @param changeFilter
+     *            The change filter, or {@code null} to react to every change
+     */
+    public void setChangeFilter( final NaturalEnvironmentChangeFilter changeFilter ) {
+        detachEnvironmentListener();
+
+        _changeFilter = changeFilter;
+
+        if ( _changeFilter != null ) {
+            _changeFilter.significantChangeCountProperty()
+                    .addListener( _significantChangeListener );
+        }
+        else {
+            _naturalEnvironment.naturalEnvironmentChangedProperty()
+                    .addListener( _environmentChangedListener );
+        }
+    }
+
+    public NaturalEnvironmentChangeFilter getChangeFilter() {
+        return _changeFilter;
+    }
+
+    /**
+     * Returns the latest result, whether computed by a run or taken from the
+     * result cache. It keeps its value while a new run is in progress, and is
+     * only reset by {@link #clear()}.
+     *
+     * @return The latest result property
+     */
+    public ReadOnlyObjectProperty< R > resultProperty() {
+        return _result.getReadOnlyProperty();
+    }
+
+    public R getResult() {
+        return _result.get();
+    }
+
+    /**
+     * Sets whether environment changes cancel a run in progress. This is
+     * turned off by controllers that restart runs on their own schedule, such
+     * as auto-predict, so that a run they started is allowed to finish.
+     *
+     * @param cancelOnEnvironmentChange
+     *            Flag for whether environment changes cancel a run in progress
+     */
+    public void setCancelOnEnvironmentChange( final boolean cancelOnEnvironmentChange ) {
+        _cancelOnEnvironmentChange = cancelOnEnvironmentChange;
+    }
+
+    public boolean isCancelOnEnvironmentChange() {
+        return _cancelOnEnvironmentChange;
+    }
+
+    /**
+     * Detaches this service from the environment and cancels any run that is
+     * in progress.
+     */
+    public void dispose() {
+        detachEnvironmentListener();
+
+        cancel();
+    }
+
+    private void detachEnvironmentListener() {
+        if ( _changeFilter != null ) {
+            _changeFilter.significantChangeCountProperty()
+                    .removeListener( _significantChangeListener );
+        }
+        else {
+            _naturalEnvironment.naturalEnvironmentChangedProperty()
+                    .removeListener( _environmentChangedListener );
+        }
+    }
+
+    /**
+     * Starts a prediction for the current environment, cancelling any run
+     * that is already in progress. If the result cache already holds a result
+     * for an equivalent environment, it is published right away instead.
+     */
+    public void predict() {
+        if ( _resultCache != null ) {
+            final NaturalEnvironmentKey key = NaturalEnvironmentKey.of( _naturalEnvironment );
+            final R cachedResult = _resultCache.get( key );
+            if ( cachedResult != null ) {
+                // NOTE: A run still in progress is for an older environment.
+                if ( isRunning() ) {
+                    cancel();
+                }
+                _result.set( cachedResult );
+                return;
+            }
+        }
+
+        restart();
+    }
+
+    /**
+     * Cancels any run that is in progress, and discards the last result.
+     */
+    public void clear() {
+        cancel();
+        reset();
+        _result.set( null );
+    }
+
+    // Cancel a run that was started with a now outdated environment.
+    protected void environmentChanged() {
+        if ( _cancelOnEnvironmentChange && isRunning() ) {
+            cancel();
+        }
+    }
+
+    private void updateActions() {
+        if ( ( _predictAction == null ) || ( _clearAction == null ) ) {
+            return;
+        }
+
+        final Worker.State state = getState();
+        final boolean busy = ( state == Worker.State.SCHEDULED )
+                || ( state == Worker.State.RUNNING );
+        _predictAction.setDisabled( busy );
+        _clearAction.setDisabled( !busy && ( _result.get() == null ) );
+    }
+
+    @Override
+    protected Task< R > createTask() {
+        // Snapshot the environment while still on the JavaFX thread.
+        final NaturalEnvironment naturalEnvironment = new NaturalEnvironment( _naturalEnvironment );
+        final Predictor< R > predictor = _predictor;
+
+        // NOTE: Cache hits never get this far, as they are published directly.
+        _runKey = NaturalEnvironmentKey.of( naturalEnvironment );
+
+        return new PredictionTask<>( predictor, naturalEnvironment );
+    }
+
+    @Override
+    protected void succeeded() {
+        super.succeeded();
+
+        final R result = getValue();
+        _result.set( result );
+
+        if ( ( _resultCache != null ) && ( _runKey != null ) ) {
+            _resultCache.put( _runKey, result );
+        }
+    }
+
+    /**
+     * This is the task for a single run, which doubles as its own context.
+     *
+     * @param <R>
+     *            The type of the prediction result
+     */
+    private static final class PredictionTask< R > extends Task< R >
+            implements PredictionContext {
+
+        private final Predictor< R >     _predictor;
+        private final NaturalEnvironment _naturalEnvironment;
+
+        PredictionTask( final Predictor< R > predictor,
+                        final NaturalEnvironment naturalEnvironment ) {
+            _predictor = predictor;
+            _naturalEnvironment = naturalEnvironment;
+        }
+
+        @Override
+        public void updateProgress( final double workDone, final double max ) {
+            super.updateProgress( workDone, max );
+        }
+
+        @Override
+        protected R call() throws Exception {
+            return _predictor.predict( _naturalEnvironment, this );
+        }
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxPhysics Library
+ *
+ * You should have received a copy of the MIT License along with the FxPhysics
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxphysics
+ */
+package com.mhschmieder.fxphysicscontrols.concurrent;
+
+import com.mhschmieder.fxphysicscontrols.model.MeasurementUnits;
+import com.mhschmieder.fxphysicscontrols.model.PhysicalQuantity;
+import com.mhschmieder.fxphysicscontrols.model.QuantityColumnModel;
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.beans.binding.BooleanBinding;
+import javafx.concurrent.Service;
+import javafx.concurrent.Task;
+
+import java.text.NumberFormat;
+import java.util.Locale;
+
+/**
+ * This service re-formats and re-validates every value in a
+ * {@link QuantityColumnModel} off the JavaFX Application Thread, for consumers
+ * such as exports and side panels that need all values rather than just the
+ * visible rows.
+ * <p>
+ * It restarts itself whenever one of the relevant Measurement Units changes,
+ * which cancels any job that is still working in the previous units. Results
+ * are handed to a {@link ChunkHandler} on the JavaFX Application Thread in
+ * fixed-size chunks, so that the UI can commit them incrementally, and the
+ * standard service progress properties report how far along the job is.
+ * <p>
+ * The service value is the number of invalid values found in the last job.
+ */
+public final class QuantityReformatService extends Service< Integer > {
+
+    // Declare the default number of rows formatted per committed chunk.
+    public static final int CHUNK_SIZE_DEFAULT = 4096;
+
+    /**
+     * This is the callback for receiving formatted chunks, which is always
+     * invoked on the JavaFX Application Thread.
+     */
+    @FunctionalInterface
+    public interface ChunkHandler {
+
+        /**
+         * Receives a chunk of formatted and validated values.
+         *
+         * @param column
+         *            The column the chunk belongs to
+         * @param firstRow
+         *            The row index of the first value in the chunk
+         * @param formattedValues
+         *            The formatted values, in the display units of the job,
+         *            with the unit appended if the column model shows it
+         * @param validValues
+         *            Per-value flags for whether each value is valid
+         */
+        void handleChunk( int column,
+                          int firstRow,
+                          String[] formattedValues,
+                          boolean[] validValues );
+    }
+
+    // The source data, which is only read on the JavaFX Application Thread.
+    private final QuantityColumnModel  _columnModel;
+
+    // The handler that commits formatted chunks to the UI.
+    private final ChunkHandler         _chunkHandler;
+
+    // Number of rows formatted per committed chunk.
+    private final int                  _chunkSize;
+
+    // The listener that restarts reformatting when a column's unit changes.
+    private final InvalidationListener _unitChangedListener;
+
+    public QuantityReformatService( final QuantityColumnModel columnModel,
+                                    final ChunkHandler chunkHandler ) {
+        this( columnModel, chunkHandler, CHUNK_SIZE_DEFAULT );
+    }
+
+    public QuantityReformatService( final QuantityColumnModel columnModel,
+                                    final ChunkHandler chunkHandler,
+                                    final int chunkSize ) {
+        // Always call the superclass constructor first!
+        super();
+
+        _columnModel = columnModel;
+        _chunkHandler = chunkHandler;
+        _chunkSize = Math.max( 1, chunkSize );
+
+        // Restart on every relevant unit change, which cancels a job that is
+        // still running in the previous units.
+        _unitChangedListener = observable -> {
+            ( ( BooleanBinding ) observable ).get();
+            restart();
+        };
+        final MeasurementUnits measurementUnits = _columnModel.getMeasurementUnits();
+        for ( final PhysicalQuantity physicalQuantity : PhysicalQuantity.values() ) {
+            if ( usesQuantity( physicalQuantity ) ) {
+                physicalQuantity.unitChangedProperty( measurementUnits )
+                        .addListener( _unitChangedListener );
+            }
+        }
+    }
+
+    /**
+     * Detaches this service from the Measurement Units and cancels any job
+     * that is in progress.
+     */
+    public void dispose() {
+        final MeasurementUnits measurementUnits = _columnModel.getMeasurementUnits();
+        for ( final PhysicalQuantity physicalQuantity : PhysicalQuantity.values() ) {
+            physicalQuantity.unitChangedProperty( measurementUnits )
+                    .removeListener( _unitChangedListener );
+        }
+
+        cancel();
+    }
+
+    private boolean usesQuantity( final PhysicalQuantity physicalQuantity ) {
+        for ( int column = 0; column < _columnModel.getColumnCount(); column++ ) {
+            if ( _columnModel.getColumnQuantity( column ) == physicalQuantity ) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    protected Task< Integer > createTask() {
+        // Snapshot the data and the units while still on the JavaFX thread, so
+        // that the job is immune to changes made while it runs.
+        final int columnCount = _columnModel.getColumnCount();
+        final PhysicalQuantity[] columnQuantities = new PhysicalQuantity[ columnCount ];
+        final double[][] columns = new double[ columnCount ][];
+        for ( int column = 0; column < columnCount; column++ ) {
+            columnQuantities[ column ] = _columnModel.getColumnQuantity( column );
+            columns[ column ] = _columnModel.copyColumn( column );
+        }
+        final MeasurementUnits measurementUnits =
+                                                new MeasurementUnits( _columnModel
+                                                        .getMeasurementUnits() );
+
+        return new ReformatTask( columnQuantities,
+                                 columns,
+                                 measurementUnits,
+                                 _columnModel.isShowMeasurementUnit(),
+                                 _chunkHandler,
+                                 _chunkSize );
+    }
+
+    /**
+     * This is the job that formats a snapshot of the column data.
+     */
+    private static final class ReformatTask extends Task< Integer > {
+
+        private final PhysicalQuantity[] _columnQuantities;
+        private final double[][]         _columns;
+        private final MeasurementUnits   _measurementUnits;
+        private final boolean            _showMeasurementUnit;
+        private final ChunkHandler       _chunkHandler;
+        private final int                _chunkSize;
+
+        ReformatTask( final PhysicalQuantity[] columnQuantities,
+                      final double[][] columns,
+                      final MeasurementUnits measurementUnits,
+                      final boolean showMeasurementUnit,
+                      final ChunkHandler chunkHandler,
+                      final int chunkSize ) {
+            _columnQuantities = columnQuantities;
+            _columns = columns;
+            _measurementUnits = measurementUnits;
+            _showMeasurementUnit = showMeasurementUnit;
+            _chunkHandler = chunkHandler;
+            _chunkSize = chunkSize;
+        }
+
+        @Override
+        protected Integer call() throws Exception {
+            long totalRows = 0L;
+            for ( final double[] column : _columns ) {
+                totalRows += column.length;
+            }
+
+            // NOTE: Number Formats are not thread-safe, so the task owns one.
+            final NumberFormat numberFormat = NumberFormat.getNumberInstance( Locale.getDefault() );
+            numberFormat.setGroupingUsed( false );
+            numberFormat.setMinimumFractionDigits( 0 );
+
+            int invalidCount = 0;
+            long rowsDone = 0L;
+            for ( int column = 0; column < _columns.length; column++ ) {
+                final PhysicalQuantity physicalQuantity = _columnQuantities[ column ];
+                final double[] values = _columns[ column ];
+                // NOTE: This matches the column model's own formatting, which
+                //  may leave the unit off, such as when it is in the header.
+                final String measurementUnitString = _showMeasurementUnit
+                    ? physicalQuantity.getMeasurementUnitString( _measurementUnits )
+                    : ""; //$NON-NLS-1$
+                numberFormat.setMaximumFractionDigits( physicalQuantity
+                        .getMaximumFractionDigits( _measurementUnits ) );
+
+                for ( int firstRow = 0; firstRow < values.length; firstRow += _chunkSize ) {
+                    if ( isCancelled() ) {
+                        return invalidCount;
+                    }
+
+                    final int count = Math.min( _chunkSize, values.length - firstRow );
+                    final String[] formattedValues = new String[ count ];
+                    final boolean[] validValues = new boolean[ count ];
+                    for ( int i = 0; i < count; i++ ) {
+                        final double value = values[ firstRow + i ];
+                        validValues[ i ] = physicalQuantity.isValidValue( value );
+                        if ( !validValues[ i ] ) {
+                            invalidCount++;
+                        }
+                        formattedValues[ i ] = Double.isNaN( value )
+                            ? "" //$NON-NLS-1$
+                            : numberFormat.format( physicalQuantity
+                                    .toDisplayUnits( value, _measurementUnits ) )
+                                    + measurementUnitString;
+                    }
+
+                    rowsDone += count;
+                    updateProgress( rowsDone, totalRows );
+
+                    // Commit the chunk on the JavaFX thread, unless this job
+                    // has been superseded in the meantime.
+                    final int chunkColumn = column;
+                    final int chunkFirstRow = firstRow;
+                    Platform.runLater( () -> {
+                        if ( !isCancelled() ) {
+                            _chunkHandler.handleChunk( chunkColumn,
+                                                       chunkFirstRow,
+                                                       formattedValues,
+                                                       validValues );
+                        }
+                    } );
+                }
+            }
+
+            return invalidCount;
+        }
+    }
+}
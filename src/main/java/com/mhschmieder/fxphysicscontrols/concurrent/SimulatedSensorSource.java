@@ -0,0 +1,462 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxPhysics Library
+ *
+ * You should have received a copy of the MIT License along with the FxPhysics
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxphysics
+ */
+package com.mhschmieder.fxphysicscontrols.concurrent;
+
+import com.mhschmieder.fxphysicscontrols.concurrent.NaturalEnvironmentDispatcher.DispatchListener;
+import com.mhschmieder.fxphysicscontrols.model.NaturalEnvironment;
+import javafx.animation.AnimationTimer;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * This is a simulated weather sensor, which generates reproducible but
+ * realistic temperature, relative humidity and pressure readings at a fixed
+ * sample rate, such as for load-testing the environment pipeline without any
+ * hardware.
+ * <p>
+ * Temperature follows a daily cycle plus slowly wandering weather and sensor
+ * noise; relative humidity falls as temperature rises; and pressure wanders
+ * around its mean. The same seed produces the same readings for as long as
+ * none are skipped; once the generator falls behind and skips ahead, the
+ * daily cycle moves on without the weather, so the readings that follow
+ * depend on timing. A time scale speeds up simulated time, so that a daily cycle can be seen in
+ * minutes.
+ * <p>
+ * Readings are generated on a dedicated thread, which paces itself by parking
+ * and then spinning for the last few tens of microseconds, so that rates of up
+ * to tens of kilohertz are reached. They feed the Natural Environment through
+ * a {@link NaturalEnvironmentDispatcher}, just like a live sensor would.
+ * <p>
+ * End-to-end latency is measured from the creation of each applied reading
+ * until the start of the next pulse, as JavaFX only starts a pulse once the
+ * scene that the previous pulse updated has been rendered. Latencies are kept
+ * for a sliding window of the most recent updates.
+ */
+public final class SimulatedSensorSource {
+
+    // Declare the default and maximum sample rates, in hertz.
+    public static final double SAMPLE_RATE_DEFAULT       = 1000d;
+    public static final double SAMPLE_RATE_MAXIMUM       = 50000d;
+
+    // Declare the number of most recent latencies kept for percentiles.
+    public static final int    LATENCY_WINDOW_SIZE       = 1 << 16;
+
+    // Declare the period of the daily temperature cycle, in seconds.
+    private static final double DAY_SECONDS              = 86400d;
+
+    // Declare the remaining wait below which the generator spins rather than
+    // parks, as parking is too coarse for high sample rates.
+    private static final long   SPIN_THRESHOLD_NANOS     = 50000L;
+
+    // Declare how far the generator may fall behind before it skips ahead
+    // rather than bursting to catch up.
+    private static final long   MAXIMUM_BACKLOG_NANOS    = 100000000L;
+
+    // Declare how many applied readings may await their repaint at once. At
+    // most one reading is applied per pulse, so only a couple are ever
+    // pending, and the oldest is dropped if the timer somehow falls behind.
+    private static final int    PENDING_LATENCY_CAPACITY = 4;
+
+    // Declare the weather model, in canonical units.
+    private static final double TEMPERATURE_SWING_K      = 6d;
+    private static final double TEMPERATURE_WANDER_K     = 1.5d;
+    private static final double TEMPERATURE_NOISE_K      = 0.02d;
+    private static final double HUMIDITY_PER_K           = -3d;
+    private static final double HUMIDITY_NOISE_RELATIVE  = 0.2d;
+    private static final double PRESSURE_WANDER_PA       = 300d;
+    private static final double PRESSURE_NOISE_PA        = 2d;
+    private static final double WANDER_TIME_SECONDS      = 3600d;
+
+    // The dispatcher that hands readings over to the Natural Environment.
+    private final NaturalEnvironmentDispatcher _dispatcher;
+
+    // The seed for the random number generator.
+    private final long                        _seed;
+
+    // The sample rate, in hertz.
+    private double                            _sampleRate;
+
+    // The number of simulated seconds per real second.
+    private double                            _timeScale;
+
+    // The environment that readings vary around.
+    private double                            _meanTemperatureK;
+    private double                            _meanHumidityRelative;
+    private double                            _meanPressurePa;
+
+    // The generator thread, or null when stopped.
+    private Thread                            _generatorThread;
+
+    // Flag for whether the generator should keep running.
+    private volatile boolean                  _running;
+
+    // The number of readings generated, and of readings skipped by falling
+    // too far behind.
+    private final AtomicLong                  _generatedSampleCount;
+    private final AtomicLong                  _skippedSampleCount;
+
+    // The timer that completes latency measurements on the next pulse, which
+    // is made on first start, as making one needs the JavaFX toolkit.
+    private AnimationTimer                    _latencyTimer;
+
+    // The dispatch listener that records pending latencies.
+    private final DispatchListener            _dispatchListener;
+
+    // The listener that we set on the dispatcher while running, and the one
+    // that it replaced, which is restored when stopped.
+    private DispatchListener                  _attachedDispatchListener;
+    private DispatchListener                  _previousDispatchListener;
+
+    // The ring of applied readings awaiting their repaint, keyed by the time
+    // of the pulse that applied them, oldest first.
+    private final long[]                      _pendingSampleNanos;
+    private final long[]                      _pendingPulseNanos;
+    private int                               _pendingHead;
+    private int                               _pendingCount;
+
+    // The sliding window of latencies, in nanoseconds.
+    private final long[]                      _latenciesNanos;
+    private long                              _latencyCount;
+
+    public SimulatedSensorSource( final NaturalEnvironmentDispatcher dispatcher,
+                                  final long seed ) {
+        _dispatcher = dispatcher;
+        _seed = seed;
+        _sampleRate = SAMPLE_RATE_DEFAULT;
+        _timeScale = 1d;
+        _meanTemperatureK = NaturalEnvironment.TEMPERATURE_K_DEFAULT;
+        _meanHumidityRelative = NaturalEnvironment.HUMIDITY_RELATIVE_DEFAULT;
+        _meanPressurePa = NaturalEnvironment.PRESSURE_PA_DEFAULT;
+        _generatorThread = null;
+        _running = false;
+        _generatedSampleCount = new AtomicLong( 0L );
+        _skippedSampleCount = new AtomicLong( 0L );
+        _pendingSampleNanos = new long[ PENDING_LATENCY_CAPACITY ];
+        _pendingPulseNanos = new long[ PENDING_LATENCY_CAPACITY ];
+        _pendingHead = 0;
+        _pendingCount = 0;
+        _latenciesNanos = new long[ LATENCY_WINDOW_SIZE ];
+        _latencyCount = 0L;
+        _latencyTimer = null;
+        _attachedDispatchListener = null;
+        _previousDispatchListener = null;
+
+        _dispatchListener = ( sampleNanos, pulseNanos ) -> {
+            if ( sampleNanos >= 0L ) {
+                addPendingLatency( sampleNanos, pulseNanos );
+            }
+        };
+    }
+
+    /**
+     * Starts generating readings. This must be called on the JavaFX
+     * Application Thread.
+     */
+    public void start() {
+        if ( _running ) {
+            return;
+        }
+
+        attachDispatchListener();
+        if ( _latencyTimer == null ) {
+            _latencyTimer = new AnimationTimer() {
+                @Override
+                public void handle( final long nowNanos ) {
+                    completeLatencies( nowNanos );
+                }
+            };
+        }
+        _latencyTimer.start();
+
+        _running = true;
+        _generatorThread = new Thread( this::generate, "Simulated Sensor" ); //$NON-NLS-1$
+        _generatorThread.setDaemon( true );
+        _generatorThread.setPriority( Thread.MAX_PRIORITY );
+        _generatorThread.start();
+    }
+
+    /**
+     * Stops generating readings, waiting for the generator thread to finish.
+     * This must be called on the JavaFX Application Thread.
+     */
+    public void stop() {
+        if ( !_running ) {
+            return;
+        }
+
+        _running = false;
+        try {
+            _generatorThread.join();
+        }
+        catch ( final InterruptedException ie ) {
+            Thread.currentThread().interrupt();
+        }
+        _generatorThread = null;
+
+        _latencyTimer.stop();
+        detachDispatchListener();
+        _pendingCount = 0;
+    }
+
+    public boolean isRunning() {
+        return _running;
+    }
+
+    /**
+     * Sets the sample rate, which takes effect at the next start.
+     *
+     * @param sampleRate
+     *            The sample rate, in hertz
+     */
+    public void setSampleRate( final double sampleRate ) {
+        if ( ( sampleRate <= 0d ) || ( sampleRate > SAMPLE_RATE_MAXIMUM ) ) {
+            throw new IllegalArgumentException( "Unexpected sample rate " + sampleRate ); //$NON-NLS-1$
+        }
+
+        _sampleRate = sampleRate;
+    }
+
+    public double getSampleRate() {
+        return _sampleRate;
+    }
+
+    /**
+     * Sets how fast simulated time runs, which takes effect at the next start.
+     *
+     * @param timeScale
+     *            The number of simulated seconds per real second
+     */
+    public void setTimeScale( final double timeScale ) {
+        _timeScale = timeScale;
+    }
+
+    public double getTimeScale() {
+        return _timeScale;
+    }
+
+    /**
+     * Sets the environment that the readings vary around, which takes effect
+     * at the next start.
+     *
+     * @param naturalEnvironment
+     *            The mean environment
+     */
+    public void setMeanEnvironment( final NaturalEnvironment naturalEnvironment ) {
+        _meanTemperatureK = naturalEnvironment.getTemperatureK();
+        _meanHumidityRelative = naturalEnvironment.getHumidityRelative();
+        _meanPressurePa = naturalEnvironment.getPressurePa();
+    }
+
+    public long getGeneratedSampleCount() {
+        return _generatedSampleCount.get();
+    }
+
+    /**
+     * Returns the number of readings that were never generated, because the
+     * generator fell too far behind its schedule, such as during a long
+     * garbage collection pause.
+     *
+     * @return The number of skipped readings
+     */
+    public long getSkippedSampleCount() {
+        return _skippedSampleCount.get();
+    }
+
+    /**
+     * Returns the number of latencies measured so far, including those that
+     * have since slid out of the window.
+     *
+     * @return The number of latency measurements
+     */
+    public long getLatencyCount() {
+        return _latencyCount;
+    }
+
+    /**
+     * Returns latency percentiles over the window of most recent updates.
+     * This must be called on the JavaFX Application Thread.
+     *
+     * @param percentiles
+     *            The percentiles to compute, each from 0 to 100
+     * @return The latency at each percentile, in milliseconds, or NaN if no
+     *         latencies have been measured yet
+     */
+    public double[] getLatencyPercentilesMillis( final double... percentiles ) {
+        final int numberOfLatencies = ( int ) Math.min( _latencyCount, LATENCY_WINDOW_SIZE );
+        final long[] latenciesNanos = Arrays.copyOf( _latenciesNanos, numberOfLatencies );
+        Arrays.sort( latenciesNanos );
+
+        final double[] latenciesMillis = new double[ percentiles.length ];
+        for ( int i = 0; i < percentiles.length; i++ ) {
+            if ( numberOfLatencies == 0 ) {
+                latenciesMillis[ i ] = Double.NaN;
+                continue;
+            }
+
+            // Use the nearest-rank method.
+            final int rank = ( int ) Math.ceil( ( percentiles[ i ] / 100d ) * numberOfLatencies );
+            final int index = Math.min( Math.max( rank - 1, 0 ), numberOfLatencies - 1 );
+            latenciesMillis[ i ] = latenciesNanos[ index ] / 1.0e6d;
+        }
+
+        return latenciesMillis;
+    }
+
+    /**
+     * Clears all counters and latency measurements. This must be called on the
+     * JavaFX Application Thread.
+     */
+    public void resetStatistics() {
+        _generatedSampleCount.set( 0L );
+        _skippedSampleCount.set( 0L );
+        _latencyCount = 0L;
+        _dispatcher.resetCounts();
+    }
+
+    // Chains our dispatch listener in front of any listener that was already
+    // set, so that we don't take the dispatcher's only listener away.
+    // NOTE: This is package-private for unit tests, which can't start the
+    //  latency timer without the JavaFX toolkit.
+    void attachDispatchListener() {
+        final DispatchListener previousDispatchListener = _dispatcher.getDispatchListener();
+        _previousDispatchListener = previousDispatchListener;
+        _attachedDispatchListener = ( previousDispatchListener == null )
+            ? _dispatchListener
+            : ( sampleNanos, pulseNanos ) -> {
+                _dispatchListener.updateApplied( sampleNanos, pulseNanos );
+                previousDispatchListener.updateApplied( sampleNanos, pulseNanos );
+            };
+        _dispatcher.setDispatchListener( _attachedDispatchListener );
+    }
+
+    // Restores the listener that was set before we started, unless another
+    // listener has replaced ours since, in which case that one is kept.
+    void detachDispatchListener() {
+        if ( _dispatcher.getDispatchListener() == _attachedDispatchListener ) {
+            _dispatcher.setDispatchListener( _previousDispatchListener );
+        }
+        _attachedDispatchListener = null;
+        _previousDispatchListener = null;
+    }
+
+    private void completeLatencies( final long pulseNanos ) {
+        // NOTE: Every animation timer sees the same time within a pulse,
+        //  which tells us whether an update was applied by an earlier pulse,
+        //  whatever order the timers run in. If the dispatcher ran first, this
+        //  pulse's update stays pending behind the earlier ones until the
+        //  next pulse. The pulse time is when the pulse was scheduled, so we
+        //  read the clock instead, to include any render backlog.
+        final long repaintNanos = System.nanoTime();
+        while ( ( _pendingCount > 0 ) && ( _pendingPulseNanos[ _pendingHead ] != pulseNanos ) ) {
+            recordLatency( repaintNanos - _pendingSampleNanos[ _pendingHead ] );
+            _pendingHead = ( _pendingHead + 1 ) % PENDING_LATENCY_CAPACITY;
+            _pendingCount--;
+        }
+    }
+
+    private void addPendingLatency( final long sampleNanos, final long pulseNanos ) {
+        if ( _pendingCount == PENDING_LATENCY_CAPACITY ) {
+            _pendingHead = ( _pendingHead + 1 ) % PENDING_LATENCY_CAPACITY;
+            _pendingCount--;
+        }
+
+        final int index = ( _pendingHead + _pendingCount ) % PENDING_LATENCY_CAPACITY;
+        _pendingSampleNanos[ index ] = sampleNanos;
+        _pendingPulseNanos[ index ] = pulseNanos;
+        _pendingCount++;
+    }
+
+    private void recordLatency( final long latencyNanos ) {
+        _latenciesNanos[ ( int ) ( _latencyCount % LATENCY_WINDOW_SIZE ) ] = latencyNanos;
+        _latencyCount++;
+    }
+
+    // Generates readings on schedule until stopped.
+    private void generate() {
+        final Random random = new Random( _seed );
+        final long periodNanos = ( long ) ( 1.0e9d / _sampleRate );
+        final double simulatedSecondsPerSample = _timeScale / _sampleRate;
+
+        // Each wandering component is a first order autoregressive process,
+        // with its step size chosen to keep the stated standard deviation.
+        final double wanderDecay = Math.exp( -simulatedSecondsPerSample / WANDER_TIME_SECONDS );
+        final double wanderStep = Math.sqrt( 1d - ( wanderDecay * wanderDecay ) );
+
+        double simulatedSeconds = 0d;
+        double temperatureWanderK = 0d;
+        double pressureWanderPa = 0d;
+        long nextSampleNanos = System.nanoTime();
+
+        while ( _running ) {
+            final long nowNanos = System.nanoTime();
+            final long waitNanos = nextSampleNanos - nowNanos;
+            if ( waitNanos > 0L ) {
+                if ( waitNanos > SPIN_THRESHOLD_NANOS ) {
+                    LockSupport.parkNanos( waitNanos - SPIN_THRESHOLD_NANOS );
+                }
+                continue;
+            }
+            if ( -waitNanos > MAXIMUM_BACKLOG_NANOS ) {
+                final long skippedSamples = -waitNanos / periodNanos;
+                _skippedSampleCount.addAndGet( skippedSamples );
+                nextSampleNanos += skippedSamples * periodNanos;
+                simulatedSeconds += skippedSamples * simulatedSecondsPerSample;
+            }
+
+            temperatureWanderK = ( wanderDecay * temperatureWanderK )
+                    + ( wanderStep * TEMPERATURE_WANDER_K * random.nextGaussian() );
+            pressureWanderPa = ( wanderDecay * pressureWanderPa )
+                    + ( wanderStep * PRESSURE_WANDER_PA * random.nextGaussian() );
+
+            // The daily cycle peaks in mid-afternoon.
+            final double dayPhase = ( 2d * Math.PI * ( simulatedSeconds - ( 0.375d * DAY_SECONDS ) ) )
+                    / DAY_SECONDS;
+            final double temperatureOffsetK = ( TEMPERATURE_SWING_K * Math.sin( dayPhase ) )
+                    + temperatureWanderK;
+            final double temperatureK = _meanTemperatureK + temperatureOffsetK
+                    + ( TEMPERATURE_NOISE_K * random.nextGaussian() );
+            final double humidityRelative = Math
+                    .min( Math.max( _meanHumidityRelative + ( HUMIDITY_PER_K * temperatureOffsetK )
+                            + ( HUMIDITY_NOISE_RELATIVE * random.nextGaussian() ), 0d ), 100d );
+            final double pressurePa = _meanPressurePa + pressureWanderPa
+                    + ( PRESSURE_NOISE_PA * random.nextGaussian() );
+
+            _dispatcher.offer( temperatureK, humidityRelative, pressurePa, System.nanoTime() );
+            _generatedSampleCount.incrementAndGet();
+
+            simulatedSeconds += simulatedSecondsPerSample;
+            nextSampleNanos += periodNanos;
+        }
+    }
+}
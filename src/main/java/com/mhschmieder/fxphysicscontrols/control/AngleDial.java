@@ -0,0 +1,375 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxPhysics Library
+ *
+ * You should have received a copy of the MIT License along with the FxPhysics
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxphysics
+ */
+package com.mhschmieder.fxphysicscontrols.control;
+
+import com.mhschmieder.jphysics.AngleUnit;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.StrokeLineCap;
+import org.apache.commons.math3.util.FastMath;
+
+/**
+ * The Angle Dial is a circular, canvas-rendered alternative to the
+ * {@link AngleSlider}, for directional inputs such as loudspeaker aim or wind
+ * direction. It shares the slider's clamping and unwrapping semantics.
+ * <p>
+ * Zero degrees points straight up, and angles increase clockwise, as with a
+ * compass. The dial face is drawn once per size or range change, and during
+ * drags only the needle layer is repainted, directly rather than through a
+ * layout pass.
+ */
+public final class AngleDial extends Region {
+
+    // Declare the default preferred diameter.
+    public static final double  DIAMETER_DEFAULT = 120d;
+
+    // Declare rendering constants, relative to the dial radius.
+    private static final double NEEDLE_LENGTH_FRACTION = 0.85d;
+    private static final double NEEDLE_WIDTH           = 2.5d;
+    private static final double HUB_RADIUS             = 4d;
+    private static final double MAJOR_TICK_FRACTION    = 0.12d;
+    private static final double MINOR_TICK_FRACTION    = 0.06d;
+
+    // The current angle in degrees, which is always clamped or unwrapped.
+    private final DoubleProperty _angleDegrees;
+
+    // Cache the allowed range, as with the slider's minimum and maximum.
+    private final double         _minimumAngleDegrees;
+    private final double         _maximumAngleDegrees;
+
+    // Amount to increment or decrement for arrow keys.
+    private double               _blockIncrementDegrees;
+
+    // The static layer holds the face and ticks; the needle layer is dynamic.
+    private final Canvas         _faceCanvas;
+    private final Canvas         _needleCanvas;
+
+    // Colors used for rendering.
+    private Color                _faceColor;
+    private Color                _tickColor;
+    private Color                _needleColor;
+
+    // Track the rendered geometry so we only redraw the face when needed.
+    private double               _renderedWidth;
+    private double               _renderedHeight;
+    private double               _centerX;
+    private double               _centerY;
+    private double               _radius;
+
+    // Bounding box of the last drawn needle, which is all that gets cleared.
+    private double               _needleMinX;
+    private double               _needleMinY;
+    private double               _needleMaxX;
+    private double               _needleMaxY;
+
+    // Dirty flags, resolved on the next layout pass.
+    private boolean              _faceDirty;
+    private boolean              _needleDirty;
+
+    public AngleDial() {
+        this( AngleSlider.MINIMUM_ANGLE_DEGREES_DEFAULT,
+              AngleSlider.MAXIMUM_ANGLE_DEGREES_DEFAULT,
+              AngleSlider.INITIAL_ANGLE_DEGREES_DEFAULT );
+    }
+
+    public AngleDial( final double minimumAngleDegrees,
+                      final double maximumAngleDegrees,
+                      final double initialAngleDegrees ) {
+        // Always call the superclass constructor first!
+        super();
+
+        _minimumAngleDegrees = minimumAngleDegrees;
+        _maximumAngleDegrees = maximumAngleDegrees;
+        _blockIncrementDegrees = AngleSlider.BLOCK_INCREMENT_DEGREES;
+        _angleDegrees = new SimpleDoubleProperty( this,
+                                                  "angleDegrees", //$NON-NLS-1$
+                                                  getClampedValue( initialAngleDegrees ) ) {
+            @Override
+            protected void invalidated() {
+                // Clamp or unwrap values set directly through the property,
+                // as the Slider does; bound values can't be corrected.
+                if ( isBound() ) {
+                    return;
+                }
+                final double angleDegrees = get();
+                final double clampedAngleDegrees = getClampedValue( angleDegrees );
+                if ( Double.compare( clampedAngleDegrees, angleDegrees ) != 0 ) {
+                    set( clampedAngleDegrees );
+                }
+            }
+        };
+
+        _faceColor = Color.gray( 0.92d );
+        _tickColor = Color.gray( 0.35d );
+        _needleColor = Color.FIREBRICK;
+
+        _faceCanvas = new Canvas();
+        _needleCanvas = new Canvas();
+
+        _renderedWidth = -1d;
+        _renderedHeight = -1d;
+        _faceDirty = true;
+        _needleDirty = true;
+
+        try {
+            initDial();
+        }
+        catch ( final Exception ex ) {
+            ex.printStackTrace();
+        }
+    }
+
+    private void initDial() {
+        getChildren().addAll( _faceCanvas, _needleCanvas );
+
+        setPrefSize( DIAMETER_DEFAULT, DIAMETER_DEFAULT );
+        setFocusTraversable( true );
+
+        // Repaint just the needle layer on every angle change, as requesting
+        // a layout pass each time would also lay out the parents.
+        _angleDegrees.addListener( ( observable, oldAngleDegrees,
+                                     newAngleDegrees ) -> redrawNeedle() );
+
+        addEventHandler( MouseEvent.MOUSE_PRESSED, this::handleMouse );
+        addEventHandler( MouseEvent.MOUSE_DRAGGED, this::handleMouse );
+        addEventHandler( KeyEvent.KEY_PRESSED, keyEvent -> {
+            switch ( keyEvent.getCode() ) {
+            case RIGHT:
+            case UP:
+                setAngleDegrees( getAngleDegrees() + _blockIncrementDegrees );
+                keyEvent.consume();
+                break;
+            case LEFT:
+            case DOWN:
+                setAngleDegrees( getAngleDegrees() - _blockIncrementDegrees );
+                keyEvent.consume();
+                break;
+            default:
+                break;
+            }
+        } );
+    }
+
+    private void handleMouse( final MouseEvent mouseEvent ) {
+        if ( !isFocused() ) {
+            requestFocus();
+        }
+
+        // Convert the pointer position to a compass angle about the center.
+        final double dx = mouseEvent.getX() - _centerX;
+        final double dy = mouseEvent.getY() - _centerY;
+        if ( ( dx == 0d ) && ( dy == 0d ) ) {
+            return;
+        }
+        final double angleDegrees = FastMath.toDegrees( FastMath.atan2( dx, -dy ) );
+
+        setAngleDegrees( angleDegrees );
+        mouseEvent.consume();
+    }
+
+    public DoubleProperty angleDegreesProperty() {
+        return _angleDegrees;
+    }
+
+    public double getAngleDegrees() {
+        return _angleDegrees.get();
+    }
+
+    public void setAngleDegrees( final double angleDegrees ) {
+        // If the allowed angle range is a full period or more (360+ degrees),
+        // then unwrap the angle. Otherwise, apply standard min/max clamping.
+        _angleDegrees.set( getClampedValue( angleDegrees ) );
+    }
+
+    public double getClampedValue( final double unclampedValue ) {
+        return AngleSlider.getClampedAngleDegrees( unclampedValue,
+                                                   _minimumAngleDegrees,
+                                                   _maximumAngleDegrees );
+    }
+
+    public double getMin() {
+        return _minimumAngleDegrees;
+    }
+
+    public double getMax() {
+        return _maximumAngleDegrees;
+    }
+
+    public double getBlockIncrement() {
+        return _blockIncrementDegrees;
+    }
+
+    public void setBlockIncrement( final double blockIncrementDegrees ) {
+        _blockIncrementDegrees = blockIncrementDegrees;
+    }
+
+    // NOTE: This matches the slider API, for pairing with an Angle Editor.
+    public String getMeasurementUnitString() {
+        return AngleUnit.DEGREES.abbreviation();
+    }
+
+    public void setColors( final Color faceColor,
+                           final Color tickColor,
+                           final Color needleColor ) {
+        _faceColor = faceColor;
+        _tickColor = tickColor;
+        _needleColor = needleColor;
+
+        _faceDirty = true;
+        requestLayout();
+    }
+
+    @Override
+    protected void layoutChildren() {
+        final double width = snapSize( getWidth() );
+        final double height = snapSize( getHeight() );
+
+        if ( ( width != _renderedWidth ) || ( height != _renderedHeight ) ) {
+            _faceCanvas.setWidth( width );
+            _faceCanvas.setHeight( height );
+            _needleCanvas.setWidth( width );
+            _needleCanvas.setHeight( height );
+            _renderedWidth = width;
+            _renderedHeight = height;
+            _centerX = 0.5d * width;
+            _centerY = 0.5d * height;
+            _radius = Math.max( 0d, ( 0.5d * Math.min( width, height ) ) - 2d );
+            _faceDirty = true;
+        }
+
+        if ( _faceDirty ) {
+            drawFace();
+
+            // The whole needle layer is stale after a geometry change.
+            _needleCanvas.getGraphicsContext2D().clearRect( 0d, 0d, width, height );
+            _needleMinX = _needleMaxX = _centerX;
+            _needleMinY = _needleMaxY = _centerY;
+            _faceDirty = false;
+            _needleDirty = true;
+        }
+
+        if ( _needleDirty ) {
+            drawNeedle();
+            _needleDirty = false;
+        }
+    }
+
+    private void redrawNeedle() {
+        // Until the first layout pass there is no geometry to draw with.
+        if ( ( _renderedWidth < 0d ) || _faceDirty ) {
+            _needleDirty = true;
+            requestLayout();
+            return;
+        }
+
+        drawNeedle();
+    }
+
+    private void drawFace() {
+        final GraphicsContext gc = _faceCanvas.getGraphicsContext2D();
+        gc.clearRect( 0d, 0d, _renderedWidth, _renderedHeight );
+
+        if ( _radius <= 0d ) {
+            return;
+        }
+
+        gc.setFill( _faceColor );
+        gc.fillOval( _centerX - _radius, _centerY - _radius, 2d * _radius, 2d * _radius );
+
+        gc.setStroke( _tickColor );
+        gc.setLineWidth( 1d );
+        gc.strokeOval( _centerX - _radius, _centerY - _radius, 2d * _radius, 2d * _radius );
+
+        // Draw minor ticks every ten degrees and major ticks every thirty,
+        // greying out the portion of the circle outside a restricted range.
+        for ( int tickDegrees = 0; tickDegrees < 360; tickDegrees += 10 ) {
+            final double tickFraction = ( ( tickDegrees % 30 ) == 0 )
+                ? MAJOR_TICK_FRACTION
+                : MINOR_TICK_FRACTION;
+            final boolean inRange = Double.compare( getClampedValue( tickDegrees ), tickDegrees ) == 0
+                    || Double.compare( getClampedValue( tickDegrees - 360d ),
+                                       tickDegrees - 360d ) == 0;
+            gc.setGlobalAlpha( inRange ? 1d : 0.3d );
+
+            final double angleRadians = FastMath.toRadians( tickDegrees );
+            final double sin = FastMath.sin( angleRadians );
+            final double cos = FastMath.cos( angleRadians );
+            final double outer = _radius;
+            final double inner = _radius * ( 1d - tickFraction );
+            gc.strokeLine( _centerX + ( inner * sin ),
+                           _centerY - ( inner * cos ),
+                           _centerX + ( outer * sin ),
+                           _centerY - ( outer * cos ) );
+        }
+        gc.setGlobalAlpha( 1d );
+    }
+
+    private void drawNeedle() {
+        final GraphicsContext gc = _needleCanvas.getGraphicsContext2D();
+
+        // Clear only the area covered by the previous needle.
+        final double pad = NEEDLE_WIDTH + HUB_RADIUS + 1d;
+        gc.clearRect( _needleMinX - pad,
+                      _needleMinY - pad,
+                      ( _needleMaxX - _needleMinX ) + ( 2d * pad ),
+                      ( _needleMaxY - _needleMinY ) + ( 2d * pad ) );
+
+        if ( _radius <= 0d ) {
+            return;
+        }
+
+        final double angleRadians = FastMath.toRadians( getAngleDegrees() );
+        final double length = _radius * NEEDLE_LENGTH_FRACTION;
+        final double tipX = _centerX + ( length * FastMath.sin( angleRadians ) );
+        final double tipY = _centerY - ( length * FastMath.cos( angleRadians ) );
+
+        gc.setStroke( _needleColor );
+        gc.setFill( _needleColor );
+        gc.setLineWidth( NEEDLE_WIDTH );
+        gc.setLineCap( StrokeLineCap.ROUND );
+        gc.strokeLine( _centerX, _centerY, tipX, tipY );
+        gc.fillOval( _centerX - HUB_RADIUS,
+                     _centerY - HUB_RADIUS,
+                     2d * HUB_RADIUS,
+                     2d * HUB_RADIUS );
+
+        _needleMinX = Math.min( _centerX, tipX );
+        _needleMinY = Math.min( _centerY, tipY );
+        _needleMaxX = Math.max( _centerX, tipX );
+        _needleMaxY = Math.max( _centerY, tipY );
+    }
+}
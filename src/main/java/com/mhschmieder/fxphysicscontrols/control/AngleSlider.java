@@ -91,13 +91,7 @@ public final class AngleSlider extends NumberSlider {
     }
 
     public double getClampedValue( final double unclampedValue ) {
-        // If the allowed angle range is a full period or more (360+ degrees),
-        // then unwrap the angle. Otherwise, apply standard min/max clamping.
-        final double clampedValue = ( FastMath.abs( getMax() - getMin() ) >= 360d )
-            ? getUnwrappedAngleDegrees( unclampedValue )
-            : FastMath.min( FastMath.max( unclampedValue, getMin() ), getMax() );
-
-        return clampedValue;
+        return getClampedAngleDegrees( unclampedValue, getMin(), getMax() );
     }
 
     public double getUnwrappedAngleDegrees( final double unclampedValue ) {
@@ -110,6 +104,24 @@ public final class AngleSlider extends NumberSlider {
         return unwrappedAngleDegrees;
     }
 
+    // NOTE: This is shared with other angle controls, such as the Angle Dial,
+    //  so that they all honor the same clamping and unwrapping semantics.
+    public static double getClampedAngleDegrees( final double unclampedValue,
+                                                 final double minimumAngleDegrees,
+                                                 final double maximumAngleDegrees ) {
+        // If the allowed angle range is a full period or more (360+ degrees),
+        // then unwrap the angle. Otherwise, apply standard min/max clamping.
+        final double clampedValue =
+                ( FastMath.abs( maximumAngleDegrees - minimumAngleDegrees ) >= 360d )
+            ? MathUtilities.unwrapAngleRangeDegrees( unclampedValue,
+                                                     minimumAngleDegrees,
+                                                     maximumAngleDegrees )
+            : FastMath.min( FastMath.max( unclampedValue, minimumAngleDegrees ),
+                            maximumAngleDegrees );
+
+        return clampedValue;
+    }
+
     private void initSlider() {
         // Angles are generally presented as horizontal bar sliders.
         setOrientation( Orientation.HORIZONTAL );
@@ -0,0 +1,563 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxPhysics Library
+ *
+ * You should have received a copy of the MIT License along with the FxPhysics
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxphysics
+ */
+package com.mhschmieder.fxphysicscontrols.control;
+
+import com.mhschmieder.fxphysicscontrols.acoustics.EnvironmentSweep;
+import com.mhschmieder.jphysics.HumidityUnit;
+import com.mhschmieder.jphysics.TemperatureUnit;
+import com.mhschmieder.jphysics.UnitConversion;
+import javafx.application.Platform;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+
+import java.nio.FloatBuffer;
+import java.text.NumberFormat;
+import java.util.Locale;
+
+/**
+ * This is a heatmap display for environment sweep results, with relative
+ * humidity along the horizontal axis and temperature along the vertical axis.
+ * <p>
+ * Each sweep point is one pixel of a {@link WritableImage}, which is scaled up
+ * to the plot area without smoothing, so there is no scene graph node per
+ * cell and even very large sweeps stay cheap to render. Values are mapped to
+ * colors through the lookup table of a {@link HeatmapColormap}, into a packed
+ * pixel array that is written to the image in bulk.
+ * <p>
+ * The source values are read in place from a primitive array or buffer, with
+ * a stride and offset so that a single band or a single pressure slice can be
+ * shown straight out of a sweep's flat result array. Updates are incremental:
+ * {@link #invalidatePoints(int, int)} may be called from any thread as sweep
+ * chunks complete, such as by passing it to {@link EnvironmentSweep#run} as
+ * the chunk listener, and only the affected rows are re-mapped, coalesced into
+ * at most one pending update on the JavaFX Application Thread.
+ */
+public final class EnvironmentHeatmap extends Region {
+
+    // Declare the layout constants for the axes and their labels.
+    private static final double   LEFT_MARGIN      = 44d;
+    private static final double   BOTTOM_MARGIN    = 30d;
+    private static final double   TOP_MARGIN       = 14d;
+    private static final double   RIGHT_MARGIN     = 8d;
+    private static final double   TICK_LENGTH      = 4d;
+
+    // Declare the default preferred size.
+    public static final double    PREF_WIDTH_DEFAULT  = 400d;
+    public static final double    PREF_HEIGHT_DEFAULT = 300d;
+
+    // The pixel image, and the view that scales it to the plot area.
+    private WritableImage         _image;
+    private final ImageView       _imageView;
+
+    // The axis layer holds the plot frame, ticks and tick labels.
+    private final Canvas          _axisCanvas;
+
+    // The packed ARGB pixels, in image row order.
+    private int[]                 _pixels;
+
+    // The source values, of which exactly one is non-null.
+    private double[]              _doubleValues;
+    private FloatBuffer           _floatValues;
+
+    // The source layout: the value of a cell is at offset + point * stride,
+    // where the point index is row * columns + column.
+    // NOTE: The number of columns is also read by sweep worker threads.
+    private volatile int          _columns;
+    private int                   _rows;
+    private int                   _stride;
+    private int                   _offset;
+
+    // The number of invalidated points per cell, which is the number of
+    // pressure points when showing a sweep, as the pressure varies fastest.
+    private volatile int          _pointsPerCell;
+
+    // The colormap, and the value range that spans it.
+    private HeatmapColormap       _colormap;
+    private double                _minimumValue;
+    private double                _maximumValue;
+
+    // The axis ranges, in canonical units.
+    private double                _temperatureMinimumK;
+    private double                _temperatureMaximumK;
+    private double                _humidityMinimumRelative;
+    private double                _humidityMaximumRelative;
+
+    // Store the Temperature Unit so that the axis can be labeled in it.
+    private TemperatureUnit       _temperatureUnit;
+
+    // Number format for the tick labels.
+    private final NumberFormat    _tickNumberFormat;
+
+    private final Font            _font;
+    private Color                 _textColor;
+
+    // Track the rendered size so that we only redraw the axes when needed.
+    private double                _renderedWidth;
+    private double                _renderedHeight;
+
+    // Flag for whether the axes must be redrawn on the next layout pass.
+    private boolean               _axesDirty;
+
+    // Range of rows that need re-mapping, guarded by the dirty row lock.
+    private final Object          _dirtyRowLock;
+    private int                   _dirtyRowFirst;
+    private int                   _dirtyRowLast;
+    private boolean               _updatePending;
+
+    public EnvironmentHeatmap() {
+        // Always call the superclass constructor first!
+        super();
+
+        _imageView = new ImageView();
+        _imageView.setPreserveRatio( false );
+        _imageView.setSmooth( false );
+        _axisCanvas = new Canvas();
+        getChildren().addAll( _imageView, _axisCanvas );
+
+        _image = null;
+        _pixels = new int[ 0 ];
+        _doubleValues = null;
+        _floatValues = null;
+        _columns = 0;
+        _rows = 0;
+        _stride = 1;
+        _offset = 0;
+        _pointsPerCell = 1;
+
+        _colormap = HeatmapColormap.defaultValue();
+        _minimumValue = 0d;
+        _maximumValue = 1d;
+
+        _temperatureMinimumK = 0d;
+        _temperatureMaximumK = 0d;
+        _humidityMinimumRelative = 0d;
+        _humidityMaximumRelative = 100d;
+        _temperatureUnit = TemperatureUnit.defaultValue();
+
+        _tickNumberFormat = NumberFormat.getNumberInstance( Locale.getDefault() );
+        _tickNumberFormat.setGroupingUsed( false );
+        _tickNumberFormat.setMaximumFractionDigits( 1 );
+
+        _font = Font.font( 10d );
+        _textColor = Color.BLACK;
+
+        _renderedWidth = -1d;
+        _renderedHeight = -1d;
+        _axesDirty = true;
+
+        _dirtyRowLock = new Object();
+        _dirtyRowFirst = Integer.MAX_VALUE;
+        _dirtyRowLast = -1;
+        _updatePending = false;
+
+        setPrefSize( PREF_WIDTH_DEFAULT, PREF_HEIGHT_DEFAULT );
+    }
+
+    /**
+     * Shows the attenuation of one band from an environment sweep, for the
+     * first pressure of the sweep.
+     *
+     * @param environmentSweep
+     *            The sweep to show
+     * @param band
+     *            The index of the band to show
+     */
+    public void showAttenuation( final EnvironmentSweep environmentSweep, final int band ) {
+        final int pressurePoints = environmentSweep.getPressureAxis().getNumberOfPoints();
+        setAxes( environmentSweep );
+        _doubleValues = environmentSweep.getAttenuationDbPerMeter();
+        _floatValues = null;
+        setLayout( environmentSweep.getHumidityAxis().getNumberOfPoints(),
+                   environmentSweep.getTemperatureAxis().getNumberOfPoints(),
+                   pressurePoints * environmentSweep.getNumberOfBands(),
+                   band,
+                   pressurePoints );
+    }
+
+    /**
+     * Shows the speed of sound from an environment sweep, for the first
+     * pressure of the sweep.
+     *
+     * @param environmentSweep
+     *            The sweep to show
+     */
+    public void showSpeedOfSound( final EnvironmentSweep environmentSweep ) {
+        final int pressurePoints = environmentSweep.getPressureAxis().getNumberOfPoints();
+        setAxes( environmentSweep );
+        _doubleValues = environmentSweep.getSpeedOfSound();
+        _floatValues = null;
+        setLayout( environmentSweep.getHumidityAxis().getNumberOfPoints(),
+                   environmentSweep.getTemperatureAxis().getNumberOfPoints(),
+                   pressurePoints,
+                   0,
+                   pressurePoints );
+    }
+
+    private void setAxes( final EnvironmentSweep environmentSweep ) {
+        setAxisRanges( environmentSweep.getTemperatureAxis().getMinimum(),
+                       environmentSweep.getTemperatureAxis().getMaximum(),
+                       environmentSweep.getHumidityAxis().getMinimum(),
+                       environmentSweep.getHumidityAxis().getMaximum() );
+    }
+
+    /**
+     * Sets the source values from a primitive array, which is read in place.
+     *
+     * @param values
+     *            The source values
+     * @param columns
+     *            The number of humidity points
+     * @param rows
+     *            The number of temperature points
+     * @param stride
+     *            The distance between consecutive points in the source
+     * @param offset
+     *            The index in the source of the first point's value
+     */
+    public void setData( final double[] values,
+                         final int columns,
+                         final int rows,
+                         final int stride,
+                         final int offset ) {
+        _doubleValues = values;
+        _floatValues = null;
+        setLayout( columns, rows, stride, offset, 1 );
+    }
+
+    /**
+     * Sets the source values from a float buffer, which is read in place and
+     * so may be a direct or memory-mapped buffer.
+     *
+     * @param values
+     *            The source values
+     * @param columns
+     *            The number of humidity points
+     * @param rows
+     *            The number of temperature points
+     * @param stride
+     *            The distance between consecutive points in the source
+     * @param offset
+     *            The index in the source of the first point's value
+     */
+    public void setData( final FloatBuffer values,
+                         final int columns,
+                         final int rows,
+                         final int stride,
+                         final int offset ) {
+        _doubleValues = null;
+        _floatValues = values;
+        setLayout( columns, rows, stride, offset, 1 );
+    }
+
+    private void setLayout( final int columns,
+                            final int rows,
+                            final int stride,
+                            final int offset,
+                            final int pointsPerCell ) {
+        _stride = stride;
+        _offset = offset;
+        _pointsPerCell = pointsPerCell;
+
+        // Only reallocate the image when its size changes.
+        if ( ( columns != _columns ) || ( rows != _rows ) || ( _image == null ) ) {
+            _columns = columns;
+            _rows = rows;
+            _pixels = new int[ columns * rows ];
+            _image = ( ( columns > 0 ) && ( rows > 0 ) ) ? new WritableImage( columns, rows ) : null;
+            _imageView.setImage( _image );
+        }
+
+        invalidateAll();
+    }
+
+    /**
+     * Sets the temperature and humidity ranges covered by the data.
+     *
+     * @param temperatureMinimumK
+     *            The temperature of the bottom row, in degrees Kelvin
+     * @param temperatureMaximumK
+     *            The temperature of the top row, in degrees Kelvin
+     * @param humidityMinimumRelative
+     *            The relative humidity of the left column, in percent
+     * @param humidityMaximumRelative
+     *            The relative humidity of the right column, in percent
+     */
+    public void setAxisRanges( final double temperatureMinimumK,
+                               final double temperatureMaximumK,
+                               final double humidityMinimumRelative,
+                               final double humidityMaximumRelative ) {
+        _temperatureMinimumK = temperatureMinimumK;
+        _temperatureMaximumK = temperatureMaximumK;
+        _humidityMinimumRelative = humidityMinimumRelative;
+        _humidityMaximumRelative = humidityMaximumRelative;
+
+        invalidateAxes();
+    }
+
+    /**
+     * Sets the value range that spans the colormap.
+     *
+     * @param minimumValue
+     *            The value mapped to the start of the colormap
+     * @param maximumValue
+     *            The value mapped to the end of the colormap
+     */
+    public void setValueRange( final double minimumValue, final double maximumValue ) {
+        _minimumValue = minimumValue;
+        _maximumValue = maximumValue;
+
+        invalidateAll();
+    }
+
+    public double getMinimumValue() {
+        return _minimumValue;
+    }
+
+    public double getMaximumValue() {
+        return _maximumValue;
+    }
+
+    public HeatmapColormap getColormap() {
+        return _colormap;
+    }
+
+    public void setColormap( final HeatmapColormap colormap ) {
+        _colormap = colormap;
+
+        invalidateAll();
+    }
+
+    public void setTextColor( final Color textColor ) {
+        _textColor = textColor;
+
+        invalidateAxes();
+    }
+
+    public void updateTemperatureUnit( final TemperatureUnit temperatureUnit ) {
+        _temperatureUnit = temperatureUnit;
+
+        invalidateAxes();
+    }
+
+    /**
+     * Marks a range of points as changed, such as when a sweep chunk has
+     * completed. This may be called from any thread; the affected rows are
+     * re-mapped on the JavaFX Application Thread, with any further changes
+     * that arrive in the meantime folded into the same update.
+     * <p>
+     * When showing a sweep, the points are sweep points, which include the
+     * pressure axis; otherwise they are cells, in row * columns + column
+     * order.
+     *
+     * @param firstPoint
+     *            The index of the first changed point
+     * @param numberOfPoints
+     *            The number of changed points
+     */
+    public void invalidatePoints( final int firstPoint, final int numberOfPoints ) {
+        final int columns = _columns;
+        if ( ( numberOfPoints <= 0 ) || ( columns <= 0 ) ) {
+            return;
+        }
+
+        final int pointsPerCell = _pointsPerCell;
+        final int firstCell = firstPoint / pointsPerCell;
+        final int lastCell = ( ( firstPoint + numberOfPoints ) - 1 ) / pointsPerCell;
+        invalidateRows( firstCell / columns, lastCell / columns );
+    }
+
+    private void invalidateAll() {
+        invalidateRows( 0, _rows - 1 );
+    }
+
+    private void invalidateRows( final int firstRow, final int lastRow ) {
+        if ( firstRow > lastRow ) {
+            return;
+        }
+
+        synchronized ( _dirtyRowLock ) {
+            _dirtyRowFirst = Math.min( _dirtyRowFirst, firstRow );
+            _dirtyRowLast = Math.max( _dirtyRowLast, lastRow );
+            if ( _updatePending ) {
+                return;
+            }
+            _updatePending = true;
+        }
+
+        if ( Platform.isFxApplicationThread() ) {
+            updateDirtyRows();
+        }
+        else {
+            Platform.runLater( this::updateDirtyRows );
+        }
+    }
+
+    private void updateDirtyRows() {
+        final int firstRow;
+        final int lastRow;
+        synchronized ( _dirtyRowLock ) {
+            firstRow = _dirtyRowFirst;
+            lastRow = Math.min( _dirtyRowLast, _rows - 1 );
+            _dirtyRowFirst = Integer.MAX_VALUE;
+            _dirtyRowLast = -1;
+            _updatePending = false;
+        }
+
+        if ( ( _image == null ) || ( firstRow > lastRow ) ) {
+            return;
+        }
+
+        // Map the values to colors, flipping vertically so that the lowest
+        // temperature is at the bottom of the image.
+        for ( int row = firstRow; row <= lastRow; row++ ) {
+            final int imageRowOffset = ( _rows - 1 - row ) * _columns;
+            final int firstPoint = row * _columns;
+            for ( int column = 0; column < _columns; column++ ) {
+                final int index = _offset + ( ( firstPoint + column ) * _stride );
+                final double value = ( _doubleValues != null )
+                    ? _doubleValues[ index ]
+                    : _floatValues.get( index );
+                _pixels[ imageRowOffset + column ] = _colormap
+                        .toArgb( value, _minimumValue, _maximumValue );
+            }
+        }
+
+        // Write only the affected band of image rows.
+        final int imageRowFirst = _rows - 1 - lastRow;
+        _image.getPixelWriter().setPixels( 0,
+                                           imageRowFirst,
+                                           _columns,
+                                           ( lastRow - firstRow ) + 1,
+                                           PixelFormat.getIntArgbInstance(),
+                                           _pixels,
+                                           imageRowFirst * _columns,
+                                           _columns );
+    }
+
+    private void invalidateAxes() {
+        _axesDirty = true;
+        requestLayout();
+    }
+
+    @Override
+    protected void layoutChildren() {
+        final double width = snapSize( getWidth() );
+        final double height = snapSize( getHeight() );
+
+        if ( ( width != _renderedWidth ) || ( height != _renderedHeight ) ) {
+            _axisCanvas.setWidth( width );
+            _axisCanvas.setHeight( height );
+            _renderedWidth = width;
+            _renderedHeight = height;
+            _axesDirty = true;
+        }
+
+        final double plotWidth = Math.max( 0d, width - LEFT_MARGIN - RIGHT_MARGIN );
+        final double plotHeight = Math.max( 0d, height - TOP_MARGIN - BOTTOM_MARGIN );
+        _imageView.relocate( LEFT_MARGIN, TOP_MARGIN );
+        _imageView.setFitWidth( plotWidth );
+        _imageView.setFitHeight( plotHeight );
+
+        if ( _axesDirty ) {
+            drawAxes( width, height, plotWidth, plotHeight );
+            _axesDirty = false;
+        }
+    }
+
+    private void drawAxes( final double width,
+                           final double height,
+                           final double plotWidth,
+                           final double plotHeight ) {
+        final GraphicsContext gc = _axisCanvas.getGraphicsContext2D();
+        gc.clearRect( 0d, 0d, width, height );
+        if ( ( plotWidth <= 0d ) || ( plotHeight <= 0d ) ) {
+            return;
+        }
+
+        gc.setStroke( _textColor );
+        gc.setFill( _textColor );
+        gc.setLineWidth( 1d );
+        gc.setFont( _font );
+        gc.strokeRect( LEFT_MARGIN - 0.5d, TOP_MARGIN - 0.5d, plotWidth + 1d, plotHeight + 1d );
+
+        // Label the temperature axis in the current Temperature Unit.
+        final double temperatureMinimum = UnitConversion
+                .convertTemperature( _temperatureMinimumK, TemperatureUnit.KELVIN, _temperatureUnit );
+        final double temperatureMaximum = UnitConversion
+                .convertTemperature( _temperatureMaximumK, TemperatureUnit.KELVIN, _temperatureUnit );
+        final double temperatureTickSpacing = ( _temperatureUnit == TemperatureUnit.FAHRENHEIT )
+            ? 20d
+            : 10d;
+        gc.setTextAlign( TextAlignment.RIGHT );
+        gc.setTextBaseline( VPos.CENTER );
+        if ( temperatureMaximum > temperatureMinimum ) {
+            final double firstTick = Math.ceil( temperatureMinimum / temperatureTickSpacing )
+                    * temperatureTickSpacing;
+            for ( double tick = firstTick; tick <= temperatureMaximum; tick += temperatureTickSpacing ) {
+                final double y = snapPosition( ( TOP_MARGIN + plotHeight )
+                        - ( ( ( tick - temperatureMinimum ) / ( temperatureMaximum
+                                - temperatureMinimum ) ) * plotHeight ) ) + 0.5d;
+                gc.strokeLine( LEFT_MARGIN - TICK_LENGTH, y, LEFT_MARGIN, y );
+                gc.fillText( _tickNumberFormat.format( tick ), LEFT_MARGIN - TICK_LENGTH - 2d, y );
+            }
+        }
+        gc.setTextAlign( TextAlignment.LEFT );
+        gc.setTextBaseline( VPos.TOP );
+        gc.fillText( _temperatureUnit.abbreviation(), 2d, 0d );
+
+        // Label the humidity axis in relative humidity.
+        final double humidityTickSpacing = 20d;
+        gc.setTextAlign( TextAlignment.CENTER );
+        if ( _humidityMaximumRelative > _humidityMinimumRelative ) {
+            final double firstTick = Math.ceil( _humidityMinimumRelative / humidityTickSpacing )
+                    * humidityTickSpacing;
+            for ( double tick = firstTick; tick <= _humidityMaximumRelative; tick += humidityTickSpacing ) {
+                final double x = snapPosition( LEFT_MARGIN
+                        + ( ( ( tick - _humidityMinimumRelative ) / ( _humidityMaximumRelative
+                                - _humidityMinimumRelative ) ) * plotWidth ) ) + 0.5d;
+                final double y = TOP_MARGIN + plotHeight;
+                gc.strokeLine( x, y, x, y + TICK_LENGTH );
+                gc.fillText( _tickNumberFormat.format( tick ), x, y + TICK_LENGTH + 1d );
+            }
+        }
+        gc.setTextAlign( TextAlignment.RIGHT );
+        gc.setTextBaseline( VPos.BOTTOM );
+        gc.fillText( HumidityUnit.RELATIVE.abbreviation(), width - 2d, height );
+    }
+}
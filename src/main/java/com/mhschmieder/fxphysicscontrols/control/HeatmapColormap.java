@@ -0,0 +1,105 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxPhysics Library
+ *
+ * You should have received a copy of the MIT License along with the FxPhysics
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxphysics
+ */
+package com.mhschmieder.fxphysicscontrols.control;
+
+/**
+ * This is an enumeration of the colormaps available to heatmap displays, each
+ * of which is precomputed as a lookup table of packed ARGB colors so that
+ * mapping a value to a pixel is a single array access.
+ */
+public enum HeatmapColormap {
+    GRAYSCALE( 0x000000, 0xFFFFFF ),
+    VIRIDIS( 0x440154, 0x3B528B, 0x21918C, 0x5EC962, 0xFDE725 ),
+    INFERNO( 0x000004, 0x57106E, 0xBC3754, 0xF98E09, 0xFCFFA4 );
+
+    // Declare the number of entries in each lookup table.
+    public static final int LOOKUP_TABLE_SIZE = 256;
+
+    // Color used for missing or invalid values, which is fully transparent.
+    public static final int NO_DATA_ARGB      = 0x00000000;
+
+    // The packed, opaque ARGB colors, from lowest to highest value.
+    private final int[]     _lookupTable;
+
+    HeatmapColormap( final int... anchorRgbs ) {
+        _lookupTable = new int[ LOOKUP_TABLE_SIZE ];
+
+        // Interpolate linearly between evenly spaced anchor colors.
+        final int numberOfSegments = anchorRgbs.length - 1;
+        for ( int i = 0; i < LOOKUP_TABLE_SIZE; i++ ) {
+            final double position = ( ( double ) i / ( LOOKUP_TABLE_SIZE - 1 ) ) * numberOfSegments;
+            final int segment = Math.min( ( int ) position, numberOfSegments - 1 );
+            final double fraction = position - segment;
+            final int rgb0 = anchorRgbs[ segment ];
+            final int rgb1 = anchorRgbs[ segment + 1 ];
+            final int red = interpolateChannel( rgb0 >> 16, rgb1 >> 16, fraction );
+            final int green = interpolateChannel( rgb0 >> 8, rgb1 >> 8, fraction );
+            final int blue = interpolateChannel( rgb0, rgb1, fraction );
+            _lookupTable[ i ] = 0xFF000000 | ( red << 16 ) | ( green << 8 ) | blue;
+        }
+    }
+
+    private static int interpolateChannel( final int channel0,
+                                           final int channel1,
+                                           final double fraction ) {
+        final int value0 = channel0 & 0xFF;
+        final int value1 = channel1 & 0xFF;
+        return ( int ) Math.round( value0 + ( fraction * ( value1 - value0 ) ) );
+    }
+
+    /**
+     * Maps a value to a packed ARGB color, clamping to the given range.
+     *
+     * @param value
+     *            The value to map
+     * @param minimum
+     *            The value that maps to the start of the colormap
+     * @param maximum
+     *            The value that maps to the end of the colormap
+     * @return The packed ARGB color, or {@link #NO_DATA_ARGB} if the value is
+     *         not a number
+     */
+    public int toArgb( final double value, final double minimum, final double maximum ) {
+        if ( Double.isNaN( value ) ) {
+            return NO_DATA_ARGB;
+        }
+
+        final double normalizedValue = ( maximum > minimum )
+            ? ( value - minimum ) / ( maximum - minimum )
+            : 0d;
+        final int index = ( int ) ( normalizedValue * ( LOOKUP_TABLE_SIZE - 1 ) + 0.5d );
+        return _lookupTable[ Math.max( 0, Math.min( LOOKUP_TABLE_SIZE - 1, index ) ) ];
+    }
+
+    public static HeatmapColormap defaultValue() {
+        return VIRIDIS;
+    }
+}
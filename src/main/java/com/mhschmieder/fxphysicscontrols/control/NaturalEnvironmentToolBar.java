@@ -48,6 +48,7 @@ public final class NaturalEnvironmentToolBar extends ToolBar {
 
     public PredictButtons _predictButtons;
     public CheckBox       _useAirAttenuationCheckBox;
+    public CheckBox       _autoPredictCheckBox;
     public Button         _resetButton;
 
     // Default constructor
@@ -72,6 +73,9 @@ public final class NaturalEnvironmentToolBar extends ToolBar {
         _useAirAttenuationCheckBox = PhysicsLabeledControlFactory
                 .getUseAirAttenuationCheckBox( pClientProperties,
                                                naturalEnvironmentActions.useAirAttenuationAction );
+        _autoPredictCheckBox = PhysicsLabeledControlFactory
+                .getAutoPredictCheckBox( pClientProperties,
+                                         naturalEnvironmentActions.autoPredictAction );
         _resetButton = LabeledControlFactory
                 .getResetButton( pClientProperties, naturalEnvironmentActions.resetAction );
 
@@ -81,7 +85,9 @@ public final class NaturalEnvironmentToolBar extends ToolBar {
         final int spacerWidth = 40;
         final Region spacer1 = new Region();
         final Region spacer2 = new Region();
+        final Region spacer3 = new Region();
         spacer2.setPrefWidth( spacerWidth );
+        spacer3.setPrefWidth( 0.5d * spacerWidth );
         HBox.setHgrow( spacer1, Priority.ALWAYS );
 
         // Add all the Nodes to the Tool Bar.
@@ -89,6 +95,8 @@ public final class NaturalEnvironmentToolBar extends ToolBar {
                            _predictButtons.clearButton,
                            spacer1,
                            _useAirAttenuationCheckBox,
+                           spacer3,
+                           _autoPredictCheckBox,
                            spacer2,
                            _resetButton );
     }
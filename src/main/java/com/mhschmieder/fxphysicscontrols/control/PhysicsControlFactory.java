@@ -190,6 +190,41 @@ public class PhysicsControlFactory {
         return angleEditor;
     }
 
+    // Helper method to get an Angle Editor to pair with a dial.
+    public static AngleEditor makeAngleDialEditor( final ClientProperties clientProperties,
+                                                   final AngleDial angleDial ) {
+        return makeAngleDialEditor( clientProperties,
+                                    angleDial,
+                                    0,
+                                    2,
+                                    0,
+                                    10 );
+    }
+
+    // Helper method to get an Angle Editor to pair with a dial.
+    public static AngleEditor makeAngleDialEditor( final ClientProperties clientProperties,
+                                                   final AngleDial angleDial,
+                                                   final int minFractionDigitsFormat,
+                                                   final int maxFractionDigitsFormat,
+                                                   final int minFractionDigitsParse,
+                                                   final int maxFractionDigitsParse ) {
+        // Use the current dial value and limits to set the number textField.
+        // NOTE: The editor's value increment matches the dial's arrow keys.
+        final AngleEditor angleEditor = makeAngleEditor( clientProperties,
+                                                         null,
+                                                         minFractionDigitsFormat,
+                                                         maxFractionDigitsFormat,
+                                                         minFractionDigitsParse,
+                                                         maxFractionDigitsParse,
+                                                         angleDial.getMeasurementUnitString(),
+                                                         angleDial.getMin(),
+                                                         angleDial.getMax(),
+                                                         angleDial.getAngleDegrees(),
+                                                         angleDial.getBlockIncrement() );
+
+        return angleEditor;
+    }
+
     // Helper method to get a custom Temperature Editor.
     public static TemperatureEditor makeTemperatureEditor(
             final ClientProperties clientProperties ) {
@@ -50,4 +50,9 @@ public final class PhysicsLabeledControlFactory {
         return ControlUtilities.getLabeledCheckBox( useAirAttenuationAction );
     }
 
+    public static CheckBox getAutoPredictCheckBox( final ClientProperties clientProperties,
+                                                   final XAction autoPredictAction ) {
+        return ControlUtilities.getLabeledCheckBox( autoPredictAction );
+    }
+
 }
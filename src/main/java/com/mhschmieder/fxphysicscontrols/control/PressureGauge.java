@@ -0,0 +1,120 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxPhysics Library
+ *
+ * You should have received a copy of the MIT License along with the FxPhysics
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxphysics
+ */
+package com.mhschmieder.fxphysicscontrols.control;
+
+import com.mhschmieder.jphysics.PhysicsConstants;
+import com.mhschmieder.jphysics.PressureUnit;
+import com.mhschmieder.jphysics.UnitConversion;
+
+/**
+ * This is a lightweight, canvas-rendered equivalent of the
+ * {@link PressureSlider}, for read-mostly displays such as dashboards. It
+ * offers the same unit-switching API as the slider.
+ */
+public final class PressureGauge extends QuantityGauge {
+
+    // Store the Pressure Unit so we'll know when we need to convert.
+    private PressureUnit _pressureUnit;
+
+    public PressureGauge() {
+        this( PressureSlider.INITIAL_PRESSURE_PASCALS_DEFAULT );
+    }
+
+    public PressureGauge( final double initialPressurePa ) {
+        // Always call the superclass constructor first!
+        // NOTE: The initial unit is pascals, so no conversion is needed yet.
+        super( PressureSlider.MINIMUM_PRESSURE_PASCALS_DEFAULT,
+               PressureSlider.MAXIMUM_PRESSURE_PASCALS_DEFAULT,
+               initialPressurePa,
+               10000d );
+
+        _pressureUnit = PressureUnit.PASCALS;
+
+        // Update the Pressure Unit and related resolutions and ranges.
+        updatePressureUnit( PressureUnit.defaultValue() );
+    }
+
+    // Convert current Pressure value from display units to pascals.
+    public double getPressurePa() {
+        return UnitConversion.convertPressure( getValue(), _pressureUnit, PressureUnit.PASCALS );
+    }
+
+    // Convert new Pressure value from pascals to display units.
+    public void setPressurePa( final double pressurePa ) {
+        setValue( UnitConversion
+                .convertPressure( pressurePa, PressureUnit.PASCALS, _pressureUnit ) );
+    }
+
+    public void updatePressureUnit( final PressureUnit pressureUnit ) {
+        // Convert the current Pressure from previous units to new units.
+        final double pressureCurrent = UnitConversion
+                .convertPressure( getValue(), _pressureUnit, pressureUnit );
+
+        // Store the new Pressure Unit to provide context for next change.
+        _pressureUnit = pressureUnit;
+
+        // Set the tick resolution based on the granularity of the unit.
+        double majorTickSpacing;
+        switch ( _pressureUnit ) {
+        case KILOPASCALS:
+            majorTickSpacing = 10.0d;
+            _valueNumberFormat.setMaximumFractionDigits( 2 );
+            break;
+        case MILLIBARS:
+            majorTickSpacing = 100d;
+            _valueNumberFormat.setMaximumFractionDigits( 1 );
+            break;
+        case ATMOSPHERES:
+            majorTickSpacing = 0.25d;
+            _valueNumberFormat.setMaximumFractionDigits( 3 );
+            break;
+        case PASCALS:
+        default:
+            majorTickSpacing = 10000d;
+            _valueNumberFormat.setMaximumFractionDigits( 0 );
+            break;
+        }
+
+        // NOTE: Unlike the slider, the gauge doesn't clamp its value to the
+        //  range, so the order of these calls doesn't matter.
+        setRange( UnitConversion.convertPressure( PhysicsConstants.PRESSURE_MINIMUM_PA,
+                                                  PressureUnit.PASCALS,
+                                                  _pressureUnit ),
+                  UnitConversion.convertPressure( PhysicsConstants.PRESSURE_MAXIMUM_PA,
+                                                  PressureUnit.PASCALS,
+                                                  _pressureUnit ),
+                  majorTickSpacing );
+        setValue( pressureCurrent );
+
+        // Set the unit label that is drawn as part of the readout.
+        setMeasurementUnitString( _pressureUnit.label() );
+    }
+}
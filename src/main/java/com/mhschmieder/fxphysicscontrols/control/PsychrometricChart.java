@@ -0,0 +1,457 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxPhysics Library
+ *
+ * You should have received a copy of the MIT License along with the FxPhysics
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxphysics
+ */
+package com.mhschmieder.fxphysicscontrols.control;
+
+import com.mhschmieder.fxphysicscontrols.acoustics.AirAttenuation;
+import com.mhschmieder.fxphysicscontrols.model.NaturalEnvironment;
+import com.mhschmieder.jphysics.PhysicsConstants;
+import com.mhschmieder.jphysics.TemperatureUnit;
+import com.mhschmieder.jphysics.UnitConversion;
+import javafx.beans.InvalidationListener;
+import javafx.geometry.VPos;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.WritableImage;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+
+import java.text.NumberFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * This is a psychrometric chart, plotting the operating point of a
+ * {@link NaturalEnvironment} as dry-bulb temperature against humidity ratio,
+ * over curves of constant relative humidity.
+ * <p>
+ * The curves, grid and axis labels are expensive to draw and rarely change, so
+ * they are rendered once per temperature unit, size and (rounded) pressure,
+ * and then cached as an image that is shared by all charts. Moving the
+ * environment sliders only redraws the operating point marker, on its own
+ * canvas layer, by clearing and repainting its small bounding box.
+ * <p>
+ * This chart must only be used on the JavaFX Application Thread, which also
+ * guards the shared background cache.
+ */
+public final class PsychrometricChart extends Region {
+
+    // Declare the layout constants for the axes and their labels.
+    private static final double LEFT_MARGIN        = 40d;
+    private static final double BOTTOM_MARGIN      = 30d;
+    private static final double TOP_MARGIN         = 14d;
+    private static final double RIGHT_MARGIN       = 8d;
+    private static final double TICK_LENGTH        = 4d;
+    private static final double MARKER_RADIUS      = 5d;
+
+    // Declare the default preferred size.
+    public static final double  PREF_WIDTH_DEFAULT  = 400d;
+    public static final double  PREF_HEIGHT_DEFAULT = 300d;
+
+    // Ratio of the molar masses of water vapor and dry air.
+    private static final double MOLAR_MASS_RATIO   = 0.621945d;
+
+    // Upper limit of the humidity ratio axis, in grams per kilogram, beyond
+    // which very hot and humid air is no longer of practical interest.
+    private static final double HUMIDITY_RATIO_LIMIT = 60d;
+
+    // Pressure rounding for background cache keys, in pascals.
+    private static final double PRESSURE_STEP_PA   = 500d;
+
+    // Number of line segments per relative humidity curve.
+    private static final int    CURVE_SEGMENTS     = 100;
+
+    // Declare the maximum number of cached backgrounds.
+    private static final int    MAXIMUM_CACHED_BACKGROUNDS = 8;
+
+    // Shared cache of rendered backgrounds, in access order.
+    private static final Map< String, WritableImage > BACKGROUND_CACHE =
+            new LinkedHashMap< String, WritableImage >( 16, 0.75f, true ) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry( final Map.Entry< String, WritableImage > eldest ) {
+                    return size() > MAXIMUM_CACHED_BACKGROUNDS;
+                }
+            };
+
+    // The background image view, and the marker layer above it.
+    private final ImageView         _backgroundView;
+    private final Canvas            _markerCanvas;
+
+    // The environment whose operating point is plotted, if any.
+    private NaturalEnvironment      _naturalEnvironment;
+
+    // The listener that redraws the chart when the environment changes.
+    private final InvalidationListener _environmentChangedListener;
+
+    // Store the Temperature Unit so that the axis can be labeled in it.
+    private TemperatureUnit         _temperatureUnit;
+
+    // The pressure that the background curves were drawn for, rounded.
+    private double                  _backgroundPressurePa;
+
+    // The humidity ratio at the top of the chart, in grams per kilogram.
+    private final double            _humidityRatioMaximum;
+
+    // Bounding box of the marker as last drawn, for partial clearing.
+    private double                  _markerX;
+    private double                  _markerY;
+    private boolean                 _markerDrawn;
+
+    // Colors used for rendering.
+    private final Color             _curveColor;
+    private final Color             _saturationColor;
+    private final Color             _textColor;
+    private Color                   _markerColor;
+
+    private final Font              _font;
+    private final NumberFormat      _tickNumberFormat;
+
+    // Track the rendered size so that we only redraw when needed.
+    private double                  _renderedWidth;
+    private double                  _renderedHeight;
+
+    // Flag for whether the background must be refreshed on the next layout.
+    private boolean                 _backgroundDirty;
+
+    public PsychrometricChart() {
+        // Always call the superclass constructor first!
+        super();
+
+        _backgroundView = new ImageView();
+        _markerCanvas = new Canvas();
+        getChildren().addAll( _backgroundView, _markerCanvas );
+
+        _naturalEnvironment = null;
+        _temperatureUnit = TemperatureUnit.defaultValue();
+        _backgroundPressurePa = PhysicsConstants.PRESSURE_REFERENCE_PA;
+
+        // Size the humidity ratio axis to hold saturated air at the maximum
+        // temperature and minimum pressure, rounded up to a tick.
+        final double humidityRatioSaturated = getHumidityRatio( PhysicsConstants.TEMPERATURE_MAXIMUM_K,
+                                                                100d,
+                                                                PhysicsConstants.PRESSURE_MINIMUM_PA );
+        _humidityRatioMaximum = Math.min( 10d * Math.ceil( humidityRatioSaturated / 10d ),
+                                          HUMIDITY_RATIO_LIMIT );
+
+        _markerDrawn = false;
+
+        _curveColor = Color.gray( 0.6d );
+        _saturationColor = Color.STEELBLUE;
+        _textColor = Color.BLACK;
+        _markerColor = Color.CRIMSON;
+        _font = Font.font( 10d );
+
+        _tickNumberFormat = NumberFormat.getNumberInstance( Locale.getDefault() );
+        _tickNumberFormat.setGroupingUsed( false );
+        _tickNumberFormat.setMaximumFractionDigits( 1 );
+
+        _renderedWidth = -1d;
+        _renderedHeight = -1d;
+        _backgroundDirty = true;
+
+        _environmentChangedListener = observable -> {
+            _naturalEnvironment.isNaturalEnvironmentChanged();
+            environmentChanged();
+        };
+
+        setPrefSize( PREF_WIDTH_DEFAULT, PREF_HEIGHT_DEFAULT );
+    }
+
+    /**
+     * Returns the humidity ratio of moist air, which is the mass of water
+     * vapor per mass of dry air.
+     *
+     * @param temperatureK
+     *            The dry-bulb temperature, in degrees Kelvin
+     * @param humidityRelative
+     *            The relative humidity, in percent
+     * @param pressurePa
+     *            The pressure, in pascals
+     * @return The humidity ratio, in grams per kilogram
+     */
+    public static double getHumidityRatio( final double temperatureK,
+                                           final double humidityRelative,
+                                           final double pressurePa ) {
+        // The molar concentration is the vapor pressure as a percentage of
+        // the total pressure.
+        final double vaporFraction = 0.01d * AirAttenuation
+                .getMolarConcentrationOfWaterVapor( temperatureK, humidityRelative, pressurePa );
+        return ( 1000d * MOLAR_MASS_RATIO * vaporFraction ) / ( 1d - vaporFraction );
+    }
+
+    /**
+     * Plots the operating point of an environment, tracking its changes.
+     *
+     * @param naturalEnvironment
+     *            The environment to plot, or {@code null} for none
+     */
+    public void setNaturalEnvironment( final NaturalEnvironment naturalEnvironment ) {
+        if ( _naturalEnvironment != null ) {
+            _naturalEnvironment.naturalEnvironmentChangedProperty()
+                    .removeListener( _environmentChangedListener );
+        }
+
+        _naturalEnvironment = naturalEnvironment;
+
+        if ( _naturalEnvironment != null ) {
+            _naturalEnvironment.naturalEnvironmentChangedProperty()
+                    .addListener( _environmentChangedListener );
+        }
+
+        environmentChanged();
+    }
+
+    public void setMarkerColor( final Color markerColor ) {
+        _markerColor = markerColor;
+
+        drawMarker();
+    }
+
+    public void updateTemperatureUnit( final TemperatureUnit temperatureUnit ) {
+        _temperatureUnit = temperatureUnit;
+
+        invalidateBackground();
+    }
+
+    private void environmentChanged() {
+        // Pressure shifts the curves, but only by enough to matter once it
+        // crosses into a different rounding step.
+        if ( _naturalEnvironment != null ) {
+            final double pressurePa = getRoundedPressurePa( _naturalEnvironment.getPressurePa() );
+            if ( pressurePa != _backgroundPressurePa ) {
+                _backgroundPressurePa = pressurePa;
+                invalidateBackground();
+                return;
+            }
+        }
+
+        drawMarker();
+    }
+
+    private static double getRoundedPressurePa( final double pressurePa ) {
+        return PRESSURE_STEP_PA * Math.round( pressurePa / PRESSURE_STEP_PA );
+    }
+
+    private void invalidateBackground() {
+        _backgroundDirty = true;
+        requestLayout();
+    }
+
+    @Override
+    protected void layoutChildren() {
+        final double width = snapSize( getWidth() );
+        final double height = snapSize( getHeight() );
+
+        if ( ( width != _renderedWidth ) || ( height != _renderedHeight ) ) {
+            _markerCanvas.setWidth( width );
+            _markerCanvas.setHeight( height );
+            _renderedWidth = width;
+            _renderedHeight = height;
+            _markerDrawn = false;
+            _backgroundDirty = true;
+        }
+
+        if ( _backgroundDirty ) {
+            _backgroundView.setImage( getBackground( width, height ) );
+            _markerCanvas.getGraphicsContext2D().clearRect( 0d, 0d, width, height );
+            _markerDrawn = false;
+            drawMarker();
+            _backgroundDirty = false;
+        }
+    }
+
+    private WritableImage getBackground( final double width, final double height ) {
+        if ( ( width < 1d ) || ( height < 1d ) ) {
+            return null;
+        }
+
+        final String cacheKey = _temperatureUnit.name() + '/' + width + 'x' + height + '/'
+                + _backgroundPressurePa;
+        WritableImage background = BACKGROUND_CACHE.get( cacheKey );
+        if ( background == null ) {
+            background = renderBackground( width, height );
+            BACKGROUND_CACHE.put( cacheKey, background );
+        }
+
+        return background;
+    }
+
+    private double getPlotWidth() {
+        return Math.max( 0d, _renderedWidth - LEFT_MARGIN - RIGHT_MARGIN );
+    }
+
+    private double getPlotHeight() {
+        return Math.max( 0d, _renderedHeight - TOP_MARGIN - BOTTOM_MARGIN );
+    }
+
+    private double toX( final double temperatureK ) {
+        return LEFT_MARGIN + ( ( ( temperatureK - PhysicsConstants.TEMPERATURE_MINIMUM_K )
+                / ( PhysicsConstants.TEMPERATURE_MAXIMUM_K - PhysicsConstants.TEMPERATURE_MINIMUM_K ) )
+                * getPlotWidth() );
+    }
+
+    private double toY( final double humidityRatio ) {
+        return ( TOP_MARGIN + getPlotHeight() )
+                - ( ( humidityRatio / _humidityRatioMaximum ) * getPlotHeight() );
+    }
+
+    private WritableImage renderBackground( final double width, final double height ) {
+        final Canvas canvas = new Canvas( width, height );
+        final GraphicsContext gc = canvas.getGraphicsContext2D();
+        final double plotWidth = getPlotWidth();
+        final double plotHeight = getPlotHeight();
+
+        gc.setFont( _font );
+        gc.setLineWidth( 1d );
+
+        // Draw the curves of constant relative humidity, in 10% steps, with
+        // the saturation curve emphasized and clipped to the plot area.
+        gc.save();
+        gc.beginPath();
+        gc.rect( LEFT_MARGIN, TOP_MARGIN, plotWidth, plotHeight );
+        gc.clip();
+        for ( int humidityRelative = 10; humidityRelative <= 100; humidityRelative += 10 ) {
+            gc.setStroke( ( humidityRelative == 100 ) ? _saturationColor : _curveColor );
+            gc.setLineWidth( ( humidityRelative == 100 ) ? 2d : 1d );
+            gc.beginPath();
+            for ( int segment = 0; segment <= CURVE_SEGMENTS; segment++ ) {
+                final double temperatureK = PhysicsConstants.TEMPERATURE_MINIMUM_K
+                        + ( ( segment * ( PhysicsConstants.TEMPERATURE_MAXIMUM_K
+                                - PhysicsConstants.TEMPERATURE_MINIMUM_K ) ) / CURVE_SEGMENTS );
+                final double x = toX( temperatureK );
+                final double y = toY( getHumidityRatio( temperatureK,
+                                                        humidityRelative,
+                                                        _backgroundPressurePa ) );
+                if ( segment == 0 ) {
+                    gc.moveTo( x, y );
+                }
+                else {
+                    gc.lineTo( x, y );
+                }
+            }
+            gc.stroke();
+        }
+        gc.restore();
+
+        gc.setStroke( _textColor );
+        gc.setFill( _textColor );
+        gc.setLineWidth( 1d );
+        gc.strokeRect( LEFT_MARGIN - 0.5d, TOP_MARGIN - 0.5d, plotWidth + 1d, plotHeight + 1d );
+
+        // Label the temperature axis in the current Temperature Unit.
+        final double temperatureMinimum = UnitConversion
+                .convertTemperature( PhysicsConstants.TEMPERATURE_MINIMUM_K,
+                                     TemperatureUnit.KELVIN,
+                                     _temperatureUnit );
+        final double temperatureMaximum = UnitConversion
+                .convertTemperature( PhysicsConstants.TEMPERATURE_MAXIMUM_K,
+                                     TemperatureUnit.KELVIN,
+                                     _temperatureUnit );
+        final double temperatureTickSpacing = ( _temperatureUnit == TemperatureUnit.FAHRENHEIT )
+            ? 20d
+            : 10d;
+        gc.setTextAlign( TextAlignment.CENTER );
+        gc.setTextBaseline( VPos.TOP );
+        final double firstTemperatureTick = Math.ceil( temperatureMinimum / temperatureTickSpacing )
+                * temperatureTickSpacing;
+        for ( double tick = firstTemperatureTick; tick <= temperatureMaximum; tick += temperatureTickSpacing ) {
+            final double x = snapPosition( LEFT_MARGIN + ( ( ( tick - temperatureMinimum )
+                    / ( temperatureMaximum - temperatureMinimum ) ) * plotWidth ) ) + 0.5d;
+            final double y = TOP_MARGIN + plotHeight;
+            gc.strokeLine( x, y, x, y + TICK_LENGTH );
+            gc.fillText( _tickNumberFormat.format( tick ), x, y + TICK_LENGTH + 1d );
+        }
+        gc.setTextAlign( TextAlignment.RIGHT );
+        gc.setTextBaseline( VPos.BOTTOM );
+        gc.fillText( _temperatureUnit.abbreviation(), width - 2d, height );
+
+        // Label the humidity ratio axis in grams of water per kilogram of air.
+        gc.setTextAlign( TextAlignment.RIGHT );
+        gc.setTextBaseline( VPos.CENTER );
+        for ( double tick = 0d; tick <= _humidityRatioMaximum; tick += 10d ) {
+            final double y = snapPosition( toY( tick ) ) + 0.5d;
+            gc.strokeLine( LEFT_MARGIN - TICK_LENGTH, y, LEFT_MARGIN, y );
+            gc.fillText( _tickNumberFormat.format( tick ), LEFT_MARGIN - TICK_LENGTH - 2d, y );
+        }
+        gc.setTextAlign( TextAlignment.LEFT );
+        gc.setTextBaseline( VPos.TOP );
+        gc.fillText( "g/kg", 2d, 0d ); //$NON-NLS-1$
+
+        final SnapshotParameters snapshotParameters = new SnapshotParameters();
+        snapshotParameters.setFill( Color.TRANSPARENT );
+        return canvas.snapshot( snapshotParameters, null );
+    }
+
+    private void drawMarker() {
+        final GraphicsContext gc = _markerCanvas.getGraphicsContext2D();
+        final double clearSize = 2d * ( MARKER_RADIUS + 2d );
+
+        // Clear only the area covered by the previous marker.
+        if ( _markerDrawn ) {
+            gc.clearRect( _markerX - MARKER_RADIUS - 2d,
+                          _markerY - MARKER_RADIUS - 2d,
+                          clearSize,
+                          clearSize );
+            _markerDrawn = false;
+        }
+
+        if ( ( _naturalEnvironment == null ) || ( getPlotWidth() <= 0d )
+                || ( getPlotHeight() <= 0d ) ) {
+            return;
+        }
+
+        _markerX = toX( _naturalEnvironment.getTemperatureK() );
+        // NOTE: The marker is pinned to the top of the plot if the humidity
+        //  ratio is off the scale, so that it never disappears.
+        _markerY = toY( Math.min( getHumidityRatio( _naturalEnvironment.getTemperatureK(),
+                                                    _naturalEnvironment.getHumidityRelative(),
+                                                    _naturalEnvironment.getPressurePa() ),
+                                  _humidityRatioMaximum ) );
+        gc.setFill( _markerColor );
+        gc.setStroke( Color.WHITE );
+        gc.setLineWidth( 1d );
+        gc.fillOval( _markerX - MARKER_RADIUS,
+                     _markerY - MARKER_RADIUS,
+                     2d * MARKER_RADIUS,
+                     2d * MARKER_RADIUS );
+        gc.strokeOval( _markerX - MARKER_RADIUS,
+                       _markerY - MARKER_RADIUS,
+                       2d * MARKER_RADIUS,
+                       2d * MARKER_RADIUS );
+        _markerDrawn = true;
+    }
+}
@@ -0,0 +1,388 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxPhysics Library
+ *
+ * You should have received a copy of the MIT License along with the FxPhysics
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxphysics
+ */
+package com.mhschmieder.fxphysicscontrols.control;
+
+import com.mhschmieder.fxcontrols.control.DoubleEditor;
+import com.mhschmieder.fxphysicscontrols.model.MeasurementUnits;
+import com.mhschmieder.fxphysicscontrols.model.PhysicalQuantity;
+import com.mhschmieder.jcommons.util.ClientProperties;
+import javafx.beans.InvalidationListener;
+import javafx.beans.binding.BooleanBinding;
+import javafx.scene.control.Cell;
+import javafx.scene.input.KeyEvent;
+
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * This class is shared by all of the cells in a table column of physical
+ * quantities. Cells only ever render formatted text, and the single editor
+ * owned by this pool is lazily created and handed to whichever cell is being
+ * edited, so that columns with very many rows don't pay for an editor per row.
+ * <p>
+ * Values are stored in canonical units (see {@link PhysicalQuantity}), and are
+ * only converted to display units when a cell is asked to render them, which
+ * the virtualized table views only do for visible rows. When the relevant
+ * Measurement Unit changes, only the cells that currently exist are refreshed.
+ */
+public final class QuantityCellEditorPool {
+
+    /**
+     * This is the contract between the pool and the table cell variants that
+     * share it.
+     */
+    interface QuantityCell {
+
+        // Re-render the cell's text, as the display units have changed.
+        void updateQuantityText();
+    }
+
+    // Cache the client properties for lazy construction of the editor.
+    private final ClientProperties  _clientProperties;
+
+    // The physical quantity shown in the cells that share this pool.
+    private final PhysicalQuantity  _physicalQuantity;
+
+    // The Measurement Units that determine the display units.
+    private final MeasurementUnits  _measurementUnits;
+
+    // Flag for whether to append the unit string to the cell text.
+    private final boolean           _showMeasurementUnit;
+
+    // Single number format used for rendering all of the cells' text.
+    private final NumberFormat      _numberFormat;
+
+    // Cache the current unit string, as it only changes along with the units.
+    private String                  _measurementUnitString;
+
+    // The shared editor, which is only created on first use.
+    private DoubleEditor            _editor;
+
+    // The cell that currently owns the editor, if any.
+    private Cell< Number >          _editingCell;
+
+    // Weakly held set of cells created against this pool; virtual flows only
+    // keep enough cells around to cover the visible rows.
+    private final Set< QuantityCell > _cells;
+
+    // The listener that relabels the editors when the quantity's unit
+    // changes.
+    private final InvalidationListener _unitChangedListener;
+
+    public QuantityCellEditorPool( final ClientProperties clientProperties,
+                                   final PhysicalQuantity physicalQuantity,
+                                   final MeasurementUnits measurementUnits ) {
+        this( clientProperties, physicalQuantity, measurementUnits, true );
+    }
+
+    public QuantityCellEditorPool( final ClientProperties clientProperties,
+                                   final PhysicalQuantity physicalQuantity,
+                                   final MeasurementUnits measurementUnits,
+                                   final boolean showMeasurementUnit ) {
+        _clientProperties = clientProperties;
+        _physicalQuantity = physicalQuantity;
+        _measurementUnits = measurementUnits;
+        _showMeasurementUnit = showMeasurementUnit;
+
+        // NOTE: Groupings are turned off, as is common for physical quantities.
+        _numberFormat = NumberFormat.getNumberInstance( Locale.getDefault() );
+        _numberFormat.setGroupingUsed( false );
+        _numberFormat.setMinimumFractionDigits( 0 );
+
+        _editor = null;
+        _editingCell = null;
+        _cells = Collections.newSetFromMap( new WeakHashMap<>() );
+
+        updateNumberFormat();
+
+        _unitChangedListener = observable -> {
+            ( ( BooleanBinding ) observable ).get();
+            updateMeasurementUnit();
+        };
+        _physicalQuantity.unitChangedProperty( _measurementUnits )
+                .addListener( _unitChangedListener );
+    }
+
+    /**
+     * Detaches this pool from the Measurement Units. Call this when the
+     * associated table is disposed, if the Measurement Units outlive it.
+     */
+    public void dispose() {
+        _physicalQuantity.unitChangedProperty( _measurementUnits )
+                .removeListener( _unitChangedListener );
+        _cells.clear();
+    }
+
+    public PhysicalQuantity getPhysicalQuantity() {
+        return _physicalQuantity;
+    }
+
+    public MeasurementUnits getMeasurementUnits() {
+        return _measurementUnits;
+    }
+
+    // Register a cell so that it is refreshed when the units change.
+    void registerCell( final QuantityCell cell ) {
+        _cells.add( cell );
+    }
+
+    /**
+     * Formats a value for display in a cell, converting from canonical units
+     * to the current display units.
+     *
+     * @param value
+     *            The value to format, in canonical units
+     * @return The formatted text, or an empty string if there is no value
+     */
+    public String toText( final Number value ) {
+        if ( ( value == null ) || Double.isNaN( value.doubleValue() ) ) {
+            return ""; //$NON-NLS-1$
+        }
+
+        final double displayValue = _physicalQuantity.toDisplayUnits( value.doubleValue(),
+                                                                       _measurementUnits );
+        final String text = _numberFormat.format( displayValue );
+
+        return _showMeasurementUnit ? text + _measurementUnitString : text;
+    }
+
+    /**
+     * Hands the shared editor to a cell that has just started an edit,
+     * loading it with the current display units and the cell's value, and
+     * installing it as the cell's graphic. This holds the editing logic that
+     * is common to all of the cell variants.
+     *
+     * @param cell
+     *            The cell that is starting an edit
+     */
+    void startEdit( final Cell< Number > cell ) {
+        if ( !cell.isEditing() ) {
+            return;
+        }
+
+        if ( _editor == null ) {
+            _editor = makeEditor();
+        }
+
+        _editingCell = cell;
+
+        final Number value = cell.getItem();
+        final double canonicalValue = ( value != null ) ? value.doubleValue() : 0.0d;
+        loadEditor( canonicalValue );
+
+        cell.setText( null );
+        cell.setGraphic( _editor );
+        _editor.selectAll();
+        _editor.requestFocus();
+    }
+
+    /**
+     * Takes the shared editor back from a cell whose edit was committed or
+     * cancelled, and renders the cell's text again.
+     *
+     * @param cell
+     *            The cell whose edit has ended
+     */
+    void endEdit( final Cell< Number > cell ) {
+        if ( _editingCell == cell ) {
+            _editingCell = null;
+        }
+
+        updateCellText( cell );
+    }
+
+    /**
+     * Renders a cell's text in the current display units, unless the cell is
+     * being edited, in which case the shared editor stays in place.
+     *
+     * @param cell
+     *            The cell to render
+     */
+    void updateCellText( final Cell< Number > cell ) {
+        if ( cell.isEditing() ) {
+            return;
+        }
+
+        cell.setGraphic( null );
+        cell.setText( cell.isEmpty() ? null : toText( cell.getItem() ) );
+    }
+
+    private DoubleEditor makeEditor() {
+        DoubleEditor editor;
+
+        switch ( _physicalQuantity ) {
+        case DISTANCE:
+            editor = new DistanceEditor( _clientProperties, "", null ); //$NON-NLS-1$
+            break;
+        case ANGLE:
+            // NOTE: The Angle Editor has no unit conversion of its own, so it
+            //  is made in the current display units, and is remade whenever
+            //  the Angle Unit changes.
+            editor = PhysicsControlFactory
+                    .makeAngleEditor( _clientProperties,
+                                      null,
+                                      _measurementUnits.getAngleUnit().abbreviation(),
+                                      _physicalQuantity.toDisplayUnits(
+                                          AngleSlider.MINIMUM_ANGLE_DEGREES_DEFAULT,
+                                          _measurementUnits ),
+                                      _physicalQuantity.toDisplayUnits(
+                                          AngleSlider.MAXIMUM_ANGLE_DEGREES_DEFAULT,
+                                          _measurementUnits ),
+                                      _physicalQuantity.toDisplayUnits(
+                                          AngleSlider.INITIAL_ANGLE_DEGREES_DEFAULT,
+                                          _measurementUnits ) );
+            break;
+        case WEIGHT:
+            editor = new WeightEditor( _clientProperties, "", null ); //$NON-NLS-1$
+            break;
+        case TEMPERATURE:
+            editor = PhysicsControlFactory.makeTemperatureEditor( _clientProperties );
+            break;
+        case PRESSURE:
+            editor = PhysicsControlFactory.makePressureEditor( _clientProperties );
+            break;
+        default:
+            final String errMessage = "Unexpected PhysicalQuantity " //$NON-NLS-1$
+                    + _physicalQuantity;
+            throw new IllegalArgumentException( errMessage );
+        }
+
+        // Commit on ENTER and cancel on ESCAPE. These handlers run after the
+        // editor's own handlers, so the edited value is already parsed.
+        editor.addEventHandler( KeyEvent.KEY_PRESSED, keyEvent -> {
+            if ( _editingCell == null ) {
+                return;
+            }
+            switch ( keyEvent.getCode() ) {
+            case ENTER:
+                _editingCell.commitEdit( readEditor() );
+                keyEvent.consume();
+                break;
+            case ESCAPE:
+                _editingCell.cancelEdit();
+                keyEvent.consume();
+                break;
+            default:
+                break;
+            }
+        } );
+
+        // Commit when focus moves elsewhere, as users expect from spreadsheets.
+        editor.focusedProperty().addListener( ( observable, wasFocused, isFocused ) -> {
+            if ( !isFocused && ( _editingCell != null ) && _editingCell.isEditing() ) {
+                _editingCell.commitEdit( readEditor() );
+            }
+        } );
+
+        return editor;
+    }
+
+    private void loadEditor( final double canonicalValue ) {
+        switch ( _physicalQuantity ) {
+        case DISTANCE:
+            final DistanceEditor distanceEditor = ( DistanceEditor ) _editor;
+            distanceEditor.updateDistanceUnit( _measurementUnits.getDistanceUnit() );
+            distanceEditor.setDistanceMeters( canonicalValue );
+            break;
+        case ANGLE:
+            // NOTE: The value is loaded as is, rather than clamped, so that
+            //  opening and committing an edit never rewrites the value.
+            _editor.setValue( _physicalQuantity.toDisplayUnits( canonicalValue,
+                                                                _measurementUnits ) );
+            break;
+        case WEIGHT:
+            final WeightEditor weightEditor = ( WeightEditor ) _editor;
+            weightEditor.updateWeightUnit( _measurementUnits.getWeightUnit() );
+            weightEditor.setWeightKg( canonicalValue );
+            break;
+        case TEMPERATURE:
+            final TemperatureEditor temperatureEditor = ( TemperatureEditor ) _editor;
+            temperatureEditor.updateTemperatureUnit( _measurementUnits.getTemperatureUnit() );
+            temperatureEditor.setTemperatureK( canonicalValue );
+            break;
+        case PRESSURE:
+            final PressureEditor pressureEditor = ( PressureEditor ) _editor;
+            pressureEditor.updatePressureUnit( _measurementUnits.getPressureUnit() );
+            pressureEditor.setPressurePa( canonicalValue );
+            break;
+        default:
+            break;
+        }
+    }
+
+    private Double readEditor() {
+        switch ( _physicalQuantity ) {
+        case DISTANCE:
+            return ( ( DistanceEditor ) _editor ).getDistanceMeters();
+        case WEIGHT:
+            return ( ( WeightEditor ) _editor ).getWeightKg();
+        case TEMPERATURE:
+            return ( ( TemperatureEditor ) _editor ).getTemperatureK();
+        case PRESSURE:
+            return ( ( PressureEditor ) _editor ).getPressurePa();
+        case ANGLE:
+            return _physicalQuantity.fromDisplayUnits( _editor.getValue(), _measurementUnits );
+        default:
+            return _editor.getValue();
+        }
+    }
+
+    private void updateNumberFormat() {
+        _numberFormat.setMaximumFractionDigits( _physicalQuantity
+                .getMaximumFractionDigits( _measurementUnits ) );
+        _measurementUnitString = _physicalQuantity.getMeasurementUnitString( _measurementUnits );
+    }
+
+    private void updateMeasurementUnit() {
+        updateNumberFormat();
+
+        // An edit in progress was loaded in the old units, so abandon it.
+        if ( ( _editingCell != null ) && _editingCell.isEditing() ) {
+            _editingCell.cancelEdit();
+        }
+
+        // The Angle Editor is made in the display units, so make a new one.
+        if ( _physicalQuantity == PhysicalQuantity.ANGLE ) {
+            _editor = null;
+        }
+
+        // Copy the cell set first, as re-rendering may create or drop cells.
+        final List< QuantityCell > cells = new ArrayList<>( _cells );
+        for ( final QuantityCell cell : cells ) {
+            cell.updateQuantityText();
+        }
+    }
+}
@@ -0,0 +1,325 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxPhysics Library
+ *
+ * You should have received a copy of the MIT License along with the FxPhysics
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxphysics
+ */
+package com.mhschmieder.fxphysicscontrols.control;
+
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+
+import java.text.NumberFormat;
+import java.util.Locale;
+
+/**
+ * This is the base class for lightweight, read-mostly vertical bar gauges.
+ * <p>
+ * Unlike the slider-based controls, a gauge has no skin, no tick label nodes
+ * and no context menu; it is just a region holding two canvases, so that
+ * dashboards with hundreds of readouts stay cheap to lay out and render. The
+ * scale layer is only redrawn when the size, range or units change, and value
+ * changes only repaint the bar and readout areas of the value layer.
+ * <p>
+ * All values in this class are in the current display units; subclasses are
+ * responsible for unit conversion, as with the slider equivalents.
+ */
+public abstract class QuantityGauge extends Region {
+
+    // Declare the layout constants for the bar, scale and readout.
+    protected static final double BAR_WIDTH        = 12d;
+    protected static final double MARGIN           = 4d;
+    protected static final double TICK_LENGTH      = 4d;
+    protected static final double READOUT_HEIGHT   = 16d;
+
+    // Declare the default preferred size, which suits dense dashboards.
+    public static final double    PREF_WIDTH_DEFAULT  = 60d;
+    public static final double    PREF_HEIGHT_DEFAULT = 150d;
+
+    // The static layer holds the track, ticks and tick labels.
+    private final Canvas          _scaleCanvas;
+
+    // The dynamic layer holds the bar fill and the numeric readout.
+    private final Canvas          _valueCanvas;
+
+    // Cache the current range, value and tick spacing, in display units.
+    private double                _minimum;
+    private double                _maximum;
+    private double                _value;
+    private double                _majorTickSpacing;
+
+    // Cache the unit string, which is drawn as part of the readout.
+    private String                _measurementUnitString;
+
+    // Number formats for the tick labels and readout, respectively.
+    protected final NumberFormat  _tickNumberFormat;
+    protected final NumberFormat  _valueNumberFormat;
+
+    // Colors used for rendering.
+    private Color                 _trackColor;
+    private Color                 _barColor;
+    private Color                 _textColor;
+
+    private final Font            _font;
+
+    // Track the rendered size so that we only redraw the scale when needed.
+    private double                _renderedWidth;
+    private double                _renderedHeight;
+
+    // Flag for whether the scale must be redrawn on the next layout pass.
+    private boolean               _scaleDirty;
+
+    protected QuantityGauge( final double minimum,
+                             final double maximum,
+                             final double initialValue,
+                             final double majorTickSpacing ) {
+        // Always call the superclass constructor first!
+        super();
+
+        _minimum = minimum;
+        _maximum = maximum;
+        _value = initialValue;
+        _majorTickSpacing = majorTickSpacing;
+        _measurementUnitString = ""; //$NON-NLS-1$
+
+        _tickNumberFormat = NumberFormat.getNumberInstance( Locale.getDefault() );
+        _tickNumberFormat.setGroupingUsed( false );
+        _tickNumberFormat.setMaximumFractionDigits( 2 );
+        _valueNumberFormat = NumberFormat.getNumberInstance( Locale.getDefault() );
+        _valueNumberFormat.setGroupingUsed( false );
+        _valueNumberFormat.setMaximumFractionDigits( 1 );
+
+        _trackColor = Color.gray( 0.85d );
+        _barColor = Color.STEELBLUE;
+        _textColor = Color.BLACK;
+        _font = Font.font( 10d );
+
+        _scaleCanvas = new Canvas();
+        _valueCanvas = new Canvas();
+        getChildren().addAll( _scaleCanvas, _valueCanvas );
+
+        _renderedWidth = -1d;
+        _renderedHeight = -1d;
+        _scaleDirty = true;
+
+        setPrefSize( PREF_WIDTH_DEFAULT, PREF_HEIGHT_DEFAULT );
+    }
+
+    @Override
+    protected void layoutChildren() {
+        final double width = snapSize( getWidth() );
+        final double height = snapSize( getHeight() );
+
+        if ( ( width != _renderedWidth ) || ( height != _renderedHeight ) ) {
+            _scaleCanvas.setWidth( width );
+            _scaleCanvas.setHeight( height );
+            _valueCanvas.setWidth( width );
+            _valueCanvas.setHeight( height );
+            _renderedWidth = width;
+            _renderedHeight = height;
+            _scaleDirty = true;
+        }
+
+        if ( _scaleDirty ) {
+            drawScale();
+
+            final GraphicsContext gc = _valueCanvas.getGraphicsContext2D();
+            gc.clearRect( 0d, 0d, width, height );
+            drawValue( gc );
+            _scaleDirty = false;
+        }
+    }
+
+    // Invalidate the whole gauge, such as after a range or unit change.
+    protected final void invalidateScale() {
+        _scaleDirty = true;
+        requestLayout();
+    }
+
+    public final double getMinimum() {
+        return _minimum;
+    }
+
+    public final double getMaximum() {
+        return _maximum;
+    }
+
+    public final double getValue() {
+        return _value;
+    }
+
+    public final String getMeasurementUnitString() {
+        return _measurementUnitString;
+    }
+
+    /**
+     * Sets the displayed range and tick spacing, in display units.
+     *
+     * @param minimum
+     *            The minimum value of the scale
+     * @param maximum
+     *            The maximum value of the scale
+     * @param majorTickSpacing
+     *            The spacing between labeled ticks
+     */
+    public final void setRange( final double minimum,
+                                final double maximum,
+                                final double majorTickSpacing ) {
+        _minimum = minimum;
+        _maximum = maximum;
+        _majorTickSpacing = majorTickSpacing;
+
+        invalidateScale();
+    }
+
+    public final void setMeasurementUnitString( final String measurementUnitString ) {
+        _measurementUnitString = measurementUnitString;
+
+        // The unit string is part of the readout, so only the value layer is
+        // affected unless the scale is going to be redrawn anyway.
+        if ( !_scaleDirty ) {
+            repaintValue();
+        }
+    }
+
+    /**
+     * Sets the displayed value, in display units, repainting only the regions
+     * of the value layer that depict it.
+     *
+     * @param value
+     *            The new value to display
+     */
+    public final void setValue( final double value ) {
+        if ( Double.compare( value, _value ) == 0 ) {
+            return;
+        }
+
+        _value = value;
+
+        if ( !_scaleDirty ) {
+            repaintValue();
+        }
+    }
+
+    public final void setColors( final Color trackColor,
+                                 final Color barColor,
+                                 final Color textColor ) {
+        _trackColor = trackColor;
+        _barColor = barColor;
+        _textColor = textColor;
+
+        invalidateScale();
+    }
+
+    // Compute the vertical extent of the bar track.
+    private double getTrackTop() {
+        return MARGIN;
+    }
+
+    private double getTrackBottom() {
+        return _renderedHeight - READOUT_HEIGHT - MARGIN;
+    }
+
+    // Convert a value to a vertical position along the track.
+    private double valueToY( final double value ) {
+        final double range = _maximum - _minimum;
+        final double fraction = ( range != 0d )
+            ? Math.min( Math.max( ( value - _minimum ) / range, 0d ), 1d )
+            : 0d;
+        final double top = getTrackTop();
+        final double bottom = getTrackBottom();
+
+        return bottom - ( fraction * ( bottom - top ) );
+    }
+
+    private void drawScale() {
+        final GraphicsContext gc = _scaleCanvas.getGraphicsContext2D();
+        gc.clearRect( 0d, 0d, _renderedWidth, _renderedHeight );
+
+        if ( getTrackBottom() <= getTrackTop() ) {
+            return;
+        }
+
+        // Draw the empty track.
+        gc.setFill( _trackColor );
+        gc.fillRect( MARGIN, getTrackTop(), BAR_WIDTH, getTrackBottom() - getTrackTop() );
+
+        // Draw the major ticks and their labels to the right of the track.
+        if ( _majorTickSpacing <= 0d ) {
+            return;
+        }
+        gc.setStroke( _textColor );
+        gc.setFill( _textColor );
+        gc.setFont( _font );
+        gc.setTextAlign( TextAlignment.LEFT );
+        gc.setTextBaseline( VPos.CENTER );
+        gc.setLineWidth( 1d );
+        final double tickLeft = MARGIN + BAR_WIDTH;
+        final double firstTick = Math.ceil( _minimum / _majorTickSpacing ) * _majorTickSpacing;
+        for ( double tick = firstTick; tick <= _maximum; tick += _majorTickSpacing ) {
+            // Snap to the pixel center for crisp single-pixel lines.
+            final double y = Math.floor( valueToY( tick ) ) + 0.5d;
+            gc.strokeLine( tickLeft, y, tickLeft + TICK_LENGTH, y );
+            gc.fillText( _tickNumberFormat.format( tick ), tickLeft + TICK_LENGTH + 2d, y );
+        }
+    }
+
+    private void repaintValue() {
+        final GraphicsContext gc = _valueCanvas.getGraphicsContext2D();
+
+        // Only the bar column and the readout strip are dirty.
+        gc.clearRect( MARGIN, getTrackTop(), BAR_WIDTH, getTrackBottom() - getTrackTop() );
+        gc.clearRect( 0d, getTrackBottom(), _renderedWidth, _renderedHeight - getTrackBottom() );
+
+        drawValue( gc );
+    }
+
+    private void drawValue( final GraphicsContext gc ) {
+        if ( getTrackBottom() <= getTrackTop() ) {
+            return;
+        }
+
+        // Fill the bar from the bottom of the track up to the current value.
+        final double y = valueToY( _value );
+        gc.setFill( _barColor );
+        gc.fillRect( MARGIN, y, BAR_WIDTH, getTrackBottom() - y );
+
+        // Draw the numeric readout beneath the track.
+        gc.setFill( _textColor );
+        gc.setFont( _font );
+        gc.setTextAlign( TextAlignment.CENTER );
+        gc.setTextBaseline( VPos.CENTER );
+        gc.fillText( _valueNumberFormat.format( _value ) + _measurementUnitString,
+                     0.5d * _renderedWidth,
+                     getTrackBottom() + MARGIN + ( 0.5d * READOUT_HEIGHT ) );
+    }
+}
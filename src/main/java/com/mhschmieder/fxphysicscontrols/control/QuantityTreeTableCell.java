@@ -0,0 +1,98 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxPhysics Library
+ *
+ * You should have received a copy of the MIT License along with the FxPhysics
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxphysics
+ */
+package com.mhschmieder.fxphysicscontrols.control;
+
+import javafx.scene.control.TreeTableCell;
+import javafx.scene.control.TreeTableColumn;
+import javafx.util.Callback;
+
+/**
+ * This is a lightweight Tree Table Cell for physical quantities stored in
+ * canonical units. It renders plain formatted text in the current display
+ * units, and borrows the shared editor from its {@link QuantityCellEditorPool}
+ * only while it is being edited.
+ *
+ * @param <S>
+ *            The type of the Tree Table View's row items
+ */
+public class QuantityTreeTableCell< S > extends TreeTableCell< S, Number >
+        implements QuantityCellEditorPool.QuantityCell {
+
+    // The pool shared by all cells in the same column.
+    private final QuantityCellEditorPool _editorPool;
+
+    public QuantityTreeTableCell( final QuantityCellEditorPool editorPool ) {
+        // Always call the superclass constructor first!
+        super();
+
+        _editorPool = editorPool;
+        _editorPool.registerCell( this );
+    }
+
+    // Helper method to get a cell factory for a column of physical quantities.
+    public static < S > Callback< TreeTableColumn< S, Number >, TreeTableCell< S, Number > > forTreeTableColumn(
+            final QuantityCellEditorPool editorPool ) {
+        return treeTableColumn -> new QuantityTreeTableCell<>( editorPool );
+    }
+
+    @Override
+    public void startEdit() {
+        super.startEdit();
+
+        _editorPool.startEdit( this );
+    }
+
+    @Override
+    public void cancelEdit() {
+        super.cancelEdit();
+
+        _editorPool.endEdit( this );
+    }
+
+    @Override
+    public void commitEdit( final Number newValue ) {
+        super.commitEdit( newValue );
+
+        _editorPool.endEdit( this );
+    }
+
+    @Override
+    protected void updateItem( final Number item, final boolean empty ) {
+        super.updateItem( item, empty );
+
+        _editorPool.updateCellText( this );
+    }
+
+    @Override
+    public void updateQuantityText() {
+        _editorPool.updateCellText( this );
+    }
+}
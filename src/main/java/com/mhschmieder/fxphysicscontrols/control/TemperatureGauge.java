@@ -0,0 +1,114 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxPhysics Library
+ *
+ * You should have received a copy of the MIT License along with the FxPhysics
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxphysics
+ */
+package com.mhschmieder.fxphysicscontrols.control;
+
+import com.mhschmieder.jphysics.PhysicsConstants;
+import com.mhschmieder.jphysics.TemperatureUnit;
+import com.mhschmieder.jphysics.UnitConversion;
+
+/**
+ * This is a lightweight, canvas-rendered equivalent of the
+ * {@link TemperatureSlider}, for read-mostly displays such as dashboards. It
+ * offers the same unit-switching API as the slider.
+ */
+public final class TemperatureGauge extends QuantityGauge {
+
+    // Store the Temperature Unit so we'll know when we need to convert.
+    private TemperatureUnit _temperatureUnit;
+
+    public TemperatureGauge() {
+        this( TemperatureSlider.INITIAL_TEMPERATURE_KELVIN_DEFAULT );
+    }
+
+    public TemperatureGauge( final double initialTemperatureK ) {
+        // Always call the superclass constructor first!
+        // NOTE: The default unit is Kelvin, so no conversion is needed yet.
+        super( TemperatureSlider.MINIMUM_TEMPERATURE_KELVIN_DEFAULT,
+               TemperatureSlider.MAXIMUM_TEMPERATURE_KELVIN_DEFAULT,
+               initialTemperatureK,
+               10.0d );
+
+        _temperatureUnit = TemperatureUnit.KELVIN;
+
+        // Update the Temperature Unit and related resolutions and ranges.
+        updateTemperatureUnit( TemperatureUnit.defaultValue() );
+    }
+
+    // Convert current temperature value from display units to Kelvin.
+    public double getTemperatureK() {
+        return UnitConversion
+                .convertTemperature( getValue(), _temperatureUnit, TemperatureUnit.KELVIN );
+    }
+
+    // Convert new Temperature value from Kelvin to display units.
+    public void setTemperatureK( final double temperatureK ) {
+        setValue( UnitConversion
+                .convertTemperature( temperatureK, TemperatureUnit.KELVIN, _temperatureUnit ) );
+    }
+
+    public void updateTemperatureUnit( final TemperatureUnit temperatureUnit ) {
+        // Convert the current Temperature from previous units to new units.
+        final double temperatureCurrent = UnitConversion
+                .convertTemperature( getValue(), _temperatureUnit, temperatureUnit );
+
+        // Store the new Temperature Unit to provide context for next change.
+        _temperatureUnit = temperatureUnit;
+
+        // Set the tick resolution based on the granularity of the unit.
+        double majorTickSpacing;
+        switch ( _temperatureUnit ) {
+        case FAHRENHEIT:
+            majorTickSpacing = 20.0d;
+            _valueNumberFormat.setMaximumFractionDigits( 1 );
+            break;
+        case KELVIN:
+        case CELSIUS:
+        default:
+            majorTickSpacing = 10.0d;
+            _valueNumberFormat.setMaximumFractionDigits( 2 );
+            break;
+        }
+
+        // NOTE: Unlike the slider, the gauge doesn't clamp its value to the
+        //  range, so the order of these calls doesn't matter.
+        setRange( UnitConversion.convertTemperature( PhysicsConstants.TEMPERATURE_MINIMUM_K,
+                                                     TemperatureUnit.KELVIN,
+                                                     _temperatureUnit ),
+                  UnitConversion.convertTemperature( PhysicsConstants.TEMPERATURE_MAXIMUM_K,
+                                                     TemperatureUnit.KELVIN,
+                                                     _temperatureUnit ),
+                  majorTickSpacing );
+        setValue( temperatureCurrent );
+
+        // Set the unit label that is drawn as part of the readout.
+        setMeasurementUnitString( _temperatureUnit.abbreviation() );
+    }
+}
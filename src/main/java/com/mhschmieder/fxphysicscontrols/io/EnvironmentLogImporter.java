@@ -0,0 +1,659 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxPhysics Library
+ *
+ * You should have received a copy of the MIT License along with the FxPhysics
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxphysics
+ */
+package com.mhschmieder.fxphysicscontrols.io;
+
+import com.mhschmieder.fxphysicscontrols.model.EnvironmentTimeSeries;
+import com.mhschmieder.jphysics.PressureUnit;
+import com.mhschmieder.jphysics.TemperatureUnit;
+import com.mhschmieder.jphysics.UnitConversion;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This is a streaming importer of weather station logs, in either delimited
+ * (such as CSV) or fixed-width text format, into an
+ * {@link EnvironmentTimeSeries}.
+ * <p>
+ * Each line holds one reading, with a numeric timestamp and the temperature,
+ * relative humidity and pressure, in any column order. Files are read through
+ * a {@link FileChannel} in large buffers, and numbers are parsed straight from
+ * the bytes without creating any {@code String} objects, so files with tens of
+ * millions of lines import at close to disk speed. Readings are converted to
+ * canonical units and appended to the log in blocks.
+ * <p>
+ * Lines that can't be parsed, and readings that are earlier than the last one
+ * imported, are skipped and counted rather than aborting the import. Header
+ * lines may be skipped up front. The text must be in an ASCII-compatible
+ * encoding, such as UTF-8 or ISO-8859-1.
+ * <p>
+ * An importer may be reused for several files, but not concurrently.
+ */
+public final class EnvironmentLogImporter {
+
+    /**
+     * This is a listener for import progress. It is invoked on the importing
+     * thread after each buffer of the file has been processed.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+
+        /**
+         * Reports import progress.
+         *
+         * @param bytesRead
+         *            The number of bytes read from the file so far
+         * @param totalBytes
+         *            The size of the file, in bytes
+         * @param readingsImported
+         *            The number of readings appended to the log so far
+         */
+        void progressUpdated( long bytesRead, long totalBytes, long readingsImported );
+    }
+
+    // Declare the default size of the read buffer, which also bounds the
+    // length of a line.
+    public static final int      BUFFER_SIZE_DEFAULT = 1 << 20;
+
+    // Declare the number of readings appended to the log at a time.
+    private static final int     BLOCK_SIZE          = 4096;
+
+    // Declare the field order used for the column layout arrays.
+    private static final int     TIMESTAMP           = 0;
+    private static final int     TEMPERATURE         = 1;
+    private static final int     HUMIDITY            = 2;
+    private static final int     PRESSURE            = 3;
+    private static final int     NUMBER_OF_FIELDS    = 4;
+
+    // Declare the exactly representable powers of ten.
+    private static final double[] POWERS_OF_TEN      = new double[ 23 ];
+    static {
+        POWERS_OF_TEN[ 0 ] = 1d;
+        for ( int i = 1; i < POWERS_OF_TEN.length; i++ ) {
+            POWERS_OF_TEN[ i ] = POWERS_OF_TEN[ i - 1 ] * 10d;
+        }
+    }
+
+    // The field delimiter for delimited logs, or zero for fixed-width logs.
+    private final byte           _delimiter;
+
+    // The column index of each field, for delimited logs.
+    private final int[]          _fieldColumns;
+
+    // The byte offset within the line, and the width, of each field, for
+    // fixed-width logs.
+    private final int[]          _fieldOffsets;
+    private final int[]          _fieldWidths;
+
+    // The units of the logged values.
+    private TemperatureUnit      _temperatureUnit;
+    private PressureUnit         _pressureUnit;
+    private double               _timestampMillisPerUnit;
+
+    // The number of header lines to skip at the start of the file.
+    private int                  _headerLines;
+
+    // The size of the read buffer.
+    private int                  _bufferSize;
+
+    // The number of lines skipped by the last import.
+    private long                 _skippedLineCount;
+
+    // The number of the latest import, and the latest import number that was
+    // cancelled, so that a cancel only ever stops the import it was meant for.
+    private final AtomicLong     _importNumber;
+    private final AtomicLong     _cancelledImportNumber;
+
+    private EnvironmentLogImporter( final byte delimiter,
+                                    final int[] fieldColumns,
+                                    final int[] fieldOffsets,
+                                    final int[] fieldWidths ) {
+        _delimiter = delimiter;
+        _fieldColumns = fieldColumns;
+        _fieldOffsets = fieldOffsets;
+        _fieldWidths = fieldWidths;
+
+        _temperatureUnit = TemperatureUnit.KELVIN;
+        _pressureUnit = PressureUnit.PASCALS;
+        _timestampMillisPerUnit = 1d;
+        _headerLines = 0;
+        _bufferSize = BUFFER_SIZE_DEFAULT;
+        _skippedLineCount = 0L;
+        _importNumber = new AtomicLong( 0L );
+        _cancelledImportNumber = new AtomicLong( -1L );
+    }
+
+    /**
+     * Makes an importer for delimited logs, such as CSV files.
+     *
+     * @param delimiter
+     *            The ASCII character that separates the columns
+     * @param timestampColumn
+     *            The zero-based column index of the timestamp
+     * @param temperatureColumn
+     *            The zero-based column index of the temperature
+     * @param humidityColumn
+     *            The zero-based column index of the relative humidity
+     * @param pressureColumn
+     *            The zero-based column index of the pressure
+     * @return An importer for the given column layout
+     */
+    public static EnvironmentLogImporter makeDelimitedImporter( final char delimiter,
+                                                                final int timestampColumn,
+                                                                final int temperatureColumn,
+                                                                final int humidityColumn,
+                                                                final int pressureColumn ) {
+        if ( ( delimiter == 0 ) || ( delimiter > 127 ) || ( delimiter == '\n' ) ) {
+            throw new IllegalArgumentException( "Unexpected delimiter " + ( int ) delimiter ); //$NON-NLS-1$
+        }
+
+        final int[] fieldColumns = new int[ NUMBER_OF_FIELDS ];
+        fieldColumns[ TIMESTAMP ] = timestampColumn;
+        fieldColumns[ TEMPERATURE ] = temperatureColumn;
+        fieldColumns[ HUMIDITY ] = humidityColumn;
+        fieldColumns[ PRESSURE ] = pressureColumn;
+        for ( final int fieldColumn : fieldColumns ) {
+            if ( fieldColumn < 0 ) {
+                throw new IllegalArgumentException( "Unexpected column " + fieldColumn ); //$NON-NLS-1$
+            }
+        }
+
+        return new EnvironmentLogImporter( ( byte ) delimiter, fieldColumns, null, null );
+    }
+
+    /**
+     * Makes an importer for fixed-width logs, with each field given as a byte
+     * offset within the line and a width.
+     *
+     * @param timestampOffset
+     *            The offset of the timestamp within the line
+     * @param timestampWidth
+     *            The width of the timestamp
+     * @param temperatureOffset
+     *            The offset of the temperature within the line
+     * @param temperatureWidth
+     *            The width of the temperature
+     * @param humidityOffset
+     *            The offset of the relative humidity within the line
+     * @param humidityWidth
+     *            The width of the relative humidity
+     * @param pressureOffset
+     *            The offset of the pressure within the line
+     * @param pressureWidth
+     *            The width of the pressure
+     * @return An importer for the given column layout
+     */
+    public static EnvironmentLogImporter makeFixedWidthImporter( final int timestampOffset,
+                                                                 final int timestampWidth,
+                                                                 final int temperatureOffset,
+                                                                 final int temperatureWidth,
+                                                                 final int humidityOffset,
+                                                                 final int humidityWidth,
+                                                                 final int pressureOffset,
+                                                                 final int pressureWidth ) {
+        final int[] fieldOffsets = new int[ NUMBER_OF_FIELDS ];
+        fieldOffsets[ TIMESTAMP ] = timestampOffset;
+        fieldOffsets[ TEMPERATURE ] = temperatureOffset;
+        fieldOffsets[ HUMIDITY ] = humidityOffset;
+        fieldOffsets[ PRESSURE ] = pressureOffset;
+
+        final int[] fieldWidths = new int[ NUMBER_OF_FIELDS ];
+        fieldWidths[ TIMESTAMP ] = timestampWidth;
+        fieldWidths[ TEMPERATURE ] = temperatureWidth;
+        fieldWidths[ HUMIDITY ] = humidityWidth;
+        fieldWidths[ PRESSURE ] = pressureWidth;
+
+        for ( int field = 0; field < NUMBER_OF_FIELDS; field++ ) {
+            if ( ( fieldOffsets[ field ] < 0 ) || ( fieldWidths[ field ] < 1 ) ) {
+                throw new IllegalArgumentException( "Unexpected field layout " //$NON-NLS-1$
+                        + fieldOffsets[ field ] + ", " + fieldWidths[ field ] ); //$NON-NLS-1$
+            }
+        }
+
+        return new EnvironmentLogImporter( ( byte ) 0, null, fieldOffsets, fieldWidths );
+    }
+
+    public void setTemperatureUnit( final TemperatureUnit temperatureUnit ) {
+        _temperatureUnit = temperatureUnit;
+    }
+
+    public TemperatureUnit getTemperatureUnit() {
+        return _temperatureUnit;
+    }
+
+    public void setPressureUnit( final PressureUnit pressureUnit ) {
+        _pressureUnit = pressureUnit;
+    }
+
+    public PressureUnit getPressureUnit() {
+        return _pressureUnit;
+    }
+
+    /**
+     * Sets the scale of the logged timestamps, such as 1000 for logs that
+     * record seconds since the epoch.
+     *
+     * @param timestampMillisPerUnit
+     *            The number of milliseconds per unit of the logged timestamps
+     */
+    public void setTimestampMillisPerUnit( final double timestampMillisPerUnit ) {
+        _timestampMillisPerUnit = timestampMillisPerUnit;
+    }
+
+    public double getTimestampMillisPerUnit() {
+        return _timestampMillisPerUnit;
+    }
+
+    public void setHeaderLines( final int headerLines ) {
+        _headerLines = headerLines;
+    }
+
+    public int getHeaderLines() {
+        return _headerLines;
+    }
+
+    public void setBufferSize( final int bufferSize ) {
+        _bufferSize = bufferSize;
+    }
+
+    public int getBufferSize() {
+        return _bufferSize;
+    }
+
+    /**
+     * Returns the number of lines skipped by the last import, because they
+     * couldn't be parsed or were out of order. Blank and header lines don't
+     * count.
+     *
+     * @return The number of skipped lines
+     */
+    public long getSkippedLineCount() {
+        return _skippedLineCount;
+    }
+
+    /**
+     * Returns the number that the next import will have, so that it can be
+     * cancelled before it starts. Imports are numbered in the order they
+     * start.
+     *
+     * @return The number of the next import
+     */
+    public long getNextImportNumber() {
+        return _importNumber.get() + 1L;
+    }
+
+    /**
+     * Cancels the current import, which stops after the buffer in progress.
+     * If no import is in progress, this has no effect, so a cancel that
+     * arrives late never stops a later import. This may be called from any
+     * thread.
+     */
+    public void cancel() {
+        cancel( _importNumber.get() );
+    }
+
+    /**
+     * Cancels the given import, and any earlier one, whether it is in
+     * progress or hasn't started yet. An import that is cancelled before it
+     * starts returns right away, without reading anything. This may be called
+     * from any thread.
+     *
+     * @param importNumber
+     *            The number of the import to cancel, as returned by
+     *            {@link #getNextImportNumber()} before it started
+     */
+    public void cancel( final long importNumber ) {
+        _cancelledImportNumber.accumulateAndGet( importNumber, Math::max );
+    }
+
+    /**
+     * Imports a log file, appending its readings to a time series.
+     *
+     * @param path
+     *            The path of the log file
+     * @param timeSeries
+     *            The time series to append the readings to
+     * @param progressListener
+     *            The listener for import progress, or {@code null} if none
+     * @return The number of readings imported
+     * @throws IOException
+     *             If the file can't be read, or has a line that is longer than
+     *             the read buffer
+     */
+    public long importFile( final Path path,
+                            final EnvironmentTimeSeries timeSeries,
+                            final ProgressListener progressListener )
+            throws IOException {
+        final long importNumber = _importNumber.incrementAndGet();
+        _skippedLineCount = 0L;
+
+        // Fold the unit conversions into a scale and shift per field, as all
+        // of the supported temperature and pressure units are affine.
+        final double kelvinAtZero = UnitConversion
+                .convertTemperature( 0d, _temperatureUnit, TemperatureUnit.KELVIN );
+        final double kelvinPerDegree = UnitConversion
+                .convertTemperature( 1d, _temperatureUnit, TemperatureUnit.KELVIN ) - kelvinAtZero;
+        final double pascalsPerPressureUnit = UnitConversion
+                .convertPressure( 1d, _pressureUnit, PressureUnit.PASCALS );
+
+        final byte[] bytes = new byte[ _bufferSize ];
+        final ByteBuffer buffer = ByteBuffer.wrap( bytes );
+        final double[] values = new double[ NUMBER_OF_FIELDS ];
+
+        final long[] timestampsMillis = new long[ BLOCK_SIZE ];
+        final double[] temperatureK = new double[ BLOCK_SIZE ];
+        final double[] humidityRelative = new double[ BLOCK_SIZE ];
+        final double[] pressurePa = new double[ BLOCK_SIZE ];
+        int blockSize = 0;
+
+        final int size = timeSeries.getSize();
+        long lastTimestampMillis = ( size > 0 )
+            ? timeSeries.getTimestampMillis( size - 1 )
+            : Long.MIN_VALUE;
+        long readingsImported = 0L;
+        long bytesRead = 0L;
+        int headerLinesToSkip = _headerLines;
+
+        try ( final FileChannel fileChannel = FileChannel.open( path, StandardOpenOption.READ ) ) {
+            final long totalBytes = fileChannel.size();
+            boolean endOfFile = false;
+
+            while ( !endOfFile && ( _cancelledImportNumber.get() < importNumber ) ) {
+                final int bytesThisRead = fileChannel.read( buffer );
+                if ( bytesThisRead < 0 ) {
+                    endOfFile = true;
+                }
+                else {
+                    bytesRead += bytesThisRead;
+                }
+
+                // Process every complete line in the buffer, plus the final
+                // line of the file if it has no line terminator.
+                final int limit = buffer.position();
+                int lineStart = 0;
+                for ( int i = 0; i <= limit; i++ ) {
+                    if ( ( i < limit ) ? ( bytes[ i ] != '\n' )
+                                       : ( !endOfFile || ( lineStart == limit ) ) ) {
+                        continue;
+                    }
+
+                    int lineEnd = i;
+                    if ( ( lineEnd > lineStart ) && ( bytes[ lineEnd - 1 ] == '\r' ) ) {
+                        lineEnd--;
+                    }
+                    final int currentLineStart = lineStart;
+                    lineStart = i + 1;
+
+                    if ( headerLinesToSkip > 0 ) {
+                        headerLinesToSkip--;
+                        continue;
+                    }
+                    if ( isBlank( bytes, currentLineStart, lineEnd ) ) {
+                        continue;
+                    }
+                    if ( !parseLine( bytes, currentLineStart, lineEnd, values ) ) {
+                        _skippedLineCount++;
+                        continue;
+                    }
+
+                    final long timestampMillis = Math
+                            .round( values[ TIMESTAMP ] * _timestampMillisPerUnit );
+                    if ( timestampMillis < lastTimestampMillis ) {
+                        _skippedLineCount++;
+                        continue;
+                    }
+                    lastTimestampMillis = timestampMillis;
+
+                    timestampsMillis[ blockSize ] = timestampMillis;
+                    temperatureK[ blockSize ] = ( values[ TEMPERATURE ] * kelvinPerDegree )
+                            + kelvinAtZero;
+                    humidityRelative[ blockSize ] = values[ HUMIDITY ];
+                    pressurePa[ blockSize ] = values[ PRESSURE ] * pascalsPerPressureUnit;
+                    blockSize++;
+
+                    if ( blockSize == BLOCK_SIZE ) {
+                        timeSeries.append( timestampsMillis,
+                                           temperatureK,
+                                           humidityRelative,
+                                           pressurePa,
+                                           0,
+                                           blockSize );
+                        readingsImported += blockSize;
+                        blockSize = 0;
+                    }
+                }
+
+                // Carry any partial line over to the start of the buffer.
+                final int remainder = Math.max( limit - lineStart, 0 );
+                if ( remainder == bytes.length ) {
+                    throw new IOException( "Line is longer than the read buffer in " + path ); //$NON-NLS-1$
+                }
+                System.arraycopy( bytes, limit - remainder, bytes, 0, remainder );
+                buffer.clear();
+                buffer.position( remainder );
+
+                if ( blockSize > 0 ) {
+                    timeSeries.append( timestampsMillis,
+                                       temperatureK,
+                                       humidityRelative,
+                                       pressurePa,
+                                       0,
+                                       blockSize );
+                    readingsImported += blockSize;
+                    blockSize = 0;
+                }
+
+                if ( progressListener != null ) {
+                    progressListener.progressUpdated( bytesRead, totalBytes, readingsImported );
+                }
+            }
+        }
+
+        return readingsImported;
+    }
+
+    // Finds and parses every field of a line, returning false if any field is
+    // missing or isn't a number.
+    private boolean parseLine( final byte[] bytes,
+                               final int lineStart,
+                               final int lineEnd,
+                               final double[] values ) {
+        if ( _delimiter == 0 ) {
+            for ( int field = 0; field < NUMBER_OF_FIELDS; field++ ) {
+                final int fieldStart = lineStart + _fieldOffsets[ field ];
+                if ( fieldStart >= lineEnd ) {
+                    return false;
+                }
+                values[ field ] = parseNumber( bytes,
+                                               fieldStart,
+                                               Math.min( fieldStart + _fieldWidths[ field ],
+                                                         lineEnd ) );
+                if ( Double.isNaN( values[ field ] ) ) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        int fieldsFound = 0;
+        int column = 0;
+        int columnStart = lineStart;
+        for ( int i = lineStart; i <= lineEnd; i++ ) {
+            if ( ( i < lineEnd ) && ( bytes[ i ] != _delimiter ) ) {
+                continue;
+            }
+
+            for ( int field = 0; field < NUMBER_OF_FIELDS; field++ ) {
+                if ( _fieldColumns[ field ] == column ) {
+                    values[ field ] = parseNumber( bytes, columnStart, i );
+                    if ( Double.isNaN( values[ field ] ) ) {
+                        return false;
+                    }
+                    fieldsFound++;
+                }
+            }
+
+            column++;
+            columnStart = i + 1;
+        }
+
+        return fieldsFound == NUMBER_OF_FIELDS;
+    }
+
+    private static boolean isBlank( final byte[] bytes, final int start, final int end ) {
+        for ( int i = start; i < end; i++ ) {
+            if ( !isPadding( bytes[ i ] ) ) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean isPadding( final byte b ) {
+        return ( b == ' ' ) || ( b == '\t' ) || ( b == '"' );
+    }
+
+    /**
+     * Parses a decimal number, with an optional sign, fraction and exponent,
+     * straight from ASCII bytes, ignoring surrounding spaces and quotes.
+     * <p>
+     * Numbers with up to 15 significant digits and small exponents, which
+     * covers all sensor data, are parsed exactly as by
+     * {@link Double#parseDouble}; longer numbers may differ in the last bit.
+     *
+     * @param bytes
+     *            The bytes to parse
+     * @param start
+     *            The index of the first byte of the number
+     * @param end
+     *            The index after the last byte of the number
+     * @return The parsed number, or {@code Double.NaN} if the bytes aren't a
+     *         number
+     */
+    public static double parseNumber( final byte[] bytes, final int start, final int end ) {
+        int first = start;
+        int last = end;
+        while ( ( first < last ) && isPadding( bytes[ first ] ) ) {
+            first++;
+        }
+        while ( ( last > first ) && isPadding( bytes[ last - 1 ] ) ) {
+            last--;
+        }
+
+        int i = first;
+        boolean negative = false;
+        if ( ( i < last ) && ( ( bytes[ i ] == '-' ) || ( bytes[ i ] == '+' ) ) ) {
+            negative = bytes[ i ] == '-';
+            i++;
+        }
+
+        // Accumulate up to 18 significant digits, which can't overflow a long,
+        // and track the decimal exponent of the last one.
+        long mantissa = 0L;
+        int significantDigits = 0;
+        int exponent = 0;
+        int digits = 0;
+        boolean fraction = false;
+        for ( ; i < last; i++ ) {
+            final byte b = bytes[ i ];
+            if ( ( b >= '0' ) && ( b <= '9' ) ) {
+                digits++;
+                if ( significantDigits < 18 ) {
+                    mantissa = ( mantissa * 10L ) + ( b - '0' );
+                    if ( mantissa != 0L ) {
+                        significantDigits++;
+                    }
+                    if ( fraction ) {
+                        exponent--;
+                    }
+                }
+                else if ( !fraction ) {
+                    exponent++;
+                }
+            }
+            else if ( ( b == '.' ) && !fraction ) {
+                fraction = true;
+            }
+            else {
+                break;
+            }
+        }
+        if ( digits == 0 ) {
+            return Double.NaN;
+        }
+
+        if ( ( i < last ) && ( ( bytes[ i ] == 'e' ) || ( bytes[ i ] == 'E' ) ) ) {
+            i++;
+            boolean negativeExponent = false;
+            if ( ( i < last ) && ( ( bytes[ i ] == '-' ) || ( bytes[ i ] == '+' ) ) ) {
+                negativeExponent = bytes[ i ] == '-';
+                i++;
+            }
+            int explicitExponent = 0;
+            int exponentDigits = 0;
+            for ( ; ( i < last ) && ( bytes[ i ] >= '0' ) && ( bytes[ i ] <= '9' ); i++ ) {
+                if ( explicitExponent < 10000 ) {
+                    explicitExponent = ( explicitExponent * 10 ) + ( bytes[ i ] - '0' );
+                }
+                exponentDigits++;
+            }
+            if ( exponentDigits == 0 ) {
+                return Double.NaN;
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+        if ( i != last ) {
+            return Double.NaN;
+        }
+
+        // NOTE: Both operands are exact for small exponents and mantissas of
+        //  up to 2^53, so the single rounding of the product or quotient
+        //  gives the correctly rounded result.
+        double value = mantissa;
+        if ( ( exponent >= 0 ) && ( exponent < POWERS_OF_TEN.length ) ) {
+            value *= POWERS_OF_TEN[ exponent ];
+        }
+        else if ( ( exponent < 0 ) && ( -exponent < POWERS_OF_TEN.length ) ) {
+            value /= POWERS_OF_TEN[ -exponent ];
+        }
+        else {
+            value *= Math.pow( 10d, exponent );
+        }
+
+        return negative ? -value : value;
+    }
+}
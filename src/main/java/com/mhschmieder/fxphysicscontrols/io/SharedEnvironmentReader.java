@@ -0,0 +1,166 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxPhysics Library
+ *
+ * You should have received a copy of the MIT License along with the FxPhysics
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxphysics
+ */
+package com.mhschmieder.fxphysicscontrols.io;
+
+import com.mhschmieder.fxphysicscontrols.model.EnvironmentSnapshot;
+import com.mhschmieder.jphysics.AngleUnit;
+import com.mhschmieder.jphysics.DistanceUnit;
+import com.mhschmieder.jphysics.PressureUnit;
+import com.mhschmieder.jphysics.TemperatureUnit;
+import com.mhschmieder.jphysics.WeightUnit;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.file.Path;
+
+/**
+ * This reader gets the state shared by a {@link SharedEnvironmentWriter} in
+ * another process on the same host, as {@link EnvironmentSnapshot} values.
+ * <p>
+ * Reads go straight to the mapped record, with no system calls and no locks,
+ * so polling is cheap enough to do on every step of a simulation. A read that
+ * overlaps a write is simply retried. Units are shared by ordinal, so both
+ * processes must use the same version of the physics library.
+ * <p>
+ * Readers may be used from any thread, but are not shared between threads.
+ */
+public final class SharedEnvironmentReader {
+
+    // Declare the maximum number of attempts at a consistent read, which
+    // only runs out if the writer died in the middle of a write.
+    public static final int                READ_ATTEMPTS_MAXIMUM = 100000;
+
+    // Cache the unit values, so that reads don't allocate copies of them.
+    private static final DistanceUnit[]    DISTANCE_UNITS        = DistanceUnit.values();
+    private static final AngleUnit[]       ANGLE_UNITS           = AngleUnit.values();
+    private static final WeightUnit[]      WEIGHT_UNITS          = WeightUnit.values();
+    private static final TemperatureUnit[] TEMPERATURE_UNITS     = TemperatureUnit.values();
+    private static final PressureUnit[]    PRESSURE_UNITS        = PressureUnit.values();
+
+    // The mapped record that is read from.
+    private final MappedByteBuffer         _record;
+
+    /**
+     * Opens the record file written by a {@link SharedEnvironmentWriter}.
+     *
+     * @param path
+     *            The path of the record file
+     * @throws IOException
+     *             If the file can't be mapped, or doesn't hold a record yet
+     */
+    public SharedEnvironmentReader( final Path path ) throws IOException {
+        _record = SharedEnvironmentRecord.map( path, false );
+        if ( !SharedEnvironmentRecord.isValid( _record ) ) {
+            throw new IOException( "Not a shared environment file: " + path ); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Returns the version of the latest state written, which may be checked
+     * before reading to avoid making snapshots that aren't needed.
+     *
+     * @return The version of the latest state written
+     */
+    public long getVersion() {
+        return _record.getLong( SharedEnvironmentRecord.SEQUENCE_OFFSET ) >>> 1;
+    }
+
+    /**
+     * Reads the latest state written.
+     *
+     * @return A snapshot of the latest state, or null if no consistent state
+     *         could be read because the writer stopped in the middle of a
+     *         write
+     */
+    public EnvironmentSnapshot read() {
+        return readIfNewer( -1L );
+    }
+
+    /**
+     * Reads the latest state written, if it is newer than a given version.
+     *
+     * @param version
+     *            The version of the last snapshot read, or -1 for none
+     * @return A snapshot of the latest state, or null if it isn't newer than
+     *         the given version or no consistent state could be read
+     */
+    public EnvironmentSnapshot readIfNewer( final long version ) {
+        for ( int attempt = 0; attempt < READ_ATTEMPTS_MAXIMUM; attempt++ ) {
+            final long sequence = _record.getLong( SharedEnvironmentRecord.SEQUENCE_OFFSET );
+            if ( ( sequence & 1L ) != 0L ) {
+                // The writer is in the middle of a write.
+                continue;
+            }
+            if ( ( sequence >>> 1 ) <= version ) {
+                return null;
+            }
+            SharedEnvironmentRecord.loadFence();
+
+            final double temperatureK = _record
+                    .getDouble( SharedEnvironmentRecord.TEMPERATURE_OFFSET );
+            final double humidityRelative = _record
+                    .getDouble( SharedEnvironmentRecord.HUMIDITY_OFFSET );
+            final double pressurePa = _record.getDouble( SharedEnvironmentRecord.PRESSURE_OFFSET );
+            final int airAttenuationApplied = _record
+                    .getInt( SharedEnvironmentRecord.AIR_ATTENUATION_OFFSET );
+            final int distanceUnit = _record.getInt( SharedEnvironmentRecord.DISTANCE_UNIT_OFFSET );
+            final int angleUnit = _record.getInt( SharedEnvironmentRecord.ANGLE_UNIT_OFFSET );
+            final int weightUnit = _record.getInt( SharedEnvironmentRecord.WEIGHT_UNIT_OFFSET );
+            final int temperatureUnit = _record
+                    .getInt( SharedEnvironmentRecord.TEMPERATURE_UNIT_OFFSET );
+            final int pressureUnit = _record.getInt( SharedEnvironmentRecord.PRESSURE_UNIT_OFFSET );
+
+            // Only accept the values if no write started while reading them.
+            SharedEnvironmentRecord.loadFence();
+            if ( _record.getLong( SharedEnvironmentRecord.SEQUENCE_OFFSET ) != sequence ) {
+                continue;
+            }
+
+            return new EnvironmentSnapshot( temperatureK,
+                                            humidityRelative,
+                                            pressurePa,
+                                            airAttenuationApplied != 0,
+                                            SharedEnvironmentRecord
+                                                    .getUnit( DISTANCE_UNITS, distanceUnit ),
+                                            SharedEnvironmentRecord
+                                                    .getUnit( ANGLE_UNITS, angleUnit ),
+                                            SharedEnvironmentRecord
+                                                    .getUnit( WEIGHT_UNITS, weightUnit ),
+                                            SharedEnvironmentRecord
+                                                    .getUnit( TEMPERATURE_UNITS, temperatureUnit ),
+                                            SharedEnvironmentRecord
+                                                    .getUnit( PRESSURE_UNITS, pressureUnit ),
+                                            sequence >>> 1 );
+        }
+
+        return null;
+    }
+}
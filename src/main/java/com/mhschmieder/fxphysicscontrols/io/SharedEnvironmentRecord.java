@@ -0,0 +1,197 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxPhysics Library
+ *
+ * You should have received a copy of the MIT License along with the FxPhysics
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxphysics
+ */
+package com.mhschmieder.fxphysicscontrols.io;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This is the layout of the shared environment record, which is a small
+ * memory-mapped file that one writer process updates in place and any number
+ * of reader processes on the same host poll, guarded by a sequence lock.
+ * <p>
+ * The sequence is odd while a write is in progress and is advanced by two
+ * for every completed write, so readers can detect and retry torn reads
+ * without any locking, and the version of the state is half the sequence.
+ */
+final class SharedEnvironmentRecord {
+
+    // Declare the record header values.
+    static final int    RECORD_MAGIC             = 0x454E5331; // "ENS1"
+    static final int    RECORD_VERSION           = 1;
+
+    // Declare the byte offsets of the record fields. The sequence and the
+    // values are 8-byte aligned, so that each is written by one store.
+    static final int    MAGIC_OFFSET             = 0;
+    static final int    VERSION_OFFSET           = 4;
+    static final int    SEQUENCE_OFFSET          = 8;
+    static final int    TEMPERATURE_OFFSET       = 16;
+    static final int    HUMIDITY_OFFSET          = 24;
+    static final int    PRESSURE_OFFSET          = 32;
+    static final int    AIR_ATTENUATION_OFFSET   = 40;
+    static final int    DISTANCE_UNIT_OFFSET     = 44;
+    static final int    ANGLE_UNIT_OFFSET        = 48;
+    static final int    WEIGHT_UNIT_OFFSET       = 52;
+    static final int    TEMPERATURE_UNIT_OFFSET  = 56;
+    static final int    PRESSURE_UNIT_OFFSET     = 60;
+
+    // Declare the record size, which is one cache line.
+    static final int    RECORD_SIZE              = 64;
+
+    // Declare the marker for a unit that wasn't set.
+    static final int    NO_UNIT                  = -1;
+
+    // NOTE: Buffer accesses are plain memory accesses, so a sequence lock
+    //  needs explicit fences. We look these up reflectively, as we still
+    //  target Java 8 and so cannot reference VarHandle directly, and the
+    //  Java 8 equivalents are only available from Unsafe.
+    private static final MethodHandle STORE_FENCE = findFence( "releaseFence", //$NON-NLS-1$
+                                                               "storeFence" ); //$NON-NLS-1$
+    private static final MethodHandle LOAD_FENCE  = findFence( "acquireFence", //$NON-NLS-1$
+                                                               "loadFence" ); //$NON-NLS-1$
+
+    /**
+     * The default constructor is disabled, as this is a static class.
+     */
+    private SharedEnvironmentRecord() {}
+
+    /**
+     * Maps the record file, in the platform's native byte order as the record
+     * is only ever shared between processes on the same host.
+     *
+     * @param path
+     *            The path of the record file
+     * @param writable
+     *            Flag for whether to map the record for writing, creating the
+     *            file if necessary
+     * @return The mapped record
+     * @throws IOException
+     *             If the file can't be mapped
+     */
+    static MappedByteBuffer map( final Path path, final boolean writable ) throws IOException {
+        try ( final FileChannel fileChannel = writable
+            ? FileChannel.open( path,
+                                StandardOpenOption.CREATE,
+                                StandardOpenOption.READ,
+                                StandardOpenOption.WRITE )
+            : FileChannel.open( path, StandardOpenOption.READ ) ) {
+            if ( !writable && ( fileChannel.size() < RECORD_SIZE ) ) {
+                throw new IOException( "Not a shared environment file: " + path ); //$NON-NLS-1$
+            }
+
+            // NOTE: The mapping remains valid after the channel is closed.
+            final MappedByteBuffer mappedBuffer = fileChannel.map( writable
+                ? FileChannel.MapMode.READ_WRITE
+                : FileChannel.MapMode.READ_ONLY, 0L, RECORD_SIZE );
+            mappedBuffer.order( ByteOrder.nativeOrder() );
+            return mappedBuffer;
+        }
+    }
+
+    /**
+     * Checks whether a mapped record has a valid header.
+     *
+     * @param record
+     *            The mapped record
+     * @return True if the record has the expected magic number and version
+     */
+    static boolean isValid( final MappedByteBuffer record ) {
+        return ( record.getInt( MAGIC_OFFSET ) == RECORD_MAGIC )
+                && ( record.getInt( VERSION_OFFSET ) == RECORD_VERSION );
+    }
+
+    /**
+     * Keeps stores from being reordered across this point.
+     */
+    static void storeFence() {
+        invokeFence( STORE_FENCE );
+    }
+
+    /**
+     * Keeps loads from being reordered across this point.
+     */
+    static void loadFence() {
+        invokeFence( LOAD_FENCE );
+    }
+
+    static int getUnitOrdinal( final Enum< ? > unit ) {
+        return ( unit != null ) ? unit.ordinal() : NO_UNIT;
+    }
+
+    static < E extends Enum< E > > E getUnit( final E[] units, final int ordinal ) {
+        return ( ( ordinal >= 0 ) && ( ordinal < units.length ) ) ? units[ ordinal ] : null;
+    }
+
+    private static void invokeFence( final MethodHandle fence ) {
+        try {
+            fence.invokeExact();
+        }
+        catch ( final Throwable t ) {
+            // NOTE: Fences don't throw, so this can't happen.
+            throw new IllegalStateException( t );
+        }
+    }
+
+    private static MethodHandle findFence( final String varHandleFenceName,
+                                           final String unsafeFenceName ) {
+        final MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        final MethodType fenceType = MethodType.methodType( void.class );
+
+        // Prefer the supported fences of Java 9 and later.
+        try {
+            return lookup.findStatic( Class.forName( "java.lang.invoke.VarHandle" ), //$NON-NLS-1$
+                                      varHandleFenceName,
+                                      fenceType );
+        }
+        catch ( final ReflectiveOperationException | RuntimeException ex ) {
+            // Fall back to Unsafe on Java 8.
+        }
+
+        try {
+            final Class< ? > unsafeClass = Class.forName( "sun.misc.Unsafe" ); //$NON-NLS-1$
+            final Field unsafeField = unsafeClass.getDeclaredField( "theUnsafe" ); //$NON-NLS-1$
+            unsafeField.setAccessible( true );
+            return lookup.findVirtual( unsafeClass, unsafeFenceName, fenceType )
+                    .bindTo( unsafeField.get( null ) );
+        }
+        catch ( final ReflectiveOperationException | RuntimeException ex ) {
+            throw new ExceptionInInitializerError( ex );
+        }
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxPhysics Library
+ *
+ * You should have received a copy of the MIT License along with the FxPhysics
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxphysics
+ */
+package com.mhschmieder.fxphysicscontrols.io;
+
+import com.mhschmieder.fxphysicscontrols.model.EnvironmentSnapshot;
+import com.mhschmieder.fxphysicscontrols.model.MeasurementUnits;
+import com.mhschmieder.fxphysicscontrols.model.NaturalEnvironment;
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.beans.binding.BooleanBinding;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.file.Path;
+import java.util.concurrent.Executor;
+
+/**
+ * This writer shares the live {@link NaturalEnvironment} and
+ * {@link MeasurementUnits} with other processes on the same host, such as a
+ * solver running in its own JVM, by writing them to a memory-mapped record
+ * whenever they change. Readers use a {@link SharedEnvironmentReader}.
+ * <p>
+ * Each write is a handful of stores into the page cache, with no system calls
+ * and no allocation, so it is done on the JavaFX Application Thread. Writes
+ * are deferred until a batch of changes has been applied, so that a whole
+ * environment set one field at a time is written once, and readers never see
+ * a half-applied state. There must be only one writer per record file.
+ */
+public final class SharedEnvironmentWriter {
+
+    // The Natural Environment and Measurement Units that are shared.
+    private final NaturalEnvironment   _naturalEnvironment;
+    private final MeasurementUnits     _measurementUnits;
+
+    // The mapped record that is written to.
+    private final MappedByteBuffer     _record;
+
+    // The sequence number of the last completed write, which is always even.
+    private long                       _sequence;
+
+    // Flag for whether this writer has been closed.
+    private boolean                    _closed;
+
+    // Flag for whether a write is already due.
+    private boolean                    _writePending;
+
+    // The executor that writes are made on, which is normally the JavaFX
+    // Application Thread.
+    private final Executor             _writeExecutor;
+
+    // The listener that schedules a write on any environment or unit change.
+    private final InvalidationListener _stateChangedListener;
+
+    /**
+     * Makes a writer that shares the given state through the given file,
+     * writing the current state right away. This must be called on the
+     * JavaFX Application Thread.
+     * <p>
+     * If the file already holds a record, such as from before the GUI was
+     * restarted, its sequence is carried on, so that readers never see the
+     * version go backwards.
+     *
+     * @param path
+     *            The path of the record file, which is created if necessary
+     * @param naturalEnvironment
+     *            The Natural Environment to share
+     * @param measurementUnits
+     *            The Measurement Units to share
+     * @throws IOException
+     *             If the file can't be created or mapped
+     */
+    public SharedEnvironmentWriter( final Path path,
+                                    final NaturalEnvironment naturalEnvironment,
+                                    final MeasurementUnits measurementUnits )
+            throws IOException {
+        this( path, naturalEnvironment, measurementUnits, Platform::runLater );
+    }
+
+    // NOTE: This is for unit tests, which have no JavaFX Application Thread.
+    SharedEnvironmentWriter( final Path path,
+                             final NaturalEnvironment naturalEnvironment,
+                             final MeasurementUnits measurementUnits,
+                             final Executor writeExecutor )
+            throws IOException {
+        _naturalEnvironment = naturalEnvironment;
+        _measurementUnits = measurementUnits;
+        _writeExecutor = writeExecutor;
+        _record = SharedEnvironmentRecord.map( path, true );
+        _closed = false;
+        _writePending = false;
+
+        if ( SharedEnvironmentRecord.isValid( _record ) ) {
+            // NOTE: An odd sequence means the previous writer died mid-write,
+            //  so we round up to keep readers from waiting on it forever.
+            final long sequence = _record.getLong( SharedEnvironmentRecord.SEQUENCE_OFFSET );
+            _sequence = ( sequence + 1L ) & ~1L;
+        }
+        else {
+            _sequence = 0L;
+        }
+        write();
+
+        // NOTE: The header is written last, so that readers never accept a
+        //  new record before it holds a complete state.
+        SharedEnvironmentRecord.storeFence();
+        _record.putInt( SharedEnvironmentRecord.VERSION_OFFSET,
+                        SharedEnvironmentRecord.RECORD_VERSION );
+        _record.putInt( SharedEnvironmentRecord.MAGIC_OFFSET, SharedEnvironmentRecord.RECORD_MAGIC );
+
+        _stateChangedListener = observable -> {
+            ( ( BooleanBinding ) observable ).get();
+            scheduleWrite();
+        };
+        _naturalEnvironment.naturalEnvironmentChangedProperty()
+                .addListener( _stateChangedListener );
+        _measurementUnits.measurementUnitsChangedProperty().addListener( _stateChangedListener );
+    }
+
+    /**
+     * Stops sharing changes. The record keeps the last state written, so
+     * readers can still read it. This must be called on the JavaFX
+     * Application Thread.
+     */
+    public void close() {
+        if ( _closed ) {
+            return;
+        }
+
+        // Write any changes that are still due, so that they aren't lost.
+        if ( _writePending ) {
+            write();
+        }
+        _closed = true;
+
+        _naturalEnvironment.naturalEnvironmentChangedProperty()
+                .removeListener( _stateChangedListener );
+        _measurementUnits.measurementUnitsChangedProperty().removeListener( _stateChangedListener );
+
+        // NOTE: Java 8 has no supported way to unmap a buffer, so the mapping
+        //  is released once this writer is garbage collected.
+        _record.force();
+    }
+
+    /**
+     * Returns the version of the last state written, which matches the
+     * version of the snapshots that readers get for it.
+     *
+     * @return The version of the last state written
+     */
+    public long getVersion() {
+        return _sequence >>> 1;
+    }
+
+    /**
+     * Returns a snapshot of the last state written.
+     *
+     * @return A snapshot of the last state written
+     */
+    public EnvironmentSnapshot getSnapshot() {
+        return EnvironmentSnapshot.of( _naturalEnvironment, _measurementUnits, getVersion() );
+    }
+
+    // Defer the write until the current batch of changes has been applied,
+    // as the environment fields are set one at a time.
+    private void scheduleWrite() {
+        if ( _writePending ) {
+            return;
+        }
+        _writePending = true;
+        _writeExecutor.execute( () -> {
+            if ( _writePending && !_closed ) {
+                write();
+            }
+        } );
+    }
+
+    private void write() {
+        _writePending = false;
+
+        // Mark the record as being written, before touching any of the values.
+        _record.putLong( SharedEnvironmentRecord.SEQUENCE_OFFSET, _sequence + 1L );
+        SharedEnvironmentRecord.storeFence();
+
+        _record.putDouble( SharedEnvironmentRecord.TEMPERATURE_OFFSET,
+                           _naturalEnvironment.getTemperatureK() );
+        _record.putDouble( SharedEnvironmentRecord.HUMIDITY_OFFSET,
+                           _naturalEnvironment.getHumidityRelative() );
+        _record.putDouble( SharedEnvironmentRecord.PRESSURE_OFFSET,
+                           _naturalEnvironment.getPressurePa() );
+        _record.putInt( SharedEnvironmentRecord.AIR_ATTENUATION_OFFSET,
+                        _naturalEnvironment.isAirAttenuationApplied() ? 1 : 0 );
+        _record.putInt( SharedEnvironmentRecord.DISTANCE_UNIT_OFFSET,
+                        SharedEnvironmentRecord
+                                .getUnitOrdinal( _measurementUnits.getDistanceUnit() ) );
+        _record.putInt( SharedEnvironmentRecord.ANGLE_UNIT_OFFSET,
+                        SharedEnvironmentRecord.getUnitOrdinal( _measurementUnits.getAngleUnit() ) );
+        _record.putInt( SharedEnvironmentRecord.WEIGHT_UNIT_OFFSET,
+                        SharedEnvironmentRecord.getUnitOrdinal( _measurementUnits.getWeightUnit() ) );
+        _record.putInt( SharedEnvironmentRecord.TEMPERATURE_UNIT_OFFSET,
+                        SharedEnvironmentRecord
+                                .getUnitOrdinal( _measurementUnits.getTemperatureUnit() ) );
+        _record.putInt( SharedEnvironmentRecord.PRESSURE_UNIT_OFFSET,
+                        SharedEnvironmentRecord
+                                .getUnitOrdinal( _measurementUnits.getPressureUnit() ) );
+
+        // Publish the values by completing the sequence.
+        SharedEnvironmentRecord.storeFence();
+        _sequence += 2L;
+        _record.putLong( SharedEnvironmentRecord.SEQUENCE_OFFSET, _sequence );
+    }
+}
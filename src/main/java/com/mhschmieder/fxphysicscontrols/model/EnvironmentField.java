@@ -0,0 +1,1026 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxPhysics Library
+ *
+ * You should have received a copy of the MIT License along with the FxPhysics
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxphysics
+ */
+package com.mhschmieder.fxphysicscontrols.model;
+
+import com.mhschmieder.jphysics.DistanceUnit;
+import com.mhschmieder.jphysics.HumidityUnit;
+import com.mhschmieder.jphysics.PressureUnit;
+import com.mhschmieder.jphysics.TemperatureUnit;
+import com.mhschmieder.jphysics.UnitConversion;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * This is a spatially varying Natural Environment, sampled on a regular 2D or
+ * 3D grid, such as for large outdoor venues with temperature and humidity
+ * gradients.
+ * <p>
+ * Temperature, relative humidity and pressure are stored in three flat
+ * columns, with the x index varying fastest, then y, then z. A 2D field is
+ * simply a field with a single z layer. Sampling between grid points is
+ * trilinear (or bilinear, along any axis with a single point), and positions
+ * outside of the grid are clamped to its boundary.
+ * <p>
+ * Fields made in memory store canonical units in primitive arrays. Fields
+ * loaded from a file memory-map it and read the payload in place, so opening
+ * even a very large field is near instant and pages load on demand; values
+ * stored in other units are converted as they are read. Loaded fields are
+ * read-only.
+ * <p>
+ * Sampling never allocates, so propagation code can query millions of points;
+ * the bulk sampling method splits large point sets into parallel chunks.
+ * Fields are not synchronized; writers must not run concurrently with
+ * readers.
+ */
+public final class EnvironmentField {
+
+    // Declare the number of points per parallel chunk for bulk sampling.
+    public static final int     CHUNK_SIZE_DEFAULT = 8192;
+
+    // Declare the binary file layout: a big-endian fixed header, then the
+    // distance, temperature, humidity and pressure unit names, then padding to
+    // an eight-byte boundary, then the temperature, humidity and pressure
+    // payloads in turn, as floats or doubles in the byte order that the
+    // header declares.
+    private static final int    FILE_MAGIC         = 0x454E4631; // "ENF1"
+    private static final int    FILE_VERSION       = 1;
+    private static final int    HEADER_FIXED_SIZE  = ( 7 * Integer.BYTES )
+            + ( 6 * Double.BYTES );
+    private static final int    UNIT_NAME_LENGTH_MAXIMUM = 64;
+    private static final int    HEADER_SIZE_MAXIMUM = HEADER_FIXED_SIZE
+            + ( 4 * ( Short.BYTES + UNIT_NAME_LENGTH_MAXIMUM ) );
+    private static final int    PAYLOAD_ALIGNMENT  = Double.BYTES;
+
+    // Declare the byte order flags of the payload.
+    private static final int    BIG_ENDIAN         = 0;
+    private static final int    LITTLE_ENDIAN      = 1;
+
+    // The grid origin and spacing, in meters.
+    private final double        _originX;
+    private final double        _originY;
+    private final double        _originZ;
+    private final double        _spacingX;
+    private final double        _spacingY;
+    private final double        _spacingZ;
+
+    // The number of grid points along each axis.
+    private final int           _pointsX;
+    private final int           _pointsY;
+    private final int           _pointsZ;
+
+    // The field values at the grid points, read in canonical units.
+    private final Column        _temperatureK;
+    private final Column        _humidityRelative;
+    private final Column        _pressurePa;
+
+    // The backing arrays of fields made in memory, which are sampled directly
+    // rather than through the columns; these are null for mapped fields.
+    private final double[]      _temperatureArray;
+    private final double[]      _humidityArray;
+    private final double[]      _pressureArray;
+
+    /**
+     * Makes a 2D field, initialized to the default Natural Environment.
+     *
+     * @param originX
+     *            The x coordinate of the first grid point, in meters
+     * @param originY
+     *            The y coordinate of the first grid point, in meters
+     * @param spacingX
+     *            The grid spacing along x, in meters
+     * @param spacingY
+     *            The grid spacing along y, in meters
+     * @param pointsX
+     *            The number of grid points along x
+     * @param pointsY
+     *            The number of grid points along y
+     */
+    public EnvironmentField( final double originX,
+                             final double originY,
+                             final double spacingX,
+                             final double spacingY,
+                             final int pointsX,
+                             final int pointsY ) {
+        this( originX, originY, 0d, spacingX, spacingY, 1d, pointsX, pointsY, 1 );
+    }
+
+    /**
+     * Makes a 3D field, initialized to the default Natural Environment.
+     *
+     * @param originX
+     *            The x coordinate of the first grid point, in meters
+     * @param originY
+     *            The y coordinate of the first grid point, in meters
+     * @param originZ
+     *            The z coordinate of the first grid point, in meters
+     * @param spacingX
+     *            The grid spacing along x, in meters
+     * @param spacingY
+     *            The grid spacing along y, in meters
+     * @param spacingZ
+     *            The grid spacing along z, in meters
+     * @param pointsX
+     *            The number of grid points along x
+     * @param pointsY
+     *            The number of grid points along y
+     * @param pointsZ
+     *            The number of grid points along z
+     */
+    public EnvironmentField( final double originX,
+                             final double originY,
+                             final double originZ,
+                             final double spacingX,
+                             final double spacingY,
+                             final double spacingZ,
+                             final int pointsX,
+                             final int pointsY,
+                             final int pointsZ ) {
+        this( originX,
+              originY,
+              originZ,
+              spacingX,
+              spacingY,
+              spacingZ,
+              pointsX,
+              pointsY,
+              pointsZ,
+              new ArrayColumn( getNumberOfPoints( pointsX, pointsY, pointsZ ) ),
+              new ArrayColumn( getNumberOfPoints( pointsX, pointsY, pointsZ ) ),
+              new ArrayColumn( getNumberOfPoints( pointsX, pointsY, pointsZ ) ) );
+
+        fill( NaturalEnvironment.TEMPERATURE_K_DEFAULT,
+              NaturalEnvironment.HUMIDITY_RELATIVE_DEFAULT,
+              NaturalEnvironment.PRESSURE_PA_DEFAULT );
+    }
+
+    private EnvironmentField( final double originX,
+                              final double originY,
+                              final double originZ,
+                              final double spacingX,
+                              final double spacingY,
+                              final double spacingZ,
+                              final int pointsX,
+                              final int pointsY,
+                              final int pointsZ,
+                              final Column temperatureK,
+                              final Column humidityRelative,
+                              final Column pressurePa ) {
+        _originX = originX;
+        _originY = originY;
+        _originZ = originZ;
+        _spacingX = spacingX;
+        _spacingY = spacingY;
+        _spacingZ = spacingZ;
+        _pointsX = pointsX;
+        _pointsY = pointsY;
+        _pointsZ = pointsZ;
+        _temperatureK = temperatureK;
+        _humidityRelative = humidityRelative;
+        _pressurePa = pressurePa;
+        _temperatureArray = getArray( temperatureK );
+        _humidityArray = getArray( humidityRelative );
+        _pressureArray = getArray( pressurePa );
+    }
+
+    /**
+     * Loads a field that was previously saved, by memory-mapping the file so
+     * that the values are read straight from the page cache.
+     *
+     * @param path
+     *            The path of the field file
+     * @return The loaded field, which is read-only
+     * @throws IOException
+     *             If the file can't be read or isn't a valid field file
+     */
+    public static EnvironmentField load( final Path path ) throws IOException {
+        try ( final FileChannel fileChannel = FileChannel.open( path, StandardOpenOption.READ ) ) {
+            // NOTE: Each mapping remains valid after the channel is closed.
+            //  The header and each column are mapped separately, as a single
+            //  mapping is limited to 2 GiB.
+            final long fileSize = fileChannel.size();
+            final MappedByteBuffer headerBuffer = fileChannel
+                    .map( FileChannel.MapMode.READ_ONLY,
+                          0L,
+                          Math.min( fileSize, HEADER_SIZE_MAXIMUM ) );
+
+            if ( ( headerBuffer.remaining() < HEADER_FIXED_SIZE )
+                    || ( headerBuffer.getInt() != FILE_MAGIC ) ) {
+                throw new IOException( "Not an environment field file: " + path ); //$NON-NLS-1$
+            }
+            final int version = headerBuffer.getInt();
+            if ( version != FILE_VERSION ) {
+                throw new IOException( "Unsupported environment field version " + version ); //$NON-NLS-1$
+            }
+            final int byteOrderFlag = headerBuffer.getInt();
+            if ( ( byteOrderFlag != BIG_ENDIAN ) && ( byteOrderFlag != LITTLE_ENDIAN ) ) {
+                throw new IOException( "Corrupt environment field file: " + path ); //$NON-NLS-1$
+            }
+            final ByteOrder byteOrder = ( byteOrderFlag == LITTLE_ENDIAN )
+                ? ByteOrder.LITTLE_ENDIAN
+                : ByteOrder.BIG_ENDIAN;
+
+            final int valueBytes;
+            final int pointsX;
+            final int pointsY;
+            final int pointsZ;
+            final double originX;
+            final double originY;
+            final double originZ;
+            final double spacingX;
+            final double spacingY;
+            final double spacingZ;
+            try {
+                valueBytes = headerBuffer.getInt();
+                pointsX = headerBuffer.getInt();
+                pointsY = headerBuffer.getInt();
+                pointsZ = headerBuffer.getInt();
+                originX = headerBuffer.getDouble();
+                originY = headerBuffer.getDouble();
+                originZ = headerBuffer.getDouble();
+                spacingX = headerBuffer.getDouble();
+                spacingY = headerBuffer.getDouble();
+                spacingZ = headerBuffer.getDouble();
+            }
+            catch ( final BufferUnderflowException e ) {
+                throw new IOException( "Corrupt environment field file: " + path, e ); //$NON-NLS-1$
+            }
+
+            if ( ( ( valueBytes != Float.BYTES ) && ( valueBytes != Double.BYTES ) )
+                    || ( pointsX < 1 ) || ( pointsY < 1 ) || ( pointsZ < 1 )
+                    || ( ( ( long ) pointsX * pointsY * pointsZ ) > Integer.MAX_VALUE ) ) {
+                throw new IOException( "Corrupt environment field file: " + path ); //$NON-NLS-1$
+            }
+
+            final DistanceUnit distanceUnit;
+            final TemperatureUnit temperatureUnit;
+            final HumidityUnit humidityUnit;
+            final PressureUnit pressureUnit;
+            try {
+                distanceUnit = DistanceUnit.valueOf( getUnitName( headerBuffer ) );
+                temperatureUnit = TemperatureUnit.valueOf( getUnitName( headerBuffer ) );
+                humidityUnit = HumidityUnit.valueOf( getUnitName( headerBuffer ) );
+                pressureUnit = PressureUnit.valueOf( getUnitName( headerBuffer ) );
+            }
+            catch ( final IllegalArgumentException | BufferUnderflowException e ) {
+                throw new IOException( "Unsupported units in environment field file: " //$NON-NLS-1$
+                        + path, e );
+            }
+            if ( !HumidityUnit.RELATIVE.equals( humidityUnit ) ) {
+                throw new IOException( "Unexpected HumidityUnit " + humidityUnit ); //$NON-NLS-1$
+            }
+
+            final int payloadOffset = getPayloadOffset( headerBuffer.position() );
+            final int numberOfPoints = pointsX * pointsY * pointsZ;
+            final long columnSize = ( long ) numberOfPoints * valueBytes;
+            if ( ( payloadOffset + ( 3L * columnSize ) ) != fileSize ) {
+                throw new IOException( "Corrupt environment field file: " + path ); //$NON-NLS-1$
+            }
+            checkColumnSize( columnSize );
+
+            // Fold the unit conversions into a scale and shift per column, as
+            // all of the supported temperature and pressure units are affine.
+            final double metersPerDistanceUnit = UnitConversion
+                    .convertDistance( 1d, distanceUnit, DistanceUnit.METERS );
+            final double kelvinAtZero = UnitConversion
+                    .convertTemperature( 0d, temperatureUnit, TemperatureUnit.KELVIN );
+            final double kelvinPerDegree = UnitConversion
+                    .convertTemperature( 1d, temperatureUnit, TemperatureUnit.KELVIN )
+                    - kelvinAtZero;
+            final double pascalsPerPressureUnit = UnitConversion
+                    .convertPressure( 1d, pressureUnit, PressureUnit.PASCALS );
+
+            final Column temperatureK = makeMappedColumn( fileChannel,
+                                                          payloadOffset,
+                                                          columnSize,
+                                                          valueBytes,
+                                                          byteOrder,
+                                                          kelvinPerDegree,
+                                                          kelvinAtZero );
+            final Column humidityRelative = makeMappedColumn( fileChannel,
+                                                              payloadOffset + columnSize,
+                                                              columnSize,
+                                                              valueBytes,
+                                                              byteOrder,
+                                                              1d,
+                                                              0d );
+            final Column pressurePa = makeMappedColumn( fileChannel,
+                                                        payloadOffset + ( 2L * columnSize ),
+                                                        columnSize,
+                                                        valueBytes,
+                                                        byteOrder,
+                                                        pascalsPerPressureUnit,
+                                                        0d );
+
+            return new EnvironmentField( originX * metersPerDistanceUnit,
+                                         originY * metersPerDistanceUnit,
+                                         originZ * metersPerDistanceUnit,
+                                         spacingX * metersPerDistanceUnit,
+                                         spacingY * metersPerDistanceUnit,
+                                         spacingZ * metersPerDistanceUnit,
+                                         pointsX,
+                                         pointsY,
+                                         pointsZ,
+                                         temperatureK,
+                                         humidityRelative,
+                                         pressurePa );
+        }
+    }
+
+    /**
+     * Saves this field to a binary file in canonical units, for later loading
+     * via memory-mapping.
+     *
+     * @param path
+     *            The path of the field file to write
+     * @param singlePrecision
+     *            {@code true} if the values should be stored as floats, which
+     *            halves the file size and is ample for measured data
+     * @throws IOException
+     *             If the file can't be written
+     */
+    public void save( final Path path, final boolean singlePrecision ) throws IOException {
+        final String[] unitNames = new String[] {
+                                                  DistanceUnit.METERS.name(),
+                                                  TemperatureUnit.KELVIN.name(),
+                                                  HumidityUnit.RELATIVE.name(),
+                                                  PressureUnit.PASCALS.name() };
+        int headerSize = HEADER_FIXED_SIZE;
+        for ( final String unitName : unitNames ) {
+            headerSize += Short.BYTES + unitName.length();
+        }
+
+        final int valueBytes = singlePrecision ? Float.BYTES : Double.BYTES;
+        final int payloadOffset = getPayloadOffset( headerSize );
+        final int numberOfPoints = getNumberOfPoints();
+        final long columnSize = ( long ) numberOfPoints * valueBytes;
+        checkColumnSize( columnSize );
+
+        // NOTE: The payload is written in the native byte order, so that the
+        //  mapped columns don't need byte swapping on the machines that most
+        //  likely read the file back.
+        final ByteOrder byteOrder = ByteOrder.nativeOrder();
+
+        try ( final FileChannel fileChannel = FileChannel.open( path,
+                                                                StandardOpenOption.CREATE,
+                                                                StandardOpenOption.TRUNCATE_EXISTING,
+                                                                StandardOpenOption.READ,
+                                                                StandardOpenOption.WRITE ) ) {
+            final ByteBuffer headerBuffer = ByteBuffer.allocate( payloadOffset );
+            headerBuffer.putInt( FILE_MAGIC );
+            headerBuffer.putInt( FILE_VERSION );
+            headerBuffer.putInt( ByteOrder.LITTLE_ENDIAN.equals( byteOrder )
+                ? LITTLE_ENDIAN
+                : BIG_ENDIAN );
+            headerBuffer.putInt( valueBytes );
+            headerBuffer.putInt( _pointsX );
+            headerBuffer.putInt( _pointsY );
+            headerBuffer.putInt( _pointsZ );
+            headerBuffer.putDouble( _originX );
+            headerBuffer.putDouble( _originY );
+            headerBuffer.putDouble( _originZ );
+            headerBuffer.putDouble( _spacingX );
+            headerBuffer.putDouble( _spacingY );
+            headerBuffer.putDouble( _spacingZ );
+            for ( final String unitName : unitNames ) {
+                headerBuffer.putShort( ( short ) unitName.length() );
+                headerBuffer.put( unitName.getBytes( StandardCharsets.US_ASCII ) );
+            }
+            headerBuffer.rewind();
+            while ( headerBuffer.hasRemaining() ) {
+                fileChannel.write( headerBuffer );
+            }
+
+            // Map and write each column separately, as a single mapping is
+            // limited to 2 GiB.
+            final Column[] columns = new Column[] { _temperatureK, _humidityRelative, _pressurePa };
+            for ( int c = 0; c < columns.length; c++ ) {
+                final Column column = columns[ c ];
+                final MappedByteBuffer columnBuffer = fileChannel
+                        .map( FileChannel.MapMode.READ_WRITE,
+                              payloadOffset + ( c * columnSize ),
+                              columnSize );
+                columnBuffer.order( byteOrder );
+                if ( singlePrecision ) {
+                    final FloatBuffer floatBuffer = columnBuffer.asFloatBuffer();
+                    for ( int i = 0; i < numberOfPoints; i++ ) {
+                        floatBuffer.put( i, ( float ) column.get( i ) );
+                    }
+                }
+                else {
+                    final DoubleBuffer doubleBuffer = columnBuffer.asDoubleBuffer();
+                    for ( int i = 0; i < numberOfPoints; i++ ) {
+                        doubleBuffer.put( i, column.get( i ) );
+                    }
+                }
+                columnBuffer.force();
+            }
+        }
+    }
+
+    /**
+     * Sets every grid point to the same environment.
+     *
+     * @param temperatureK
+     *            The temperature, in degrees Kelvin
+     * @param humidityRelative
+     *            The relative humidity, in percent
+     * @param pressurePa
+     *            The pressure, in pascals
+     * @throws UnsupportedOperationException
+     *             If this field was loaded from a file
+     */
+    public void fill( final double temperatureK,
+                      final double humidityRelative,
+                      final double pressurePa ) {
+        Arrays.fill( getValues( _temperatureK ), temperatureK );
+        Arrays.fill( getValues( _humidityRelative ), humidityRelative );
+        Arrays.fill( getValues( _pressurePa ), pressurePa );
+    }
+
+    /**
+     * Sets the environment at one grid point.
+     *
+     * @param indexX
+     *            The grid index along x
+     * @param indexY
+     *            The grid index along y
+     * @param indexZ
+     *            The grid index along z
+     * @param temperatureK
+     *            The temperature, in degrees Kelvin
+     * @param humidityRelative
+     *            The relative humidity, in percent
+     * @param pressurePa
+     *            The pressure, in pascals
+     * @throws UnsupportedOperationException
+     *             If this field was loaded from a file
+     */
+    public void setValues( final int indexX,
+                           final int indexY,
+                           final int indexZ,
+                           final double temperatureK,
+                           final double humidityRelative,
+                           final double pressurePa ) {
+        final int index = getIndex( indexX, indexY, indexZ );
+        getValues( _temperatureK )[ index ] = temperatureK;
+        getValues( _humidityRelative )[ index ] = humidityRelative;
+        getValues( _pressurePa )[ index ] = pressurePa;
+    }
+
+    public int getIndex( final int indexX, final int indexY, final int indexZ ) {
+        return ( ( ( indexZ * _pointsY ) + indexY ) * _pointsX ) + indexX;
+    }
+
+    /**
+     * Returns the live temperature array, for bulk filling of the grid.
+     *
+     * @return The temperature at each grid point, in degrees Kelvin
+     * @throws UnsupportedOperationException
+     *             If this field was loaded from a file
+     */
+    public double[] getTemperatureK() {
+        return getValues( _temperatureK );
+    }
+
+    /**
+     * Returns the live relative humidity array, for bulk filling of the grid.
+     *
+     * @return The relative humidity at each grid point, in percent
+     * @throws UnsupportedOperationException
+     *             If this field was loaded from a file
+     */
+    public double[] getHumidityRelative() {
+        return getValues( _humidityRelative );
+    }
+
+    /**
+     * Returns the live pressure array, for bulk filling of the grid.
+     *
+     * @return The pressure at each grid point, in pascals
+     * @throws UnsupportedOperationException
+     *             If this field was loaded from a file
+     */
+    public double[] getPressurePa() {
+        return getValues( _pressurePa );
+    }
+
+    /**
+     * Returns whether this field reads its values from a memory-mapped file,
+     * in which case it is read-only.
+     *
+     * @return {@code true} if this field was loaded from a file
+     */
+    public boolean isMapped() {
+        return _temperatureArray == null;
+    }
+
+    public double getOriginX() {
+        return _originX;
+    }
+
+    public double getOriginY() {
+        return _originY;
+    }
+
+    public double getOriginZ() {
+        return _originZ;
+    }
+
+    public double getSpacingX() {
+        return _spacingX;
+    }
+
+    public double getSpacingY() {
+        return _spacingY;
+    }
+
+    public double getSpacingZ() {
+        return _spacingZ;
+    }
+
+    public int getPointsX() {
+        return _pointsX;
+    }
+
+    public int getPointsY() {
+        return _pointsY;
+    }
+
+    public int getPointsZ() {
+        return _pointsZ;
+    }
+
+    public int getNumberOfPoints() {
+        return _pointsX * _pointsY * _pointsZ;
+    }
+
+    /**
+     * Samples the field at a position, writing the temperature, relative
+     * humidity and pressure into consecutive elements of an array.
+     *
+     * @param x
+     *            The x coordinate, in meters
+     * @param y
+     *            The y coordinate, in meters
+     * @param z
+     *            The z coordinate, in meters
+     * @param values
+     *            The array to write the three values into
+     * @param offset
+     *            The index in the array of the temperature
+     */
+    public void sample( final double x,
+                        final double y,
+                        final double z,
+                        final double[] values,
+                        final int offset ) {
+        // Find the grid cell and the fractional position within it, along
+        // each axis, clamping to the grid boundary.
+        final double positionX = getGridPosition( x, _originX, _spacingX, _pointsX );
+        final double positionY = getGridPosition( y, _originY, _spacingY, _pointsY );
+        final double positionZ = getGridPosition( z, _originZ, _spacingZ, _pointsZ );
+        final int x0 = Math.min( ( int ) positionX, Math.max( _pointsX - 2, 0 ) );
+        final int y0 = Math.min( ( int ) positionY, Math.max( _pointsY - 2, 0 ) );
+        final int z0 = Math.min( ( int ) positionZ, Math.max( _pointsZ - 2, 0 ) );
+        final double fx = positionX - x0;
+        final double fy = positionY - y0;
+        final double fz = positionZ - z0;
+
+        // Collapse any single point axis onto its one layer.
+        final int stepX = ( _pointsX > 1 ) ? 1 : 0;
+        final int stepY = ( _pointsY > 1 ) ? _pointsX : 0;
+        final int stepZ = ( _pointsZ > 1 ) ? _pointsX * _pointsY : 0;
+
+        // NOTE: Only the first point of each of the four x-rows of the cell is
+        //  needed, as the other is always one x step further along.
+        final int i000 = getIndex( x0, y0, z0 );
+        final int i010 = i000 + stepY;
+        final int i001 = i000 + stepZ;
+        final int i011 = i001 + stepY;
+
+        // NOTE: In-memory fields read their arrays directly, so that the
+        //  common case never goes through a virtual call, whether or not
+        //  mapped fields are in use elsewhere.
+        if ( _temperatureArray != null ) {
+            sampleArrays( i000, i010, i001, i011, stepX, fx, fy, fz, values, offset );
+        }
+        else {
+            sampleColumns( i000, i010, i001, i011, stepX, fx, fy, fz, values, offset );
+        }
+    }
+
+    /**
+     * Samples the field at many positions, splitting large point sets into
+     * chunks that are sampled in parallel on the common fork/join pool.
+     *
+     * @param x
+     *            The x coordinates, in meters
+     * @param y
+     *            The y coordinates, in meters
+     * @param z
+     *            The z coordinates, in meters
+     * @param temperatureK
+     *            The array to write the temperatures into, in degrees Kelvin
+     * @param humidityRelative
+     *            The array to write the relative humidities into, in percent
+     * @param pressurePa
+     *            The array to write the pressures into, in pascals
+     */
+    public void sample( final double[] x,
+                        final double[] y,
+                        final double[] z,
+                        final double[] temperatureK,
+                        final double[] humidityRelative,
+                        final double[] pressurePa ) {
+        final int numberOfPoints = x.length;
+        final int numberOfChunks = ( ( numberOfPoints + CHUNK_SIZE_DEFAULT ) - 1 )
+                / CHUNK_SIZE_DEFAULT;
+
+        IntStream.range( 0, numberOfChunks ).parallel().forEach( chunk -> {
+            final double[] values = new double[ 3 ];
+            final int start = chunk * CHUNK_SIZE_DEFAULT;
+            final int end = Math.min( start + CHUNK_SIZE_DEFAULT, numberOfPoints );
+            for ( int i = start; i < end; i++ ) {
+                sample( x[ i ], y[ i ], z[ i ], values, 0 );
+                temperatureK[ i ] = values[ 0 ];
+                humidityRelative[ i ] = values[ 1 ];
+                pressurePa[ i ] = values[ 2 ];
+            }
+        } );
+    }
+
+    /**
+     * Samples the field at a position into an existing Natural Environment,
+     * leaving its Air Attenuation flag as is.
+     *
+     * @param x
+     *            The x coordinate, in meters
+     * @param y
+     *            The y coordinate, in meters
+     * @param z
+     *            The z coordinate, in meters
+     * @param naturalEnvironment
+     *            The Natural Environment to update
+     * @param values
+     *            A scratch array of at least three elements, so that this
+     *            method doesn't allocate
+     */
+    public void sample( final double x,
+                        final double y,
+                        final double z,
+                        final NaturalEnvironment naturalEnvironment,
+                        final double[] values ) {
+        sample( x, y, z, values, 0 );
+        naturalEnvironment.setNaturalEnvironment( values[ 0 ],
+                                                  values[ 1 ],
+                                                  values[ 2 ],
+                                                  naturalEnvironment.isAirAttenuationApplied() );
+    }
+
+    /**
+     * Makes a new Natural Environment from the field at a position.
+     *
+     * @param x
+     *            The x coordinate, in meters
+     * @param y
+     *            The y coordinate, in meters
+     * @param z
+     *            The z coordinate, in meters
+     * @return The Natural Environment at the position, with Air Attenuation
+     *         applied
+     */
+    public NaturalEnvironment getNaturalEnvironment( final double x,
+                                                     final double y,
+                                                     final double z ) {
+        final double[] values = new double[ 3 ];
+        sample( x, y, z, values, 0 );
+        return new NaturalEnvironment( values[ 0 ],
+                                       values[ 1 ],
+                                       values[ 2 ],
+                                       NaturalEnvironment.AIR_ATTENUATION_APPLIED_DEFAULT );
+    }
+
+    private static int getNumberOfPoints( final int pointsX,
+                                          final int pointsY,
+                                          final int pointsZ ) {
+        if ( ( pointsX < 1 ) || ( pointsY < 1 ) || ( pointsZ < 1 ) ) {
+            throw new IllegalArgumentException( "Field needs at least one point per axis" ); //$NON-NLS-1$
+        }
+        if ( ( ( long ) pointsX * pointsY * pointsZ ) > Integer.MAX_VALUE ) {
+            throw new IllegalArgumentException( "Field is too large for a single array" ); //$NON-NLS-1$
+        }
+
+        return pointsX * pointsY * pointsZ;
+    }
+
+    private static double[] getValues( final Column column ) {
+        final double[] values = getArray( column );
+        if ( values == null ) {
+            throw new UnsupportedOperationException( "Memory-mapped fields are read-only" ); //$NON-NLS-1$
+        }
+
+        return values;
+    }
+
+    private static double[] getArray( final Column column ) {
+        return ( column instanceof ArrayColumn ) ? ( ( ArrayColumn ) column )._values : null;
+    }
+
+    private static String getUnitName( final ByteBuffer buffer ) throws IOException {
+        final short unitNameLength = buffer.getShort();
+        if ( ( unitNameLength < 0 ) || ( unitNameLength > UNIT_NAME_LENGTH_MAXIMUM ) ) {
+            throw new IOException( "Unexpected unit name length " + unitNameLength ); //$NON-NLS-1$
+        }
+
+        final byte[] unitName = new byte[ unitNameLength ];
+        buffer.get( unitName );
+        return new String( unitName, StandardCharsets.US_ASCII );
+    }
+
+    private static void checkColumnSize( final long columnSize ) throws IOException {
+        if ( columnSize > Integer.MAX_VALUE ) {
+            throw new IOException( "Field is too large to map; each of its columns must be " //$NON-NLS-1$
+                    + "under 2 GiB, such as by storing it in single precision" ); //$NON-NLS-1$
+        }
+    }
+
+    private static int getPayloadOffset( final int headerSize ) {
+        return ( ( ( headerSize + PAYLOAD_ALIGNMENT ) - 1 ) / PAYLOAD_ALIGNMENT )
+                * PAYLOAD_ALIGNMENT;
+    }
+
+    private static Column makeMappedColumn( final FileChannel fileChannel,
+                                            final long offset,
+                                            final long columnSize,
+                                            final int valueBytes,
+                                            final ByteOrder byteOrder,
+                                            final double scale,
+                                            final double shift ) throws IOException {
+        final MappedByteBuffer columnBuffer = fileChannel
+                .map( FileChannel.MapMode.READ_ONLY, offset, columnSize );
+        columnBuffer.order( byteOrder );
+
+        return ( valueBytes == Float.BYTES )
+            ? new FloatBufferColumn( columnBuffer.asFloatBuffer(), scale, shift )
+            : new DoubleBufferColumn( columnBuffer.asDoubleBuffer(), scale, shift );
+    }
+
+    // Returns the clamped fractional grid position of a coordinate.
+    private static double getGridPosition( final double coordinate,
+                                           final double origin,
+                                           final double spacing,
+                                           final int points ) {
+        if ( points < 2 ) {
+            return 0d;
+        }
+
+        final double position = ( coordinate - origin ) / spacing;
+        return Math.max( 0d, Math.min( points - 1, position ) );
+    }
+
+    // Interpolates the three in-memory arrays over the cell whose x-rows
+    // start at the given indices.
+    private void sampleArrays( final int i000,
+                               final int i010,
+                               final int i001,
+                               final int i011,
+                               final int stepX,
+                               final double fx,
+                               final double fy,
+                               final double fz,
+                               final double[] values,
+                               final int offset ) {
+        values[ offset ] = interpolate( _temperatureArray,
+                                        i000,
+                                        i010,
+                                        i001,
+                                        i011,
+                                        stepX,
+                                        fx,
+                                        fy,
+                                        fz );
+        values[ offset + 1 ] = interpolate( _humidityArray,
+                                            i000,
+                                            i010,
+                                            i001,
+                                            i011,
+                                            stepX,
+                                            fx,
+                                            fy,
+                                            fz );
+        values[ offset + 2 ] = interpolate( _pressureArray,
+                                            i000,
+                                            i010,
+                                            i001,
+                                            i011,
+                                            stepX,
+                                            fx,
+                                            fy,
+                                            fz );
+    }
+
+    // Interpolates the three columns over the cell whose x-rows start at the
+    // given indices.
+    private void sampleColumns( final int i000,
+                                final int i010,
+                                final int i001,
+                                final int i011,
+                                final int stepX,
+                                final double fx,
+                                final double fy,
+                                final double fz,
+                                final double[] values,
+                                final int offset ) {
+        values[ offset ] = interpolate( _temperatureK,
+                                        i000,
+                                        i010,
+                                        i001,
+                                        i011,
+                                        stepX,
+                                        fx,
+                                        fy,
+                                        fz );
+        values[ offset + 1 ] = interpolate( _humidityRelative,
+                                            i000,
+                                            i010,
+                                            i001,
+                                            i011,
+                                            stepX,
+                                            fx,
+                                            fy,
+                                            fz );
+        values[ offset + 2 ] = interpolate( _pressurePa,
+                                            i000,
+                                            i010,
+                                            i001,
+                                            i011,
+                                            stepX,
+                                            fx,
+                                            fy,
+                                            fz );
+    }
+
+    private static double interpolate( final double[] values,
+                                       final int i000,
+                                       final int i010,
+                                       final int i001,
+                                       final int i011,
+                                       final int stepX,
+                                       final double fx,
+                                       final double fy,
+                                       final double fz ) {
+        return interpolate( values[ i000 ],
+                            values[ i000 + stepX ],
+                            values[ i010 ],
+                            values[ i010 + stepX ],
+                            values[ i001 ],
+                            values[ i001 + stepX ],
+                            values[ i011 ],
+                            values[ i011 + stepX ],
+                            fx,
+                            fy,
+                            fz );
+    }
+
+    private static double interpolate( final Column values,
+                                       final int i000,
+                                       final int i010,
+                                       final int i001,
+                                       final int i011,
+                                       final int stepX,
+                                       final double fx,
+                                       final double fy,
+                                       final double fz ) {
+        return interpolate( values.get( i000 ),
+                            values.get( i000 + stepX ),
+                            values.get( i010 ),
+                            values.get( i010 + stepX ),
+                            values.get( i001 ),
+                            values.get( i001 + stepX ),
+                            values.get( i011 ),
+                            values.get( i011 + stepX ),
+                            fx,
+                            fy,
+                            fz );
+    }
+
+    // Interpolates trilinearly between the values at the eight corners of a
+    // cell, first along x, then y, then z.
+    private static double interpolate( final double v000,
+                                       final double v100,
+                                       final double v010,
+                                       final double v110,
+                                       final double v001,
+                                       final double v101,
+                                       final double v011,
+                                       final double v111,
+                                       final double fx,
+                                       final double fy,
+                                       final double fz ) {
+        final double c00 = v000 + ( fx * ( v100 - v000 ) );
+        final double c10 = v010 + ( fx * ( v110 - v010 ) );
+        final double c01 = v001 + ( fx * ( v101 - v001 ) );
+        final double c11 = v011 + ( fx * ( v111 - v011 ) );
+        final double c0 = c00 + ( fy * ( c10 - c00 ) );
+        final double c1 = c01 + ( fy * ( c11 - c01 ) );
+        return c0 + ( fz * ( c1 - c0 ) );
+    }
+
+    /**
+     * This is one flat column of field values, read in canonical units.
+     * <p>
+     * Sampling only goes through this for mapped fields, as in-memory fields
+     * read their arrays directly; the buffer implementations therefore share
+     * the call sites, but the cost of the call is small next to a page read.
+     */
+    private abstract static class Column {
+        abstract double get( final int index );
+    }
+
+    private static final class ArrayColumn extends Column {
+        private final double[] _values;
+
+        ArrayColumn( final int numberOfPoints ) {
+            _values = new double[ numberOfPoints ];
+        }
+
+        @Override
+        double get( final int index ) {
+            return _values[ index ];
+        }
+    }
+
+    private static final class FloatBufferColumn extends Column {
+        private final FloatBuffer _values;
+        private final double      _scale;
+        private final double      _shift;
+
+        FloatBufferColumn( final FloatBuffer values, final double scale, final double shift ) {
+            _values = values;
+            _scale = scale;
+            _shift = shift;
+        }
+
+        @Override
+        double get( final int index ) {
+            return ( _values.get( index ) * _scale ) + _shift;
+        }
+    }
+
+    private static final class DoubleBufferColumn extends Column {
+        private final DoubleBuffer _values;
+        private final double       _scale;
+        private final double       _shift;
+
+        DoubleBufferColumn( final DoubleBuffer values, final double scale, final double shift ) {
+            _values = values;
+            _scale = scale;
+            _shift = shift;
+        }
+
+        @Override
+        double get( final int index ) {
+            return ( _values.get( index ) * _scale ) + _shift;
+        }
+    }
+}
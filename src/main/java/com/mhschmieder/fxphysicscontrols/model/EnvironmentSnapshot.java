@@ -0,0 +1,230 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxPhysics Library
+ *
+ * You should have received a copy of the MIT License along with the FxPhysics
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxphysics
+ */
+package com.mhschmieder.fxphysicscontrols.model;
+
+import com.mhschmieder.jphysics.AngleUnit;
+import com.mhschmieder.jphysics.DistanceUnit;
+import com.mhschmieder.jphysics.PressureUnit;
+import com.mhschmieder.jphysics.TemperatureUnit;
+import com.mhschmieder.jphysics.WeightUnit;
+
+import java.util.Objects;
+
+/**
+ * This is an immutable snapshot of a {@link NaturalEnvironment} and the
+ * {@link MeasurementUnits} it is displayed in, which can be handed to other
+ * threads, or other processes, without any of the JavaFX property machinery.
+ * <p>
+ * Snapshots carry a version number, which increases with every change, so
+ * that consumers can tell newer snapshots from older ones.
+ */
+public final class EnvironmentSnapshot {
+
+    // The Natural Environment fields, in canonical units.
+    private final double          _temperatureK;
+    private final double          _humidityRelative;
+    private final double          _pressurePa;
+    private final boolean         _airAttenuationApplied;
+
+    // The Measurement Units.
+    private final DistanceUnit    _distanceUnit;
+    private final AngleUnit       _angleUnit;
+    private final WeightUnit      _weightUnit;
+    private final TemperatureUnit _temperatureUnit;
+    private final PressureUnit    _pressureUnit;
+
+    // The version of the state that this is a snapshot of.
+    private final long            _version;
+
+    public EnvironmentSnapshot( final double temperatureK,
+                                final double humidityRelative,
+                                final double pressurePa,
+                                final boolean airAttenuationApplied,
+                                final DistanceUnit distanceUnit,
+                                final AngleUnit angleUnit,
+                                final WeightUnit weightUnit,
+                                final TemperatureUnit temperatureUnit,
+                                final PressureUnit pressureUnit,
+                                final long version ) {
+        _temperatureK = temperatureK;
+        _humidityRelative = humidityRelative;
+        _pressurePa = pressurePa;
+        _airAttenuationApplied = airAttenuationApplied;
+        _distanceUnit = distanceUnit;
+        _angleUnit = angleUnit;
+        _weightUnit = weightUnit;
+        _temperatureUnit = temperatureUnit;
+        _pressureUnit = pressureUnit;
+        _version = version;
+    }
+
+    /**
+     * Takes a snapshot of the current state. This must be called on the thread
+     * that owns the Natural Environment and Measurement Units, which is
+     * usually the JavaFX Application Thread.
+     *
+     * @param naturalEnvironment
+     *            The Natural Environment to take a snapshot of
+     * @param measurementUnits
+     *            The Measurement Units to take a snapshot of
+     * @param version
+     *            The version number of the state
+     * @return The snapshot
+     */
+    public static EnvironmentSnapshot of( final NaturalEnvironment naturalEnvironment,
+                                          final MeasurementUnits measurementUnits,
+                                          final long version ) {
+        return new EnvironmentSnapshot( naturalEnvironment.getTemperatureK(),
+                                        naturalEnvironment.getHumidityRelative(),
+                                        naturalEnvironment.getPressurePa(),
+                                        naturalEnvironment.isAirAttenuationApplied(),
+                                        measurementUnits.getDistanceUnit(),
+                                        measurementUnits.getAngleUnit(),
+                                        measurementUnits.getWeightUnit(),
+                                        measurementUnits.getTemperatureUnit(),
+                                        measurementUnits.getPressureUnit(),
+                                        version );
+    }
+
+    /**
+     * Makes a new, independent Natural Environment from this snapshot.
+     *
+     * @return A Natural Environment with the values of this snapshot
+     */
+    public NaturalEnvironment toNaturalEnvironment() {
+        return new NaturalEnvironment( _temperatureK,
+                                       _humidityRelative,
+                                       _pressurePa,
+                                       _airAttenuationApplied );
+    }
+
+    /**
+     * Makes new, independent Measurement Units from this snapshot.
+     *
+     * @return Measurement Units with the values of this snapshot
+     */
+    public MeasurementUnits toMeasurementUnits() {
+        return new MeasurementUnits( _distanceUnit,
+                                     _angleUnit,
+                                     _weightUnit,
+                                     _temperatureUnit,
+                                     _pressureUnit );
+    }
+
+    public double getTemperatureK() {
+        return _temperatureK;
+    }
+
+    public double getHumidityRelative() {
+        return _humidityRelative;
+    }
+
+    public double getPressurePa() {
+        return _pressurePa;
+    }
+
+    public boolean isAirAttenuationApplied() {
+        return _airAttenuationApplied;
+    }
+
+    public DistanceUnit getDistanceUnit() {
+        return _distanceUnit;
+    }
+
+    public AngleUnit getAngleUnit() {
+        return _angleUnit;
+    }
+
+    public WeightUnit getWeightUnit() {
+        return _weightUnit;
+    }
+
+    public TemperatureUnit getTemperatureUnit() {
+        return _temperatureUnit;
+    }
+
+    public PressureUnit getPressureUnit() {
+        return _pressureUnit;
+    }
+
+    public long getVersion() {
+        return _version;
+    }
+
+    @Override
+    public boolean equals( final Object other ) {
+        if ( this == other ) {
+            return true;
+        }
+        if ( ( other == null ) || ( getClass() != other.getClass() ) ) {
+            return false;
+        }
+        final EnvironmentSnapshot otherSnapshot = ( EnvironmentSnapshot ) other;
+        return ( Double.compare( _temperatureK, otherSnapshot._temperatureK ) == 0 )
+                && ( Double.compare( _humidityRelative, otherSnapshot._humidityRelative ) == 0 )
+                && ( Double.compare( _pressurePa, otherSnapshot._pressurePa ) == 0 )
+                && ( _airAttenuationApplied == otherSnapshot._airAttenuationApplied )
+                && ( _distanceUnit == otherSnapshot._distanceUnit )
+                && ( _angleUnit == otherSnapshot._angleUnit )
+                && ( _weightUnit == otherSnapshot._weightUnit )
+                && ( _temperatureUnit == otherSnapshot._temperatureUnit )
+                && ( _pressureUnit == otherSnapshot._pressureUnit )
+                && ( _version == otherSnapshot._version );
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash( _temperatureK,
+                             _humidityRelative,
+                             _pressurePa,
+                             _airAttenuationApplied,
+                             _distanceUnit,
+                             _angleUnit,
+                             _weightUnit,
+                             _temperatureUnit,
+                             _pressureUnit,
+                             _version );
+    }
+
+    @Override
+    public String toString() {
+        return "EnvironmentSnapshot [temperatureK=" + _temperatureK //$NON-NLS-1$
+                + ", humidityRelative=" + _humidityRelative //$NON-NLS-1$
+                + ", pressurePa=" + _pressurePa //$NON-NLS-1$
+                + ", airAttenuationApplied=" + _airAttenuationApplied //$NON-NLS-1$
+                + ", distanceUnit=" + _distanceUnit //$NON-NLS-1$
+                + ", angleUnit=" + _angleUnit //$NON-NLS-1$
+                + ", weightUnit=" + _weightUnit //$NON-NLS-1$
+                + ", temperatureUnit=" + _temperatureUnit //$NON-NLS-1$
+                + ", pressureUnit=" + _pressureUnit //$NON-NLS-1$
+                + ", version=" + _version + "]"; //$NON-NLS-1$ //$NON-NLS-2$
+    }
+}
@@ -0,0 +1,660 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxPhysics Library
+ *
+ * You should have received a copy of the MIT License along with the FxPhysics
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxphysics
+ */
+package com.mhschmieder.fxphysicscontrols.model;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+
+/**
+ * This is an append-only log of Natural Environment readings, such as from a
+ * weather station, stored column by column in primitive storage rather than
+ * as one object (with four properties) per reading.
+ * <p>
+ * Each reading is a timestamp in milliseconds since the epoch, plus the
+ * temperature, relative humidity and pressure in canonical units. Timestamps
+ * must never decrease, so that time range queries are binary searches.
+ * Columns grow by doubling, either on the Java heap or, for logs that span
+ * weeks, off-heap in direct buffers so that they don't burden the garbage
+ * collector.
+ * <p>
+ * All methods are synchronized, so one thread may append while others query.
+ * Stored readings are never overwritten, so visitors and Natural Environment
+ * updates run after the lock is released, and may take their time without
+ * holding up appends. The Natural Environment accessors must be called on the
+ * JavaFX Application Thread if the target is bound to the GUI.
+ */
+public final class EnvironmentTimeSeries {
+
+    /**
+     * This is a callback for visiting readings without allocating objects.
+     */
+    @FunctionalInterface
+    public interface ReadingVisitor {
+
+        /**
+         * Visits one reading.
+         *
+         * @param timestampMillis
+         *            The time of the reading, in milliseconds since the epoch
+         * @param temperatureK
+         *            The temperature, in degrees Kelvin
+         * @param humidityRelative
+         *            The relative humidity, in percent
+         * @param pressurePa
+         *            The pressure, in pascals
+         */
+        void visit( final long timestampMillis,
+                    final double temperatureK,
+                    final double humidityRelative,
+                    final double pressurePa );
+    }
+
+    // Declare the initial number of readings that the columns can hold.
+    public static final int INITIAL_CAPACITY_DEFAULT = 1024;
+
+    // The largest capacity, limited by the byte size of a direct buffer.
+    private static final int MAXIMUM_CAPACITY        = Integer.MAX_VALUE / Long.BYTES;
+
+    // The columns of readings.
+    private Columns          _columns;
+
+    // The number of readings appended so far.
+    private int              _size;
+
+    /**
+     * Makes an empty log on the Java heap.
+     */
+    public EnvironmentTimeSeries() {
+        this( INITIAL_CAPACITY_DEFAULT, false );
+    }
+
+    /**
+     * Makes an empty log.
+     *
+     * @param initialCapacity
+     *            The number of readings to allocate room for up front
+     * @param offHeap
+     *            {@code true} if the columns should be stored in direct buffers
+     *            outside of the Java heap
+     */
+    public EnvironmentTimeSeries( final int initialCapacity, final boolean offHeap ) {
+        if ( ( initialCapacity < 1 ) || ( initialCapacity > MAXIMUM_CAPACITY ) ) {
+            throw new IllegalArgumentException( "Unexpected initial capacity " + initialCapacity ); //$NON-NLS-1$
+        }
+
+        _columns = offHeap
+            ? new DirectColumns( initialCapacity )
+            : new HeapColumns( initialCapacity );
+        _size = 0;
+    }
+
+    /**
+     * Appends one reading.
+     *
+     * @param timestampMillis
+     *            The time of the reading, in milliseconds since the epoch
+     * @param temperatureK
+     *            The temperature, in degrees Kelvin
+     * @param humidityRelative
+     *            The relative humidity, in percent
+     * @param pressurePa
+     *            The pressure, in pascals
+     * @throws IllegalArgumentException
+     *             If the timestamp is earlier than the last reading
+     */
+    public synchronized void append( final long timestampMillis,
+                                     final double temperatureK,
+                                     final double humidityRelative,
+                                     final double pressurePa ) {
+        if ( ( _size > 0 ) && ( timestampMillis < _columns.getTimestamp( _size - 1 ) ) ) {
+            throw new IllegalArgumentException( "Reading is out of order: " + timestampMillis ); //$NON-NLS-1$
+        }
+
+        ensureCapacity( _size + 1 );
+        _columns.set( _size, timestampMillis, temperatureK, humidityRelative, pressurePa );
+        _size++;
+    }
+
+    /**
+     * Appends a block of readings, such as from a file import, with a single
+     * capacity check and lock acquisition.
+     *
+     * @param timestampsMillis
+     *            The times of the readings, in milliseconds since the epoch
+     * @param temperatureK
+     *            The temperatures, in degrees Kelvin
+     * @param humidityRelative
+     *            The relative humidities, in percent
+     * @param pressurePa
+     *            The pressures, in pascals
+     * @param offset
+     *            The index in the arrays of the first reading to append
+     * @param length
+     *            The number of readings to append
+     * @throws IllegalArgumentException
+     *             If the timestamps are out of order, in which case none of
+     *             the block is appended
+     */
+    public synchronized void append( final long[] timestampsMillis,
+                                     final double[] temperatureK,
+                                     final double[] humidityRelative,
+                                     final double[] pressurePa,
+                                     final int offset,
+                                     final int length ) {
+        long previousTimestampMillis = ( _size > 0 )
+            ? _columns.getTimestamp( _size - 1 )
+            : Long.MIN_VALUE;
+        for ( int i = offset; i < ( offset + length ); i++ ) {
+            if ( timestampsMillis[ i ] < previousTimestampMillis ) {
+                throw new IllegalArgumentException( "Reading is out of order: " //$NON-NLS-1$
+                        + timestampsMillis[ i ] );
+            }
+            previousTimestampMillis = timestampsMillis[ i ];
+        }
+
+        ensureCapacity( _size + length );
+        for ( int i = 0; i < length; i++ ) {
+            _columns.set( _size + i,
+                          timestampsMillis[ offset + i ],
+                          temperatureK[ offset + i ],
+                          humidityRelative[ offset + i ],
+                          pressurePa[ offset + i ] );
+        }
+        _size += length;
+    }
+
+    /**
+     * Removes all readings, allocating new columns of the same capacity so
+     * that visitors of the old readings aren't disturbed.
+     */
+    public synchronized void clear() {
+        final int capacity = _columns.getCapacity();
+        _columns = ( _columns instanceof DirectColumns )
+            ? new DirectColumns( capacity )
+            : new HeapColumns( capacity );
+        _size = 0;
+    }
+
+    public synchronized int getSize() {
+        return _size;
+    }
+
+    public synchronized boolean isEmpty() {
+        return _size == 0;
+    }
+
+    public synchronized boolean isOffHeap() {
+        return _columns instanceof DirectColumns;
+    }
+
+    public synchronized long getTimestampMillis( final int index ) {
+        checkIndex( index );
+        return _columns.getTimestamp( index );
+    }
+
+    public synchronized double getTemperatureK( final int index ) {
+        checkIndex( index );
+        return _columns.getTemperatureK( index );
+    }
+
+    public synchronized double getHumidityRelative( final int index ) {
+        checkIndex( index );
+        return _columns.getHumidityRelative( index );
+    }
+
+    public synchronized double getPressurePa( final int index ) {
+        checkIndex( index );
+        return _columns.getPressurePa( index );
+    }
+
+    /**
+     * Returns the index of the first reading at or after a time.
+     *
+     * @param timestampMillis
+     *            The time to search for, in milliseconds since the epoch
+     * @return The index of the first reading at or after the time, or the
+     *         size of the log if every reading is earlier
+     */
+    public synchronized int getFirstIndexAtOrAfter( final long timestampMillis ) {
+        int low = 0;
+        int high = _size;
+        while ( low < high ) {
+            final int middle = ( low + high ) >>> 1;
+            if ( _columns.getTimestamp( middle ) < timestampMillis ) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * Returns the index of the last reading at or before a time.
+     *
+     * @param timestampMillis
+     *            The time to search for, in milliseconds since the epoch
+     * @return The index of the last reading at or before the time, or -1 if
+     *         every reading is later
+     */
+    public synchronized int getLastIndexAtOrBefore( final long timestampMillis ) {
+        return ( timestampMillis == Long.MAX_VALUE )
+            ? _size - 1
+            : getFirstIndexAtOrAfter( timestampMillis + 1L ) - 1;
+    }
+
+    /**
+     * Visits every reading in a time range, in order.
+     *
+     * @param fromMillis
+     *            The start of the range, inclusive
+     * @param toMillis
+     *            The end of the range, exclusive
+     * @param visitor
+     *            The callback for each reading
+     * @return The number of readings visited
+     */
+    public int forEach( final long fromMillis,
+                        final long toMillis,
+                        final ReadingVisitor visitor ) {
+        final Columns columns;
+        final int start;
+        final int end;
+        synchronized ( this ) {
+            columns = _columns;
+            start = getFirstIndexAtOrAfter( fromMillis );
+            end = getFirstIndexAtOrAfter( toMillis );
+        }
+
+        // NOTE: The readings in range are never overwritten, as appends only
+        //  write past them and growing or clearing switches to new columns,
+        //  so they can be visited without the lock.
+        for ( int i = start; i < end; i++ ) {
+            visitor.visit( columns.getTimestamp( i ),
+                           columns.getTemperatureK( i ),
+                           columns.getHumidityRelative( i ),
+                           columns.getPressurePa( i ) );
+        }
+
+        return Math.max( end - start, 0 );
+    }
+
+    /**
+     * Copies the readings in a time range into caller-owned arrays, up to
+     * their remaining length.
+     *
+     * @param fromMillis
+     *            The start of the range, inclusive
+     * @param toMillis
+     *            The end of the range, exclusive
+     * @param timestampsMillis
+     *            The array to copy the timestamps into
+     * @param temperatureK
+     *            The array to copy the temperatures into, in degrees Kelvin
+     * @param humidityRelative
+     *            The array to copy the relative humidities into, in percent
+     * @param pressurePa
+     *            The array to copy the pressures into, in pascals
+     * @param offset
+     *            The index in the arrays to copy the first reading to
+     * @return The number of readings copied
+     */
+    public synchronized int copyRange( final long fromMillis,
+                                       final long toMillis,
+                                       final long[] timestampsMillis,
+                                       final double[] temperatureK,
+                                       final double[] humidityRelative,
+                                       final double[] pressurePa,
+                                       final int offset ) {
+        final int start = getFirstIndexAtOrAfter( fromMillis );
+        final int end = Math.min( getFirstIndexAtOrAfter( toMillis ),
+                                  start + ( timestampsMillis.length - offset ) );
+        final int length = Math.max( end - start, 0 );
+        _columns.copy( start,
+                       length,
+                       timestampsMillis,
+                       temperatureK,
+                       humidityRelative,
+                       pressurePa,
+                       offset );
+
+        return length;
+    }
+
+    /**
+     * Applies the most recent reading to a Natural Environment, leaving its
+     * Air Attenuation flag as is.
+     *
+     * @param naturalEnvironment
+     *            The Natural Environment to update
+     * @return {@code true} if there was a reading to apply
+     */
+    public boolean applyLatest( final NaturalEnvironment naturalEnvironment ) {
+        final Columns columns;
+        final int index;
+        synchronized ( this ) {
+            columns = _columns;
+            index = _size - 1;
+        }
+
+        return applyReading( columns, index, naturalEnvironment );
+    }
+
+    /**
+     * Applies the reading that was current at a given time, which is the last
+     * one at or before it, to a Natural Environment, leaving its Air
+     * Attenuation flag as is.
+     *
+     * @param timestampMillis
+     *            The time, in milliseconds since the epoch
+     * @param naturalEnvironment
+     *            The Natural Environment to update
+     * @return {@code true} if there was a reading to apply
+     */
+    public boolean applyAt( final long timestampMillis,
+                            final NaturalEnvironment naturalEnvironment ) {
+        final Columns columns;
+        final int index;
+        synchronized ( this ) {
+            columns = _columns;
+            index = getLastIndexAtOrBefore( timestampMillis );
+        }
+
+        return applyReading( columns, index, naturalEnvironment );
+    }
+
+    // Applies a reading after the lock is released, so that the Natural
+    // Environment's listeners never run while holding it.
+    private static boolean applyReading( final Columns columns,
+                                         final int index,
+                                         final NaturalEnvironment naturalEnvironment ) {
+        if ( index < 0 ) {
+            return false;
+        }
+
+        naturalEnvironment.setNaturalEnvironment( columns.getTemperatureK( index ),
+                                                  columns.getHumidityRelative( index ),
+                                                  columns.getPressurePa( index ),
+                                                  naturalEnvironment.isAirAttenuationApplied() );
+        return true;
+    }
+
+    private void checkIndex( final int index ) {
+        if ( ( index < 0 ) || ( index >= _size ) ) {
+            throw new IndexOutOfBoundsException( "Index " + index + ", size " + _size ); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+    }
+
+    private void ensureCapacity( final int minimumCapacity ) {
+        if ( ( minimumCapacity < 0 ) || ( minimumCapacity > MAXIMUM_CAPACITY ) ) {
+            throw new IllegalStateException( "Environment log is full" ); //$NON-NLS-1$
+        }
+
+        final int capacity = _columns.getCapacity();
+        if ( minimumCapacity > capacity ) {
+            final int newCapacity = ( int ) Math
+                    .min( Math.max( 2L * capacity, minimumCapacity ), MAXIMUM_CAPACITY );
+            _columns = _columns.grow( newCapacity, _size );
+        }
+    }
+
+    /**
+     * This is the storage for the four columns of readings.
+     */
+    private abstract static class Columns {
+        abstract int getCapacity();
+
+        abstract Columns grow( final int newCapacity, final int size );
+
+        abstract void set( final int index,
+                           final long timestampMillis,
+                           final double temperatureK,
+                           final double humidityRelative,
+                           final double pressurePa );
+
+        abstract long getTimestamp( final int index );
+
+        abstract double getTemperatureK( final int index );
+
+        abstract double getHumidityRelative( final int index );
+
+        abstract double getPressurePa( final int index );
+
+        abstract void copy( final int start,
+                            final int length,
+                            final long[] timestampsMillis,
+                            final double[] temperatureK,
+                            final double[] humidityRelative,
+                            final double[] pressurePa,
+                            final int offset );
+    }
+
+    private static final class HeapColumns extends Columns {
+        private final long[]   _timestampsMillis;
+        private final double[] _temperatureK;
+        private final double[] _humidityRelative;
+        private final double[] _pressurePa;
+
+        HeapColumns( final int capacity ) {
+            _timestampsMillis = new long[ capacity ];
+            _temperatureK = new double[ capacity ];
+            _humidityRelative = new double[ capacity ];
+            _pressurePa = new double[ capacity ];
+        }
+
+        private HeapColumns( final HeapColumns columns, final int newCapacity ) {
+            _timestampsMillis = Arrays.copyOf( columns._timestampsMillis, newCapacity );
+            _temperatureK = Arrays.copyOf( columns._temperatureK, newCapacity );
+            _humidityRelative = Arrays.copyOf( columns._humidityRelative, newCapacity );
+            _pressurePa = Arrays.copyOf( columns._pressurePa, newCapacity );
+        }
+
+        @Override
+        int getCapacity() {
+            return _timestampsMillis.length;
+        }
+
+        @Override
+        Columns grow( final int newCapacity, final int size ) {
+            return new HeapColumns( this, newCapacity );
+        }
+
+        @Override
+        void set( final int index,
+                  final long timestampMillis,
+                  final double temperatureK,
+                  final double humidityRelative,
+                  final double pressurePa ) {
+            _timestampsMillis[ index ] = timestampMillis;
+            _temperatureK[ index ] = temperatureK;
+            _humidityRelative[ index ] = humidityRelative;
+            _pressurePa[ index ] = pressurePa;
+        }
+
+        @Override
+        long getTimestamp( final int index ) {
+            return _timestampsMillis[ index ];
+        }
+
+        @Override
+        double getTemperatureK( final int index ) {
+            return _temperatureK[ index ];
+        }
+
+        @Override
+        double getHumidityRelative( final int index ) {
+            return _humidityRelative[ index ];
+        }
+
+        @Override
+        double getPressurePa( final int index ) {
+            return _pressurePa[ index ];
+        }
+
+        @Override
+        void copy( final int start,
+                   final int length,
+                   final long[] timestampsMillis,
+                   final double[] temperatureK,
+                   final double[] humidityRelative,
+                   final double[] pressurePa,
+                   final int offset ) {
+            System.arraycopy( _timestampsMillis, start, timestampsMillis, offset, length );
+            System.arraycopy( _temperatureK, start, temperatureK, offset, length );
+            System.arraycopy( _humidityRelative, start, humidityRelative, offset, length );
+            System.arraycopy( _pressurePa, start, pressurePa, offset, length );
+        }
+    }
+
+    private static final class DirectColumns extends Columns {
+        private final LongBuffer   _timestampsMillis;
+        private final DoubleBuffer _temperatureK;
+        private final DoubleBuffer _humidityRelative;
+        private final DoubleBuffer _pressurePa;
+
+        DirectColumns( final int capacity ) {
+            _timestampsMillis = allocate( capacity ).asLongBuffer();
+            _temperatureK = allocate( capacity ).asDoubleBuffer();
+            _humidityRelative = allocate( capacity ).asDoubleBuffer();
+            _pressurePa = allocate( capacity ).asDoubleBuffer();
+        }
+
+        // NOTE: Native byte order avoids swapping bytes on every access.
+        private static ByteBuffer allocate( final int capacity ) {
+            return ByteBuffer.allocateDirect( capacity * Long.BYTES )
+                    .order( ByteOrder.nativeOrder() );
+        }
+
+        @Override
+        int getCapacity() {
+            return _timestampsMillis.capacity();
+        }
+
+        @Override
+        Columns grow( final int newCapacity, final int size ) {
+            // NOTE: The bulk transfers go through duplicates, as they move the
+            //  buffer positions, and the old buffers are freed by the garbage
+            //  collector once they are no longer referenced.
+            final DirectColumns columns = new DirectColumns( newCapacity );
+            columns._timestampsMillis.put( getPrefix( _timestampsMillis, size ) );
+            columns._temperatureK.put( getPrefix( _temperatureK, size ) );
+            columns._humidityRelative.put( getPrefix( _humidityRelative, size ) );
+            columns._pressurePa.put( getPrefix( _pressurePa, size ) );
+            columns._timestampsMillis.clear();
+            columns._temperatureK.clear();
+            columns._humidityRelative.clear();
+            columns._pressurePa.clear();
+
+            return columns;
+        }
+
+        private static LongBuffer getPrefix( final LongBuffer buffer, final int size ) {
+            final LongBuffer prefix = buffer.duplicate();
+            prefix.clear();
+            prefix.limit( size );
+            return prefix;
+        }
+
+        private static DoubleBuffer getPrefix( final DoubleBuffer buffer, final int size ) {
+            final DoubleBuffer prefix = buffer.duplicate();
+            prefix.clear();
+            prefix.limit( size );
+            return prefix;
+        }
+
+        @Override
+        void set( final int index,
+                  final long timestampMillis,
+                  final double temperatureK,
+                  final double humidityRelative,
+                  final double pressurePa ) {
+            _timestampsMillis.put( index, timestampMillis );
+            _temperatureK.put( index, temperatureK );
+            _humidityRelative.put( index, humidityRelative );
+            _pressurePa.put( index, pressurePa );
+        }
+
+        @Override
+        long getTimestamp( final int index ) {
+            return _timestampsMillis.get( index );
+        }
+
+        @Override
+        double getTemperatureK( final int index ) {
+            return _temperatureK.get( index );
+        }
+
+        @Override
+        double getHumidityRelative( final int index ) {
+            return _humidityRelative.get( index );
+        }
+
+        @Override
+        double getPressurePa( final int index ) {
+            return _pressurePa.get( index );
+        }
+
+        @Override
+        void copy( final int start,
+                   final int length,
+                   final long[] timestampsMillis,
+                   final double[] temperatureK,
+                   final double[] humidityRelative,
+                   final double[] pressurePa,
+                   final int offset ) {
+            getRange( _timestampsMillis, start, length ).get( timestampsMillis, offset, length );
+            getRange( _temperatureK, start, length ).get( temperatureK, offset, length );
+            getRange( _humidityRelative, start, length ).get( humidityRelative, offset, length );
+            getRange( _pressurePa, start, length ).get( pressurePa, offset, length );
+        }
+
+        private static LongBuffer getRange( final LongBuffer buffer,
+                                            final int start,
+                                            final int length ) {
+            final LongBuffer range = getPrefix( buffer, start + length );
+            range.position( start );
+            return range;
+        }
+
+        private static DoubleBuffer getRange( final DoubleBuffer buffer,
+                                              final int start,
+                                              final int length ) {
+            final DoubleBuffer range = getPrefix( buffer, start + length );
+            range.position( start );
+            return range;
+        }
+    }
+}
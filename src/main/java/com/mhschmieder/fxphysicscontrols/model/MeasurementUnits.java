@@ -30,6 +30,7 @@
  */
 package com.mhschmieder.fxphysicscontrols.model;
 
+import com.mhschmieder.fxgraphics.beans.BeanFactory;
 import com.mhschmieder.jphysics.AngleUnit;
 import com.mhschmieder.jphysics.DistanceUnit;
 import com.mhschmieder.jphysics.PressureUnit;
@@ -74,6 +75,7 @@ public final class MeasurementUnits {
     private BooleanBinding                          weightUnitChanged;
     private BooleanBinding                          temperatureUnitChanged;
     private BooleanBinding                          pressureUnitChanged;
+    private BooleanBinding                          measurementUnitsChanged;
 
     /**
      * This is the default constructor; it sets all instance variables to
@@ -218,6 +220,14 @@ public final class MeasurementUnits {
                 return true;
             }
         };
+
+        // Also establish a combined dirty flag for clients that depend on
+        // all of the units, so that they only need the one listener.
+        measurementUnitsChanged = BeanFactory.makeBooleanBinding( distanceUnitProperty(),
+                                                                  angleUnitProperty(),
+                                                                  weightUnitProperty(),
+                                                                  temperatureUnitProperty(),
+                                                                  pressureUnitProperty() );
     }
 
     // NOTE: Cloning is disabled as it is dangerous; use the copy constructor
@@ -454,4 +464,18 @@ public final class MeasurementUnits {
     public boolean isPressureUnitChanged() {
         return pressureUnitChanged.get();
     }
+
+    /**
+     * Returns the dirty flag that is invalidated whenever any of the units
+     * changes. Like the other dirty flags, it has to be queried to re-arm it.
+     *
+     * @return The dirty flag for all of the Measurement Units
+     */
+    public BooleanBinding measurementUnitsChangedProperty() {
+        return measurementUnitsChanged;
+    }
+
+    public boolean isMeasurementUnitsChanged() {
+        return measurementUnitsChanged.get();
+    }
 }
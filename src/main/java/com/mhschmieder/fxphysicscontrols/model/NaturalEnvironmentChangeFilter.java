@@ -0,0 +1,197 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxPhysics Library
+ *
+ * You should have received a copy of the MIT License along with the FxPhysics
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxphysics
+ */
+package com.mhschmieder.fxphysicscontrols.model;
+
+import javafx.beans.InvalidationListener;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+
+/**
+ * This filter sits between a {@link NaturalEnvironment} and one of its
+ * consumers, and only reports changes that move a field beyond the tolerance
+ * that the consumer cares about. Each consumer makes its own filter, so that
+ * cheap consumers (such as text displays) can still track every change while
+ * expensive ones only recompute when their results would actually change.
+ * <p>
+ * Changes are measured against the environment as of the last significant
+ * change, so that a slow drift made up of many small nudges is still caught
+ * once it adds up. Toggling Air Attenuation is always significant.
+ * <p>
+ * The significant change count increments by one on each significant change.
+ * Like the environment's own dirty flag, it is invalidation-based, so
+ * listeners should query it in order to re-arm it for next time.
+ */
+public final class NaturalEnvironmentChangeFilter {
+
+    // Declare the default tolerances, which are below the level at which
+    // acoustic results change audibly.
+    public static final double           TEMPERATURE_TOLERANCE_K_DEFAULT     = 0.05d;
+    public static final double           HUMIDITY_TOLERANCE_RELATIVE_DEFAULT = 0.5d;
+    public static final double           PRESSURE_TOLERANCE_PA_DEFAULT       = 10d;
+
+    // The live environment being filtered.
+    private final NaturalEnvironment     _naturalEnvironment;
+
+    // The per-field tolerances, in canonical units.
+    private double                       _temperatureToleranceK;
+    private double                       _humidityToleranceRelative;
+    private double                       _pressureTolerancePa;
+
+    // The environment as of the last significant change.
+    private final NaturalEnvironment     _baselineEnvironment;
+
+    // Count of significant changes, which doubles as the observable.
+    private final ReadOnlyIntegerWrapper _significantChangeCount;
+
+    // The listener that measures each change against the last significant
+    // environment.
+    private final InvalidationListener   _environmentChangedListener;
+
+    public NaturalEnvironmentChangeFilter( final NaturalEnvironment naturalEnvironment ) {
+        this( naturalEnvironment,
+              TEMPERATURE_TOLERANCE_K_DEFAULT,
+              HUMIDITY_TOLERANCE_RELATIVE_DEFAULT,
+              PRESSURE_TOLERANCE_PA_DEFAULT );
+    }
+
+    /**
+     * Makes a filter with custom tolerances.
+     *
+     * @param naturalEnvironment
+     *            The Natural Environment to filter changes of
+     * @param temperatureToleranceK
+     *            The smallest significant temperature change, in degrees
+     *            Kelvin
+     * @param humidityToleranceRelative
+     *            The smallest significant relative humidity change, in
+     *            percent
+     * @param pressureTolerancePa
+     *            The smallest significant pressure change, in pascals
+     */
+    public NaturalEnvironmentChangeFilter( final NaturalEnvironment naturalEnvironment,
+                                           final double temperatureToleranceK,
+                                           final double humidityToleranceRelative,
+                                           final double pressureTolerancePa ) {
+        _naturalEnvironment = naturalEnvironment;
+        _temperatureToleranceK = temperatureToleranceK;
+        _humidityToleranceRelative = humidityToleranceRelative;
+        _pressureTolerancePa = pressureTolerancePa;
+
+        _baselineEnvironment = new NaturalEnvironment( naturalEnvironment );
+        _significantChangeCount = new ReadOnlyIntegerWrapper( 0 );
+
+        _environmentChangedListener = observable -> {
+            _naturalEnvironment.isNaturalEnvironmentChanged();
+            environmentChanged();
+        };
+        _naturalEnvironment.naturalEnvironmentChangedProperty()
+                .addListener( _environmentChangedListener );
+    }
+
+    /**
+     * Detaches this filter from the environment.
+     */
+    public void dispose() {
+        _naturalEnvironment.naturalEnvironmentChangedProperty()
+                .removeListener( _environmentChangedListener );
+    }
+
+    /**
+     * Takes the current environment as the new baseline without reporting a
+     * change, such as after a consumer has recomputed for other reasons.
+     */
+    public void resynchronize() {
+        _baselineEnvironment.setNaturalEnvironment( _naturalEnvironment );
+    }
+
+    public ReadOnlyIntegerProperty significantChangeCountProperty() {
+        return _significantChangeCount.getReadOnlyProperty();
+    }
+
+    public int getSignificantChangeCount() {
+        return _significantChangeCount.get();
+    }
+
+    public NaturalEnvironment getNaturalEnvironment() {
+        return _naturalEnvironment;
+    }
+
+    public double getTemperatureToleranceK() {
+        return _temperatureToleranceK;
+    }
+
+    public void setTemperatureToleranceK( final double temperatureToleranceK ) {
+        _temperatureToleranceK = temperatureToleranceK;
+    }
+
+    public double getHumidityToleranceRelative() {
+        return _humidityToleranceRelative;
+    }
+
+    public void setHumidityToleranceRelative( final double humidityToleranceRelative ) {
+        _humidityToleranceRelative = humidityToleranceRelative;
+    }
+
+    public double getPressureTolerancePa() {
+        return _pressureTolerancePa;
+    }
+
+    public void setPressureTolerancePa( final double pressureTolerancePa ) {
+        _pressureTolerancePa = pressureTolerancePa;
+    }
+
+    /**
+     * Returns whether the current environment differs significantly from the
+     * baseline, in at least one field.
+     *
+     * @return {@code true} if the change since the baseline is significant
+     */
+    public boolean isSignificantlyChanged() {
+        return ( _naturalEnvironment.isAirAttenuationApplied() != _baselineEnvironment
+                .isAirAttenuationApplied() )
+                || ( Math.abs( _naturalEnvironment.getTemperatureK()
+                        - _baselineEnvironment.getTemperatureK() ) >= _temperatureToleranceK )
+                || ( Math.abs( _naturalEnvironment.getHumidityRelative()
+                        - _baselineEnvironment
+                                .getHumidityRelative() ) >= _humidityToleranceRelative )
+                || ( Math.abs( _naturalEnvironment.getPressurePa()
+                        - _baselineEnvironment.getPressurePa() ) >= _pressureTolerancePa );
+    }
+
+    private void environmentChanged() {
+        if ( !isSignificantlyChanged() ) {
+            return;
+        }
+
+        resynchronize();
+        _significantChangeCount.set( _significantChangeCount.get() + 1 );
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxPhysics Library
+ *
+ * You should have received a copy of the MIT License along with the FxPhysics
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxphysics
+ */
+package com.mhschmieder.fxphysicscontrols.model;
+
+/**
+ * This is an immutable, quantized key for a {@link NaturalEnvironment}, for
+ * use in caches of results that depend on the environment. Environments that
+ * differ by less than the quantization step in every field map to the same
+ * key, so that tiny slider nudges don't defeat the cache.
+ */
+public final class NaturalEnvironmentKey {
+
+    // Declare the default quantization steps, which are well below the level
+    // at which acoustic results change noticeably.
+    public static final double TEMPERATURE_STEP_K_DEFAULT       = 0.01d;
+    public static final double HUMIDITY_STEP_RELATIVE_DEFAULT   = 0.1d;
+    public static final double PRESSURE_STEP_PA_DEFAULT         = 1.0d;
+
+    // The quantized field values, as step counts.
+    private final long         _temperatureSteps;
+    private final long         _humiditySteps;
+    private final long         _pressureSteps;
+    private final boolean      _airAttenuationApplied;
+
+    private NaturalEnvironmentKey( final long temperatureSteps,
+                                   final long humiditySteps,
+                                   final long pressureSteps,
+                                   final boolean airAttenuationApplied ) {
+        _temperatureSteps = temperatureSteps;
+        _humiditySteps = humiditySteps;
+        _pressureSteps = pressureSteps;
+        _airAttenuationApplied = airAttenuationApplied;
+    }
+
+    /**
+     * Makes a key using the default quantization steps.
+     *
+     * @param naturalEnvironment
+     *            The Natural Environment to make a key for
+     * @return The quantized key
+     */
+    public static NaturalEnvironmentKey of( final NaturalEnvironment naturalEnvironment ) {
+        return of( naturalEnvironment,
+                   TEMPERATURE_STEP_K_DEFAULT,
+                   HUMIDITY_STEP_RELATIVE_DEFAULT,
+                   PRESSURE_STEP_PA_DEFAULT );
+    }
+
+    /**
+     * Makes a key using custom quantization steps.
+     *
+     * @param naturalEnvironment
+     *            The Natural Environment to make a key for
+     * @param temperatureStepK
+     *            The temperature quantization step, in degrees Kelvin
+     * @param humidityStepRelative
+     *            The relative humidity quantization step, in percent
+     * @param pressureStepPa
+     *            The pressure quantization step, in pascals
+     * @return The quantized key
+     */
+    public static NaturalEnvironmentKey of( final NaturalEnvironment naturalEnvironment,
+                                            final double temperatureStepK,
+                                            final double humidityStepRelative,
+                                            final double pressureStepPa ) {
+        return of( naturalEnvironment.getTemperatureK(),
+                   naturalEnvironment.getHumidityRelative(),
+                   naturalEnvironment.getPressurePa(),
+                   naturalEnvironment.isAirAttenuationApplied(),
+                   temperatureStepK,
+                   humidityStepRelative,
+                   pressureStepPa );
+    }
+
+    /**
+     * Makes a key from raw field values, such as from an environment snapshot
+     * that was taken on another thread.
+     *
+     * @param temperatureK
+     *            The temperature, in degrees Kelvin
+     * @param humidityRelative
+     *            The relative humidity, in percent
+     * @param pressurePa
+     *            The pressure, in pascals
+     * @param airAttenuationApplied
+     *            {@code true} if Air Attenuation is applied
+     * @param temperatureStepK
+     *            The temperature quantization step, in degrees Kelvin
+     * @param humidityStepRelative
+     *            The relative humidity quantization step, in percent
+     * @param pressureStepPa
+     *            The pressure quantization step, in pascals
+     * @return The quantized key
+     */
+    public static NaturalEnvironmentKey of( final double temperatureK,
+                                            final double humidityRelative,
+                                            final double pressurePa,
+                                            final boolean airAttenuationApplied,
+                                            final double temperatureStepK,
+                                            final double humidityStepRelative,
+                                            final double pressureStepPa ) {
+        return new NaturalEnvironmentKey( Math.round( temperatureK / temperatureStepK ),
+                                          Math.round( humidityRelative / humidityStepRelative ),
+                                          Math.round( pressurePa / pressureStepPa ),
+                                          airAttenuationApplied );
+    }
+
+    public boolean isAirAttenuationApplied() {
+        return _airAttenuationApplied;
+    }
+
+    @Override
+    public boolean equals( final Object other ) {
+        if ( this == other ) {
+            return true;
+        }
+        if ( ( other == null ) || ( getClass() != other.getClass() ) ) {
+            return false;
+        }
+        final NaturalEnvironmentKey otherKey = ( NaturalEnvironmentKey ) other;
+        return ( _temperatureSteps == otherKey._temperatureSteps )
+                && ( _humiditySteps == otherKey._humiditySteps )
+                && ( _pressureSteps == otherKey._pressureSteps )
+                && ( _airAttenuationApplied == otherKey._airAttenuationApplied );
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = ( prime * result ) + Long.hashCode( _temperatureSteps );
+        result = ( prime * result ) + Long.hashCode( _humiditySteps );
+        result = ( prime * result ) + Long.hashCode( _pressureSteps );
+        result = ( prime * result ) + Boolean.hashCode( _airAttenuationApplied );
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "NaturalEnvironmentKey [temperatureSteps=" + _temperatureSteps //$NON-NLS-1$
+                + ", humiditySteps=" + _humiditySteps //$NON-NLS-1$
+                + ", pressureSteps=" + _pressureSteps //$NON-NLS-1$
+                + ", airAttenuationApplied=" + _airAttenuationApplied + "]"; //$NON-NLS-1$ //$NON-NLS-2$
+    }
+}
@@ -0,0 +1,269 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxPhysics Library
+ *
+ * You should have received a copy of the MIT License along with the FxPhysics
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxphysics
+ */
+package com.mhschmieder.fxphysicscontrols.model;
+
+import com.mhschmieder.jphysics.AngleUnit;
+import com.mhschmieder.jphysics.DistanceUnit;
+import com.mhschmieder.jphysics.PhysicsConstants;
+import com.mhschmieder.jphysics.PressureUnit;
+import com.mhschmieder.jphysics.TemperatureUnit;
+import com.mhschmieder.jphysics.UnitConversion;
+import com.mhschmieder.jphysics.WeightUnit;
+import javafx.beans.binding.BooleanBinding;
+import org.apache.commons.math3.util.FastMath;
+
+/**
+ * This is an enumeration of the physical quantities whose display units are
+ * governed by {@link MeasurementUnits}. It centralizes the conversion between
+ * the canonical storage units used throughout this library and whatever the
+ * user currently has selected, so that bulk views of raw numeric data (such
+ * as tables and exports) can format values without instantiating controls.
+ * <p>
+ * Canonical units are meters, degrees, kilograms, Kelvin and pascals. Degrees
+ * are used for angles rather than radians, as that is what all of the angle
+ * controls in this library work in.
+ */
+public enum PhysicalQuantity {
+    DISTANCE, ANGLE, WEIGHT, TEMPERATURE, PRESSURE;
+
+    /**
+     * Converts a value from canonical units to the current display units.
+     *
+     * @param value
+     *            The value to convert, in canonical units
+     * @param measurementUnits
+     *            The Measurement Units that hold the current display units
+     * @return The value converted to the current display units
+     */
+    public double toDisplayUnits( final double value,
+                                  final MeasurementUnits measurementUnits ) {
+        switch ( this ) {
+        case DISTANCE:
+            return UnitConversion.convertDistance( value,
+                                                   DistanceUnit.METERS,
+                                                   measurementUnits.getDistanceUnit() );
+        case ANGLE:
+            return AngleUnit.RADIANS.equals( measurementUnits.getAngleUnit() )
+                ? FastMath.toRadians( value )
+                : value;
+        case WEIGHT:
+            return UnitConversion.convertWeight( value,
+                                                 WeightUnit.KILOGRAMS,
+                                                 measurementUnits.getWeightUnit() );
+        case TEMPERATURE:
+            return UnitConversion.convertTemperature( value,
+                                                      TemperatureUnit.KELVIN,
+                                                      measurementUnits.getTemperatureUnit() );
+        case PRESSURE:
+            return UnitConversion.convertPressure( value,
+                                                   PressureUnit.PASCALS,
+                                                   measurementUnits.getPressureUnit() );
+        default:
+            final String errMessage = "Unexpected PhysicalQuantity " + this; //$NON-NLS-1$
+            throw new IllegalArgumentException( errMessage );
+        }
+    }
+
+    /**
+     * Converts a value from the current display units to canonical units.
+     *
+     * @param value
+     *            The value to convert, in the current display units
+     * @param measurementUnits
+     *            The Measurement Units that hold the current display units
+     * @return The value converted to canonical units
+     */
+    public double fromDisplayUnits( final double value,
+                                    final MeasurementUnits measurementUnits ) {
+        switch ( this ) {
+        case DISTANCE:
+            return UnitConversion.convertDistance( value,
+                                                   measurementUnits.getDistanceUnit(),
+                                                   DistanceUnit.METERS );
+        case ANGLE:
+            return AngleUnit.RADIANS.equals( measurementUnits.getAngleUnit() )
+                ? FastMath.toDegrees( value )
+                : value;
+        case WEIGHT:
+            return UnitConversion.convertWeight( value,
+                                                 measurementUnits.getWeightUnit(),
+                                                 WeightUnit.KILOGRAMS );
+        case TEMPERATURE:
+            return UnitConversion.convertTemperature( value,
+                                                      measurementUnits.getTemperatureUnit(),
+                                                      TemperatureUnit.KELVIN );
+        case PRESSURE:
+            return UnitConversion.convertPressure( value,
+                                                   measurementUnits.getPressureUnit(),
+                                                   PressureUnit.PASCALS );
+        default:
+            final String errMessage = "Unexpected PhysicalQuantity " + this; //$NON-NLS-1$
+            throw new IllegalArgumentException( errMessage );
+        }
+    }
+
+    /**
+     * Validates a value in canonical units against the physical limits that
+     * the corresponding controls enforce.
+     *
+     * @param value
+     *            The value to validate, in canonical units
+     * @return {@code true} if the value is finite and within allowed limits
+     */
+    public boolean isValidValue( final double value ) {
+        if ( Double.isNaN( value ) || Double.isInfinite( value ) ) {
+            return false;
+        }
+
+        switch ( this ) {
+        case TEMPERATURE:
+            return ( value >= PhysicsConstants.TEMPERATURE_MINIMUM_K )
+                    && ( value <= PhysicsConstants.TEMPERATURE_MAXIMUM_K );
+        case PRESSURE:
+            return ( value >= PhysicsConstants.PRESSURE_MINIMUM_PA )
+                    && ( value <= PhysicsConstants.PRESSURE_MAXIMUM_PA );
+        default:
+            return true;
+        }
+    }
+
+    /**
+     * Returns the unit string for the current display units, matching what
+     * the corresponding editors and sliders show.
+     *
+     * @param measurementUnits
+     *            The Measurement Units that hold the current display units
+     * @return The unit string for the current display units
+     */
+    public String getMeasurementUnitString( final MeasurementUnits measurementUnits ) {
+        switch ( this ) {
+        case DISTANCE:
+            return measurementUnits.getDistanceUnit().abbreviation();
+        case ANGLE:
+            return measurementUnits.getAngleUnit().abbreviation();
+        case WEIGHT:
+            return measurementUnits.getWeightUnit().abbreviation();
+        case TEMPERATURE:
+            return measurementUnits.getTemperatureUnit().abbreviation();
+        case PRESSURE:
+            return measurementUnits.getPressureUnit().label();
+        default:
+            return ""; //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Returns the number of fraction digits to display for the current display
+     * units, matching the precision used by the corresponding editors.
+     *
+     * @param measurementUnits
+     *            The Measurement Units that hold the current display units
+     * @return The maximum number of fraction digits to display
+     */
+    public int getMaximumFractionDigits( final MeasurementUnits measurementUnits ) {
+        switch ( this ) {
+        case DISTANCE:
+            switch ( measurementUnits.getDistanceUnit() ) {
+            case METERS:
+            case YARDS:
+                return 3;
+            case CENTIMETERS:
+            case INCHES:
+                return 1;
+            case MILLIMETERS:
+                return 0;
+            default:
+                return 2;
+            }
+        case WEIGHT:
+            switch ( measurementUnits.getWeightUnit() ) {
+            case GRAMS:
+                return 0;
+            case METRIC_TONS:
+                return 5;
+            case OUNCES:
+                return 1;
+            default:
+                return 2;
+            }
+        case TEMPERATURE:
+            return TemperatureUnit.FAHRENHEIT.equals( measurementUnits.getTemperatureUnit() )
+                ? 1
+                : 2;
+        case PRESSURE:
+            switch ( measurementUnits.getPressureUnit() ) {
+            case KILOPASCALS:
+                return 4;
+            case PASCALS:
+                return 1;
+            case MILLIBARS:
+                return 3;
+            case ATMOSPHERES:
+                return 5;
+            default:
+                return 2;
+            }
+        case ANGLE:
+        default:
+            return 2;
+        }
+    }
+
+    /**
+     * Returns the dirty flag binding that is invalidated whenever the display
+     * unit for this quantity changes.
+     * <p>
+     * NOTE: These bindings always compute to {@code true}, so consumers must
+     *  register an invalidation listener rather than a change listener, and
+     *  must query the binding in that listener in order to re-arm it.
+     *
+     * @param measurementUnits
+     *            The Measurement Units that own the dirty flag bindings
+     * @return The dirty flag binding for this quantity's display unit
+     */
+    public BooleanBinding unitChangedProperty( final MeasurementUnits measurementUnits ) {
+        switch ( this ) {
+        case DISTANCE:
+            return measurementUnits.distanceUnitChangedProperty();
+        case ANGLE:
+            return measurementUnits.angleUnitChangedProperty();
+        case WEIGHT:
+            return measurementUnits.weightUnitChangedProperty();
+        case TEMPERATURE:
+            return measurementUnits.temperatureUnitChangedProperty();
+        case PRESSURE:
+            return measurementUnits.pressureUnitChangedProperty();
+        default:
+            final String errMessage = "Unexpected PhysicalQuantity " + this; //$NON-NLS-1$
+            throw new IllegalArgumentException( errMessage );
+        }
+    }
+}
@@ -0,0 +1,447 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxPhysics Library
+ *
+ * You should have received a copy of the MIT License along with the FxPhysics
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxphysics
+ */
+package com.mhschmieder.fxphysicscontrols.model;
+
+import javafx.beans.InvalidationListener;
+import javafx.beans.binding.BooleanBinding;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+
+import java.text.NumberFormat;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * This is a tabular data model for physical quantities, which stores each
+ * column as a primitive array of canonical unit values (see
+ * {@link PhysicalQuantity}) and only formats values on demand.
+ * <p>
+ * Each column keeps a small LRU cache of formatted strings, which is all that
+ * is invalidated when the relevant Measurement Unit changes. As virtualized
+ * views only ask for the rows that are visible, a unit switch therefore costs
+ * time proportional to the number of visible rows rather than total rows.
+ * <p>
+ * This class is not thread-safe, and is meant to be used on the JavaFX
+ * Application Thread, along with the Measurement Units that it listens to.
+ */
+public final class QuantityColumnModel {
+
+    // Declare the default number of formatted strings cached per column.
+    // NOTE: This comfortably exceeds the number of rows visible at once on a
+    //  typical high resolution display, including scroll-ahead.
+    public static final int       FORMAT_CACHE_SIZE_DEFAULT = 256;
+
+    // Declare the default initial row capacity.
+    public static final int       ROW_CAPACITY_DEFAULT      = 1024;
+
+    // The Measurement Units that determine the display units.
+    private final MeasurementUnits   _measurementUnits;
+
+    // The physical quantity associated with each column.
+    private final PhysicalQuantity[] _columnQuantities;
+
+    // The canonical unit values for each column, indexed by row.
+    private final double[][]         _columns;
+
+    // Number of rows currently in use, which is less than the array capacity.
+    private int                      _rowCount;
+
+    // Per-column number formats, and LRU caches of formatted values by row.
+    private final NumberFormat[]     _numberFormats;
+    private final String[]           _measurementUnitStrings;
+    private final FormatCache[]      _formatCaches;
+
+    // Flag for whether to append the unit string to formatted values.
+    private final boolean            _showMeasurementUnit;
+
+    // Incremented on every unit change, so views know to re-query their rows.
+    private final ReadOnlyIntegerWrapper _formatRevision;
+
+    // The listener that drops the cached strings of a quantity whose unit
+    // changed.
+    private final InvalidationListener   _unitChangedListener;
+
+    /**
+     * This class is an access-ordered map that evicts the least recently used
+     * formatted value once its capacity is reached.
+     */
+    private static final class FormatCache extends LinkedHashMap< Integer, String > {
+        private static final long serialVersionUID = 1L;
+
+        private final int         _capacity;
+
+        FormatCache( final int capacity ) {
+            super( 16, 0.75f, true );
+
+            _capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry( final Map.Entry< Integer, String > eldest ) {
+            return size() > _capacity;
+        }
+    }
+
+    public QuantityColumnModel( final MeasurementUnits measurementUnits,
+                                final PhysicalQuantity... columnQuantities ) {
+        this( measurementUnits,
+              true,
+              ROW_CAPACITY_DEFAULT,
+              FORMAT_CACHE_SIZE_DEFAULT,
+              columnQuantities );
+    }
+
+    public QuantityColumnModel( final MeasurementUnits measurementUnits,
+                                final boolean showMeasurementUnit,
+                                final int initialRowCapacity,
+                                final int formatCacheSize,
+                                final PhysicalQuantity... columnQuantities ) {
+        _measurementUnits = measurementUnits;
+        _showMeasurementUnit = showMeasurementUnit;
+        _columnQuantities = columnQuantities.clone();
+
+        final int columnCount = _columnQuantities.length;
+        final int rowCapacity = Math.max( 1, initialRowCapacity );
+        _columns = new double[ columnCount ][ rowCapacity ];
+        _rowCount = 0;
+
+        _numberFormats = new NumberFormat[ columnCount ];
+        _measurementUnitStrings = new String[ columnCount ];
+        _formatCaches = new FormatCache[ columnCount ];
+        for ( int column = 0; column < columnCount; column++ ) {
+            // NOTE: Groupings are turned off, as is common for physical
+            //  quantities.
+            final NumberFormat numberFormat = NumberFormat.getNumberInstance( Locale.getDefault() );
+            numberFormat.setGroupingUsed( false );
+            numberFormat.setMinimumFractionDigits( 0 );
+            _numberFormats[ column ] = numberFormat;
+            _formatCaches[ column ] = new FormatCache( Math.max( 1, formatCacheSize ) );
+        }
+
+        _formatRevision = new ReadOnlyIntegerWrapper( 0 );
+
+        _unitChangedListener = observable -> {
+            final BooleanBinding unitChanged = ( BooleanBinding ) observable;
+            unitChanged.get();
+            invalidateFormats( unitChanged );
+        };
+        for ( final PhysicalQuantity physicalQuantity : uniqueQuantities() ) {
+            physicalQuantity.unitChangedProperty( _measurementUnits )
+                    .addListener( _unitChangedListener );
+        }
+
+        for ( int column = 0; column < columnCount; column++ ) {
+            updateNumberFormat( column );
+        }
+    }
+
+    /**
+     * Detaches this model from the Measurement Units. Call this when the model
+     * is discarded, if the Measurement Units outlive it.
+     */
+    public void dispose() {
+        for ( final PhysicalQuantity physicalQuantity : uniqueQuantities() ) {
+            physicalQuantity.unitChangedProperty( _measurementUnits )
+                    .removeListener( _unitChangedListener );
+        }
+    }
+
+    private PhysicalQuantity[] uniqueQuantities() {
+        return Arrays.stream( _columnQuantities ).distinct().toArray( PhysicalQuantity[]::new );
+    }
+
+    public MeasurementUnits getMeasurementUnits() {
+        return _measurementUnits;
+    }
+
+    public boolean isShowMeasurementUnit() {
+        return _showMeasurementUnit;
+    }
+
+    public int getColumnCount() {
+        return _columnQuantities.length;
+    }
+
+    public PhysicalQuantity getColumnQuantity( final int column ) {
+        return _columnQuantities[ column ];
+    }
+
+    public int getRowCount() {
+        return _rowCount;
+    }
+
+    public ReadOnlyIntegerProperty formatRevisionProperty() {
+        return _formatRevision.getReadOnlyProperty();
+    }
+
+    public int getFormatRevision() {
+        return _formatRevision.get();
+    }
+
+    /**
+     * Appends a row of canonical unit values, growing the column arrays as
+     * necessary.
+     *
+     * @param values
+     *            One value per column, in canonical units
+     * @return The index of the new row
+     */
+    public int addRow( final double... values ) {
+        if ( values.length != _columnQuantities.length ) {
+            final String errMessage = "Expected " + _columnQuantities.length //$NON-NLS-1$
+                    + " column values but got " + values.length; //$NON-NLS-1$
+            throw new IllegalArgumentException( errMessage );
+        }
+
+        ensureRowCapacity( _rowCount + 1 );
+
+        final int row = _rowCount++;
+        for ( int column = 0; column < values.length; column++ ) {
+            _columns[ column ][ row ] = values[ column ];
+        }
+
+        return row;
+    }
+
+    /**
+     * Sets the number of rows, such as before filling a multi-column model
+     * one column at a time. Added rows start out empty in every column, and
+     * removed rows are discarded.
+     *
+     * @param rowCount
+     *            The new number of rows
+     */
+    public void setRowCount( final int rowCount ) {
+        if ( rowCount < 0 ) {
+            throw new IllegalArgumentException( "Unexpected row count " + rowCount ); //$NON-NLS-1$
+        }
+
+        ensureRowCapacity( rowCount );
+        if ( rowCount > _rowCount ) {
+            for ( final double[] columnValues : _columns ) {
+                Arrays.fill( columnValues, _rowCount, rowCount, Double.NaN );
+            }
+        }
+        _rowCount = rowCount;
+
+        for ( final FormatCache formatCache : _formatCaches ) {
+            formatCache.clear();
+        }
+    }
+
+    /**
+     * Replaces the contents of a column with values copied from a primitive
+     * array, growing or shrinking the row count to match if this is the only
+     * column; otherwise the length must match the current row count, even
+     * when there are no rows yet, so that the other columns are never left
+     * shorter than the model claims. Multi-column models are sized first
+     * with {@link #setRowCount(int)}.
+     *
+     * @param column
+     *            The index of the column to replace
+     * @param values
+     *            The new column values, in canonical units
+     */
+    public void setColumn( final int column, final double[] values ) {
+        if ( ( _columnQuantities.length > 1 ) && ( values.length != _rowCount ) ) {
+            final String errMessage = "Expected " + _rowCount //$NON-NLS-1$
+                    + " rows but got " + values.length; //$NON-NLS-1$
+            throw new IllegalArgumentException( errMessage );
+        }
+
+        ensureRowCapacity( values.length );
+        System.arraycopy( values, 0, _columns[ column ], 0, values.length );
+        _rowCount = values.length;
+
+        _formatCaches[ column ].clear();
+    }
+
+    public void clear() {
+        _rowCount = 0;
+
+        for ( final FormatCache formatCache : _formatCaches ) {
+            formatCache.clear();
+        }
+    }
+
+    private void ensureRowCapacity( final int rowCapacity ) {
+        final int currentCapacity = _columns.length > 0 ? _columns[ 0 ].length : 0;
+        if ( rowCapacity <= currentCapacity ) {
+            return;
+        }
+
+        // Grow by half again, as with the standard collections.
+        final int newCapacity = Math.max( rowCapacity, currentCapacity + ( currentCapacity >> 1 ) );
+        for ( int column = 0; column < _columns.length; column++ ) {
+            _columns[ column ] = Arrays.copyOf( _columns[ column ], newCapacity );
+        }
+    }
+
+    private void checkRow( final int row ) {
+        if ( ( row < 0 ) || ( row >= _rowCount ) ) {
+            throw new IndexOutOfBoundsException( "Row " + row + " of " + _rowCount ); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+    }
+
+    /**
+     * Returns a raw value in canonical units, which never requires conversion.
+     *
+     * @param row
+     *            The row index
+     * @param column
+     *            The column index
+     * @return The value at the given cell, in canonical units
+     */
+    public double getValue( final int row, final int column ) {
+        checkRow( row );
+
+        return _columns[ column ][ row ];
+    }
+
+    /**
+     * Returns a copy of a column's values, trimmed to the current row count,
+     * so that the values can be safely processed off the JavaFX thread.
+     *
+     * @param column
+     *            The column index
+     * @return A copy of the column values, in canonical units
+     */
+    public double[] copyColumn( final int column ) {
+        return Arrays.copyOf( _columns[ column ], _rowCount );
+    }
+
+    public void setValue( final int row, final int column, final double value ) {
+        checkRow( row );
+
+        _columns[ column ][ row ] = value;
+        _formatCaches[ column ].remove( row );
+    }
+
+    /**
+     * Returns a value converted to the current display units.
+     *
+     * @param row
+     *            The row index
+     * @param column
+     *            The column index
+     * @return The value at the given cell, in the current display units
+     */
+    public double getDisplayValue( final int row, final int column ) {
+        return _columnQuantities[ column ].toDisplayUnits( getValue( row, column ),
+                                                           _measurementUnits );
+    }
+
+    /**
+     * Sets a value from the current display units, such as from an editor.
+     *
+     * @param row
+     *            The row index
+     * @param column
+     *            The column index
+     * @param displayValue
+     *            The new value, in the current display units
+     */
+    public void setDisplayValue( final int row, final int column, final double displayValue ) {
+        setValue( row,
+                  column,
+                  _columnQuantities[ column ].fromDisplayUnits( displayValue,
+                                                                _measurementUnits ) );
+    }
+
+    /**
+     * Returns the formatted value in the current display units, using the
+     * cached string if the row was formatted recently.
+     *
+     * @param row
+     *            The row index
+     * @param column
+     *            The column index
+     * @return The formatted value at the given cell
+     */
+    public String getFormattedValue( final int row, final int column ) {
+        checkRow( row );
+
+        final FormatCache formatCache = _formatCaches[ column ];
+        String formattedValue = formatCache.get( row );
+        if ( formattedValue == null ) {
+            formattedValue = formatValue( column, _columns[ column ][ row ] );
+            formatCache.put( row, formattedValue );
+        }
+
+        return formattedValue;
+    }
+
+    /**
+     * Formats an arbitrary canonical unit value the same way as the cells of a
+     * given column, bypassing the cache.
+     *
+     * @param column
+     *            The column whose quantity and format should be used
+     * @param value
+     *            The value to format, in canonical units
+     * @return The formatted value, in the current display units
+     */
+    public String formatValue( final int column, final double value ) {
+        if ( Double.isNaN( value ) ) {
+            return ""; //$NON-NLS-1$
+        }
+
+        final double displayValue = _columnQuantities[ column ].toDisplayUnits( value,
+                                                                                _measurementUnits );
+        final String text = _numberFormats[ column ].format( displayValue );
+
+        return _showMeasurementUnit ? text + _measurementUnitStrings[ column ] : text;
+    }
+
+    private void updateNumberFormat( final int column ) {
+        final PhysicalQuantity physicalQuantity = _columnQuantities[ column ];
+        _numberFormats[ column ].setMaximumFractionDigits( physicalQuantity
+                .getMaximumFractionDigits( _measurementUnits ) );
+        _measurementUnitStrings[ column ] = physicalQuantity
+                .getMeasurementUnitString( _measurementUnits );
+    }
+
+    private void invalidateFormats( final BooleanBinding unitChanged ) {
+        // Only the formatted strings are invalidated; the raw values are
+        // unit-agnostic, so nothing is converted until a row is displayed.
+        for ( int column = 0; column < _columnQuantities.length; column++ ) {
+            if ( _columnQuantities[ column ].unitChangedProperty( _measurementUnits )
+                    == unitChanged ) {
+                updateNumberFormat( column );
+                _formatCaches[ column ].clear();
+            }
+        }
+
+        _formatRevision.set( _formatRevision.get() + 1 );
+    }
+}
@@ -31,5 +31,12 @@
 /**
  * Data model support for physics-related GUI elements, using JavaFX observable
  * properties.
+ * <p>
+ * The dirty flags, such as {@link NaturalEnvironment#naturalEnvironmentChangedProperty()}
+ * and {@link MeasurementUnits#measurementUnitsChangedProperty()}, are
+ * invalidation-only bindings: they notify their listeners when they first
+ * become invalid, and then stay silent until they are queried. A listener
+ * that wants to hear about the next change must therefore query the flag,
+ * which re-arms it.
  */
 package com.mhschmieder.fxphysicscontrols.model;
@@ -0,0 +1,169 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxPhysics Library
+ *
+ * You should have received a copy of the MIT License along with the FxPhysics
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxphysics
+ */
+package com.mhschmieder.fxphysicscontrols.acoustics;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.mhschmieder.fxphysicscontrols.model.NaturalEnvironment;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public final class AirAbsorptionFilterTest {
+
+    private static final double SAMPLE_RATE       = 48000d;
+    private static final double TEMPERATURE_K     = 293.15d;
+    private static final double HUMIDITY_RELATIVE = 50d;
+    private static final double PRESSURE_PA       = 101325d;
+
+    @Test
+    public void shortPathsAreBypassed() {
+        final AirAbsorptionFilter.Design design = AirAbsorptionFilter
+                .makeDesign( TEMPERATURE_K, HUMIDITY_RELATIVE, PRESSURE_PA, 0.01d, SAMPLE_RATE );
+        assertSame( AirAbsorptionFilter.Design.BYPASS, design );
+    }
+
+    @Test
+    public void pathsWithoutAirAttenuationAreBypassed() {
+        final NaturalEnvironment naturalEnvironment = new NaturalEnvironment( TEMPERATURE_K,
+                                                                              HUMIDITY_RELATIVE,
+                                                                              PRESSURE_PA,
+                                                                              false );
+        assertSame( AirAbsorptionFilter.Design.BYPASS,
+                    AirAbsorptionFilter.getDesign( naturalEnvironment, 100d, SAMPLE_RATE ) );
+
+        // A bypassed filter leaves the samples untouched.
+        final AirAbsorptionFilter filter = new AirAbsorptionFilter( SAMPLE_RATE );
+        filter.update( naturalEnvironment, 100d );
+        final float[] samples = new float[] { 1f, -0.5f, 0.25f, 0f };
+        filter.process( samples, 0, samples.length );
+        assertArrayEquals( new float[] { 1f, -0.5f, 0.25f, 0f }, samples, 0f );
+    }
+
+    @Test
+    public void sectionsHaveUnityDcGainAndAreStable() {
+        for ( final double distanceMeters : new double[] { 1d, 10d, 100d, 1000d } ) {
+            final AirAbsorptionFilter.Design design = AirAbsorptionFilter
+                    .makeDesign( TEMPERATURE_K,
+                                 HUMIDITY_RELATIVE,
+                                 PRESSURE_PA,
+                                 distanceMeters,
+                                 SAMPLE_RATE );
+            assertTrue( design.getOrder() >= 1 );
+            assertTrue( design.getOrder() <= AirAbsorptionFilter.MAXIMUM_ORDER );
+            assertEquals( 0d, design.getAttenuationDb( 0d, SAMPLE_RATE ), 1.0e-12d );
+
+            // A constant input settles to the same constant output.
+            final AirAbsorptionFilter filter = new AirAbsorptionFilter( SAMPLE_RATE );
+            filter.update( new NaturalEnvironment( TEMPERATURE_K,
+                                                   HUMIDITY_RELATIVE,
+                                                   PRESSURE_PA,
+                                                   true ),
+                           distanceMeters );
+            final float[] samples = new float[ 48000 ];
+            Arrays.fill( samples, 1f );
+            filter.process( samples, 0, samples.length );
+            assertEquals( 1d, samples[ samples.length - 1 ], 1.0e-4d );
+        }
+    }
+
+    @Test
+    public void designFitsTheIsoAttenuation() {
+        final double distanceMeters = 100d;
+        final AirAbsorptionFilter.Design design = AirAbsorptionFilter
+                .makeDesign( TEMPERATURE_K,
+                             HUMIDITY_RELATIVE,
+                             PRESSURE_PA,
+                             distanceMeters,
+                             SAMPLE_RATE );
+
+        for ( final double bandCenterHz : AirAttenuation.getThirdOctaveBandCentersHz() ) {
+            if ( bandCenterHz >= ( 0.45d * SAMPLE_RATE ) ) {
+                break;
+            }
+            final double targetDb = distanceMeters * AirAttenuation
+                    .getAttenuationDbPerMeter( bandCenterHz,
+                                               TEMPERATURE_K,
+                                               HUMIDITY_RELATIVE,
+                                               PRESSURE_PA );
+            assertEquals( bandCenterHz + " Hz", //$NON-NLS-1$
+                          targetDb,
+                          design.getAttenuationDb( bandCenterHz, SAMPLE_RATE ),
+                          2d );
+        }
+    }
+
+    @Test
+    public void processedResponseMatchesTheDesign() {
+        final double distanceMeters = 100d;
+        final AirAbsorptionFilter filter = new AirAbsorptionFilter( SAMPLE_RATE );
+        filter.update( new NaturalEnvironment( TEMPERATURE_K,
+                                               HUMIDITY_RELATIVE,
+                                               PRESSURE_PA,
+                                               true ),
+                       distanceMeters );
+        final AirAbsorptionFilter.Design design = filter.getDesign();
+
+        for ( final double frequencyHz : new double[] { 500d, 4000d, 12000d } ) {
+            filter.reset();
+
+            // Filter a sine wave in several blocks, which must behave the
+            // same as one long block, and measure the settled amplitude.
+            final int numberOfSamples = 48000;
+            final float[] samples = new float[ numberOfSamples ];
+            for ( int i = 0; i < numberOfSamples; i++ ) {
+                samples[ i ] = ( float ) Math
+                        .sin( ( 2d * Math.PI * frequencyHz * i ) / SAMPLE_RATE );
+            }
+            final int blockSize = 1000;
+            for ( int offset = 0; offset < numberOfSamples; offset += blockSize ) {
+                filter.process( samples, offset, blockSize );
+            }
+
+            double inputPower = 0d;
+            double outputPower = 0d;
+            for ( int i = numberOfSamples / 2; i < numberOfSamples; i++ ) {
+                final double input = Math.sin( ( 2d * Math.PI * frequencyHz * i ) / SAMPLE_RATE );
+                inputPower += input * input;
+                outputPower += samples[ i ] * samples[ i ];
+            }
+            final double measuredDb = 10d * Math.log10( inputPower / outputPower );
+
+            assertEquals( frequencyHz + " Hz", //$NON-NLS-1$
+                          design.getAttenuationDb( frequencyHz, SAMPLE_RATE ),
+                          measuredDb,
+                          0.05d );
+        }
+    }
+}
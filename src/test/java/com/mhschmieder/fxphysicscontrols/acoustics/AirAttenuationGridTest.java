@@ -0,0 +1,161 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxPhysics Library
+ *
+ * You should have received a copy of the MIT License along with the FxPhysics
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxphysics
+ */
+package com.mhschmieder.fxphysicscontrols.acoustics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.mhschmieder.jphysics.PhysicsConstants;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+public final class AirAttenuationGridTest {
+
+    private Path _gridPath;
+
+    @Before
+    public void setUp() throws IOException {
+        _gridPath = Files.createTempFile( "airAttenuationGrid", ".aag" ); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists( _gridPath );
+    }
+
+    @Test
+    public void errorBoundsHoldAnywhereInTheGrid() {
+        // Coarse grids have the widest curvature variation within a cell.
+        assertBoundsHold( AirAttenuationGrid.build( AirAttenuation.getThirdOctaveBandCentersHz(),
+                                                    17,
+                                                    21,
+                                                    5 ) );
+        assertBoundsHold( AirAttenuationGrid.build( AirAttenuation.getThirdOctaveBandCentersHz(),
+                                                    33,
+                                                    41,
+                                                    3 ) );
+    }
+
+    @Test
+    public void gridPointsMatchTheExactFormula() {
+        final double[] bandCentersHz = AirAttenuation.getThirdOctaveBandCentersHz();
+        final AirAttenuationGrid grid = AirAttenuationGrid.build( bandCentersHz, 8, 11, 4 );
+        final double[] exact = new double[ bandCentersHz.length ];
+        AirAttenuation.getAttenuationDbPerMeter( bandCentersHz,
+                                                 PhysicsConstants.TEMPERATURE_MAXIMUM_K,
+                                                 100d,
+                                                 PhysicsConstants.PRESSURE_MINIMUM_PA,
+                                                 exact,
+                                                 0 );
+        final double[] interpolated = new double[ bandCentersHz.length ];
+        grid.getAttenuationDbPerMeter( PhysicsConstants.TEMPERATURE_MAXIMUM_K,
+                                       100d,
+                                       PhysicsConstants.PRESSURE_MINIMUM_PA,
+                                       interpolated,
+                                       0 );
+
+        for ( int band = 0; band < bandCentersHz.length; band++ ) {
+            assertEquals( exact[ band ], interpolated[ band ], exact[ band ] * 1.0e-6d );
+        }
+    }
+
+    @Test
+    public void buildToToleranceMeetsTheTolerance() {
+        final AirAttenuationGrid grid = AirAttenuationGrid
+                .buildToTolerance( AirAttenuation.getThirdOctaveBandCentersHz(), 0.1d, 129 );
+
+        assertTrue( grid.getRelativeErrorBound() <= 0.1d );
+        assertBoundsHold( grid );
+    }
+
+    @Test
+    public void saveAndLoadRoundTrip() throws IOException {
+        final AirAttenuationGrid grid = AirAttenuationGrid
+                .build( AirAttenuation.getThirdOctaveBandCentersHz(), 9, 11, 3 );
+        grid.save( _gridPath );
+
+        final AirAttenuationGrid loadedGrid = AirAttenuationGrid.load( _gridPath );
+        assertEquals( grid.getNumberOfBands(), loadedGrid.getNumberOfBands() );
+        assertEquals( grid.getAbsoluteErrorBoundDbPerMeter(),
+                      loadedGrid.getAbsoluteErrorBoundDbPerMeter(),
+                      0d );
+        assertEquals( grid.getRelativeErrorBound(), loadedGrid.getRelativeErrorBound(), 0d );
+
+        final double[] expected = new double[ grid.getNumberOfBands() ];
+        final double[] actual = new double[ grid.getNumberOfBands() ];
+        grid.getAttenuationDbPerMeter( 281.3d, 37d, 95000d, expected, 0 );
+        loadedGrid.getAttenuationDbPerMeter( 281.3d, 37d, 95000d, actual, 0 );
+        for ( int band = 0; band < expected.length; band++ ) {
+            assertEquals( expected[ band ], actual[ band ], 0d );
+        }
+    }
+
+    // Compares the grid against the exact formula at random environments,
+    // with the humidity biased towards dry air, where attenuation varies the
+    // fastest.
+    private static void assertBoundsHold( final AirAttenuationGrid grid ) {
+        final double[] bandCentersHz = grid.getBandCentersHz();
+        final double[] exact = new double[ bandCentersHz.length ];
+        final double[] interpolated = new double[ bandCentersHz.length ];
+        final Random random = new Random( 9613L );
+        for ( int i = 0; i < 20000; i++ ) {
+            final double temperatureK = PhysicsConstants.TEMPERATURE_MINIMUM_K
+                    + ( random.nextDouble() * ( PhysicsConstants.TEMPERATURE_MAXIMUM_K
+                            - PhysicsConstants.TEMPERATURE_MINIMUM_K ) );
+            final double humidityRelative = 100d * Math.pow( random.nextDouble(), 3d );
+            final double pressurePa = PhysicsConstants.PRESSURE_MINIMUM_PA
+                    + ( random.nextDouble() * ( PhysicsConstants.PRESSURE_MAXIMUM_PA
+                            - PhysicsConstants.PRESSURE_MINIMUM_PA ) );
+            AirAttenuation.getAttenuationDbPerMeter( bandCentersHz,
+                                                     temperatureK,
+                                                     humidityRelative,
+                                                     pressurePa,
+                                                     exact,
+                                                     0 );
+            grid.getAttenuationDbPerMeter( temperatureK,
+                                           humidityRelative,
+                                           pressurePa,
+                                           interpolated,
+                                           0 );
+            for ( int band = 0; band < bandCentersHz.length; band++ ) {
+                final double absoluteError = Math.abs( interpolated[ band ] - exact[ band ] );
+                assertTrue( absoluteError <= grid.getAbsoluteErrorBoundDbPerMeter() );
+                assertTrue( absoluteError <= ( grid.getRelativeErrorBound() * exact[ band ] ) );
+            }
+        }
+    }
+}
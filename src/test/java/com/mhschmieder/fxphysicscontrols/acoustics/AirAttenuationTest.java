@@ -0,0 +1,150 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxPhysics Library
+ *
+ * You should have received a copy of the MIT License along with the FxPhysics
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxphysics
+ */
+package com.mhschmieder.fxphysicscontrols.acoustics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public final class AirAttenuationTest {
+
+    // Declare the octave bands of the reference table, as band indices into
+    // the third-octave bands (63 Hz to 8 kHz).
+    private static final int[]      OCTAVE_BANDS     = { 5, 8, 11, 14, 17, 20, 23, 26 };
+
+    // Declare the reference environments, as temperature in degrees Celsius
+    // and relative humidity in percent, all at standard pressure.
+    private static final double[][] ENVIRONMENTS     = {
+            { 10d, 70d },
+            { 20d, 70d },
+            { 30d, 70d },
+            { 15d, 20d },
+            { 15d, 50d },
+            { 15d, 80d } };
+
+    // Declare the reference attenuation, in decibels per kilometer, from
+    // ISO 9613-2 Table 2, which tabulates the ISO 9613-1 formula at the exact
+    // octave midband frequencies, rounded to three significant figures.
+    private static final double[][] ATTENUATION_DB_PER_KM = {
+            { 0.1d, 0.4d, 1.0d, 1.9d, 3.7d, 9.7d, 32.8d, 117d },
+            { 0.1d, 0.3d, 1.1d, 2.8d, 5.0d, 9.0d, 22.9d, 76.6d },
+            { 0.1d, 0.3d, 1.0d, 3.1d, 7.4d, 12.7d, 23.1d, 59.3d },
+            { 0.3d, 0.6d, 1.2d, 2.7d, 8.2d, 28.2d, 88.8d, 202d },
+            { 0.1d, 0.5d, 1.2d, 2.2d, 4.2d, 10.8d, 36.2d, 129d },
+            { 0.1d, 0.3d, 1.1d, 2.4d, 4.1d, 8.3d, 23.7d, 82.8d } };
+
+    private static final double     PRESSURE_PA      = 101325d;
+    private static final double     CELSIUS_OFFSET_K = 273.15d;
+
+    @Test
+    public void attenuationMatchesIsoTable() {
+        final double[] bandCentersHz = AirAttenuation.getThirdOctaveBandCentersHz();
+        for ( int environment = 0; environment < ENVIRONMENTS.length; environment++ ) {
+            final double temperatureK = ENVIRONMENTS[ environment ][ 0 ] + CELSIUS_OFFSET_K;
+            final double humidityRelative = ENVIRONMENTS[ environment ][ 1 ];
+            for ( int octave = 0; octave < OCTAVE_BANDS.length; octave++ ) {
+                final double frequencyHz = bandCentersHz[ OCTAVE_BANDS[ octave ] ];
+                final double expectedDbPerKm = ATTENUATION_DB_PER_KM[ environment ][ octave ];
+                final double actualDbPerKm = 1000d * AirAttenuation
+                        .getAttenuationDbPerMeter( frequencyHz,
+                                                   temperatureK,
+                                                   humidityRelative,
+                                                   PRESSURE_PA );
+
+                // Allow for the rounding of the table, plus a little slack at
+                // the largest values for the rounding of the constants.
+                final double toleranceDbPerKm = 0.05d + ( 0.005d * expectedDbPerKm );
+                assertEquals( frequencyHz + " Hz at " + temperatureK + " K, " //$NON-NLS-1$ //$NON-NLS-2$
+                        + humidityRelative + "%", //$NON-NLS-1$
+                              expectedDbPerKm,
+                              actualDbPerKm,
+                              toleranceDbPerKm );
+            }
+        }
+    }
+
+    @Test
+    public void bulkAttenuationMatchesSingleFrequency() {
+        final double[] bandCentersHz = AirAttenuation.getThirdOctaveBandCentersHz();
+        final double[] attenuationDbPerMeter = new double[ bandCentersHz.length + 2 ];
+        AirAttenuation.getAttenuationDbPerMeter( bandCentersHz,
+                                                 288.15d,
+                                                 60d,
+                                                 95000d,
+                                                 attenuationDbPerMeter,
+                                                 2 );
+        for ( int band = 0; band < bandCentersHz.length; band++ ) {
+            assertEquals( AirAttenuation.getAttenuationDbPerMeter( bandCentersHz[ band ],
+                                                                   288.15d,
+                                                                   60d,
+                                                                   95000d ),
+                          attenuationDbPerMeter[ band + 2 ],
+                          0d );
+        }
+    }
+
+    @Test
+    public void attenuationGrowsWithFrequency() {
+        final double[] bandCentersHz = AirAttenuation.getThirdOctaveBandCentersHz();
+        final double[] attenuationDbPerMeter = new double[ bandCentersHz.length ];
+        AirAttenuation.getAttenuationDbPerMeter( bandCentersHz,
+                                                 293.15d,
+                                                 50d,
+                                                 PRESSURE_PA,
+                                                 attenuationDbPerMeter,
+                                                 0 );
+        for ( int band = 1; band < bandCentersHz.length; band++ ) {
+            assertTrue( attenuationDbPerMeter[ band ] > attenuationDbPerMeter[ band - 1 ] );
+        }
+    }
+
+    @Test
+    public void bandCentersAreBaseTenThirdOctaves() {
+        final double[] bandCentersHz = AirAttenuation.getThirdOctaveBandCentersHz();
+        assertEquals( AirAttenuation.NUMBER_OF_BANDS, bandCentersHz.length );
+        assertEquals( 1000d, bandCentersHz[ 17 ], 0d );
+        assertEquals( 19.953d, bandCentersHz[ 0 ], 1.0e-3d );
+        assertEquals( 19952.6d, bandCentersHz[ bandCentersHz.length - 1 ], 0.1d );
+    }
+
+    @Test
+    public void speedOfSoundMatchesReferenceValues() {
+        // Dry air at 20 degrees Celsius, and the slight rise with humidity.
+        final double drySpeedOfSound = AirAttenuation.getSpeedOfSound( 293.15d, 0d, PRESSURE_PA );
+        assertEquals( 343.2d, drySpeedOfSound, 0.3d );
+
+        final double humidSpeedOfSound = AirAttenuation
+                .getSpeedOfSound( 293.15d, 100d, PRESSURE_PA );
+        assertTrue( humidSpeedOfSound > drySpeedOfSound );
+        assertTrue( ( humidSpeedOfSound - drySpeedOfSound ) < 2d );
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxPhysics Library
+ *
+ * You should have received a copy of the MIT License along with the FxPhysics
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxphysics
+ */
+package com.mhschmieder.fxphysicscontrols.acoustics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+public final class EnvironmentSweepTest {
+
+    @Test
+    public void runComputesEveryPoint() {
+        final EnvironmentSweep environmentSweep = makeSweep();
+        assertTrue( environmentSweep.run( null ) );
+        assertEquals( environmentSweep.getNumberOfPoints(), environmentSweep.getCompletedPoints() );
+
+        final int point = environmentSweep.getPointIndex( 3, 2, 1 );
+        final double temperatureK = environmentSweep.getTemperatureAxis().getValue( 3 );
+        final double humidityRelative = environmentSweep.getHumidityAxis().getValue( 2 );
+        final double pressurePa = environmentSweep.getPressureAxis().getValue( 1 );
+        final double[] expected = new double[ environmentSweep.getNumberOfBands() ];
+        AirAttenuation.getAttenuationDbPerMeter( environmentSweep.getBandCentersHz(),
+                                                 temperatureK,
+                                                 humidityRelative,
+                                                 pressurePa,
+                                                 expected,
+                                                 0 );
+        for ( int band = 0; band < expected.length; band++ ) {
+            assertEquals( expected[ band ],
+                          environmentSweep.getAttenuationDbPerMeter()[ ( point
+                                  * expected.length ) + band ],
+                          0d );
+        }
+        assertEquals( AirAttenuation.getSpeedOfSound( temperatureK, humidityRelative, pressurePa ),
+                      environmentSweep.getSpeedOfSound()[ point ],
+                      0d );
+    }
+
+    @Test
+    public void cancelStopsTheRunInProgress() {
+        final EnvironmentSweep environmentSweep = makeSweep();
+        environmentSweep.setChunkSize( 1 );
+
+        // A single worker thread makes the chunks run one after another.
+        final ForkJoinPool forkJoinPool = new ForkJoinPool( 1 );
+        try {
+            assertFalse( environmentSweep
+                    .run( forkJoinPool, ( firstPoint, numberOfPoints ) -> environmentSweep.cancel() ) );
+        }
+        finally {
+            forkJoinPool.shutdown();
+        }
+        assertTrue( environmentSweep.isCancelled() );
+        assertTrue( environmentSweep.getCompletedPoints() < environmentSweep.getNumberOfPoints() );
+    }
+
+    @Test
+    public void cancelBeforeRunIsNotLost() {
+        final EnvironmentSweep environmentSweep = makeSweep();
+
+        environmentSweep.cancel( environmentSweep.getNextRunNumber() );
+        assertFalse( environmentSweep.run( null ) );
+        assertEquals( 0, environmentSweep.getCompletedPoints() );
+
+        // The cancel only applies to one run.
+        assertTrue( environmentSweep.run( null ) );
+        assertFalse( environmentSweep.isCancelled() );
+    }
+
+    @Test
+    public void lateCancelDoesNotStopTheNextRun() {
+        final EnvironmentSweep environmentSweep = makeSweep();
+        assertTrue( environmentSweep.run( null ) );
+
+        environmentSweep.cancel();
+        assertTrue( environmentSweep.run( null ) );
+        assertEquals( environmentSweep.getNumberOfPoints(), environmentSweep.getCompletedPoints() );
+    }
+
+    private static EnvironmentSweep makeSweep() {
+        return new EnvironmentSweep( new EnvironmentSweep.Axis( 263.15d, 313.15d, 6 ),
+                                     new EnvironmentSweep.Axis( 10d, 90d, 5 ),
+                                     new EnvironmentSweep.Axis( 90000d, 105000d, 4 ) );
+    }
+}
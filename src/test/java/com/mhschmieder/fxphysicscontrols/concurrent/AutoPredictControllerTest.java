@@ -0,0 +1,251 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxPhysics Library
+ *
+ * You should have received a copy of the MIT License along with the FxPhysics
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxphysics
+ */
+package com.mhschmieder.fxphysicscontrols.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.mhschmieder.fxphysicscontrols.model.NaturalEnvironment;
+import com.mhschmieder.fxphysicscontrols.model.NaturalEnvironmentChangeFilter;
+import org.junit.Test;
+
+public final class AutoPredictControllerTest {
+
+    @Test
+    public void enablingPredictsAndSuspendsServiceCancellation() {
+        final NaturalEnvironment naturalEnvironment = new NaturalEnvironment();
+        final CountingPredictionService predictionService =
+                new CountingPredictionService( naturalEnvironment );
+        final ManualDebounceTimer debounceTimer = new ManualDebounceTimer();
+        final AutoPredictController controller = makeController( naturalEnvironment,
+                                                                 predictionService,
+                                                                 null,
+                                                                 1000d,
+                                                                 debounceTimer );
+
+        controller.setAutoPredictEnabled( true );
+        assertEquals( 1, predictionService._predictCount );
+        assertFalse( predictionService.isCancelOnEnvironmentChange() );
+
+        controller.setAutoPredictEnabled( false );
+        assertTrue( predictionService.isCancelOnEnvironmentChange() );
+        assertFalse( debounceTimer._running );
+    }
+
+    @Test
+    public void changesAreDebounced() {
+        final NaturalEnvironment naturalEnvironment = new NaturalEnvironment();
+        final CountingPredictionService predictionService =
+                new CountingPredictionService( naturalEnvironment );
+        final ManualDebounceTimer debounceTimer = new ManualDebounceTimer();
+        final AutoPredictController controller = makeController( naturalEnvironment,
+                                                                 predictionService,
+                                                                 null,
+                                                                 1.0e6d,
+                                                                 debounceTimer );
+        controller.setAutoPredictEnabled( true );
+
+        for ( int i = 0; i < 5; i++ ) {
+            naturalEnvironment.setTemperatureK( naturalEnvironment.getTemperatureK() + 0.1d );
+        }
+        assertEquals( 1, predictionService._predictCount );
+        assertEquals( 5, debounceTimer._restartCount );
+        assertEquals( AutoPredictController.DEBOUNCE_MILLISECONDS_DEFAULT,
+                      debounceTimer._delayMilliseconds,
+                      0d );
+
+        debounceTimer.fire();
+        assertEquals( 2, predictionService._predictCount );
+    }
+
+    @Test
+    public void debounceDelayNeverRunsPastTheStalenessBound() {
+        final NaturalEnvironment naturalEnvironment = new NaturalEnvironment();
+        final CountingPredictionService predictionService =
+                new CountingPredictionService( naturalEnvironment );
+        final ManualDebounceTimer debounceTimer = new ManualDebounceTimer();
+        final AutoPredictController controller = makeController( naturalEnvironment,
+                                                                 predictionService,
+                                                                 null,
+                                                                 100d,
+                                                                 debounceTimer );
+        controller.setAutoPredictEnabled( true );
+
+        naturalEnvironment.setTemperatureK( naturalEnvironment.getTemperatureK() + 0.1d );
+        assertTrue( debounceTimer._delayMilliseconds <= 100d );
+    }
+
+    @Test
+    public void staleResultsArePredictedRightAway() {
+        final NaturalEnvironment naturalEnvironment = new NaturalEnvironment();
+        final CountingPredictionService predictionService =
+                new CountingPredictionService( naturalEnvironment );
+        final ManualDebounceTimer debounceTimer = new ManualDebounceTimer();
+        final AutoPredictController controller = makeController( naturalEnvironment,
+                                                                 predictionService,
+                                                                 null,
+                                                                 0d,
+                                                                 debounceTimer );
+        controller.setAutoPredictEnabled( true );
+
+        naturalEnvironment.setTemperatureK( naturalEnvironment.getTemperatureK() + 0.1d );
+        assertEquals( 2, predictionService._predictCount );
+        assertFalse( debounceTimer._running );
+    }
+
+    @Test
+    public void togglingAirAttenuationPredictsRightAway() {
+        final NaturalEnvironment naturalEnvironment = new NaturalEnvironment();
+        final CountingPredictionService predictionService =
+                new CountingPredictionService( naturalEnvironment );
+        final ManualDebounceTimer debounceTimer = new ManualDebounceTimer();
+        final AutoPredictController controller = makeController( naturalEnvironment,
+                                                                 predictionService,
+                                                                 null,
+                                                                 1.0e6d,
+                                                                 debounceTimer );
+        controller.setAutoPredictEnabled( true );
+
+        naturalEnvironment
+                .setAirAttenuationApplied( !naturalEnvironment.isAirAttenuationApplied() );
+        assertEquals( 2, predictionService._predictCount );
+        assertEquals( 0, debounceTimer._restartCount );
+    }
+
+    @Test
+    public void changesAreIgnoredWhileDisabledOrDisposed() {
+        final NaturalEnvironment naturalEnvironment = new NaturalEnvironment();
+        final CountingPredictionService predictionService =
+                new CountingPredictionService( naturalEnvironment );
+        final ManualDebounceTimer debounceTimer = new ManualDebounceTimer();
+        final AutoPredictController controller = makeController( naturalEnvironment,
+                                                                 predictionService,
+                                                                 null,
+                                                                 1.0e6d,
+                                                                 debounceTimer );
+
+        naturalEnvironment.setTemperatureK( naturalEnvironment.getTemperatureK() + 1d );
+        assertEquals( 0, debounceTimer._restartCount );
+
+        controller.setAutoPredictEnabled( true );
+        controller.dispose();
+        assertTrue( predictionService.isCancelOnEnvironmentChange() );
+
+        naturalEnvironment.setTemperatureK( naturalEnvironment.getTemperatureK() + 1d );
+        assertEquals( 0, debounceTimer._restartCount );
+        assertEquals( 1, predictionService._predictCount );
+    }
+
+    @Test
+    public void changeFilterScreensOutSmallChanges() {
+        final NaturalEnvironment naturalEnvironment = new NaturalEnvironment();
+        final CountingPredictionService predictionService =
+                new CountingPredictionService( naturalEnvironment );
+        final ManualDebounceTimer debounceTimer = new ManualDebounceTimer();
+        final AutoPredictController controller =
+                makeController( naturalEnvironment,
+                                predictionService,
+                                new NaturalEnvironmentChangeFilter( naturalEnvironment,
+                                                                    1d,
+                                                                    5d,
+                                                                    100d ),
+                                1.0e6d,
+                                debounceTimer );
+        controller.setAutoPredictEnabled( true );
+
+        naturalEnvironment.setTemperatureK( naturalEnvironment.getTemperatureK() + 0.5d );
+        assertEquals( 0, debounceTimer._restartCount );
+
+        naturalEnvironment.setTemperatureK( naturalEnvironment.getTemperatureK() + 0.5d );
+        assertEquals( 1, debounceTimer._restartCount );
+    }
+
+    private static AutoPredictController makeController( final NaturalEnvironment naturalEnvironment,
+                                                         final PredictionService< ? > predictionService,
+                                                         final NaturalEnvironmentChangeFilter changeFilter,
+                                                         final double maximumStalenessMilliseconds,
+                                                         final ManualDebounceTimer debounceTimer ) {
+        return new AutoPredictController( naturalEnvironment,
+                                          predictionService,
+                                          changeFilter,
+                                          AutoPredictController.DEBOUNCE_MILLISECONDS_DEFAULT,
+                                          maximumStalenessMilliseconds,
+                                          onFinished -> {
+                                              debounceTimer._onFinished = onFinished;
+                                              return debounceTimer;
+                                          } );
+    }
+
+    // This timer only fires when told to.
+    private static final class ManualDebounceTimer
+            implements AutoPredictController.DebounceTimer {
+
+        Runnable _onFinished;
+        boolean  _running;
+        int      _restartCount;
+        double   _delayMilliseconds;
+
+        @Override
+        public void restart( final double delayMilliseconds ) {
+            _running = true;
+            _restartCount++;
+            _delayMilliseconds = delayMilliseconds;
+        }
+
+        @Override
+        public void stop() {
+            _running = false;
+        }
+
+        void fire() {
+            _running = false;
+            _onFinished.run();
+        }
+    }
+
+    // This service counts predictions instead of starting runs, as that
+    // needs the JavaFX toolkit.
+    private static final class CountingPredictionService extends PredictionService< String > {
+
+        int _predictCount;
+
+        CountingPredictionService( final NaturalEnvironment naturalEnvironment ) {
+            super( naturalEnvironment, ( snapshot, predictionContext ) -> "predicted" ); //$NON-NLS-1$
+            _predictCount = 0;
+        }
+
+        @Override
+        public void predict() {
+            _predictCount++;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxPhysics Library
+ *
+ * You should have received a copy of the MIT License along with the FxPhysics
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxphysics
+ */
+package com.mhschmieder.fxphysicscontrols.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import com.mhschmieder.fxphysicscontrols.model.EnvironmentTimeSeries;
+import com.mhschmieder.fxphysicscontrols.model.NaturalEnvironment;
+import org.junit.Test;
+
+public final class EnvironmentPlaybackControllerTest {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    @Test
+    public void framesAreCappedAndReadingsCoalesced() {
+        final EnvironmentTimeSeries timeSeries = makeTimeSeries();
+        final NaturalEnvironment naturalEnvironment = new NaturalEnvironment();
+        final EnvironmentPlaybackController controller =
+                new EnvironmentPlaybackController( timeSeries, naturalEnvironment );
+        controller.setMaximumFrameRate( 0.5d );
+
+        // NOTE: Seeking anchors the playback time a little after this, so
+        //  every pulse below is half a second clear of a reading.
+        final long startNanos = System.nanoTime();
+        controller.seek( 0L );
+        assertEquals( 280d, naturalEnvironment.getTemperatureK(), 0d );
+
+        controller.advance( startNanos + ( 5L * NANOS_PER_SECOND / 2L ) );
+        assertEquals( 282d, naturalEnvironment.getTemperatureK(), 0d );
+        assertEquals( 1L, controller.getCoalescedReadingCount() );
+
+        // This pulse comes sooner than the two second frame interval.
+        controller.advance( startNanos + ( 7L * NANOS_PER_SECOND / 2L ) );
+        assertEquals( 282d, naturalEnvironment.getTemperatureK(), 0d );
+        assertEquals( 1L, controller.getCoalescedReadingCount() );
+
+        controller.advance( startNanos + ( 9L * NANOS_PER_SECOND / 2L ) );
+        assertEquals( 284d, naturalEnvironment.getTemperatureK(), 0d );
+        assertEquals( 2L, controller.getCoalescedReadingCount() );
+
+        controller.advance( startNanos + ( 20L * NANOS_PER_SECOND ) );
+        assertEquals( 289d, naturalEnvironment.getTemperatureK(), 0d );
+        assertEquals( 9000L, controller.getPositionMillis() );
+        assertFalse( controller.isPlaying() );
+    }
+
+    @Test
+    public void advancingAClearedLogPauses() {
+        final EnvironmentTimeSeries timeSeries = makeTimeSeries();
+        final EnvironmentPlaybackController controller =
+                new EnvironmentPlaybackController( timeSeries, new NaturalEnvironment() );
+        controller.seek( 0L );
+
+        timeSeries.clear();
+        controller.advance( System.nanoTime() + NANOS_PER_SECOND );
+
+        assertFalse( controller.isPlaying() );
+        assertEquals( 0L, controller.getPositionMillis() );
+    }
+
+    @Test
+    public void frameRatesThatAreNotPositiveAreRejected() {
+        final EnvironmentPlaybackController controller =
+                new EnvironmentPlaybackController( new EnvironmentTimeSeries(),
+                                                   new NaturalEnvironment() );
+
+        for ( final double frameRate : new double[] { 0d, -30d, Double.NaN } ) {
+            try {
+                controller.setMaximumFrameRate( frameRate );
+                fail( "Accepted frame rate " + frameRate ); //$NON-NLS-1$
+            }
+            catch ( final IllegalArgumentException iae ) {
+                assertEquals( EnvironmentPlaybackController.FRAME_RATE_MAXIMUM_DEFAULT,
+                              controller.getMaximumFrameRate(),
+                              0d );
+            }
+        }
+    }
+
+    // Makes a log of ten readings, one second apart, whose temperature counts
+    // up from 280 K.
+    private static EnvironmentTimeSeries makeTimeSeries() {
+        final EnvironmentTimeSeries timeSeries = new EnvironmentTimeSeries();
+        for ( int i = 0; i < 10; i++ ) {
+            timeSeries.append( 1000L * i, 280d + i, 50d, 101325d );
+        }
+        return timeSeries;
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxPhysics Library
+ *
+ * You should have received a copy of the MIT License along with the FxPhysics
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxphysics
+ */
+package com.mhschmieder.fxphysicscontrols.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+
+public final class EnvironmentReadingSlotTest {
+
+    @Test
+    public void wholeReadingIsTakenTogether() {
+        final EnvironmentReadingSlot slot = new EnvironmentReadingSlot();
+        final double[] values = new double[ EnvironmentReadingSlot.NUMBER_OF_FIELDS ];
+        assertEquals( 0, slot.take( values ) );
+        assertFalse( slot.hasPending() );
+
+        slot.store( EnvironmentReadingSlot.ALL_FIELDS_MASK, 300d, 40d, 99000d, 1234L );
+        assertTrue( slot.hasPending() );
+        assertEquals( EnvironmentReadingSlot.ALL_FIELDS_MASK, slot.take( values ) );
+        assertEquals( 300d, values[ EnvironmentReadingSlot.TEMPERATURE ], 0d );
+        assertEquals( 40d, values[ EnvironmentReadingSlot.HUMIDITY ], 0d );
+        assertEquals( 99000d, values[ EnvironmentReadingSlot.PRESSURE ], 0d );
+        assertEquals( 1234L, slot.getTakenSampleNanos() );
+
+        // Nothing is taken twice.
+        assertFalse( slot.hasPending() );
+        assertEquals( 0, slot.take( values ) );
+    }
+
+    @Test
+    public void singleFieldReadingsLeaveTheOtherFields() {
+        final EnvironmentReadingSlot slot = new EnvironmentReadingSlot();
+        slot.store( EnvironmentReadingSlot.ALL_FIELDS_MASK, 300d, 40d, 99000d, -1L );
+        slot.take( new double[ EnvironmentReadingSlot.NUMBER_OF_FIELDS ] );
+
+        slot.store( EnvironmentReadingSlot.HUMIDITY_MASK, 0d, 55d, 0d, -1L );
+        final double[] values = { 1d, 2d, 3d };
+        assertEquals( EnvironmentReadingSlot.HUMIDITY_MASK, slot.take( values ) );
+        assertEquals( 1d, values[ EnvironmentReadingSlot.TEMPERATURE ], 0d );
+        assertEquals( 55d, values[ EnvironmentReadingSlot.HUMIDITY ], 0d );
+        assertEquals( 3d, values[ EnvironmentReadingSlot.PRESSURE ], 0d );
+        assertEquals( -1L, slot.getTakenSampleNanos() );
+    }
+
+    @Test
+    public void overwrittenValuesAreCountedAsDropped() {
+        final EnvironmentReadingSlot slot = new EnvironmentReadingSlot();
+        slot.store( EnvironmentReadingSlot.TEMPERATURE_MASK, 300d, 0d, 0d, -1L );
+        slot.store( EnvironmentReadingSlot.ALL_FIELDS_MASK, 301d, 40d, 99000d, -1L );
+        slot.take( new double[ EnvironmentReadingSlot.NUMBER_OF_FIELDS ] );
+        slot.store( EnvironmentReadingSlot.PRESSURE_MASK, 0d, 0d, 98000d, -1L );
+
+        assertEquals( 2L, slot.getStoredCount( EnvironmentReadingSlot.TEMPERATURE ) );
+        assertEquals( 1L, slot.getDroppedCount( EnvironmentReadingSlot.TEMPERATURE ) );
+        assertEquals( 2L, slot.getStoredCount( EnvironmentReadingSlot.PRESSURE ) );
+        assertEquals( 0L, slot.getDroppedCount( EnvironmentReadingSlot.PRESSURE ) );
+
+        slot.resetCounts();
+        assertEquals( 0L, slot.getStoredCount( EnvironmentReadingSlot.TEMPERATURE ) );
+    }
+
+    @Test
+    public void discardedReadingsAreNeverTaken() {
+        final EnvironmentReadingSlot slot = new EnvironmentReadingSlot();
+        slot.store( EnvironmentReadingSlot.ALL_FIELDS_MASK, 300d, 40d, 99000d, -1L );
+        slot.discard();
+
+        assertFalse( slot.hasPending() );
+        assertEquals( 0, slot.take( new double[ EnvironmentReadingSlot.NUMBER_OF_FIELDS ] ) );
+    }
+
+    @Test
+    public void concurrentReadingsAreNeverTorn() throws InterruptedException {
+        // Each writer stores readings whose fields all derive from one
+        // counter, so a mix of two readings shows up as a mismatch.
+        final EnvironmentReadingSlot slot = new EnvironmentReadingSlot();
+        final int numberOfWriters = 3;
+        final int readingsPerWriter = 200000;
+        final CountDownLatch startLatch = new CountDownLatch( 1 );
+        final Thread[] writers = new Thread[ numberOfWriters ];
+        for ( int writer = 0; writer < numberOfWriters; writer++ ) {
+            final int writerIndex = writer;
+            writers[ writer ] = new Thread( () -> {
+                try {
+                    startLatch.await();
+                }
+                catch ( final InterruptedException ex ) {
+                    return;
+                }
+                for ( int i = 1; i <= readingsPerWriter; i++ ) {
+                    final double value = ( writerIndex * readingsPerWriter ) + i;
+                    slot.store( EnvironmentReadingSlot.ALL_FIELDS_MASK,
+                                value,
+                                2d * value,
+                                3d * value,
+                                ( long ) value );
+                }
+            } );
+            writers[ writer ].start();
+        }
+
+        final double[] values = new double[ EnvironmentReadingSlot.NUMBER_OF_FIELDS ];
+        int takeCount = 0;
+        boolean writing = true;
+        startLatch.countDown();
+        while ( writing ) {
+            writing = isAnyAlive( writers );
+            final int fieldMask = slot.take( values );
+            if ( fieldMask == 0 ) {
+                continue;
+            }
+            takeCount++;
+            assertEquals( EnvironmentReadingSlot.ALL_FIELDS_MASK, fieldMask );
+            final double value = values[ EnvironmentReadingSlot.TEMPERATURE ];
+            assertEquals( 2d * value, values[ EnvironmentReadingSlot.HUMIDITY ], 0d );
+            assertEquals( 3d * value, values[ EnvironmentReadingSlot.PRESSURE ], 0d );
+            assertEquals( ( long ) value, slot.getTakenSampleNanos() );
+        }
+        for ( final Thread writer : writers ) {
+            writer.join();
+        }
+
+        // Every reading was stored, and the last one is still pending.
+        assertTrue( slot.hasPending() || ( takeCount > 0 ) );
+        slot.take( values );
+        final long storedCount = slot.getStoredCount( EnvironmentReadingSlot.TEMPERATURE );
+        final long droppedCount = slot.getDroppedCount( EnvironmentReadingSlot.TEMPERATURE );
+        assertEquals( ( long ) numberOfWriters * readingsPerWriter, storedCount );
+        assertTrue( takeCount > 0 );
+        assertTrue( droppedCount < storedCount );
+        assertFalse( slot.hasPending() );
+    }
+
+    private static boolean isAnyAlive( final Thread[] threads ) {
+        for ( final Thread thread : threads ) {
+            if ( thread.isAlive() ) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
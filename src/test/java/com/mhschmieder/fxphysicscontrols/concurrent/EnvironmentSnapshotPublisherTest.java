@@ -0,0 +1,229 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxPhysics Library
+ *
+ * You should have received a copy of the MIT License along with the FxPhysics
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxphysics
+ */
+package com.mhschmieder.fxphysicscontrols.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.mhschmieder.fxphysicscontrols.model.EnvironmentSnapshot;
+import com.mhschmieder.fxphysicscontrols.model.MeasurementUnits;
+import com.mhschmieder.fxphysicscontrols.model.NaturalEnvironment;
+import com.mhschmieder.jphysics.TemperatureUnit;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+public final class EnvironmentSnapshotPublisherTest {
+
+    private NaturalEnvironment           _naturalEnvironment;
+    private MeasurementUnits             _measurementUnits;
+
+    // The tasks queued for the JavaFX Application Thread and for delivery,
+    // which the tests run by hand.
+    private Queue< Runnable >            _publishTasks;
+    private Queue< Runnable >            _deliveryTasks;
+
+    private EnvironmentSnapshotPublisher _publisher;
+
+    @Before
+    public void setUp() {
+        _naturalEnvironment = new NaturalEnvironment();
+        _measurementUnits = new MeasurementUnits();
+        _publishTasks = new ArrayDeque<>();
+        _deliveryTasks = new ArrayDeque<>();
+        _publisher = new EnvironmentSnapshotPublisher( _naturalEnvironment,
+                                                       _measurementUnits,
+                                                       _deliveryTasks::add,
+                                                       _publishTasks::add );
+    }
+
+    @Test
+    public void newSubscribersGetTheCurrentSnapshot() {
+        final RecordingSubscriber subscriber = subscribe( Long.MAX_VALUE );
+
+        assertEquals( 1, subscriber._snapshots.size() );
+        assertEquals( 0L, subscriber._snapshots.get( 0 ).getVersion() );
+    }
+
+    @Test
+    public void batchedChangesYieldOneSnapshot() {
+        final RecordingSubscriber subscriber = subscribe( Long.MAX_VALUE );
+
+        _naturalEnvironment.setNaturalEnvironment( 300d, 20d, 90000d, false );
+        assertEquals( 1, _publishTasks.size() );
+        runAll( _publishTasks );
+        runAll( _deliveryTasks );
+
+        assertEquals( 2, subscriber._snapshots.size() );
+        final EnvironmentSnapshot environmentSnapshot = subscriber._snapshots.get( 1 );
+        assertEquals( 1L, environmentSnapshot.getVersion() );
+        assertEquals( 300d, environmentSnapshot.getTemperatureK(), 0d );
+        assertEquals( 20d, environmentSnapshot.getHumidityRelative(), 0d );
+        assertEquals( 90000d, environmentSnapshot.getPressurePa(), 0d );
+    }
+
+    @Test
+    public void unitChangesArePublishedEachTime() {
+        final RecordingSubscriber subscriber = subscribe( Long.MAX_VALUE );
+
+        _measurementUnits.setTemperatureUnit( TemperatureUnit.CELSIUS );
+        runAll( _publishTasks );
+        runAll( _deliveryTasks );
+        _measurementUnits.setTemperatureUnit( TemperatureUnit.FAHRENHEIT );
+        runAll( _publishTasks );
+        runAll( _deliveryTasks );
+
+        assertEquals( 3, subscriber._snapshots.size() );
+        assertEquals( TemperatureUnit.CELSIUS, subscriber._snapshots.get( 1 ).getTemperatureUnit() );
+        assertEquals( TemperatureUnit.FAHRENHEIT,
+                      subscriber._snapshots.get( 2 ).getTemperatureUnit() );
+    }
+
+    @Test
+    public void subscribersNeverGetMoreThanRequested() {
+        final RecordingSubscriber subscriber = subscribe( 0L );
+
+        _naturalEnvironment.setTemperatureK( 280d );
+        runAll( _publishTasks );
+        runAll( _deliveryTasks );
+        assertTrue( subscriber._snapshots.isEmpty() );
+
+        subscriber._subscription.request( 1L );
+        runAll( _deliveryTasks );
+        assertEquals( 1, subscriber._snapshots.size() );
+    }
+
+    @Test
+    public void slowSubscribersOnlyGetTheLatestSnapshot() {
+        final RecordingSubscriber subscriber = subscribe( 1L );
+        assertEquals( 1, subscriber._snapshots.size() );
+
+        for ( int i = 1; i <= 3; i++ ) {
+            _naturalEnvironment.setTemperatureK( 280d + i );
+            runAll( _publishTasks );
+        }
+        runAll( _deliveryTasks );
+        assertEquals( 1, subscriber._snapshots.size() );
+        assertEquals( 2L, _publisher.getConflatedSnapshotCount() );
+
+        subscriber._subscription.request( 1L );
+        runAll( _deliveryTasks );
+        assertEquals( 2, subscriber._snapshots.size() );
+        assertEquals( 3L, subscriber._snapshots.get( 1 ).getVersion() );
+        assertEquals( 283d, subscriber._snapshots.get( 1 ).getTemperatureK(), 0d );
+    }
+
+    @Test
+    public void nonPositiveRequestsAreErrors() {
+        final RecordingSubscriber subscriber = subscribe( 0L );
+
+        subscriber._subscription.request( 0L );
+        runAll( _deliveryTasks );
+
+        assertTrue( subscriber._error instanceof IllegalArgumentException );
+        assertEquals( 0, _publisher.getNumberOfSubscribers() );
+    }
+
+    @Test
+    public void closeDeliversPendingChangesThenCompletes() {
+        final RecordingSubscriber subscriber = subscribe( Long.MAX_VALUE );
+
+        _naturalEnvironment.setTemperatureK( 290d );
+        _publisher.close();
+        runAll( _deliveryTasks );
+
+        assertEquals( 2, subscriber._snapshots.size() );
+        assertEquals( 290d, subscriber._snapshots.get( 1 ).getTemperatureK(), 0d );
+        assertTrue( subscriber._completed );
+        assertEquals( 0, _publisher.getNumberOfSubscribers() );
+
+        // Changes after closing are no longer published.
+        runAll( _publishTasks );
+        _naturalEnvironment.setTemperatureK( 295d );
+        assertTrue( _publishTasks.isEmpty() );
+    }
+
+    private RecordingSubscriber subscribe( final long initialRequest ) {
+        final RecordingSubscriber subscriber = new RecordingSubscriber( initialRequest );
+        _publisher.subscribe( subscriber );
+        runAll( _deliveryTasks );
+        return subscriber;
+    }
+
+    private static void runAll( final Queue< Runnable > tasks ) {
+        Runnable task;
+        while ( ( task = tasks.poll() ) != null ) {
+            task.run();
+        }
+    }
+
+    private static final class RecordingSubscriber
+            implements EnvironmentSnapshotPublisher.Subscriber {
+
+        private final long                                   _initialRequest;
+        private final List< EnvironmentSnapshot >            _snapshots;
+        private EnvironmentSnapshotPublisher.Subscription    _subscription;
+        private Throwable                                    _error;
+        private boolean                                      _completed;
+
+        RecordingSubscriber( final long initialRequest ) {
+            _initialRequest = initialRequest;
+            _snapshots = new ArrayList<>();
+        }
+
+        @Override
+        public void onSubscribe( final EnvironmentSnapshotPublisher.Subscription subscription ) {
+            _subscription = subscription;
+            if ( _initialRequest > 0L ) {
+                subscription.request( _initialRequest );
+            }
+        }
+
+        @Override
+        public void onNext( final EnvironmentSnapshot environmentSnapshot ) {
+            _snapshots.add( environmentSnapshot );
+        }
+
+        @Override
+        public void onError( final Throwable throwable ) {
+            _error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            _completed = true;
+        }
+    }
+}
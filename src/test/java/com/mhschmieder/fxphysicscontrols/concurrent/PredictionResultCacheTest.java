@@ -0,0 +1,131 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxPhysics Library
+ *
+ * You should have received a copy of the MIT License along with the FxPhysics
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxphysics
+ */
+package com.mhschmieder.fxphysicscontrols.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import com.mhschmieder.fxphysicscontrols.model.NaturalEnvironmentKey;
+import org.junit.Test;
+
+public final class PredictionResultCacheTest {
+
+    @Test
+    public void leastRecentlyUsedEntryIsEvictedFirst() {
+        final PredictionResultCache< String > cache = new PredictionResultCache<>( 2,
+                                                                                   Long.MAX_VALUE,
+                                                                                   result -> 0L );
+        cache.put( makeKey( 1 ), "one" ); //$NON-NLS-1$
+        cache.put( makeKey( 2 ), "two" ); //$NON-NLS-1$
+
+        // Looking up the older entry makes the newer one the eviction victim.
+        assertEquals( "one", cache.get( makeKey( 1 ) ) ); //$NON-NLS-1$
+        cache.put( makeKey( 3 ), "three" ); //$NON-NLS-1$
+
+        assertEquals( 2, cache.size() );
+        assertEquals( "one", cache.get( makeKey( 1 ) ) ); //$NON-NLS-1$
+        assertNull( cache.get( makeKey( 2 ) ) );
+        assertEquals( "three", cache.get( makeKey( 3 ) ) ); //$NON-NLS-1$
+    }
+
+    @Test
+    public void entriesAreEvictedToMeetTheMemoryBound() {
+        final PredictionResultCache< double[] > cache = makeArrayCache( 1000L );
+        cache.put( makeKey( 1 ), new double[ 50 ] );
+        cache.put( makeKey( 2 ), new double[ 50 ] );
+        assertEquals( 800L, cache.getTotalBytes() );
+
+        cache.put( makeKey( 3 ), new double[ 50 ] );
+        assertEquals( 2, cache.size() );
+        assertEquals( 800L, cache.getTotalBytes() );
+        assertNull( cache.get( makeKey( 1 ) ) );
+    }
+
+    @Test
+    public void oversizedResultsAreNotCached() {
+        final PredictionResultCache< double[] > cache = makeArrayCache( 1000L );
+        final double[] smallResult = new double[ 10 ];
+        cache.put( makeKey( 1 ), smallResult );
+
+        // An oversized result also drops any stale entry for its key.
+        cache.put( makeKey( 1 ), new double[ 200 ] );
+        assertEquals( 0, cache.size() );
+        assertEquals( 0L, cache.getTotalBytes() );
+
+        cache.put( makeKey( 2 ), smallResult );
+        assertSame( smallResult, cache.get( makeKey( 2 ) ) );
+    }
+
+    @Test
+    public void replacingAnEntryUpdatesTheTotalSize() {
+        final PredictionResultCache< double[] > cache = makeArrayCache( 1000L );
+        cache.put( makeKey( 1 ), new double[ 10 ] );
+        cache.put( makeKey( 1 ), new double[ 20 ] );
+        assertEquals( 1, cache.size() );
+        assertEquals( 160L, cache.getTotalBytes() );
+
+        cache.remove( makeKey( 1 ) );
+        assertEquals( 0L, cache.getTotalBytes() );
+    }
+
+    @Test
+    public void hitsAndMissesAreCounted() {
+        final PredictionResultCache< String > cache = new PredictionResultCache<>();
+        cache.put( makeKey( 1 ), "one" ); //$NON-NLS-1$
+        cache.get( makeKey( 1 ) );
+        cache.get( makeKey( 2 ) );
+        cache.get( makeKey( 2 ) );
+
+        assertEquals( 1L, cache.getHitCount() );
+        assertEquals( 2L, cache.getMissCount() );
+    }
+
+    @Test( expected = NullPointerException.class )
+    public void sizeEstimatorIsRequired() {
+        new PredictionResultCache< String >( 10, 1000L, null );
+    }
+
+    // Makes a cache of arrays, sized at eight bytes per element.
+    private static PredictionResultCache< double[] > makeArrayCache( final long maximumBytes ) {
+        return new PredictionResultCache<>( 100, maximumBytes, result -> 8L * result.length );
+    }
+
+    private static NaturalEnvironmentKey makeKey( final int temperatureStep ) {
+        return NaturalEnvironmentKey.of( 293.15d + temperatureStep,
+                                         50d,
+                                         101325d,
+                                         true,
+                                         NaturalEnvironmentKey.TEMPERATURE_STEP_K_DEFAULT,
+                                         NaturalEnvironmentKey.HUMIDITY_STEP_RELATIVE_DEFAULT,
+                                         NaturalEnvironmentKey.PRESSURE_STEP_PA_DEFAULT );
+    }
+}
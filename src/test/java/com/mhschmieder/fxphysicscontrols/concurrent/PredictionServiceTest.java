@@ -0,0 +1,125 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxPhysics Library
+ *
+ * You should have received a copy of the MIT License along with the FxPhysics
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxphysics
+ */
+package com.mhschmieder.fxphysicscontrols.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.mhschmieder.fxphysicscontrols.model.NaturalEnvironment;
+import com.mhschmieder.fxphysicscontrols.model.NaturalEnvironmentChangeFilter;
+import com.mhschmieder.fxphysicscontrols.model.NaturalEnvironmentKey;
+import javafx.concurrent.Worker;
+import org.junit.Test;
+
+// NOTE: These tests never start a run, as that needs the JavaFX toolkit.
+public final class PredictionServiceTest {
+
+    @Test
+    public void everyEnvironmentChangeIsReported() {
+        final NaturalEnvironment naturalEnvironment = new NaturalEnvironment();
+        final CountingPredictionService predictionService =
+                new CountingPredictionService( naturalEnvironment );
+
+        naturalEnvironment.setTemperatureK( naturalEnvironment.getTemperatureK() + 0.01d );
+        naturalEnvironment.setPressurePa( naturalEnvironment.getPressurePa() + 0.01d );
+
+        assertEquals( 2, predictionService._environmentChangedCount );
+    }
+
+    @Test
+    public void changeFilterScreensOutSmallChanges() {
+        final NaturalEnvironment naturalEnvironment = new NaturalEnvironment();
+        final CountingPredictionService predictionService =
+                new CountingPredictionService( naturalEnvironment );
+        predictionService
+                .setChangeFilter( new NaturalEnvironmentChangeFilter( naturalEnvironment,
+                                                                      1d,
+                                                                      5d,
+                                                                      100d ) );
+
+        naturalEnvironment.setTemperatureK( naturalEnvironment.getTemperatureK() + 0.5d );
+        assertEquals( 0, predictionService._environmentChangedCount );
+        naturalEnvironment.setTemperatureK( naturalEnvironment.getTemperatureK() + 0.5d );
+        assertEquals( 1, predictionService._environmentChangedCount );
+
+        // Removing the filter reports every change again.
+        predictionService.setChangeFilter( null );
+        naturalEnvironment.setTemperatureK( naturalEnvironment.getTemperatureK() + 0.01d );
+        assertEquals( 2, predictionService._environmentChangedCount );
+    }
+
+    @Test
+    public void disposedServiceIgnoresEnvironmentChanges() {
+        final NaturalEnvironment naturalEnvironment = new NaturalEnvironment();
+        final CountingPredictionService predictionService =
+                new CountingPredictionService( naturalEnvironment );
+
+        predictionService.dispose();
+        naturalEnvironment.setTemperatureK( naturalEnvironment.getTemperatureK() + 1d );
+
+        assertEquals( 0, predictionService._environmentChangedCount );
+    }
+
+    @Test
+    public void clearDiscardsTheLatestResult() {
+        final NaturalEnvironment naturalEnvironment = new NaturalEnvironment();
+        final CountingPredictionService predictionService =
+                new CountingPredictionService( naturalEnvironment );
+
+        // A cache hit publishes a result without starting a run.
+        final PredictionResultCache< String > resultCache = new PredictionResultCache<>();
+        resultCache.put( NaturalEnvironmentKey.of( naturalEnvironment ), "cached" ); //$NON-NLS-1$
+        predictionService.setResultCache( resultCache );
+        predictionService.predict();
+        assertEquals( "cached", predictionService.getResult() ); //$NON-NLS-1$
+
+        predictionService.clear();
+        assertNull( predictionService.getResult() );
+        assertEquals( Worker.State.READY, predictionService.getState() );
+    }
+
+    // This service counts the environment changes that reach it.
+    static final class CountingPredictionService extends PredictionService< String > {
+
+        int _environmentChangedCount;
+
+        CountingPredictionService( final NaturalEnvironment naturalEnvironment ) {
+            super( naturalEnvironment, ( snapshot, predictionContext ) -> "predicted" ); //$NON-NLS-1$
+            _environmentChangedCount = 0;
+        }
+
+        @Override
+        protected void environmentChanged() {
+            _environmentChangedCount++;
+            super.environmentChanged();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxPhysics Library
+ *
+ * You should have received a copy of the MIT License along with the FxPhysics
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxphysics
+ */
+package com.mhschmieder.fxphysicscontrols.concurrent;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import com.mhschmieder.fxphysicscontrols.concurrent.NaturalEnvironmentDispatcher.DispatchListener;
+import com.mhschmieder.fxphysicscontrols.model.NaturalEnvironment;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class SimulatedSensorSourceTest {
+
+    @Test
+    public void previousListenerIsChainedAndRestored() {
+        final NaturalEnvironmentDispatcher dispatcher =
+                new NaturalEnvironmentDispatcher( new NaturalEnvironment() );
+        final List< long[] > updates = new ArrayList<>();
+        final DispatchListener previousListener = ( sampleNanos, pulseNanos ) -> updates
+                .add( new long[] { sampleNanos, pulseNanos } );
+        dispatcher.setDispatchListener( previousListener );
+
+        final SimulatedSensorSource source = new SimulatedSensorSource( dispatcher, 1L );
+        source.attachDispatchListener();
+        dispatcher.getDispatchListener().updateApplied( 5L, 7L );
+        dispatcher.getDispatchListener().updateApplied( -1L, 9L );
+
+        assertArrayEquals( new long[] { 5L, 7L }, updates.get( 0 ) );
+        assertArrayEquals( new long[] { -1L, 9L }, updates.get( 1 ) );
+
+        source.detachDispatchListener();
+        assertSame( previousListener, dispatcher.getDispatchListener() );
+    }
+
+    @Test
+    public void noListenerIsLeftBehind() {
+        final NaturalEnvironmentDispatcher dispatcher =
+                new NaturalEnvironmentDispatcher( new NaturalEnvironment() );
+
+        final SimulatedSensorSource source = new SimulatedSensorSource( dispatcher, 1L );
+        source.attachDispatchListener();
+        dispatcher.getDispatchListener().updateApplied( 5L, 7L );
+        source.detachDispatchListener();
+
+        assertNull( dispatcher.getDispatchListener() );
+    }
+
+    @Test
+    public void listenerSetWhileRunningIsKept() {
+        final NaturalEnvironmentDispatcher dispatcher =
+                new NaturalEnvironmentDispatcher( new NaturalEnvironment() );
+        final DispatchListener laterListener = ( sampleNanos, pulseNanos ) -> {};
+
+        final SimulatedSensorSource source = new SimulatedSensorSource( dispatcher, 1L );
+        source.attachDispatchListener();
+        dispatcher.setDispatchListener( laterListener );
+        source.detachDispatchListener();
+
+        assertSame( laterListener, dispatcher.getDispatchListener() );
+    }
+}
@@ -0,0 +1,292 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxPhysics Library
+ *
+ * You should have received a copy of the MIT License along with the FxPhysics
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxphysics
+ */
+package com.mhschmieder.fxphysicscontrols.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.mhschmieder.fxphysicscontrols.model.EnvironmentTimeSeries;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+public final class EnvironmentLogImporterTest {
+
+    // Declare the number of random numbers checked against the JDK parser.
+    private static final int NUMBER_OF_RANDOM_CASES = 200000;
+
+    private Path             _logPath;
+
+    @Before
+    public void setUp() throws IOException {
+        _logPath = Files.createTempFile( "environmentLog", ".csv" ); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists( _logPath );
+    }
+
+    @Test
+    public void parseNumberMatchesParseDouble() {
+        // Every number with up to 15 significant digits and a small overall
+        // exponent must parse to exactly the same bits as the JDK parser.
+        final Random random = new Random( 9613L );
+        for ( int i = 0; i < NUMBER_OF_RANDOM_CASES; i++ ) {
+            final String text = makeRandomNumber( random );
+            final byte[] bytes = text.getBytes( StandardCharsets.US_ASCII );
+            final double expected = Double.parseDouble( text );
+            final double actual = EnvironmentLogImporter.parseNumber( bytes, 0, bytes.length );
+            assertEquals( text,
+                          Double.doubleToRawLongBits( expected ),
+                          Double.doubleToRawLongBits( actual ) );
+        }
+    }
+
+    @Test
+    public void parseNumberIgnoresPadding() {
+        final byte[] bytes = " \t\"-12.5e1\"  ".getBytes( StandardCharsets.US_ASCII ); //$NON-NLS-1$
+        assertEquals( -125d, EnvironmentLogImporter.parseNumber( bytes, 0, bytes.length ), 0d );
+    }
+
+    @Test
+    public void parseNumberRejectsNonNumbers() {
+        final String[] texts = new String[] {
+                                              "", //$NON-NLS-1$
+                                              "  ", //$NON-NLS-1$
+                                              "-", //$NON-NLS-1$
+                                              ".", //$NON-NLS-1$
+                                              "1e", //$NON-NLS-1$
+                                              "1e+", //$NON-NLS-1$
+                                              "1.2.3", //$NON-NLS-1$
+                                              "12a", //$NON-NLS-1$
+                                              "abc", //$NON-NLS-1$
+                                              "--1" }; //$NON-NLS-1$
+        for ( final String text : texts ) {
+            final byte[] bytes = text.getBytes( StandardCharsets.US_ASCII );
+            assertTrue( text,
+                        Double.isNaN( EnvironmentLogImporter
+                                .parseNumber( bytes, 0, bytes.length ) ) );
+        }
+    }
+
+    @Test
+    public void importCarriesPartialLinesAcrossBuffers() throws IOException {
+        // A buffer only a few lines long forces most lines to straddle two
+        // reads, and mixed line endings must not matter.
+        final int numberOfReadings = 1000;
+        final StringBuilder log = new StringBuilder( "time,temperature,humidity,pressure\n" ); //$NON-NLS-1$
+        for ( int i = 0; i < numberOfReadings; i++ ) {
+            log.append( i ).append( ',' ).append( 280d + ( 0.01d * i ) ).append( ',' )
+                    .append( i % 100 ).append( ',' ).append( 100000 + i )
+                    .append( ( ( i % 3 ) == 0 ) ? "\r\n" : "\n" ); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        writeLog( log.toString() );
+
+        final EnvironmentLogImporter importer = EnvironmentLogImporter
+                .makeDelimitedImporter( ',', 0, 1, 2, 3 );
+        importer.setHeaderLines( 1 );
+        importer.setBufferSize( 100 );
+        final EnvironmentTimeSeries timeSeries = new EnvironmentTimeSeries();
+
+        assertEquals( numberOfReadings, importer.importFile( _logPath, timeSeries, null ) );
+        assertEquals( 0L, importer.getSkippedLineCount() );
+        assertEquals( numberOfReadings, timeSeries.getSize() );
+        for ( int i = 0; i < numberOfReadings; i++ ) {
+            assertEquals( i, timeSeries.getTimestampMillis( i ) );
+            assertEquals( 280d + ( 0.01d * i ), timeSeries.getTemperatureK( i ), 0d );
+            assertEquals( i % 100, timeSeries.getHumidityRelative( i ), 0d );
+            assertEquals( 100000 + i, timeSeries.getPressurePa( i ), 0d );
+        }
+    }
+
+    @Test
+    public void importKeepsFinalLineWithoutTerminator() throws IOException {
+        writeLog( "1,290,40,101000\n2,291,41,101001" ); //$NON-NLS-1$
+
+        final EnvironmentLogImporter importer = EnvironmentLogImporter
+                .makeDelimitedImporter( ',', 0, 1, 2, 3 );
+        final EnvironmentTimeSeries timeSeries = new EnvironmentTimeSeries();
+
+        assertEquals( 2L, importer.importFile( _logPath, timeSeries, null ) );
+        assertEquals( 2L, timeSeries.getTimestampMillis( 1 ) );
+        assertEquals( 101001d, timeSeries.getPressurePa( 1 ), 0d );
+    }
+
+    @Test
+    public void importKeepsFinalLineThatFillsTheBuffer() throws IOException {
+        // The last line ends exactly at the end of a buffer, with no
+        // terminator, so it is only complete once the end of file is seen.
+        final String firstLine = "1,290,40,101000\n"; //$NON-NLS-1$
+        final String lastLine = "2,291,41,101001"; //$NON-NLS-1$
+        writeLog( firstLine + lastLine );
+
+        final EnvironmentLogImporter importer = EnvironmentLogImporter
+                .makeDelimitedImporter( ',', 0, 1, 2, 3 );
+        importer.setBufferSize( firstLine.length() + lastLine.length() );
+        final EnvironmentTimeSeries timeSeries = new EnvironmentTimeSeries();
+
+        assertEquals( 2L, importer.importFile( _logPath, timeSeries, null ) );
+    }
+
+    @Test
+    public void importSkipsBadAndOutOfOrderLines() throws IOException {
+        writeLog( "1,290,40,101000\n" //$NON-NLS-1$
+                + "2,oops,41,101001\n" //$NON-NLS-1$
+                + "\n" //$NON-NLS-1$
+                + "0,292,42,101002\n" //$NON-NLS-1$
+                + "3,293,43\n" //$NON-NLS-1$
+                + "4,294,44,101004\n" ); //$NON-NLS-1$
+
+        final EnvironmentLogImporter importer = EnvironmentLogImporter
+                .makeDelimitedImporter( ',', 0, 1, 2, 3 );
+        final EnvironmentTimeSeries timeSeries = new EnvironmentTimeSeries();
+
+        assertEquals( 2L, importer.importFile( _logPath, timeSeries, null ) );
+        assertEquals( 3L, importer.getSkippedLineCount() );
+        assertEquals( 4L, timeSeries.getTimestampMillis( 1 ) );
+    }
+
+    @Test
+    public void importReadsFixedWidthFields() throws IOException {
+        writeLog( "   10 290.5 40.0 101000\n" //$NON-NLS-1$
+                + "   20 291.5 41.0 101010\n" ); //$NON-NLS-1$
+
+        final EnvironmentLogImporter importer = EnvironmentLogImporter
+                .makeFixedWidthImporter( 0, 5, 5, 6, 11, 5, 16, 7 );
+        final EnvironmentTimeSeries timeSeries = new EnvironmentTimeSeries();
+
+        assertEquals( 2L, importer.importFile( _logPath, timeSeries, null ) );
+        assertEquals( 20L, timeSeries.getTimestampMillis( 1 ) );
+        assertEquals( 291.5d, timeSeries.getTemperatureK( 1 ), 0d );
+        assertEquals( 41d, timeSeries.getHumidityRelative( 1 ), 0d );
+        assertEquals( 101010d, timeSeries.getPressurePa( 1 ), 0d );
+    }
+
+    @Test( expected = IOException.class )
+    public void importRejectsLinesLongerThanTheBuffer() throws IOException {
+        writeLog( "1,290,40,101000\n" ); //$NON-NLS-1$
+
+        final EnvironmentLogImporter importer = EnvironmentLogImporter
+                .makeDelimitedImporter( ',', 0, 1, 2, 3 );
+        importer.setBufferSize( 8 );
+        importer.importFile( _logPath, new EnvironmentTimeSeries(), null );
+    }
+
+    @Test
+    public void cancelBeforeImportIsNotLost() throws IOException {
+        writeLog( "1,290,40,101000\n2,291,41,101001\n" ); //$NON-NLS-1$
+
+        final EnvironmentLogImporter importer = EnvironmentLogImporter
+                .makeDelimitedImporter( ',', 0, 1, 2, 3 );
+        final EnvironmentTimeSeries timeSeries = new EnvironmentTimeSeries();
+
+        importer.cancel( importer.getNextImportNumber() );
+        assertEquals( 0L, importer.importFile( _logPath, timeSeries, null ) );
+
+        // The cancel only applies to one import.
+        assertEquals( 2L, importer.importFile( _logPath, timeSeries, null ) );
+    }
+
+    @Test
+    public void cancelStopsTheImportInProgress() throws IOException {
+        final StringBuilder log = new StringBuilder();
+        for ( int i = 0; i < 1000; i++ ) {
+            log.append( i ).append( ",290,40,101000\n" ); //$NON-NLS-1$
+        }
+        writeLog( log.toString() );
+
+        final EnvironmentLogImporter importer = EnvironmentLogImporter
+                .makeDelimitedImporter( ',', 0, 1, 2, 3 );
+        importer.setBufferSize( 64 );
+        final long readingsImported = importer
+                .importFile( _logPath,
+                             new EnvironmentTimeSeries(),
+                             ( bytesRead, totalBytes, readings ) -> importer.cancel() );
+        assertTrue( readingsImported < 1000L );
+    }
+
+    @Test
+    public void lateCancelDoesNotStopTheNextImport() throws IOException {
+        writeLog( "1,290,40,101000\n2,291,41,101001\n" ); //$NON-NLS-1$
+
+        final EnvironmentLogImporter importer = EnvironmentLogImporter
+                .makeDelimitedImporter( ',', 0, 1, 2, 3 );
+        assertEquals( 2L, importer.importFile( _logPath, new EnvironmentTimeSeries(), null ) );
+
+        importer.cancel();
+        assertEquals( 2L, importer.importFile( _logPath, new EnvironmentTimeSeries(), null ) );
+    }
+
+    private void writeLog( final String log ) throws IOException {
+        Files.write( _logPath, log.getBytes( StandardCharsets.US_ASCII ) );
+    }
+
+    // Makes a decimal number with up to 15 significant digits, an optional
+    // sign, fraction and exponent, and an overall exponent small enough for
+    // the parser to be exact.
+    private static String makeRandomNumber( final Random random ) {
+        final int numberOfDigits = 1 + random.nextInt( 15 );
+        final StringBuilder digits = new StringBuilder( numberOfDigits );
+        for ( int i = 0; i < numberOfDigits; i++ ) {
+            digits.append( ( char ) ( '0' + random.nextInt( 10 ) ) );
+        }
+
+        final int fractionDigits = random.nextInt( numberOfDigits + 1 );
+        final StringBuilder text = new StringBuilder();
+        final int sign = random.nextInt( 3 );
+        if ( sign == 1 ) {
+            text.append( '-' );
+        }
+        else if ( sign == 2 ) {
+            text.append( '+' );
+        }
+        text.append( digits, 0, numberOfDigits - fractionDigits );
+        if ( fractionDigits > 0 ) {
+            text.append( '.' ).append( digits, numberOfDigits - fractionDigits, numberOfDigits );
+        }
+
+        if ( random.nextBoolean() ) {
+            final int exponent = random.nextInt( 21 ) - 10;
+            if ( Math.abs( exponent - fractionDigits ) <= 22 ) {
+                text.append( random.nextBoolean() ? 'e' : 'E' ).append( exponent );
+            }
+        }
+
+        return text.toString();
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxPhysics Library
+ *
+ * You should have received a copy of the MIT License along with the FxPhysics
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxphysics
+ */
+package com.mhschmieder.fxphysicscontrols.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.mhschmieder.fxphysicscontrols.model.EnvironmentSnapshot;
+import com.mhschmieder.fxphysicscontrols.model.MeasurementUnits;
+import com.mhschmieder.fxphysicscontrols.model.NaturalEnvironment;
+import com.mhschmieder.jphysics.PressureUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public final class SharedEnvironmentWriterTest {
+
+    // Declare the number of states written while a reader checks them.
+    private static final int   NUMBER_OF_CONCURRENT_WRITES = 200000;
+
+    private Path               _recordPath;
+    private NaturalEnvironment _naturalEnvironment;
+    private MeasurementUnits   _measurementUnits;
+
+    // The writes queued for the JavaFX Application Thread, which the tests
+    // run by hand.
+    private Queue< Runnable >  _writeTasks;
+
+    @Before
+    public void setUp() throws IOException {
+        _recordPath = Files.createTempFile( "sharedEnvironment", ".rec" ); //$NON-NLS-1$ //$NON-NLS-2$
+        _naturalEnvironment = new NaturalEnvironment();
+        _measurementUnits = new MeasurementUnits();
+        _writeTasks = new ArrayDeque<>();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists( _recordPath );
+    }
+
+    @Test
+    public void readersGetTheStateWrittenAtStartup() throws IOException {
+        _naturalEnvironment.setNaturalEnvironment( 300d, 20d, 90000d, false );
+        final SharedEnvironmentWriter writer = makeWriter();
+
+        final SharedEnvironmentReader reader = new SharedEnvironmentReader( _recordPath );
+        final EnvironmentSnapshot environmentSnapshot = reader.read();
+        assertNotNull( environmentSnapshot );
+        assertEquals( writer.getSnapshot(), environmentSnapshot );
+        assertEquals( writer.getVersion(), reader.getVersion() );
+        assertNull( reader.readIfNewer( writer.getVersion() ) );
+
+        writer.close();
+    }
+
+    @Test
+    public void batchedChangesYieldOneWrite() throws IOException {
+        final SharedEnvironmentWriter writer = makeWriter();
+        final SharedEnvironmentReader reader = new SharedEnvironmentReader( _recordPath );
+        final long version = reader.getVersion();
+
+        _naturalEnvironment.setNaturalEnvironment( 280d, 65d, 95000d, true );
+        assertEquals( 1, _writeTasks.size() );
+        assertNull( reader.readIfNewer( version ) );
+        runAll( _writeTasks );
+
+        final EnvironmentSnapshot environmentSnapshot = reader.readIfNewer( version );
+        assertNotNull( environmentSnapshot );
+        assertEquals( version + 1L, environmentSnapshot.getVersion() );
+        assertEquals( 280d, environmentSnapshot.getTemperatureK(), 0d );
+        assertEquals( 65d, environmentSnapshot.getHumidityRelative(), 0d );
+        assertEquals( 95000d, environmentSnapshot.getPressurePa(), 0d );
+        assertTrue( environmentSnapshot.isAirAttenuationApplied() );
+
+        writer.close();
+    }
+
+    @Test
+    public void unitChangesAreWrittenEachTime() throws IOException {
+        final SharedEnvironmentWriter writer = makeWriter();
+        final SharedEnvironmentReader reader = new SharedEnvironmentReader( _recordPath );
+
+        _measurementUnits.setPressureUnit( PressureUnit.KILOPASCALS );
+        runAll( _writeTasks );
+        assertEquals( PressureUnit.KILOPASCALS, reader.read().getPressureUnit() );
+
+        _measurementUnits.setPressureUnit( PressureUnit.MILLIBARS );
+        runAll( _writeTasks );
+        assertEquals( PressureUnit.MILLIBARS, reader.read().getPressureUnit() );
+
+        writer.close();
+    }
+
+    @Test
+    public void closeWritesPendingChangesAndStopsListening() throws IOException {
+        final SharedEnvironmentWriter writer = makeWriter();
+
+        _naturalEnvironment.setTemperatureK( 290d );
+        writer.close();
+        final SharedEnvironmentReader reader = new SharedEnvironmentReader( _recordPath );
+        assertEquals( 290d, reader.read().getTemperatureK(), 0d );
+
+        runAll( _writeTasks );
+        _naturalEnvironment.setTemperatureK( 295d );
+        assertTrue( _writeTasks.isEmpty() );
+    }
+
+    @Test
+    public void restartedWritersCarryTheVersionOn() throws IOException {
+        final SharedEnvironmentWriter writer = makeWriter();
+        _naturalEnvironment.setTemperatureK( 290d );
+        runAll( _writeTasks );
+        final long version = writer.getVersion();
+        writer.close();
+
+        final SharedEnvironmentWriter restartedWriter = makeWriter();
+        assertTrue( restartedWriter.getVersion() > version );
+        restartedWriter.close();
+    }
+
+    @Test
+    public void readersNeverSeeTornStates() throws Exception {
+        // Every state written has all of its values derived from one counter,
+        // starting from zero, so any mix of two states is caught.
+        _naturalEnvironment.setNaturalEnvironment( 200d, 0d, 80000d, false );
+        final SharedEnvironmentWriter writer = makeWriter();
+        final SharedEnvironmentReader reader = new SharedEnvironmentReader( _recordPath );
+
+        final AtomicBoolean writing = new AtomicBoolean( true );
+        final Thread writerThread = new Thread( () -> {
+            for ( int i = 1; i <= NUMBER_OF_CONCURRENT_WRITES; i++ ) {
+                _naturalEnvironment.setNaturalEnvironment( 200d + i, i % 100, 80000d + i, false );
+                runAll( _writeTasks );
+            }
+            writing.set( false );
+        } );
+        writerThread.start();
+
+        long version = -1L;
+        int numberOfReads = 0;
+        while ( writing.get() ) {
+            final EnvironmentSnapshot environmentSnapshot = reader.readIfNewer( version );
+            if ( environmentSnapshot == null ) {
+                continue;
+            }
+            version = environmentSnapshot.getVersion();
+            numberOfReads++;
+
+            final double counter = environmentSnapshot.getTemperatureK() - 200d;
+            assertEquals( counter, environmentSnapshot.getPressurePa() - 80000d, 0d );
+            assertEquals( counter % 100d, environmentSnapshot.getHumidityRelative(), 0d );
+        }
+        writerThread.join();
+
+        assertTrue( numberOfReads > 0 );
+        assertEquals( 200d + NUMBER_OF_CONCURRENT_WRITES, reader.read().getTemperatureK(), 0d );
+        writer.close();
+    }
+
+    private SharedEnvironmentWriter makeWriter() throws IOException {
+        return new SharedEnvironmentWriter( _recordPath,
+                                            _naturalEnvironment,
+                                            _measurementUnits,
+                                            _writeTasks::add );
+    }
+
+    private static void runAll( final Queue< Runnable > tasks ) {
+        Runnable task;
+        while ( ( task = tasks.poll() ) != null ) {
+            task.run();
+        }
+    }
+}
@@ -0,0 +1,283 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxPhysics Library
+ *
+ * You should have received a copy of the MIT License along with the FxPhysics
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxphysics
+ */
+package com.mhschmieder.fxphysicscontrols.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public final class EnvironmentFieldTest {
+
+    // Declare the grid layout of the test field, in meters.
+    private static final double ORIGIN_X  = -10d;
+    private static final double ORIGIN_Y  = 5d;
+    private static final double ORIGIN_Z  = 0d;
+    private static final double SPACING_X = 2d;
+    private static final double SPACING_Y = 4d;
+    private static final double SPACING_Z = 1d;
+    private static final int    POINTS_X  = 4;
+    private static final int    POINTS_Y  = 3;
+    private static final int    POINTS_Z  = 2;
+
+    private Path                _fieldPath;
+
+    @Before
+    public void setUp() throws IOException {
+        _fieldPath = Files.createTempFile( "environmentField", ".enf" ); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists( _fieldPath );
+    }
+
+    @Test
+    public void samplingAtGridPointsIsExact() {
+        final EnvironmentField field = makeLinearField();
+        final double[] values = new double[ 3 ];
+        for ( int indexZ = 0; indexZ < POINTS_Z; indexZ++ ) {
+            for ( int indexY = 0; indexY < POINTS_Y; indexY++ ) {
+                for ( int indexX = 0; indexX < POINTS_X; indexX++ ) {
+                    final double x = ORIGIN_X + ( indexX * SPACING_X );
+                    final double y = ORIGIN_Y + ( indexY * SPACING_Y );
+                    final double z = ORIGIN_Z + ( indexZ * SPACING_Z );
+                    field.sample( x, y, z, values, 0 );
+                    assertEquals( getTemperatureK( x, y, z ), values[ 0 ], 0d );
+                    assertEquals( getHumidityRelative( x, y, z ), values[ 1 ], 0d );
+                    assertEquals( getPressurePa( x, y, z ), values[ 2 ], 0d );
+                }
+            }
+        }
+    }
+
+    @Test
+    public void samplingBetweenGridPointsIsTrilinear() {
+        // Trilinear interpolation reproduces a linear function everywhere.
+        final EnvironmentField field = makeLinearField();
+        final double[] values = new double[ 5 ];
+        final double[][] positions = {
+                { -9.5d, 6d, 0.25d },
+                { -5.3d, 12.9d, 0.9d },
+                { -4.01d, 8.5d, 0.5d } };
+        for ( final double[] position : positions ) {
+            field.sample( position[ 0 ], position[ 1 ], position[ 2 ], values, 2 );
+            assertEquals( getTemperatureK( position[ 0 ], position[ 1 ], position[ 2 ] ),
+                          values[ 2 ],
+                          1.0e-9d );
+            assertEquals( getHumidityRelative( position[ 0 ], position[ 1 ], position[ 2 ] ),
+                          values[ 3 ],
+                          1.0e-9d );
+            assertEquals( getPressurePa( position[ 0 ], position[ 1 ], position[ 2 ] ),
+                          values[ 4 ],
+                          1.0e-9d );
+        }
+    }
+
+    @Test
+    public void samplingOutsideTheGridIsClamped() {
+        final EnvironmentField field = makeLinearField();
+        final double[] values = new double[ 3 ];
+        final double maximumX = ORIGIN_X + ( ( POINTS_X - 1 ) * SPACING_X );
+        final double maximumY = ORIGIN_Y + ( ( POINTS_Y - 1 ) * SPACING_Y );
+        final double maximumZ = ORIGIN_Z + ( ( POINTS_Z - 1 ) * SPACING_Z );
+
+        field.sample( -100d, -100d, -100d, values, 0 );
+        assertEquals( getTemperatureK( ORIGIN_X, ORIGIN_Y, ORIGIN_Z ), values[ 0 ], 0d );
+
+        field.sample( 100d, 100d, 100d, values, 0 );
+        assertEquals( getTemperatureK( maximumX, maximumY, maximumZ ), values[ 0 ], 1.0e-9d );
+    }
+
+    @Test
+    public void twoDimensionalFieldsIgnoreHeight() {
+        final EnvironmentField field = new EnvironmentField( 0d, 0d, 1d, 1d, 2, 2 );
+        field.setValues( 1, 1, 0, 300d, 80d, 100000d );
+
+        final double[] values = new double[ 3 ];
+        field.sample( 0.5d, 0.5d, 50d, values, 0 );
+        assertEquals( ( ( 3d * NaturalEnvironment.TEMPERATURE_K_DEFAULT ) + 300d ) / 4d,
+                      values[ 0 ],
+                      1.0e-9d );
+    }
+
+    @Test
+    public void bulkSamplingMatchesSinglePoints() {
+        // Use enough points to span several parallel chunks.
+        final EnvironmentField field = makeLinearField();
+        final int numberOfPoints = ( 3 * EnvironmentField.CHUNK_SIZE_DEFAULT ) + 17;
+        final double[] x = new double[ numberOfPoints ];
+        final double[] y = new double[ numberOfPoints ];
+        final double[] z = new double[ numberOfPoints ];
+        for ( int i = 0; i < numberOfPoints; i++ ) {
+            x[ i ] = ORIGIN_X + ( ( 7d * i ) % 7.3d );
+            y[ i ] = ORIGIN_Y + ( ( 3d * i ) % 9.1d );
+            z[ i ] = ORIGIN_Z + ( ( 0.1d * i ) % 1.2d );
+        }
+        final double[] temperatureK = new double[ numberOfPoints ];
+        final double[] humidityRelative = new double[ numberOfPoints ];
+        final double[] pressurePa = new double[ numberOfPoints ];
+        field.sample( x, y, z, temperatureK, humidityRelative, pressurePa );
+
+        final double[] values = new double[ 3 ];
+        for ( int i = 0; i < numberOfPoints; i++ ) {
+            field.sample( x[ i ], y[ i ], z[ i ], values, 0 );
+            assertEquals( values[ 0 ], temperatureK[ i ], 0d );
+            assertEquals( values[ 1 ], humidityRelative[ i ], 0d );
+            assertEquals( values[ 2 ], pressurePa[ i ], 0d );
+        }
+    }
+
+    @Test
+    public void samplingIntoAnEnvironmentKeepsItsFlag() {
+        final EnvironmentField field = makeLinearField();
+        final NaturalEnvironment naturalEnvironment = new NaturalEnvironment( 250d,
+                                                                              10d,
+                                                                              90000d,
+                                                                              false );
+        field.sample( -7d, 9d, 0.5d, naturalEnvironment, new double[ 3 ] );
+
+        assertEquals( getTemperatureK( -7d, 9d, 0.5d ),
+                      naturalEnvironment.getTemperatureK(),
+                      1.0e-9d );
+        assertFalse( naturalEnvironment.isAirAttenuationApplied() );
+    }
+
+    @Test
+    public void doublePrecisionRoundTripIsExact() throws IOException {
+        final EnvironmentField field = makeLinearField();
+        field.save( _fieldPath, false );
+
+        final EnvironmentField loadedField = EnvironmentField.load( _fieldPath );
+        assertTrue( loadedField.isMapped() );
+        assertEquals( POINTS_X, loadedField.getPointsX() );
+        assertEquals( POINTS_Y, loadedField.getPointsY() );
+        assertEquals( POINTS_Z, loadedField.getPointsZ() );
+        assertEquals( ORIGIN_Y, loadedField.getOriginY(), 0d );
+        assertEquals( SPACING_X, loadedField.getSpacingX(), 0d );
+
+        assertSameSamples( field, loadedField, 0d );
+    }
+
+    @Test
+    public void singlePrecisionRoundTripIsClose() throws IOException {
+        final EnvironmentField field = makeLinearField();
+        field.save( _fieldPath, true );
+
+        final EnvironmentField loadedField = EnvironmentField.load( _fieldPath );
+        assertTrue( loadedField.isMapped() );
+
+        // Pressure is the largest value, so it sets the float rounding error.
+        assertSameSamples( field, loadedField, 0.01d );
+    }
+
+    @Test( expected = UnsupportedOperationException.class )
+    public void loadedFieldsAreReadOnly() throws IOException {
+        makeLinearField().save( _fieldPath, false );
+
+        EnvironmentField.load( _fieldPath ).fill( 293.15d, 50d, 101325d );
+    }
+
+    @Test( expected = IOException.class )
+    public void loadRejectsInvalidFiles() throws IOException {
+        Files.write( _fieldPath, new byte[] { 'E', 'N', 'F', '1', 0, 0, 0, 9 } );
+
+        EnvironmentField.load( _fieldPath );
+    }
+
+    private static EnvironmentField makeLinearField() {
+        final EnvironmentField field = new EnvironmentField( ORIGIN_X,
+                                                             ORIGIN_Y,
+                                                             ORIGIN_Z,
+                                                             SPACING_X,
+                                                             SPACING_Y,
+                                                             SPACING_Z,
+                                                             POINTS_X,
+                                                             POINTS_Y,
+                                                             POINTS_Z );
+        for ( int indexZ = 0; indexZ < POINTS_Z; indexZ++ ) {
+            for ( int indexY = 0; indexY < POINTS_Y; indexY++ ) {
+                for ( int indexX = 0; indexX < POINTS_X; indexX++ ) {
+                    final double x = ORIGIN_X + ( indexX * SPACING_X );
+                    final double y = ORIGIN_Y + ( indexY * SPACING_Y );
+                    final double z = ORIGIN_Z + ( indexZ * SPACING_Z );
+                    field.setValues( indexX,
+                                     indexY,
+                                     indexZ,
+                                     getTemperatureK( x, y, z ),
+                                     getHumidityRelative( x, y, z ),
+                                     getPressurePa( x, y, z ) );
+                }
+            }
+        }
+
+        return field;
+    }
+
+    private static void assertSameSamples( final EnvironmentField expectedField,
+                                           final EnvironmentField actualField,
+                                           final double tolerance ) {
+        final double[] expectedValues = new double[ 3 ];
+        final double[] actualValues = new double[ 3 ];
+        for ( double x = ORIGIN_X; x < 0d; x += 0.7d ) {
+            for ( double y = ORIGIN_Y; y < 15d; y += 1.3d ) {
+                for ( double z = ORIGIN_Z; z < 1.5d; z += 0.3d ) {
+                    expectedField.sample( x, y, z, expectedValues, 0 );
+                    actualField.sample( x, y, z, actualValues, 0 );
+                    for ( int i = 0; i < 3; i++ ) {
+                        assertEquals( expectedValues[ i ], actualValues[ i ], tolerance );
+                    }
+                }
+            }
+        }
+    }
+
+    // These are the linear test functions, in canonical units.
+
+    private static double getTemperatureK( final double x, final double y, final double z ) {
+        return 280d + ( 0.5d * x ) + ( 0.25d * y ) - ( 2d * z );
+    }
+
+    private static double getHumidityRelative( final double x, final double y, final double z ) {
+        return 50d - x + ( 0.5d * y ) + ( 3d * z );
+    }
+
+    private static double getPressurePa( final double x, final double y, final double z ) {
+        return 101325d + ( 10d * x ) - ( 5d * y ) - ( 12d * z );
+    }
+}
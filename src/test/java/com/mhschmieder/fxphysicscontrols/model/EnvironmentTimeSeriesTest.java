@@ -0,0 +1,320 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxPhysics Library
+ *
+ * You should have received a copy of the MIT License along with the FxPhysics
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxphysics
+ */
+package com.mhschmieder.fxphysicscontrols.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public final class EnvironmentTimeSeriesTest {
+
+    @Test
+    public void binarySearchesHandleDuplicatesAndEdges() {
+        // Timestamps: 10, 20, 20, 20, 30
+        final EnvironmentTimeSeries timeSeries = makeTimeSeries( false,
+                                                                 10L,
+                                                                 20L,
+                                                                 20L,
+                                                                 20L,
+                                                                 30L );
+
+        assertEquals( 0, timeSeries.getFirstIndexAtOrAfter( Long.MIN_VALUE ) );
+        assertEquals( 0, timeSeries.getFirstIndexAtOrAfter( 10L ) );
+        assertEquals( 1, timeSeries.getFirstIndexAtOrAfter( 11L ) );
+        assertEquals( 1, timeSeries.getFirstIndexAtOrAfter( 20L ) );
+        assertEquals( 4, timeSeries.getFirstIndexAtOrAfter( 21L ) );
+        assertEquals( 5, timeSeries.getFirstIndexAtOrAfter( 31L ) );
+        assertEquals( 5, timeSeries.getFirstIndexAtOrAfter( Long.MAX_VALUE ) );
+
+        assertEquals( -1, timeSeries.getLastIndexAtOrBefore( Long.MIN_VALUE ) );
+        assertEquals( -1, timeSeries.getLastIndexAtOrBefore( 9L ) );
+        assertEquals( 0, timeSeries.getLastIndexAtOrBefore( 10L ) );
+        assertEquals( 0, timeSeries.getLastIndexAtOrBefore( 19L ) );
+        assertEquals( 3, timeSeries.getLastIndexAtOrBefore( 20L ) );
+        assertEquals( 3, timeSeries.getLastIndexAtOrBefore( 29L ) );
+        assertEquals( 4, timeSeries.getLastIndexAtOrBefore( 30L ) );
+        assertEquals( 4, timeSeries.getLastIndexAtOrBefore( Long.MAX_VALUE ) );
+    }
+
+    @Test
+    public void binarySearchesOnAnEmptyLog() {
+        final EnvironmentTimeSeries timeSeries = new EnvironmentTimeSeries();
+
+        assertEquals( 0, timeSeries.getFirstIndexAtOrAfter( 0L ) );
+        assertEquals( -1, timeSeries.getLastIndexAtOrBefore( 0L ) );
+        assertEquals( -1, timeSeries.getLastIndexAtOrBefore( Long.MAX_VALUE ) );
+        assertFalse( timeSeries.applyLatest( new NaturalEnvironment() ) );
+    }
+
+    @Test
+    public void offHeapLogKeepsReadingsWhenGrowing() {
+        assertGrowthKeepsReadings( true );
+    }
+
+    @Test
+    public void heapLogKeepsReadingsWhenGrowing() {
+        assertGrowthKeepsReadings( false );
+    }
+
+    @Test
+    public void bulkAppendGrowsPastCapacity() {
+        final int numberOfReadings = 100;
+        final long[] timestampsMillis = new long[ numberOfReadings + 2 ];
+        final double[] temperatureK = new double[ numberOfReadings + 2 ];
+        final double[] humidityRelative = new double[ numberOfReadings + 2 ];
+        final double[] pressurePa = new double[ numberOfReadings + 2 ];
+        for ( int i = 0; i < timestampsMillis.length; i++ ) {
+            timestampsMillis[ i ] = 1000L * i;
+            temperatureK[ i ] = getTemperatureK( i );
+            humidityRelative[ i ] = getHumidityRelative( i );
+            pressurePa[ i ] = getPressurePa( i );
+        }
+
+        final EnvironmentTimeSeries timeSeries = new EnvironmentTimeSeries( 4, true );
+        timeSeries.append( timestampsMillis,
+                           temperatureK,
+                           humidityRelative,
+                           pressurePa,
+                           1,
+                           numberOfReadings );
+
+        assertEquals( numberOfReadings, timeSeries.getSize() );
+        for ( int i = 0; i < numberOfReadings; i++ ) {
+            assertEquals( 1000L * ( i + 1 ), timeSeries.getTimestampMillis( i ) );
+            assertEquals( getTemperatureK( i + 1 ), timeSeries.getTemperatureK( i ), 0d );
+        }
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void appendRejectsOutOfOrderReadings() {
+        final EnvironmentTimeSeries timeSeries = makeTimeSeries( true, 10L, 20L );
+
+        timeSeries.append( 15L, 293.15d, 50d, 101325d );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void bulkAppendRejectsOutOfOrderReadings() {
+        final EnvironmentTimeSeries timeSeries = makeTimeSeries( false, 10L );
+
+        timeSeries.append( new long[] { 20L, 5L },
+                           new double[ 2 ],
+                           new double[ 2 ],
+                           new double[ 2 ],
+                           0,
+                           2 );
+    }
+
+    @Test
+    public void rangesIncludeTheStartAndExcludeTheEnd() {
+        final EnvironmentTimeSeries timeSeries = makeTimeSeries( true,
+                                                                 10L,
+                                                                 20L,
+                                                                 20L,
+                                                                 30L,
+                                                                 40L );
+
+        final int[] visitCount = new int[ 1 ];
+        assertEquals( 3,
+                      timeSeries.forEach( 20L, 40L, ( timestampMillis,
+                                                      temperatureK,
+                                                      humidityRelative,
+                                                      pressurePa ) -> {
+                          assertTrue( ( timestampMillis >= 20L ) && ( timestampMillis < 40L ) );
+                          visitCount[ 0 ]++;
+                      } ) );
+        assertEquals( 3, visitCount[ 0 ] );
+        assertEquals( 0, timeSeries.forEach( 40L, 20L, ( timestampMillis,
+                                                         temperatureK,
+                                                         humidityRelative,
+                                                         pressurePa ) -> visitCount[ 0 ]++ ) );
+
+        // The copy is limited by the room left in the destination arrays.
+        final long[] timestampsMillis = new long[ 4 ];
+        final double[] temperatureK = new double[ 4 ];
+        final double[] humidityRelative = new double[ 4 ];
+        final double[] pressurePa = new double[ 4 ];
+        assertEquals( 2,
+                      timeSeries.copyRange( 0L,
+                                            Long.MAX_VALUE,
+                                            timestampsMillis,
+                                            temperatureK,
+                                            humidityRelative,
+                                            pressurePa,
+                                            2 ) );
+        assertEquals( 10L, timestampsMillis[ 2 ] );
+        assertEquals( 20L, timestampsMillis[ 3 ] );
+        assertEquals( getTemperatureK( 1 ), temperatureK[ 3 ], 0d );
+        assertEquals( getPressurePa( 1 ), pressurePa[ 3 ], 0d );
+    }
+
+    @Test
+    public void applyAtUsesTheLastReadingAtOrBefore() {
+        final EnvironmentTimeSeries timeSeries = makeTimeSeries( true, 10L, 20L, 30L );
+        final NaturalEnvironment naturalEnvironment = new NaturalEnvironment( 250d,
+                                                                              10d,
+                                                                              90000d,
+                                                                              false );
+
+        assertFalse( timeSeries.applyAt( 5L, naturalEnvironment ) );
+        assertEquals( 250d, naturalEnvironment.getTemperatureK(), 0d );
+
+        assertTrue( timeSeries.applyAt( 25L, naturalEnvironment ) );
+        assertEquals( getTemperatureK( 1 ), naturalEnvironment.getTemperatureK(), 0d );
+        assertEquals( getHumidityRelative( 1 ), naturalEnvironment.getHumidityRelative(), 0d );
+        assertFalse( naturalEnvironment.isAirAttenuationApplied() );
+    }
+
+    private static void assertGrowthKeepsReadings( final boolean offHeap ) {
+        final int numberOfReadings = 1000;
+        final EnvironmentTimeSeries timeSeries = new EnvironmentTimeSeries( 4, offHeap );
+        for ( int i = 0; i < numberOfReadings; i++ ) {
+            timeSeries.append( 1000L * i,
+                               getTemperatureK( i ),
+                               getHumidityRelative( i ),
+                               getPressurePa( i ) );
+        }
+
+        assertEquals( offHeap, timeSeries.isOffHeap() );
+        assertEquals( numberOfReadings, timeSeries.getSize() );
+        for ( int i = 0; i < numberOfReadings; i++ ) {
+            assertEquals( 1000L * i, timeSeries.getTimestampMillis( i ) );
+            assertEquals( getTemperatureK( i ), timeSeries.getTemperatureK( i ), 0d );
+            assertEquals( getHumidityRelative( i ), timeSeries.getHumidityRelative( i ), 0d );
+            assertEquals( getPressurePa( i ), timeSeries.getPressurePa( i ), 0d );
+        }
+    }
+
+    @Test
+    public void visitorsRunWithoutTheLock() {
+        final EnvironmentTimeSeries timeSeries = makeTimeSeries( false, 10L, 20L );
+
+        // Another thread must be able to append while a visitor is running.
+        final Thread appender = new Thread( () -> timeSeries.append( 30L, 280d, 50d, 100000d ) );
+        final boolean[] appended = new boolean[ 1 ];
+        timeSeries.forEach( Long.MIN_VALUE, Long.MAX_VALUE, ( timestampMillis,
+                                                              temperatureK,
+                                                              humidityRelative,
+                                                              pressurePa ) -> {
+            if ( timestampMillis == 10L ) {
+                appended[ 0 ] = startAndJoin( appender );
+            }
+        } );
+
+        assertTrue( appended[ 0 ] );
+        assertEquals( 3, timeSeries.getSize() );
+    }
+
+    @Test
+    public void clearingDoesNotDisturbVisitors() {
+        final EnvironmentTimeSeries timeSeries = makeTimeSeries( true, 10L, 20L, 30L );
+
+        final int[] numberOfReadings = new int[ 1 ];
+        timeSeries.forEach( Long.MIN_VALUE, Long.MAX_VALUE, ( timestampMillis,
+                                                              temperatureK,
+                                                              humidityRelative,
+                                                              pressurePa ) -> {
+            if ( numberOfReadings[ 0 ] == 0 ) {
+                timeSeries.clear();
+                timeSeries.append( 0L, 0d, 0d, 0d );
+                timeSeries.append( 0L, 0d, 0d, 0d );
+            }
+            assertEquals( 10L * ( numberOfReadings[ 0 ] + 1 ), timestampMillis );
+            assertEquals( getPressurePa( numberOfReadings[ 0 ] ), pressurePa, 0d );
+            numberOfReadings[ 0 ]++;
+        } );
+
+        assertEquals( 3, numberOfReadings[ 0 ] );
+        assertEquals( 2, timeSeries.getSize() );
+    }
+
+    @Test
+    public void environmentListenersRunWithoutTheLock() {
+        final EnvironmentTimeSeries timeSeries = makeTimeSeries( false, 10L, 20L );
+        final NaturalEnvironment naturalEnvironment = new NaturalEnvironment();
+
+        // Another thread must be able to append while the listeners run.
+        final Thread appender = new Thread( () -> timeSeries.append( 30L, 280d, 50d, 100000d ) );
+        final boolean[] appended = new boolean[ 1 ];
+        naturalEnvironment.naturalEnvironmentChangedProperty().addListener( observable -> {
+            if ( !appended[ 0 ] ) {
+                appended[ 0 ] = startAndJoin( appender );
+            }
+        } );
+        assertTrue( timeSeries.applyLatest( naturalEnvironment ) );
+
+        assertTrue( appended[ 0 ] );
+        assertEquals( 3, timeSeries.getSize() );
+        assertEquals( getPressurePa( 1 ), naturalEnvironment.getPressurePa(), 0d );
+    }
+
+    private static EnvironmentTimeSeries makeTimeSeries( final boolean offHeap,
+                                                         final long... timestampsMillis ) {
+        final EnvironmentTimeSeries timeSeries = new EnvironmentTimeSeries( 2, offHeap );
+        for ( int i = 0; i < timestampsMillis.length; i++ ) {
+            timeSeries.append( timestampsMillis[ i ],
+                               getTemperatureK( i ),
+                               getHumidityRelative( i ),
+                               getPressurePa( i ) );
+        }
+
+        return timeSeries;
+    }
+
+    // Runs a thread and waits a while for it, returning whether it finished,
+    // which it can't if a lock that it needs is held against it.
+    private static boolean startAndJoin( final Thread thread ) {
+        thread.start();
+        try {
+            thread.join( 2000L );
+        }
+        catch ( final InterruptedException e ) {
+            Thread.currentThread().interrupt();
+        }
+
+        return !thread.isAlive();
+    }
+
+    // These are distinct reading values for each index, in canonical units.
+
+    private static double getTemperatureK( final int index ) {
+        return 273.15d + ( 0.01d * index );
+    }
+
+    private static double getHumidityRelative( final int index ) {
+        return ( 0.1d * index ) % 100d;
+    }
+
+    private static double getPressurePa( final int index ) {
+        return 100000d + index;
+    }
+}
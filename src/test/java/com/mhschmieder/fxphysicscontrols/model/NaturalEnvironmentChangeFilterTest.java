@@ -0,0 +1,117 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxPhysics Library
+ *
+ * You should have received a copy of the MIT License along with the FxPhysics
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxphysics
+ */
+package com.mhschmieder.fxphysicscontrols.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public final class NaturalEnvironmentChangeFilterTest {
+
+    @Test
+    public void smallNudgesAreIgnoredUntilTheyAddUp() {
+        final NaturalEnvironment naturalEnvironment = new NaturalEnvironment();
+        final NaturalEnvironmentChangeFilter filter =
+                new NaturalEnvironmentChangeFilter( naturalEnvironment, 1d, 5d, 100d );
+        final double startTemperatureK = naturalEnvironment.getTemperatureK();
+
+        // Four nudges of 0.3 K only pass the 1 K tolerance on the last one.
+        for ( int i = 1; i <= 3; i++ ) {
+            naturalEnvironment.setTemperatureK( startTemperatureK + ( 0.3d * i ) );
+            assertEquals( 0, filter.getSignificantChangeCount() );
+        }
+        naturalEnvironment.setTemperatureK( startTemperatureK + 1.2d );
+        assertEquals( 1, filter.getSignificantChangeCount() );
+        assertFalse( filter.isSignificantlyChanged() );
+
+        // The baseline moved with the significant change.
+        naturalEnvironment.setTemperatureK( startTemperatureK + 1.5d );
+        assertEquals( 1, filter.getSignificantChangeCount() );
+    }
+
+    @Test
+    public void everyFieldIsMeasuredAgainstItsOwnTolerance() {
+        final NaturalEnvironment naturalEnvironment = new NaturalEnvironment();
+        final NaturalEnvironmentChangeFilter filter =
+                new NaturalEnvironmentChangeFilter( naturalEnvironment, 1d, 5d, 100d );
+
+        naturalEnvironment.setHumidityRelative( naturalEnvironment.getHumidityRelative() + 4d );
+        naturalEnvironment.setPressurePa( naturalEnvironment.getPressurePa() + 90d );
+        assertEquals( 0, filter.getSignificantChangeCount() );
+
+        // The humidity change takes the pressure nudge into the baseline.
+        naturalEnvironment.setHumidityRelative( naturalEnvironment.getHumidityRelative() + 2d );
+        assertEquals( 1, filter.getSignificantChangeCount() );
+
+        naturalEnvironment.setPressurePa( naturalEnvironment.getPressurePa() + 20d );
+        assertEquals( 1, filter.getSignificantChangeCount() );
+
+        naturalEnvironment.setPressurePa( naturalEnvironment.getPressurePa() + 90d );
+        assertEquals( 2, filter.getSignificantChangeCount() );
+
+        naturalEnvironment
+                .setAirAttenuationApplied( !naturalEnvironment.isAirAttenuationApplied() );
+        assertEquals( 3, filter.getSignificantChangeCount() );
+    }
+
+    @Test
+    public void resynchronizingMovesTheBaselineQuietly() {
+        final NaturalEnvironment naturalEnvironment = new NaturalEnvironment();
+        final NaturalEnvironmentChangeFilter filter =
+                new NaturalEnvironmentChangeFilter( naturalEnvironment, 1d, 5d, 100d );
+        final double startTemperatureK = naturalEnvironment.getTemperatureK();
+
+        naturalEnvironment.setTemperatureK( startTemperatureK + 0.8d );
+        filter.resynchronize();
+        assertFalse( filter.isSignificantlyChanged() );
+
+        naturalEnvironment.setTemperatureK( startTemperatureK + 1.6d );
+        assertEquals( 0, filter.getSignificantChangeCount() );
+
+        naturalEnvironment.setTemperatureK( startTemperatureK + 1.8d );
+        assertEquals( 1, filter.getSignificantChangeCount() );
+    }
+
+    @Test
+    public void disposedFilterStopsCounting() {
+        final NaturalEnvironment naturalEnvironment = new NaturalEnvironment();
+        final NaturalEnvironmentChangeFilter filter =
+                new NaturalEnvironmentChangeFilter( naturalEnvironment );
+
+        filter.dispose();
+        naturalEnvironment.setTemperatureK( naturalEnvironment.getTemperatureK() + 10d );
+
+        assertEquals( 0, filter.getSignificantChangeCount() );
+        assertTrue( filter.isSignificantlyChanged() );
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020, 2026 Mark Schmieder
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ * This file is part of the FxPhysics Library
+ *
+ * You should have received a copy of the MIT License along with the FxPhysics
+ * Library. If not, see <https://opensource.org/licenses/MIT>.
+ *
+ * Project: https://github.com/mhschmieder/fxphysics
+ */
+package com.mhschmieder.fxphysicscontrols.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+
+import org.junit.Test;
+
+public final class NaturalEnvironmentKeyTest {
+
+    @Test
+    public void nearbyEnvironmentsShareAKey() {
+        // Differences well within half a default step round to the same key.
+        final NaturalEnvironmentKey key = NaturalEnvironmentKey
+                .of( new NaturalEnvironment( 293.15d, 50d, 101325d, true ) );
+        final NaturalEnvironmentKey nearbyKey = NaturalEnvironmentKey
+                .of( new NaturalEnvironment( 293.152d, 50.03d, 101325.3d, true ) );
+
+        assertEquals( key, nearbyKey );
+        assertEquals( key.hashCode(), nearbyKey.hashCode() );
+    }
+
+    @Test
+    public void environmentsAStepApartHaveDifferentKeys() {
+        final NaturalEnvironmentKey key = makeDefaultKey( 293.15d, 50d, 101325d );
+
+        assertNotEquals( key, makeDefaultKey( 293.16d, 50d, 101325d ) );
+        assertNotEquals( key, makeDefaultKey( 293.15d, 50.1d, 101325d ) );
+        assertNotEquals( key, makeDefaultKey( 293.15d, 50d, 101326d ) );
+    }
+
+    @Test
+    public void airAttenuationFlagIsPartOfTheKey() {
+        final NaturalEnvironmentKey key = NaturalEnvironmentKey
+                .of( 293.15d, 50d, 101325d, true, 0.01d, 0.1d, 1d );
+        final NaturalEnvironmentKey otherKey = NaturalEnvironmentKey
+                .of( 293.15d, 50d, 101325d, false, 0.01d, 0.1d, 1d );
+
+        assertNotEquals( key, otherKey );
+        assertFalse( otherKey.isAirAttenuationApplied() );
+    }
+
+    @Test
+    public void valuesRoundToTheNearestStep() {
+        // With coarse steps, values on either side of a step boundary split,
+        // while values on the same side share a key.
+        final NaturalEnvironmentKey key = makeCoarseKey( 293.0d, 50d, 101000d );
+
+        assertEquals( key, makeCoarseKey( 293.4d, 52.4d, 101049d ) );
+        assertEquals( key, makeCoarseKey( 292.6d, 47.6d, 100951d ) );
+        assertNotEquals( key, makeCoarseKey( 293.6d, 50d, 101000d ) );
+        assertNotEquals( key, makeCoarseKey( 293.0d, 52.6d, 101000d ) );
+        assertNotEquals( key, makeCoarseKey( 293.0d, 50d, 101051d ) );
+    }
+
+    @Test
+    public void customStepsApplyToEnvironments() {
+        final NaturalEnvironment naturalEnvironment = new NaturalEnvironment( 293.15d,
+                                                                              50d,
+                                                                              101325d,
+                                                                              true );
+
+        assertEquals( NaturalEnvironmentKey.of( 293.15d, 50d, 101325d, true, 0.5d, 2d, 50d ),
+                      NaturalEnvironmentKey.of( naturalEnvironment, 0.5d, 2d, 50d ) );
+    }
+
+    private static NaturalEnvironmentKey makeDefaultKey( final double temperatureK,
+                                                         final double humidityRelative,
+                                                         final double pressurePa ) {
+        return NaturalEnvironmentKey.of( temperatureK,
+                                         humidityRelative,
+                                         pressurePa,
+                                         true,
+                                         NaturalEnvironmentKey.TEMPERATURE_STEP_K_DEFAULT,
+                                         NaturalEnvironmentKey.HUMIDITY_STEP_RELATIVE_DEFAULT,
+                                         NaturalEnvironmentKey.PRESSURE_STEP_PA_DEFAULT );
+    }
+
+    private static NaturalEnvironmentKey makeCoarseKey( final double temperatureK,
+                                                        final double humidityRelative,
+                                                        final double pressurePa ) {
+        return NaturalEnvironmentKey.of( temperatureK,
+                                         humidityRelative,
+                                         pressurePa,
+                                         true,
+                                         1d,
+                                         5d,
+                                         100d );
+    }
+}